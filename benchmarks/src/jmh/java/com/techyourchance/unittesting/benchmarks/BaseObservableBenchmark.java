@@ -0,0 +1,103 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.ConcurrentSetObservable;
+import com.techyourchance.unittesting.common.BaseObservable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification of all registered listeners, the way use cases do it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BaseObservableBenchmark {
+
+    @Param({"1", "2", "10", "100"})
+    public int mListenersCount;
+
+    private ObservableImpl mObservable;
+    private ConcurrentSetObservableImpl mConcurrentSetObservable;
+    private ListenerImpl mListener;
+
+    @Setup
+    public void setup() {
+        mObservable = new ObservableImpl();
+        mConcurrentSetObservable = new ConcurrentSetObservableImpl();
+        for (int i = 0; i < mListenersCount; i++) {
+            mListener = new ListenerImpl();
+            mObservable.registerListener(mListener);
+            mConcurrentSetObservable.registerListener(mListener);
+        }
+    }
+
+    @Benchmark
+    public long notifyListeners() {
+        mObservable.notifyListeners(1);
+        return mListener.mSum;
+    }
+
+    @Benchmark
+    public long forEachListener() {
+        mObservable.notifyListenersWithForEach(1);
+        return mListener.mSum;
+    }
+
+    @Benchmark
+    public long concurrentSetNotifyListeners() {
+        mConcurrentSetObservable.notifyListeners(1);
+        return mListener.mSum;
+    }
+
+    public interface Listener {
+        void onEvent(int value);
+    }
+
+    private static class ObservableImpl extends BaseObservable<Listener> {
+
+        private static final ListenerNotification<Listener, Integer> NOTIFY_EVENT =
+                new ListenerNotification<Listener, Integer>() {
+                    @Override
+                    public void notify(Listener listener, Integer value) {
+                        listener.onEvent(value);
+                    }
+                };
+
+        private void notifyListeners(int value) {
+            for (Listener listener : getListeners()) {
+                listener.onEvent(value);
+            }
+        }
+
+        private void notifyListenersWithForEach(int value) {
+            forEachListener(NOTIFY_EVENT, value);
+        }
+    }
+
+    private static class ConcurrentSetObservableImpl extends ConcurrentSetObservable<Listener> {
+        private void notifyListeners(int value) {
+            for (Listener listener : getListeners()) {
+                listener.onEvent(value);
+            }
+        }
+    }
+
+    private static class ListenerImpl implements Listener {
+
+        private long mSum;
+
+        @Override
+        public void onEvent(int value) {
+            mSum += value;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.benchmarks.fakes.FakeFetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
+import com.techyourchance.unittesting.questions.FetchLastActiveQuestionsUseCase;
+import com.techyourchance.unittesting.questions.Question;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of fetched schemas to questions and notification of listeners, with and without
+ * recording of the mapping latency
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FetchLastActiveQuestionsUseCaseBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int mQuestionsCount;
+
+    @Param({"false", "true"})
+    public boolean mMetricsEnabled;
+
+    private InMemoryMetricsSink mMetricsSink;
+
+    private FetchLastActiveQuestionsUseCase mFetchLastActiveQuestionsUseCase;
+    private ListenerImpl mListener;
+
+    @Setup
+    public void setup() {
+        mMetricsSink = new InMemoryMetricsSink();
+        mFetchLastActiveQuestionsUseCase = new FetchLastActiveQuestionsUseCase(
+                new FakeFetchLastActiveQuestionsEndpoint(BenchmarkData.getQuestionSchemas(mQuestionsCount)),
+                null,
+                new TimeProvider(),
+                null,
+                null,
+                UseCaseExecutors.synchronous(),
+                null,
+                mMetricsEnabled ? new ApiMetrics(mMetricsSink, new TimeProvider()) : ApiMetrics.disabled()
+        );
+        mListener = new ListenerImpl();
+        mFetchLastActiveQuestionsUseCase.registerListener(mListener);
+    }
+
+    @Benchmark
+    public List<Question> fetchLastActiveQuestionsAndNotify() {
+        mFetchLastActiveQuestionsUseCase.fetchLastActiveQuestionsAndNotify();
+        return mListener.mQuestions;
+    }
+
+    @TearDown
+    public void tearDown() {
+        long mappingsCount = mMetricsSink
+                .getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP)
+                .getCount();
+        if (mMetricsEnabled != mappingsCount > 0) {
+            throw new IllegalStateException("unexpected number of recorded mappings: " + mappingsCount);
+        }
+    }
+
+    private static class ListenerImpl implements FetchLastActiveQuestionsUseCase.Listener {
+
+        private List<Question> mQuestions;
+
+        @Override
+        public void onLastActiveQuestionsFetched(List<Question> questions, long fetchedTimestamp) {
+            mQuestions = questions;
+        }
+
+        @Override
+        public void onLastActiveQuestionsFetchFailed() {
+            throw new IllegalStateException("fake endpoint can't fail");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.benchmarks.fakes.FakeFetchQuestionDetailsEndpoint;
+import com.techyourchance.unittesting.benchmarks.fakes.FakeTimeProvider;
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.questions.FetchQuestionDetailsUseCase;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit and cache miss paths of question details fetching
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FetchQuestionDetailsUseCaseBenchmark {
+
+    private static final QuestionSchema QUESTION = BenchmarkData.getQuestionSchema(0);
+
+    private FakeTimeProvider mTimeProvider;
+    private FetchQuestionDetailsUseCase mFetchQuestionDetailsUseCase;
+    private ListenerImpl mListener;
+
+    @Setup
+    public void setup() {
+        mTimeProvider = new FakeTimeProvider();
+        mFetchQuestionDetailsUseCase = new FetchQuestionDetailsUseCase(
+                new FakeFetchQuestionDetailsEndpoint(QUESTION), mTimeProvider);
+        mListener = new ListenerImpl();
+        mFetchQuestionDetailsUseCase.registerListener(mListener);
+        mFetchQuestionDetailsUseCase.fetchQuestionDetailsAndNotify(QUESTION.getId());
+    }
+
+    @Benchmark
+    public QuestionDetails cacheHit() {
+        mFetchQuestionDetailsUseCase.fetchQuestionDetailsAndNotify(QUESTION.getId());
+        return mListener.mQuestionDetails;
+    }
+
+    @Benchmark
+    public QuestionDetails cacheMiss() {
+        // cached entry expires, so it's fetched from the endpoint and cached again
+        mTimeProvider.advance(Constants.QUESTION_DETAILS_FRESH_PERIOD_MS);
+        mFetchQuestionDetailsUseCase.fetchQuestionDetailsAndNotify(QUESTION.getId());
+        return mListener.mQuestionDetails;
+    }
+
+    private static class ListenerImpl implements FetchQuestionDetailsUseCase.Listener {
+
+        private QuestionDetails mQuestionDetails;
+
+        @Override
+        public void onQuestionDetailsFetched(QuestionDetails questionDetails) {
+            mQuestionDetails = questionDetails;
+        }
+
+        @Override
+        public void onQuestionDetailsFetchFailed() {
+            throw new IllegalStateException("fake endpoint can't fail");
+        }
+    }
+}
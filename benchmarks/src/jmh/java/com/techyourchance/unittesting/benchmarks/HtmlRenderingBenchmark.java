@@ -0,0 +1,54 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.common.html.HtmlTextRenderer;
+import com.techyourchance.unittesting.common.html.HtmlTokenizer;
+import com.techyourchance.unittesting.common.html.RenderedText;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering question bodies with HtmlTextRenderer. Bodies contain paragraphs with inline
+ * code, links and entities, followed by a code block, which is typical for StackOverflow posts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HtmlRenderingBenchmark {
+
+    @Param({"1", "6", "50"})
+    public int mParagraphsCount;
+
+    private String mBody;
+    private HtmlTextRenderer mHtmlTextRenderer;
+
+    @Setup
+    public void setup() {
+        mBody = BenchmarkData.getQuestionBody(0, mParagraphsCount);
+        mHtmlTextRenderer = new HtmlTextRenderer();
+    }
+
+    @Benchmark
+    public int tokenize() {
+        HtmlTokenizer tokenizer = new HtmlTokenizer(mBody);
+        int tokensCount = 0;
+        while (tokenizer.next() != HtmlTokenizer.Token.END_OF_INPUT) {
+            tokensCount++;
+        }
+        return tokensCount;
+    }
+
+    @Benchmark
+    public RenderedText render() {
+        return mHtmlTextRenderer.render(mBody);
+    }
+}
@@ -0,0 +1,109 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.benchmarks.fakes.FakeTimeProvider;
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.questions.cache.LruQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and write latency of the question details cache with bodies held verbatim and held
+ * compressed, and the latency of freshness checks, which don't decompress bodies. The memory
+ * taken by the cached entries is printed at the end of each trial, such that it can be weighed
+ * against the extra latency of reads. This memory is the cache's own estimate, as returned by
+ * {@link LruQuestionDetailsCache#getSizeBytes()}, rather than a measured retained size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionDetailsCompressionBenchmark {
+
+    private static final int ENTRIES_COUNT = Constants.QUESTION_DETAILS_CACHE_MAX_ENTRIES;
+
+    // 6 paragraphs is a typical question (~1 KB), 60 a long one (~10 KB), 300 a huge one (~50 KB)
+    @Param({"6", "60", "300"})
+    public int mBodyParagraphsCount;
+
+    @Param({"false", "true"})
+    public boolean mCompressed;
+
+    private List<QuestionDetails> mQuestionDetails;
+    private LruQuestionDetailsCache mCache;
+    private int mNextIndex;
+
+    @Setup
+    public void setup() {
+        mQuestionDetails = new ArrayList<>(ENTRIES_COUNT);
+        for (int i = 0; i < ENTRIES_COUNT; i++) {
+            mQuestionDetails.add(new QuestionDetails(
+                    String.valueOf(50000000 + i),
+                    "How do I make question number " + i + " run faster on Android?",
+                    BenchmarkData.getQuestionBody(i, mBodyParagraphsCount)
+            ));
+        }
+        mCache = new LruQuestionDetailsCache(
+                new FakeTimeProvider(),
+                Constants.QUESTION_DETAILS_FRESH_PERIOD_MS,
+                ENTRIES_COUNT,
+                Long.MAX_VALUE,
+                mCompressed
+                        ? Constants.QUESTION_DETAILS_CACHE_COMPRESSION_THRESHOLD_CHARS
+                        : LruQuestionDetailsCache.NO_COMPRESSION
+        );
+        for (QuestionDetails questionDetails : mQuestionDetails) {
+            mCache.put(questionDetails);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(String.format(
+                Locale.US,
+                "%n%d entries take an estimated %.1f KB",
+                mCache.getSize(),
+                mCache.getSizeBytes() / 1024.0
+        ));
+    }
+
+    @Benchmark
+    public QuestionDetails get() {
+        QuestionDetailsCache.Entry entry = mCache.get(nextQuestionDetails().getId());
+        return entry.getQuestionDetails();
+    }
+
+    /**
+     * Freshness check done for every visible question by the prefetcher
+     */
+    @Benchmark
+    public long getCachedTimestamp() {
+        return mCache.getCachedTimestamp(nextQuestionDetails().getId());
+    }
+
+    @Benchmark
+    public long put() {
+        mCache.put(nextQuestionDetails());
+        return mCache.getSizeBytes();
+    }
+
+    private QuestionDetails nextQuestionDetails() {
+        QuestionDetails questionDetails = mQuestionDetails.get(mNextIndex);
+        mNextIndex = (mNextIndex + 1) % ENTRIES_COUNT;
+        return questionDetails;
+    }
+}
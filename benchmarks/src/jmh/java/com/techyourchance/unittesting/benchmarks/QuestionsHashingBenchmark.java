@@ -0,0 +1,76 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.questions.Question;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing and comparison of questions, as done by lookups and by the comparison of a freshly
+ * fetched list with the displayed one. Equal questions are distinct instances, same as when
+ * they come from different responses. Run with "-prof gc" to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionsHashingBenchmark {
+
+    @Param({"100", "1000"})
+    public int mQuestionsCount;
+
+    private List<Question> mQuestions;
+    private List<Question> mFetchedQuestions;
+    private Set<Question> mQuestionsSet;
+
+    @Setup
+    public void setup() {
+        mQuestions = BenchmarkData.getQuestions(mQuestionsCount);
+        mFetchedQuestions = BenchmarkData.getQuestions(mQuestionsCount);
+        mQuestionsSet = new HashSet<>(mQuestions);
+    }
+
+    @Benchmark
+    public int lookUpAll() {
+        int found = 0;
+        for (Question question : mFetchedQuestions) {
+            if (mQuestionsSet.contains(question)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean compareLists() {
+        return mQuestions.equals(mFetchedQuestions);
+    }
+
+    @Benchmark
+    public int hashList() {
+        return mFetchedQuestions.hashCode();
+    }
+
+    /**
+     * Ids are read by each bind and by each cache lookup
+     */
+    @Benchmark
+    public int getIds() {
+        int length = 0;
+        for (Question question : mQuestions) {
+            length += question.getId().length();
+        }
+        return length;
+    }
+}
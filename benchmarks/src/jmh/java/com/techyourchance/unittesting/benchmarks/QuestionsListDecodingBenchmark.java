@@ -0,0 +1,160 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.networking.questions.QuestionsListResponseSchema;
+import com.techyourchance.unittesting.networking.questions.QuestionsListStreamingParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of questions list responses. Run with "-prof gc" to compare allocations.
+ * <p>
+ * "-prof gc" reports the total amount allocated only, which is the same for both ways of decoding.
+ * Therefore, the peak heap retained while decoding is printed at the end of each trial. It's
+ * measured by an untimed decode whose input is sampled at {@link #HEAP_PROBES_COUNT} evenly
+ * spaced points (and at its end); at each point a full GC is requested, and the used heap is
+ * compared with the one measured once decoding is over and its result is unreachable. The first
+ * full GCs of a trial don't release everything the timed iterations left behind, therefore they're
+ * requested before the untimed decode starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionsListDecodingBenchmark {
+
+    private static final int HEAP_PROBES_COUNT = 10;
+
+    @Param({"20", "100", "1000"})
+    public int mQuestionsCount;
+
+    private Gson mGson;
+    private TypeAdapter<QuestionsListResponseSchema> mResponseAdapter;
+    private String mJson;
+
+    @Setup
+    public void setup() {
+        mGson = new Gson();
+        mResponseAdapter = mGson.getAdapter(QuestionsListResponseSchema.class);
+        mJson = BenchmarkData.getQuestionsListJson(mGson, mQuestionsCount);
+    }
+
+    @TearDown
+    public void tearDown(BenchmarkParams params) throws IOException {
+        boolean bindWholeResponse = params.getBenchmark().endsWith("bindWholeResponse");
+        usedHeapAfterGc(); // releases what the timed iterations left behind
+        HeapProbingReader reader = new HeapProbingReader(new StringReader(mJson));
+        if (bindWholeResponse) {
+            bindWholeResponse(reader);
+        } else {
+            parseStreaming(reader, null);
+        }
+        long retainedBytes = reader.getPeakUsedBytes() - usedHeapAfterGc();
+        System.out.println(String.format(
+                Locale.US,
+                "%n%s of %d questions retains at most %.1f KB",
+                bindWholeResponse ? "bindWholeResponse" : "parseStreaming",
+                mQuestionsCount,
+                retainedBytes / 1024.0
+        ));
+    }
+
+    /**
+     * Same as GsonConverterFactory does for Retrofit
+     */
+    @Benchmark
+    public QuestionsListResponseSchema bindWholeResponse() throws IOException {
+        return bindWholeResponse(new StringReader(mJson));
+    }
+
+    @Benchmark
+    public void parseStreaming(Blackhole blackhole) throws IOException {
+        parseStreaming(new StringReader(mJson), blackhole);
+    }
+
+    private QuestionsListResponseSchema bindWholeResponse(Reader reader) throws IOException {
+        return mResponseAdapter.read(mGson.newJsonReader(reader));
+    }
+
+    /**
+     * @param blackhole consumer of the questions, or null if they should be dropped
+     */
+    private void parseStreaming(Reader reader, @Nullable Blackhole blackhole) throws IOException {
+        QuestionsListStreamingParser parser = new QuestionsListStreamingParser(mGson, reader);
+        QuestionSchema question;
+        while ((question = parser.nextQuestion()) != null) {
+            if (blackhole != null) {
+                blackhole.consume(question);
+            }
+        }
+        parser.close();
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        // objects with finalizers are released by a later GC, once the finalizers have run
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Measures the used heap at evenly spaced points of the input
+     */
+    private class HeapProbingReader extends FilterReader {
+
+        private final int mProbeIntervalChars = mJson.length() / HEAP_PROBES_COUNT + 1;
+        private int mCharsUntilProbe = mProbeIntervalChars;
+        private long mPeakUsedBytes;
+
+        private HeapProbingReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, Math.min(length, mCharsUntilProbe));
+            if (read == -1) {
+                probe();
+                return read;
+            }
+            mCharsUntilProbe -= read;
+            if (mCharsUntilProbe == 0) {
+                probe();
+                mCharsUntilProbe = mProbeIntervalChars;
+            }
+            return read;
+        }
+
+        private long getPeakUsedBytes() {
+            return mPeakUsedBytes;
+        }
+
+        private void probe() {
+            mPeakUsedBytes = Math.max(mPeakUsedBytes, usedHeapAfterGc());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.screens.questionslist.QuestionsDiffCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of diffing consecutive questions lists, as done by QuestionsRecyclerAdapter on the
+ * background thread. The new list resembles a typical refresh: a couple of newly active questions
+ * on top, one question bumped to the top, one edited question and the oldest questions gone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionsListDiffBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int mQuestionsCount;
+
+    private List<Question> mOldQuestions;
+    private List<Question> mNewQuestions;
+    private CountingListUpdateCallback mListUpdateCallback;
+
+    @Setup
+    public void setup() {
+        mOldQuestions = BenchmarkData.getQuestions(mQuestionsCount);
+
+        List<Question> newQuestions = new ArrayList<>(mOldQuestions.subList(0, mQuestionsCount - 2));
+        Question bumped = newQuestions.remove(mQuestionsCount / 2);
+        newQuestions.add(0, bumped);
+        Question edited = newQuestions.get(mQuestionsCount / 4);
+        newQuestions.set(mQuestionsCount / 4, new Question(edited.getId(), edited.getTitle() + " (edited)"));
+        newQuestions.add(0, new Question("new1", "Newly active question 1"));
+        newQuestions.add(0, new Question("new2", "Newly active question 2"));
+        mNewQuestions = newQuestions;
+
+        mListUpdateCallback = new CountingListUpdateCallback();
+    }
+
+    @Benchmark
+    public int diffDetectMoves() {
+        DiffUtil.calculateDiff(new QuestionsDiffCallback(mOldQuestions, mNewQuestions), true)
+                .dispatchUpdatesTo(mListUpdateCallback);
+        return mListUpdateCallback.mUpdatesCount;
+    }
+
+    @Benchmark
+    public int diffWithoutMoves() {
+        DiffUtil.calculateDiff(new QuestionsDiffCallback(mOldQuestions, mNewQuestions), false)
+                .dispatchUpdatesTo(mListUpdateCallback);
+        return mListUpdateCallback.mUpdatesCount;
+    }
+
+    @Benchmark
+    public int diffUnchanged() {
+        DiffUtil.calculateDiff(new QuestionsDiffCallback(mOldQuestions, mOldQuestions))
+                .dispatchUpdatesTo(mListUpdateCallback);
+        return mListUpdateCallback.mUpdatesCount;
+    }
+
+    private static class CountingListUpdateCallback implements ListUpdateCallback {
+
+        private int mUpdatesCount;
+
+        @Override
+        public void onInserted(int position, int count) {
+            mUpdatesCount++;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            mUpdatesCount++;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mUpdatesCount++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            mUpdatesCount++;
+        }
+    }
+}
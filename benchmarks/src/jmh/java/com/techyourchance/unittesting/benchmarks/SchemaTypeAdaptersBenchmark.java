@@ -0,0 +1,71 @@
+package com.techyourchance.unittesting.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.techyourchance.unittesting.benchmarks.fakes.BenchmarkData;
+import com.techyourchance.unittesting.networking.questions.QuestionsListResponseSchema;
+import com.techyourchance.unittesting.networking.questions.SchemaTypeAdapterFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of questions list responses by Gson's reflective adapters versus the hand written
+ * {@link SchemaTypeAdapterFactory}. The "firstUse" benchmarks include the construction of the
+ * adapters, which is what the first request after the startup pays. Run with "-prof gc" to
+ * compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaTypeAdaptersBenchmark {
+
+    @Param({"20", "100"})
+    public int mQuestionsCount;
+
+    private TypeAdapter<QuestionsListResponseSchema> mReflectiveAdapter;
+    private TypeAdapter<QuestionsListResponseSchema> mHandWrittenAdapter;
+    private String mJson;
+
+    @Setup
+    public void setup() {
+        mReflectiveAdapter = new Gson().getAdapter(QuestionsListResponseSchema.class);
+        mHandWrittenAdapter = newHandWrittenGson().getAdapter(QuestionsListResponseSchema.class);
+        mJson = BenchmarkData.getQuestionsListJson(new Gson(), mQuestionsCount);
+    }
+
+    @Benchmark
+    public QuestionsListResponseSchema reflective() throws IOException {
+        return mReflectiveAdapter.fromJson(new StringReader(mJson));
+    }
+
+    @Benchmark
+    public QuestionsListResponseSchema handWritten() throws IOException {
+        return mHandWrittenAdapter.fromJson(new StringReader(mJson));
+    }
+
+    @Benchmark
+    public QuestionsListResponseSchema reflectiveFirstUse() throws IOException {
+        return new Gson().getAdapter(QuestionsListResponseSchema.class).fromJson(new StringReader(mJson));
+    }
+
+    @Benchmark
+    public QuestionsListResponseSchema handWrittenFirstUse() throws IOException {
+        return newHandWrittenGson().getAdapter(QuestionsListResponseSchema.class).fromJson(new StringReader(mJson));
+    }
+
+    private Gson newHandWrittenGson() {
+        return new GsonBuilder().registerTypeAdapterFactory(new SchemaTypeAdapterFactory()).create();
+    }
+}
@@ -0,0 +1,59 @@
+package com.techyourchance.unittesting.benchmarks.fakes;
+
+import com.google.gson.Gson;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.networking.questions.QuestionsListResponseSchema;
+import com.techyourchance.unittesting.questions.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic data of realistic size, such that results are comparable between runs
+ */
+public class BenchmarkData {
+
+    private static final int BODY_PARAGRAPHS_COUNT = 6;
+
+    public static QuestionSchema getQuestionSchema(int index) {
+        return new QuestionSchema(
+                "How do I make question number " + index + " run faster on Android?",
+                String.valueOf(50000000 + index),
+                getQuestionBody(index, BODY_PARAGRAPHS_COUNT)
+        );
+    }
+
+    public static List<QuestionSchema> getQuestionSchemas(int count) {
+        List<QuestionSchema> questionSchemas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            questionSchemas.add(getQuestionSchema(i));
+        }
+        return questionSchemas;
+    }
+
+    public static List<Question> getQuestions(int count) {
+        List<Question> questions = new ArrayList<>(count);
+        for (QuestionSchema questionSchema : getQuestionSchemas(count)) {
+            questions.add(new Question(questionSchema.getId(), questionSchema.getTitle()));
+        }
+        return questions;
+    }
+
+    public static String getQuestionsListJson(Gson gson, int count) {
+        return gson.toJson(new QuestionsListResponseSchema(getQuestionSchemas(count)));
+    }
+
+    /**
+     * @return HTML body in the format returned by StackExchange API, followed by a code block
+     */
+    public static String getQuestionBody(int index, int paragraphsCount) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < paragraphsCount; i++) {
+            body.append("<p>Paragraph ").append(i).append(" of question ").append(index)
+                    .append(" with <code>someCode()</code>, a <a href=\"https://stackoverflow.com/q/")
+                    .append(index).append("\">link</a> and &quot;escaped&quot; text.</p>\n");
+        }
+        body.append("<pre><code>for (int i = 0; i &lt; n; i++) {\n    doWork(i);\n}\n</code></pre>");
+        return body.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.techyourchance.unittesting.benchmarks.fakes;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The original implementation of BaseObservable, kept as a reference point for benchmarks
+ */
+public abstract class ConcurrentSetObservable<LISTENER_CLASS> {
+
+    // thread-safe set of listeners
+    private final Set<LISTENER_CLASS> mListeners = Collections.newSetFromMap(
+            new ConcurrentHashMap<LISTENER_CLASS, Boolean>(1));
+
+    public final void registerListener(LISTENER_CLASS listener) {
+        mListeners.add(listener);
+    }
+
+    public final void unregisterListener(LISTENER_CLASS listener) {
+        mListeners.remove(listener);
+    }
+
+    protected final Set<LISTENER_CLASS> getListeners() {
+        return Collections.unmodifiableSet(mListeners);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.techyourchance.unittesting.benchmarks.fakes;
+
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+
+import java.util.List;
+
+/**
+ * Synchronously delivers pre-built questions without touching the network
+ */
+public class FakeFetchLastActiveQuestionsEndpoint extends FetchLastActiveQuestionsEndpoint {
+
+    private final List<QuestionSchema> mQuestions;
+
+    public FakeFetchLastActiveQuestionsEndpoint(List<QuestionSchema> questions) {
+        super(null);
+        mQuestions = questions;
+    }
+
+    @Override
+    public void fetchLastActiveQuestions(Listener listener, CancellationToken cancellationToken) {
+        listener.onQuestionsFetched(mQuestions);
+    }
+}
@@ -0,0 +1,23 @@
+package com.techyourchance.unittesting.benchmarks.fakes;
+
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.questions.FetchQuestionDetailsEndpoint;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+
+/**
+ * Synchronously delivers a pre-built question without touching the network
+ */
+public class FakeFetchQuestionDetailsEndpoint extends FetchQuestionDetailsEndpoint {
+
+    private final QuestionSchema mQuestion;
+
+    public FakeFetchQuestionDetailsEndpoint(QuestionSchema question) {
+        super(null);
+        mQuestion = question;
+    }
+
+    @Override
+    public void fetchQuestionDetails(String questionId, CancellationToken cancellationToken, Listener listener) {
+        listener.onQuestionDetailsFetched(mQuestion);
+    }
+}
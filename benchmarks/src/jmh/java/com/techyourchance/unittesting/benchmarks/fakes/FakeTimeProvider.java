@@ -0,0 +1,17 @@
+package com.techyourchance.unittesting.benchmarks.fakes;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+public class FakeTimeProvider extends TimeProvider {
+
+    private long mCurrentTimestamp;
+
+    @Override
+    public long getCurrentTimestamp() {
+        return mCurrentTimestamp;
+    }
+
+    public void advance(long periodMs) {
+        mCurrentTimestamp += periodMs;
+    }
+}
@@ -1,26 +1,98 @@
 package com.techyourchance.unittesting.common;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
 public abstract class BaseObservable<LISTENER_CLASS> {
 
-    // thread-safe set of listeners
-    private final Set<LISTENER_CLASS> mListeners = Collections.newSetFromMap(
-            new ConcurrentHashMap<LISTENER_CLASS, Boolean>(1));
+    public interface ListenerNotification<LISTENER_CLASS, ARGUMENT> {
+        void notify(LISTENER_CLASS listener, ARGUMENT argument);
+    }
+
+    private static final Object[] NO_LISTENERS = new Object[0];
+
+    private final Object mLock = new Object();
 
+    // copy-on-write array of listeners: it's replaced on every modification, so it can be
+    // iterated concurrently with modifications without locking or copying
+    private volatile Object[] mListeners = NO_LISTENERS;
 
     public final void registerListener(LISTENER_CLASS listener) {
-        mListeners.add(listener);
+        boolean first;
+        synchronized (mLock) {
+            Object[] listeners = mListeners;
+            if (indexOf(listeners, listener) >= 0) {
+                return;
+            }
+            Object[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+            newListeners[listeners.length] = listener;
+            mListeners = newListeners;
+            first = listeners.length == 0;
+        }
+        if (first) {
+            onFirstListenerRegistered();
+        }
     }
 
     public final void unregisterListener(LISTENER_CLASS listener) {
-        mListeners.remove(listener);
+        boolean last;
+        synchronized (mLock) {
+            Object[] listeners = mListeners;
+            int index = indexOf(listeners, listener);
+            if (index < 0) {
+                return;
+            }
+            Object[] newListeners = new Object[listeners.length - 1];
+            System.arraycopy(listeners, 0, newListeners, 0, index);
+            System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+            mListeners = newListeners;
+            last = newListeners.length == 0;
+        }
+        if (last) {
+            onLastListenerUnregistered();
+        }
+    }
+
+    /**
+     * Called after the number of registered listeners changes from zero to one
+     */
+    protected void onFirstListenerRegistered() {}
+
+    /**
+     * Called after the number of registered listeners changes from one to zero
+     */
+    protected void onLastListenerUnregistered() {}
+
+    /**
+     * @return snapshot of the registered listeners. Prefer
+     *         {@link #forEachListener(ListenerNotification, Object)} on hot paths.
+     */
+    @SuppressWarnings("unchecked")
+    protected final List<LISTENER_CLASS> getListeners() {
+        return (List<LISTENER_CLASS>) Collections.unmodifiableList(Arrays.asList(mListeners));
+    }
+
+    /**
+     * Invoke the notification for each listener registered at the moment of the call, without
+     * allocating any objects. Keep notifications in constants to avoid allocating them too.
+     */
+    @SuppressWarnings("unchecked")
+    protected final <ARGUMENT> void forEachListener(ListenerNotification<LISTENER_CLASS, ARGUMENT> notification,
+                                                    ARGUMENT argument) {
+        Object[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            notification.notify((LISTENER_CLASS) listeners[i], argument);
+        }
     }
 
-    protected final Set<LISTENER_CLASS> getListeners() {
-        return Collections.unmodifiableSet(mListeners);
+    private static int indexOf(Object[] listeners, Object listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
 }
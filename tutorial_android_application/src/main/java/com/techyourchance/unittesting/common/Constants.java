@@ -4,6 +4,38 @@ public final class Constants {
     private Constants() {}
 
     public static final int QUESTIONS_LIST_PAGE_SIZE = 20;
+    public static final int QUESTIONS_LIST_MAX_PAGES_IN_MEMORY = 5;
+
+    public static final long QUESTIONS_LIST_FRESH_PERIOD_MS = 10000;
+    public static final long QUESTIONS_LIST_STALE_PERIOD_MS = 5 * 60000;
+
+    public static final long QUESTION_DETAILS_FRESH_PERIOD_MS = 60000;
+    public static final long QUESTION_DETAILS_STALE_PERIOD_MS = 10 * 60000;
+    public static final int QUESTION_DETAILS_CACHE_MAX_ENTRIES = 100;
+    public static final long QUESTION_DETAILS_CACHE_MAX_SIZE_BYTES = 4 * 1024 * 1024;
+    public static final int QUESTION_DETAILS_CACHE_COMPRESSION_THRESHOLD_CHARS = 4 * 1024;
+    public static final long QUESTION_DETAILS_BATCH_WINDOW_MS = 20;
+    public static final int QUESTION_DETAILS_MAX_BATCH_SIZE = 100;
+    public static final int QUESTION_DETAILS_PREFETCH_COUNT = 5;
+    public static final int QUESTION_DETAILS_MAX_CONCURRENT_PREFETCHES = 3;
+
+    public static final int HTML_RENDER_CACHE_MAX_ENTRIES = 200;
+
+    public static final long REQUESTS_CANCELLATION_GRACE_PERIOD_MS = 5000;
+
+    public static final long HTTP_CACHE_MAX_SIZE_BYTES = 10 * 1024 * 1024;
+    public static final int HTTP_MAX_IDLE_CONNECTIONS = 5;
+    public static final long HTTP_KEEP_ALIVE_DURATION_MS = 5 * 60000;
+    public static final int HTTP_MAX_ATTEMPTS = 3;
+    public static final long HTTP_RETRY_INITIAL_DELAY_MS = 500;
+    public static final long HTTP_RETRY_MAX_DELAY_MS = 8000;
+    public static final int HTTP_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    public static final long HTTP_CIRCUIT_BREAKER_OPEN_PERIOD_MS = 30000;
+
+    public static final int API_RATE_LIMIT_BURST = 10;
+    public static final double API_RATE_LIMIT_PER_SECOND = 5;
+    public static final int API_FOREGROUND_RESERVED_REQUESTS = 5;
+    public static final int API_BACKGROUND_MIN_QUOTA_REMAINING = 1000;
 
     public static final String BASE_URL = "https://api.stackexchange.com/2.2/";
 
@@ -3,6 +3,7 @@ package com.techyourchance.unittesting.common;
 import android.app.Application;
 
 import com.techyourchance.unittesting.common.dependencyinjection.CompositionRoot;
+import com.techyourchance.unittesting.common.startup.StartupTracer;
 
 public class CustomApplication extends Application {
 
@@ -11,7 +12,11 @@ public class CustomApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-        mCompositionRoot = new CompositionRoot();
+        mCompositionRoot = new CompositionRoot(this);
+        StartupTracer startupTracer = mCompositionRoot.getStartupTracer();
+        startupTracer.beginPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        mCompositionRoot.prewarmInBackground();
+        startupTracer.endPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
     }
 
     public CompositionRoot getCompositionRoot() {
@@ -0,0 +1,39 @@
+package com.techyourchance.unittesting.common;
+
+import android.support.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Deduplicates equal strings, such that e.g. the title of a question that was fetched by several
+ * responses is held in memory once. Unlike {@link String#intern()}, strings which are no longer
+ * referenced from outside of this interner are garbage collected.
+ * This class is thread safe.
+ */
+public class StringInterner {
+
+    private final WeakHashMap<String, WeakReference<String>> mStrings = new WeakHashMap<>();
+
+    /**
+     * @return a string equal to the given one; the same instance for all equal strings interned
+     *         while that instance is still referenced
+     */
+    @Nullable
+    public synchronized String intern(@Nullable String string) {
+        if (string == null) {
+            return null;
+        }
+        WeakReference<String> internedReference = mStrings.get(string);
+        String interned = internedReference == null ? null : internedReference.get();
+        if (interned == null) {
+            mStrings.put(string, new WeakReference<>(string));
+            interned = string;
+        }
+        return interned;
+    }
+
+    public synchronized int size() {
+        return mStrings.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import android.support.v4.app.FragmentActivity;
+import android.view.LayoutInflater;
+
+import com.techyourchance.unittesting.screens.common.ViewMvcFactory;
+import com.techyourchance.unittesting.screens.common.controllers.BackPressDispatcher;
+import com.techyourchance.unittesting.screens.common.fragmentframehelper.FragmentFrameHelper;
+import com.techyourchance.unittesting.screens.common.fragmentframehelper.FragmentFrameWrapper;
+import com.techyourchance.unittesting.screens.common.navdrawer.NavDrawerHelper;
+import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
+import com.techyourchance.unittesting.screens.common.toastshelper.ToastsHelper;
+
+/**
+ * Objects which live as long as a single activity, shared by the activity and all its fragments.
+ */
+public class ActivityCompositionRoot {
+
+    private final CompositionRoot mCompositionRoot;
+    private final FragmentActivity mActivity;
+    private final Scope mScope;
+
+    private final Binding<LayoutInflater> mLayoutInflater;
+    private final Binding<ViewMvcFactory> mViewMvcFactory;
+    private final Binding<FragmentFrameHelper> mFragmentFrameHelper;
+    private final Binding<ScreensNavigator> mScreensNavigator;
+    private final Binding<ToastsHelper> mToastsHelper;
+
+    public ActivityCompositionRoot(CompositionRoot compositionRoot, FragmentActivity activity) {
+        mCompositionRoot = compositionRoot;
+        mActivity = activity;
+        mScope = new Scope(Scope.ACTIVITY, compositionRoot.getBindingCostReport());
+
+        mLayoutInflater = new Binding<LayoutInflater>(mScope, "LayoutInflater") {
+            @Override
+            protected LayoutInflater create() {
+                return LayoutInflater.from(getActivity());
+            }
+        };
+
+        mViewMvcFactory = new Binding<ViewMvcFactory>(mScope, "ViewMvcFactory") {
+            @Override
+            protected ViewMvcFactory create() {
+                return new ViewMvcFactory(
+                        getLayoutInflater(),
+                        getNavDrawerHelper(),
+                        mCompositionRoot.getListDiffExecutor(),
+                        mCompositionRoot.getMainThreadExecutor(),
+                        mCompositionRoot.getCachingHtmlRenderer()
+                );
+            }
+        };
+
+        mFragmentFrameHelper = new Binding<FragmentFrameHelper>(mScope, "FragmentFrameHelper") {
+            @Override
+            protected FragmentFrameHelper create() {
+                return new FragmentFrameHelper(
+                        getActivity(), getFragmentFrameWrapper(), getActivity().getSupportFragmentManager());
+            }
+        };
+
+        mScreensNavigator = new Binding<ScreensNavigator>(mScope, "ScreensNavigator") {
+            @Override
+            protected ScreensNavigator create() {
+                return new ScreensNavigator(getFragmentFrameHelper());
+            }
+        };
+
+        mToastsHelper = new Binding<ToastsHelper>(mScope, "ToastsHelper") {
+            @Override
+            protected ToastsHelper create() {
+                return new ToastsHelper(getActivity());
+            }
+        };
+    }
+
+    public CompositionRoot getCompositionRoot() {
+        return mCompositionRoot;
+    }
+
+    private FragmentActivity getActivity() {
+        return mActivity;
+    }
+
+    private LayoutInflater getLayoutInflater() {
+        return mLayoutInflater.get();
+    }
+
+    public ViewMvcFactory getViewMvcFactory() {
+        return mViewMvcFactory.get();
+    }
+
+    private NavDrawerHelper getNavDrawerHelper() {
+        return (NavDrawerHelper) getActivity();
+    }
+
+    public ScreensNavigator getScreensNavigator() {
+        return mScreensNavigator.get();
+    }
+
+    private FragmentFrameHelper getFragmentFrameHelper() {
+        return mFragmentFrameHelper.get();
+    }
+
+    private FragmentFrameWrapper getFragmentFrameWrapper() {
+        return (FragmentFrameWrapper) getActivity();
+    }
+
+    public BackPressDispatcher getBackPressDispatcher() {
+        return (BackPressDispatcher) getActivity();
+    }
+
+    public ToastsHelper getToastsHelper() {
+        return mToastsHelper.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+/**
+ * Lazily constructs a single instance per scope, and records the cost of its construction.
+ * This class is thread safe: the instance is constructed once, even if it's requested
+ * concurrently. Bindings lock only while constructing, in the order of their dependencies,
+ * therefore an acyclic graph can't deadlock.
+ */
+public abstract class Binding<T> {
+
+    private final Scope mScope;
+    private final String mName;
+
+    private volatile T mInstance;
+
+    public Binding(Scope scope, String name) {
+        mScope = scope;
+        mName = name;
+    }
+
+    public T get() {
+        T instance = mInstance;
+        if (instance != null) {
+            return instance;
+        }
+        synchronized (this) {
+            if (mInstance == null) {
+                mInstance = constructAndRecordCost();
+            }
+            return mInstance;
+        }
+    }
+
+    /**
+     * @return whether the instance has already been constructed
+     */
+    public boolean isConstructed() {
+        return mInstance != null;
+    }
+
+    /**
+     * Construct the instance; invoked at most once (unless it throws)
+     */
+    protected abstract T create();
+
+    private T constructAndRecordCost() {
+        BindingCostReport bindingCostReport = mScope.getBindingCostReport();
+        bindingCostReport.beginConstruction();
+        boolean constructed = false;
+        try {
+            T instance = create();
+            constructed = true;
+            return instance;
+        } finally {
+            bindingCostReport.endConstruction(mScope.getName(), mName, constructed);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records how long it took to construct each binding of all scopes, such that the cost of
+ * startup (and of opening each screen) can be attributed to individual objects.
+ * Bindings are constructed within each other, therefore both the total construction time and the
+ * time spent in the binding itself (excluding the bindings it pulled in) are recorded.
+ */
+public class BindingCostReport {
+
+    public static class Entry {
+
+        private final String mScope;
+        private final String mName;
+        private final long mTotalNanos;
+        private final long mSelfNanos;
+        private final String mThreadName;
+
+        public Entry(String scope, String name, long totalNanos, long selfNanos, String threadName) {
+            mScope = scope;
+            mName = name;
+            mTotalNanos = totalNanos;
+            mSelfNanos = selfNanos;
+            mThreadName = threadName;
+        }
+
+        public String getScope() {
+            return mScope;
+        }
+
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * @return construction time, including construction of dependencies that weren't already
+         *         constructed
+         */
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        /**
+         * @return construction time, excluding construction of dependencies
+         */
+        public long getSelfNanos() {
+            return mSelfNanos;
+        }
+
+        public String getThreadName() {
+            return mThreadName;
+        }
+    }
+
+    private final TimeProvider mTimeProvider;
+
+    private final List<Entry> mEntries = new ArrayList<>();
+
+    // constructions in progress on each thread; the innermost one is at the head
+    private final ThreadLocal<Deque<Construction>> mConstructions = new ThreadLocal<Deque<Construction>>() {
+        @Override
+        protected Deque<Construction> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    public BindingCostReport(TimeProvider timeProvider) {
+        mTimeProvider = timeProvider;
+    }
+
+    /**
+     * Must be followed by {@link #endConstruction(String, String, boolean)} on the same thread
+     */
+    void beginConstruction() {
+        mConstructions.get().push(new Construction(mTimeProvider.getNanoTime()));
+    }
+
+    /**
+     * @param constructed false if the construction failed, in which case it isn't recorded
+     */
+    void endConstruction(String scope, String name, boolean constructed) {
+        Deque<Construction> constructions = mConstructions.get();
+        Construction construction = constructions.pop();
+        long totalNanos = mTimeProvider.getNanoTime() - construction.mStartNanos;
+        Construction parentConstruction = constructions.peek();
+        if (parentConstruction != null) {
+            parentConstruction.mDependenciesNanos += totalNanos;
+        }
+        if (!constructed) {
+            return;
+        }
+        Entry entry = new Entry(
+                scope,
+                name,
+                totalNanos,
+                totalNanos - construction.mDependenciesNanos,
+                Thread.currentThread().getName()
+        );
+        synchronized (this) {
+            mEntries.add(entry);
+        }
+    }
+
+    /**
+     * @return entries in the order in which bindings finished construction
+     */
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(mEntries);
+    }
+
+    public synchronized long getTotalSelfNanos() {
+        long totalSelfNanos = 0;
+        for (Entry entry : mEntries) {
+            totalSelfNanos += entry.getSelfNanos();
+        }
+        return totalSelfNanos;
+    }
+
+    /**
+     * @return human readable report, with the most expensive bindings first
+     */
+    @Override
+    public String toString() {
+        List<Entry> entries = getEntries();
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry lhs, Entry rhs) {
+                return Long.compare(rhs.getSelfNanos(), lhs.getSelfNanos());
+            }
+        });
+        StringBuilder report = new StringBuilder(String.format(
+                Locale.US, "%d bindings constructed in %.2f ms%n", entries.size(), getTotalSelfNanos() / 1e6));
+        for (Entry entry : entries) {
+            report.append(String.format(
+                    Locale.US,
+                    "%8.2f ms self %8.2f ms total  %s/%s [%s]%n",
+                    entry.getSelfNanos() / 1e6,
+                    entry.getTotalNanos() / 1e6,
+                    entry.getScope(),
+                    entry.getName(),
+                    entry.getThreadName()
+            ));
+        }
+        return report.toString();
+    }
+
+    private static class Construction {
+        private final long mStartNanos;
+        private long mDependenciesNanos;
+
+        private Construction(long startNanos) {
+            mStartNanos = startNanos;
+        }
+    }
+}
@@ -1,45 +1,641 @@
 package com.techyourchance.unittesting.common.dependencyinjection;
 
+import android.app.Application;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.MainThreadExecutor;
+import com.techyourchance.unittesting.common.StringInterner;
+import com.techyourchance.unittesting.common.html.HtmlTextRenderer;
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.OutstandingRequests;
+import com.techyourchance.unittesting.common.usecases.SynchronousExecutor;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.HttpStats;
+import com.techyourchance.unittesting.networking.ResponseWrapperConverterFactory;
+import com.techyourchance.unittesting.networking.ResponseWrapperListener;
 import com.techyourchance.unittesting.networking.StackoverflowApi;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.HttpMetricsCollector;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsConverterFactory;
+import com.techyourchance.unittesting.networking.questions.BatchingFetchQuestionDetailsEndpoint;
+import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
 import com.techyourchance.unittesting.networking.questions.FetchQuestionDetailsEndpoint;
+import com.techyourchance.unittesting.networking.questions.SchemaTypeAdapterFactory;
+import com.techyourchance.unittesting.networking.questions.StreamingFetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.networking.quota.ApiQuota;
+import com.techyourchance.unittesting.networking.quota.RateLimitingInterceptor;
+import com.techyourchance.unittesting.networking.quota.RequestBudget;
+import com.techyourchance.unittesting.networking.quota.TokenBucket;
+import com.techyourchance.unittesting.networking.resilience.CircuitBreaker;
+import com.techyourchance.unittesting.networking.resilience.ExponentialBackoff;
+import com.techyourchance.unittesting.networking.resilience.ResilienceInterceptor;
+import com.techyourchance.unittesting.networking.resilience.ServerBackoff;
+import com.techyourchance.unittesting.questions.FetchLastActiveQuestionsUseCase;
 import com.techyourchance.unittesting.questions.FetchQuestionDetailsUseCase;
+import com.techyourchance.unittesting.questions.cache.LruQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.StoreBackedQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.storage.AppendOnlyQuestionsStore;
+import com.techyourchance.unittesting.questions.storage.QuestionsStore;
+import com.techyourchance.unittesting.screens.common.html.CachingHtmlRenderer;
+import com.techyourchance.unittesting.screens.common.html.SpannedHtmlRenderer;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class CompositionRoot {
 
-    private Retrofit mRetrofit;
-    private FetchQuestionDetailsUseCase mFetchQuestionDetailsUseCase;
+    private static final String QUESTIONS_STORE_DIRECTORY_NAME = "questions";
+    private static final String HTTP_CACHE_DIRECTORY_NAME = "http";
 
-    private Retrofit getRetrofit() {
-        if (mRetrofit == null) {
-            mRetrofit = new Retrofit.Builder()
+    private final Application mApplication;
+    private final TimeProvider mTimeProvider = new TimeProvider();
+    private final BindingCostReport mBindingCostReport = new BindingCostReport(mTimeProvider);
+    private final Scope mScope = new Scope(Scope.APPLICATION, mBindingCostReport);
+    private final StartupTracer mStartupTracer = new StartupTracer(mTimeProvider);
+
+    private final Binding<Gson> mGson = new Binding<Gson>(mScope, "Gson") {
+        @Override
+        protected Gson create() {
+            return new GsonBuilder()
+                    .registerTypeAdapterFactory(new SchemaTypeAdapterFactory(new StringInterner()))
+                    .create();
+        }
+    };
+
+    private final Binding<Cache> mHttpCache = new Binding<Cache>(mScope, "HttpCache") {
+        @Override
+        protected Cache create() {
+            return new Cache(
+                    new File(mApplication.getCacheDir(), HTTP_CACHE_DIRECTORY_NAME),
+                    Constants.HTTP_CACHE_MAX_SIZE_BYTES
+            );
+        }
+    };
+
+    private final Binding<ConnectionPool> mConnectionPool =
+            new Binding<ConnectionPool>(mScope, "ConnectionPool") {
+                @Override
+                protected ConnectionPool create() {
+                    return new ConnectionPool(
+                            Constants.HTTP_MAX_IDLE_CONNECTIONS,
+                            Constants.HTTP_KEEP_ALIVE_DURATION_MS,
+                            TimeUnit.MILLISECONDS
+                    );
+                }
+            };
+
+    private final Binding<HttpStats> mHttpStats = new Binding<HttpStats>(mScope, "HttpStats") {
+        @Override
+        protected HttpStats create() {
+            return new HttpStats(getHttpCache(), getConnectionPool());
+        }
+    };
+
+    private final Binding<InMemoryMetricsSink> mMetricsSink =
+            new Binding<InMemoryMetricsSink>(mScope, "MetricsSink") {
+                @Override
+                protected InMemoryMetricsSink create() {
+                    return new InMemoryMetricsSink();
+                }
+            };
+
+    private final Binding<ApiMetrics> mApiMetrics = new Binding<ApiMetrics>(mScope, "ApiMetrics") {
+        @Override
+        protected ApiMetrics create() {
+            return new ApiMetrics(getMetricsSink(), getTimeProvider());
+        }
+    };
+
+    private final Binding<HttpMetricsCollector> mHttpMetricsCollector =
+            new Binding<HttpMetricsCollector>(mScope, "HttpMetricsCollector") {
+                @Override
+                protected HttpMetricsCollector create() {
+                    return new HttpMetricsCollector(getApiMetrics());
+                }
+            };
+
+    private final Binding<ServerBackoff> mServerBackoff =
+            new Binding<ServerBackoff>(mScope, "ServerBackoff") {
+                @Override
+                protected ServerBackoff create() {
+                    return new ServerBackoff(getTimeProvider());
+                }
+            };
+
+    private final Binding<ResilienceInterceptor> mResilienceInterceptor =
+            new Binding<ResilienceInterceptor>(mScope, "ResilienceInterceptor") {
+                @Override
+                protected ResilienceInterceptor create() {
+                    return new ResilienceInterceptor(
+                            getTimeProvider(),
+                            new CircuitBreaker(
+                                    getTimeProvider(),
+                                    Constants.HTTP_CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+                                    Constants.HTTP_CIRCUIT_BREAKER_OPEN_PERIOD_MS
+                            ),
+                            new ExponentialBackoff(
+                                    Constants.HTTP_RETRY_INITIAL_DELAY_MS,
+                                    Constants.HTTP_RETRY_MAX_DELAY_MS,
+                                    new Random()
+                            ),
+                            getServerBackoff(),
+                            Constants.HTTP_MAX_ATTEMPTS
+                    );
+                }
+            };
+
+    private final Binding<ApiQuota> mApiQuota = new Binding<ApiQuota>(mScope, "ApiQuota") {
+        @Override
+        protected ApiQuota create() {
+            return new ApiQuota();
+        }
+    };
+
+    private final Binding<TokenBucket> mTokenBucket =
+            new Binding<TokenBucket>(mScope, "TokenBucket") {
+                @Override
+                protected TokenBucket create() {
+                    return new TokenBucket(
+                            getTimeProvider(),
+                            Constants.API_RATE_LIMIT_BURST,
+                            Constants.API_RATE_LIMIT_PER_SECOND
+                    );
+                }
+            };
+
+    private final Binding<RequestBudget> mRequestBudget =
+            new Binding<RequestBudget>(mScope, "RequestBudget") {
+                @Override
+                protected RequestBudget create() {
+                    return new RequestBudget(
+                            getTokenBucket(),
+                            getApiQuota(),
+                            Constants.API_FOREGROUND_RESERVED_REQUESTS,
+                            Constants.API_BACKGROUND_MIN_QUOTA_REMAINING
+                    );
+                }
+            };
+
+    private final Binding<RateLimitingInterceptor> mRateLimitingInterceptor =
+            new Binding<RateLimitingInterceptor>(mScope, "RateLimitingInterceptor") {
+                @Override
+                protected RateLimitingInterceptor create() {
+                    return new RateLimitingInterceptor(getTimeProvider(), getTokenBucket());
+                }
+            };
+
+    private final Binding<OkHttpClient> mOkHttpClient =
+            new Binding<OkHttpClient>(mScope, "OkHttpClient") {
+                @Override
+                protected OkHttpClient create() {
+                    return new OkHttpClient.Builder()
+                            .cache(getHttpCache())
+                            .connectionPool(getConnectionPool())
+                            .addInterceptor(getResilienceInterceptor())
+                            .addInterceptor(getRateLimitingInterceptor())
+                            .addInterceptor(getHttpMetricsCollector().getApplicationInterceptor())
+                            .addNetworkInterceptor(getHttpMetricsCollector().getNetworkInterceptor())
+                            .addNetworkInterceptor(getHttpStats())
+                            .dns(getHttpMetricsCollector().getDns(Dns.SYSTEM))
+                            .build();
+                }
+            };
+
+    private final Binding<Retrofit> mRetrofit = new Binding<Retrofit>(mScope, "Retrofit") {
+        @Override
+        protected Retrofit create() {
+            return new Retrofit.Builder()
                     .baseUrl(Constants.BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .client(getOkHttpClient())
+                    .callbackExecutor(new SynchronousExecutor())
+                    // parse the api methods and look up their converters (and thus the Gson type
+                    // adapters) when the api is created, which happens on the prewarming thread
+                    .validateEagerly(true)
+                    .addConverterFactory(new ResponseWrapperConverterFactory(
+                            new MetricsConverterFactory(GsonConverterFactory.create(getGson()), getApiMetrics()),
+                            getResponseWrapperListeners()
+                    ))
                     .build();
         }
-        return mRetrofit;
+    };
+
+    private final Binding<StackoverflowApi> mStackoverflowApi =
+            new Binding<StackoverflowApi>(mScope, "StackoverflowApi") {
+                @Override
+                protected StackoverflowApi create() {
+                    return getRetrofit().create(StackoverflowApi.class);
+                }
+            };
+
+    private final Binding<FetchLastActiveQuestionsEndpoint> mFetchLastActiveQuestionsEndpoint =
+            new Binding<FetchLastActiveQuestionsEndpoint>(mScope, "FetchLastActiveQuestionsEndpoint") {
+                @Override
+                protected FetchLastActiveQuestionsEndpoint create() {
+                    return new StreamingFetchLastActiveQuestionsEndpoint(
+                            getStackoverflowApi(),
+                            getGson(),
+                            getNetworkExecutor(),
+                            new SynchronousExecutor(),
+                            getResponseWrapperListeners(),
+                            getApiMetrics()
+                    );
+                }
+            };
+
+    private final Binding<QuestionsStore> mQuestionsStore =
+            new Binding<QuestionsStore>(mScope, "QuestionsStore") {
+                @Override
+                protected QuestionsStore create() {
+                    return new AppendOnlyQuestionsStore(
+                            new File(mApplication.getFilesDir(), QUESTIONS_STORE_DIRECTORY_NAME));
+                }
+            };
+
+    private final Binding<Executor> mStoreExecutor =
+            new Binding<Executor>(mScope, "StoreExecutor") {
+                @Override
+                protected Executor create() {
+                    return Executors.newSingleThreadExecutor();
+                }
+            };
+
+    private final Binding<Executor> mNetworkExecutor =
+            new Binding<Executor>(mScope, "NetworkExecutor") {
+                @Override
+                protected Executor create() {
+                    return Executors.newCachedThreadPool();
+                }
+            };
+
+    private final Binding<Executor> mMainThreadExecutor =
+            new Binding<Executor>(mScope, "MainThreadExecutor") {
+                @Override
+                protected Executor create() {
+                    return new MainThreadExecutor();
+                }
+            };
+
+    private final Binding<Executor> mComputeExecutor =
+            new Binding<Executor>(mScope, "ComputeExecutor") {
+                @Override
+                protected Executor create() {
+                    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+                }
+            };
+
+    private final Binding<UseCaseExecutors> mUseCaseExecutors =
+            new Binding<UseCaseExecutors>(mScope, "UseCaseExecutors") {
+                @Override
+                protected UseCaseExecutors create() {
+                    return new UseCaseExecutors(
+                            getNetworkExecutor(),
+                            getComputeExecutor(),
+                            getMainThreadExecutor()
+                    );
+                }
+            };
+
+    private final Binding<Executor> mListDiffExecutor =
+            new Binding<Executor>(mScope, "ListDiffExecutor") {
+                @Override
+                protected Executor create() {
+                    return Executors.newSingleThreadExecutor();
+                }
+            };
+
+    private final Binding<Executor> mHtmlRenderingExecutor =
+            new Binding<Executor>(mScope, "HtmlRenderingExecutor") {
+                @Override
+                protected Executor create() {
+                    return Executors.newSingleThreadExecutor();
+                }
+            };
+
+    private final Binding<CachingHtmlRenderer> mCachingHtmlRenderer =
+            new Binding<CachingHtmlRenderer>(mScope, "CachingHtmlRenderer") {
+                @Override
+                protected CachingHtmlRenderer create() {
+                    return new CachingHtmlRenderer(
+                            new SpannedHtmlRenderer(new HtmlTextRenderer()),
+                            getHtmlRenderingExecutor(),
+                            getMainThreadExecutor(),
+                            Constants.HTML_RENDER_CACHE_MAX_ENTRIES
+                    );
+                }
+            };
+
+    private final Binding<ScheduledExecutorService> mBatchingScheduler =
+            new Binding<ScheduledExecutorService>(mScope, "BatchingScheduler") {
+                @Override
+                protected ScheduledExecutorService create() {
+                    return Executors.newSingleThreadScheduledExecutor();
+                }
+            };
+
+    private final Binding<ScheduledExecutorService> mCancellationScheduler =
+            new Binding<ScheduledExecutorService>(mScope, "CancellationScheduler") {
+                @Override
+                protected ScheduledExecutorService create() {
+                    return Executors.newSingleThreadScheduledExecutor();
+                }
+            };
+
+    private final Binding<QuestionDetailsCache> mQuestionDetailsCache =
+            new Binding<QuestionDetailsCache>(mScope, "QuestionDetailsCache") {
+                @Override
+                protected QuestionDetailsCache create() {
+                    QuestionDetailsCache memoryCache = new LruQuestionDetailsCache(
+                            getTimeProvider(),
+                            getQuestionDetailsFreshnessPolicy().getMaxAgeMs(),
+                            Constants.QUESTION_DETAILS_CACHE_MAX_ENTRIES,
+                            Constants.QUESTION_DETAILS_CACHE_MAX_SIZE_BYTES,
+                            Constants.QUESTION_DETAILS_CACHE_COMPRESSION_THRESHOLD_CHARS
+                    );
+                    return new StoreBackedQuestionDetailsCache(
+                            memoryCache,
+                            getQuestionsStore(),
+                            getTimeProvider(),
+                            getStoreExecutor()
+                    );
+                }
+            };
+
+    private final Binding<FetchQuestionDetailsUseCase> mFetchQuestionDetailsUseCase =
+            new Binding<FetchQuestionDetailsUseCase>(mScope, "FetchQuestionDetailsUseCase") {
+                @Override
+                protected FetchQuestionDetailsUseCase create() {
+                    return new FetchQuestionDetailsUseCase(
+                            getFetchQuestionDetailsEndpoint(),
+                            getQuestionDetailsCache(),
+                            getQuestionDetailsFreshnessPolicy(),
+                            getUseCaseExecutors(),
+                            getOutstandingRequests(),
+                            getApiMetrics()
+                    );
+                }
+            };
+
+    private final Binding<List<ResponseWrapperListener>> mResponseWrapperListeners =
+            new Binding<List<ResponseWrapperListener>>(mScope, "ResponseWrapperListeners") {
+                @Override
+                protected List<ResponseWrapperListener> create() {
+                    return Arrays.<ResponseWrapperListener>asList(getServerBackoff(), getApiQuota());
+                }
+            };
+
+    private final Binding<FetchQuestionDetailsEndpoint> mFetchQuestionDetailsEndpoint =
+            new Binding<FetchQuestionDetailsEndpoint>(mScope, "FetchQuestionDetailsEndpoint") {
+                @Override
+                protected FetchQuestionDetailsEndpoint create() {
+                    return new BatchingFetchQuestionDetailsEndpoint(
+                            getStackoverflowApi(),
+                            getBatchingScheduler(),
+                            Constants.QUESTION_DETAILS_BATCH_WINDOW_MS,
+                            Constants.QUESTION_DETAILS_MAX_BATCH_SIZE
+                    );
+                }
+            };
+
+    private final Binding<FreshnessPolicy> mQuestionDetailsFreshnessPolicy =
+            new Binding<FreshnessPolicy>(mScope, "QuestionDetailsFreshnessPolicy") {
+                @Override
+                protected FreshnessPolicy create() {
+                    return new FreshnessPolicy(
+                            getTimeProvider(),
+                            Constants.QUESTION_DETAILS_FRESH_PERIOD_MS,
+                            Constants.QUESTION_DETAILS_STALE_PERIOD_MS
+                    );
+                }
+            };
+
+    private final Binding<FetchLastActiveQuestionsUseCase> mFetchLastActiveQuestionsUseCase =
+            new Binding<FetchLastActiveQuestionsUseCase>(mScope, "FetchLastActiveQuestionsUseCase") {
+                @Override
+                protected FetchLastActiveQuestionsUseCase create() {
+                    return new FetchLastActiveQuestionsUseCase(
+                            getFetchLastActiveQuestionsEndpoint(),
+                            getQuestionsStore(),
+                            getTimeProvider(),
+                            getStoreExecutor(),
+                            getQuestionDetailsCache(),
+                            getUseCaseExecutors(),
+                            getOutstandingRequests(),
+                            getApiMetrics()
+                    );
+                }
+            };
+
+    public CompositionRoot(Application application) {
+        mApplication = application;
+    }
+
+    public StartupTracer getStartupTracer() {
+        return mStartupTracer;
+    }
+
+    /**
+     * Construct the HTTP stack, the Gson type adapters and the use cases needed by the first
+     * screen on a background thread
+     */
+    public void prewarmInBackground() {
+        new StartupPrewarmer(getNetworkExecutor(), getStartupTracer()).prewarm(
+                Arrays.<Binding<?>>asList(mFetchLastActiveQuestionsUseCase, mFetchQuestionDetailsUseCase));
+    }
+
+    /**
+     * @return report of construction costs of the bindings of all scopes
+     */
+    public BindingCostReport getBindingCostReport() {
+        return mBindingCostReport;
+    }
+
+    public Gson getGson() {
+        return mGson.get();
+    }
+
+    private Cache getHttpCache() {
+        return mHttpCache.get();
+    }
+
+    private ConnectionPool getConnectionPool() {
+        return mConnectionPool.get();
+    }
+
+    public HttpStats getHttpStats() {
+        return mHttpStats.get();
+    }
+
+    public InMemoryMetricsSink getMetricsSink() {
+        return mMetricsSink.get();
+    }
+
+    public ApiMetrics getApiMetrics() {
+        return mApiMetrics.get();
+    }
+
+    private HttpMetricsCollector getHttpMetricsCollector() {
+        return mHttpMetricsCollector.get();
+    }
+
+    private ServerBackoff getServerBackoff() {
+        return mServerBackoff.get();
+    }
+
+    public ResilienceInterceptor getResilienceInterceptor() {
+        return mResilienceInterceptor.get();
+    }
+
+    private ApiQuota getApiQuota() {
+        return mApiQuota.get();
+    }
+
+    private List<ResponseWrapperListener> getResponseWrapperListeners() {
+        return mResponseWrapperListeners.get();
+    }
+
+    private TokenBucket getTokenBucket() {
+        return mTokenBucket.get();
+    }
+
+    public RequestBudget getRequestBudget() {
+        return mRequestBudget.get();
+    }
+
+    public RateLimitingInterceptor getRateLimitingInterceptor() {
+        return mRateLimitingInterceptor.get();
+    }
+
+    /**
+     * OkHttp negotiates gzip on its own as long as no explicit Accept-Encoding header is set,
+     * therefore none of the interceptors should set one.
+     * Metrics are collected for each attempt, after it has been rate limited, and before network
+     * requests are observed by other interceptors.
+     */
+    private OkHttpClient getOkHttpClient() {
+        return mOkHttpClient.get();
+    }
+
+    /**
+     * Callbacks of enqueued calls are invoked on OkHttp's threads instead of the main thread;
+     * use cases switch to the main thread on their own, after mapping the responses.
+     */
+    private Retrofit getRetrofit() {
+        return mRetrofit.get();
     }
 
     public StackoverflowApi getStackoverflowApi() {
-        return getRetrofit().create(StackoverflowApi.class);
+        return mStackoverflowApi.get();
+    }
+
+    /**
+     * Questions are delivered on the thread that parses them, such that use cases can map each
+     * question before the next one is parsed.
+     */
+    public FetchLastActiveQuestionsEndpoint getFetchLastActiveQuestionsEndpoint() {
+        return mFetchLastActiveQuestionsEndpoint.get();
     }
 
     public TimeProvider getTimeProvider() {
-        return new TimeProvider();
+        return mTimeProvider;
+    }
+
+    public QuestionsStore getQuestionsStore() {
+        return mQuestionsStore.get();
+    }
+
+    public Executor getStoreExecutor() {
+        return mStoreExecutor.get();
+    }
+
+    public Executor getNetworkExecutor() {
+        return mNetworkExecutor.get();
+    }
+
+    public Executor getMainThreadExecutor() {
+        return mMainThreadExecutor.get();
+    }
+
+    private Executor getComputeExecutor() {
+        return mComputeExecutor.get();
+    }
+
+    public UseCaseExecutors getUseCaseExecutors() {
+        return mUseCaseExecutors.get();
+    }
+
+    /**
+     * Single threaded, such that diffs of consecutive lists are computed in order
+     */
+    public Executor getListDiffExecutor() {
+        return mListDiffExecutor.get();
+    }
+
+    private Executor getHtmlRenderingExecutor() {
+        return mHtmlRenderingExecutor.get();
+    }
+
+    public CachingHtmlRenderer getCachingHtmlRenderer() {
+        return mCachingHtmlRenderer.get();
+    }
+
+    private ScheduledExecutorService getBatchingScheduler() {
+        return mBatchingScheduler.get();
+    }
+
+    private ScheduledExecutorService getCancellationScheduler() {
+        return mCancellationScheduler.get();
+    }
+
+    /**
+     * Not scoped: each use case tracks its own outstanding requests
+     */
+    public OutstandingRequests getOutstandingRequests() {
+        return new OutstandingRequests(
+                getCancellationScheduler(),
+                Constants.REQUESTS_CANCELLATION_GRACE_PERIOD_MS
+        );
     }
 
     private FetchQuestionDetailsEndpoint getFetchQuestionDetailsEndpoint() {
-        return new FetchQuestionDetailsEndpoint(getStackoverflowApi());
+        return mFetchQuestionDetailsEndpoint.get();
+    }
+
+    private FreshnessPolicy getQuestionDetailsFreshnessPolicy() {
+        return mQuestionDetailsFreshnessPolicy.get();
+    }
+
+    public QuestionDetailsCache getQuestionDetailsCache() {
+        return mQuestionDetailsCache.get();
     }
 
     public FetchQuestionDetailsUseCase getFetchQuestionDetailsUseCase() {
-        if (mFetchQuestionDetailsUseCase == null) {
-            mFetchQuestionDetailsUseCase = new FetchQuestionDetailsUseCase(getFetchQuestionDetailsEndpoint(), getTimeProvider());
-        }
-        return mFetchQuestionDetailsUseCase;
+        return mFetchQuestionDetailsUseCase.get();
+    }
+
+    /**
+     * Shared by all screens, such that the questions it fetched (and the details cache it seeded)
+     * survive navigation
+     */
+    public FetchLastActiveQuestionsUseCase getFetchLastActiveQuestionsUseCase() {
+        return mFetchLastActiveQuestionsUseCase.get();
     }
 }
@@ -1,21 +1,15 @@
 package com.techyourchance.unittesting.common.dependencyinjection;
 
-import android.content.Context;
-import android.support.v4.app.FragmentActivity;
-import android.support.v4.app.FragmentManager;
-import android.view.LayoutInflater;
-
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
-import com.techyourchance.unittesting.networking.StackoverflowApi;
-import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
-import com.techyourchance.unittesting.networking.questions.FetchQuestionDetailsEndpoint;
 import com.techyourchance.unittesting.questions.FetchLastActiveQuestionsUseCase;
 import com.techyourchance.unittesting.questions.FetchQuestionDetailsUseCase;
+import com.techyourchance.unittesting.questions.QuestionDetailsPrefetcher;
+import com.techyourchance.unittesting.questions.QuestionsPager;
 import com.techyourchance.unittesting.screens.common.ViewMvcFactory;
 import com.techyourchance.unittesting.screens.common.controllers.BackPressDispatcher;
-import com.techyourchance.unittesting.screens.common.fragmentframehelper.FragmentFrameHelper;
-import com.techyourchance.unittesting.screens.common.fragmentframehelper.FragmentFrameWrapper;
-import com.techyourchance.unittesting.screens.common.navdrawer.NavDrawerHelper;
 import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
 import com.techyourchance.unittesting.screens.common.toastshelper.ToastsHelper;
 import com.techyourchance.unittesting.screens.questiondetails.QuestionDetailsController;
@@ -23,87 +17,129 @@ import com.techyourchance.unittesting.screens.questionslist.QuestionsListControl
 
 public class ControllerCompositionRoot {
 
+    private final ActivityCompositionRoot mActivityCompositionRoot;
     private final CompositionRoot mCompositionRoot;
-    private final FragmentActivity mActivity;
-
-    public ControllerCompositionRoot(CompositionRoot compositionRoot, FragmentActivity activity) {
-        mCompositionRoot = compositionRoot;
-        mActivity = activity;
-    }
-
-    private FragmentActivity getActivity() {
-        return mActivity;
-    }
-
-    private Context getContext() {
-        return mActivity;
+    private final Scope mScope;
+
+    private final Binding<QuestionDetailsPrefetcher> mQuestionDetailsPrefetcher;
+    private final Binding<QuestionsPager> mQuestionsPager;
+    private final Binding<FreshnessPolicy> mQuestionsListFreshnessPolicy;
+    private final Binding<QuestionsListController> mQuestionsListController;
+    private final Binding<QuestionDetailsController> mQuestionDetailsController;
+
+    public ControllerCompositionRoot(ActivityCompositionRoot activityCompositionRoot) {
+        mActivityCompositionRoot = activityCompositionRoot;
+        mCompositionRoot = activityCompositionRoot.getCompositionRoot();
+        mScope = new Scope(Scope.CONTROLLER, mCompositionRoot.getBindingCostReport());
+
+        mQuestionDetailsPrefetcher = new Binding<QuestionDetailsPrefetcher>(mScope, "QuestionDetailsPrefetcher") {
+            @Override
+            protected QuestionDetailsPrefetcher create() {
+                return new QuestionDetailsPrefetcher(
+                        getFetchQuestionDetailsUseCase(),
+                        Constants.QUESTION_DETAILS_MAX_CONCURRENT_PREFETCHES,
+                        mCompositionRoot.getRequestBudget()
+                );
+            }
+        };
+
+        mQuestionsPager = new Binding<QuestionsPager>(mScope, "QuestionsPager") {
+            @Override
+            protected QuestionsPager create() {
+                return new QuestionsPager(
+                        mCompositionRoot.getFetchLastActiveQuestionsEndpoint(),
+                        getTimeProvider(),
+                        Constants.QUESTIONS_LIST_PAGE_SIZE,
+                        Constants.QUESTIONS_LIST_MAX_PAGES_IN_MEMORY,
+                        mCompositionRoot.getUseCaseExecutors(),
+                        mCompositionRoot.getApiMetrics()
+                );
+            }
+        };
+
+        mQuestionsListFreshnessPolicy = new Binding<FreshnessPolicy>(mScope, "QuestionsListFreshnessPolicy") {
+            @Override
+            protected FreshnessPolicy create() {
+                return new FreshnessPolicy(
+                        getTimeProvider(),
+                        Constants.QUESTIONS_LIST_FRESH_PERIOD_MS,
+                        Constants.QUESTIONS_LIST_STALE_PERIOD_MS
+                );
+            }
+        };
+
+        mQuestionsListController = new Binding<QuestionsListController>(mScope, "QuestionsListController") {
+            @Override
+            protected QuestionsListController create() {
+                return new QuestionsListController(
+                        getFetchLastActiveQuestionsUseCase(),
+                        getScreensNavigator(),
+                        getToastsHelper(),
+                        getQuestionsListFreshnessPolicy(),
+                        getQuestionDetailsPrefetcher(),
+                        getQuestionsPager(),
+                        getStartupTracer());
+            }
+        };
+
+        mQuestionDetailsController = new Binding<QuestionDetailsController>(mScope, "QuestionDetailsController") {
+            @Override
+            protected QuestionDetailsController create() {
+                return new QuestionDetailsController(
+                        getFetchQuestionDetailsUseCase(), getScreensNavigator(), getToastsHelper());
+            }
+        };
     }
 
-    private FragmentManager getFragmentManager() {
-        return getActivity().getSupportFragmentManager();
-    }
-
-    private StackoverflowApi getStackoverflowApi() {
-        return mCompositionRoot.getStackoverflowApi();
+    public ViewMvcFactory getViewMvcFactory() {
+        return mActivityCompositionRoot.getViewMvcFactory();
     }
 
-    private FetchLastActiveQuestionsEndpoint getFetchLastActiveQuestionsEndpoint() {
-        return new FetchLastActiveQuestionsEndpoint(getStackoverflowApi());
+    public FetchQuestionDetailsUseCase getFetchQuestionDetailsUseCase() {
+        return mCompositionRoot.getFetchQuestionDetailsUseCase();
     }
 
-    private LayoutInflater getLayoutInflater() {
-        return LayoutInflater.from(getContext());
+    public FetchLastActiveQuestionsUseCase getFetchLastActiveQuestionsUseCase() {
+        return mCompositionRoot.getFetchLastActiveQuestionsUseCase();
     }
 
-    public ViewMvcFactory getViewMvcFactory() {
-        return new ViewMvcFactory(getLayoutInflater(), getNavDrawerHelper());
+    private QuestionDetailsPrefetcher getQuestionDetailsPrefetcher() {
+        return mQuestionDetailsPrefetcher.get();
     }
 
-    private NavDrawerHelper getNavDrawerHelper() {
-        return (NavDrawerHelper) getActivity();
+    private QuestionsPager getQuestionsPager() {
+        return mQuestionsPager.get();
     }
 
-    public FetchQuestionDetailsUseCase getFetchQuestionDetailsUseCase() {
-        return mCompositionRoot.getFetchQuestionDetailsUseCase();
+    public TimeProvider getTimeProvider() {
+        return mCompositionRoot.getTimeProvider();
     }
 
-    public FetchLastActiveQuestionsUseCase getFetchLastActiveQuestionsUseCase() {
-        return new FetchLastActiveQuestionsUseCase(getFetchLastActiveQuestionsEndpoint());
+    public StartupTracer getStartupTracer() {
+        return mCompositionRoot.getStartupTracer();
     }
 
-    public TimeProvider getTimeProvider() {
-        return mCompositionRoot.getTimeProvider();
+    private FreshnessPolicy getQuestionsListFreshnessPolicy() {
+        return mQuestionsListFreshnessPolicy.get();
     }
 
     public QuestionsListController getQuestionsListController() {
-        return new QuestionsListController(
-                getFetchLastActiveQuestionsUseCase(),
-                getScreensNavigator(),
-                getToastsHelper(),
-                getTimeProvider());
+        return mQuestionsListController.get();
     }
 
     public ToastsHelper getToastsHelper() {
-        return new ToastsHelper(getContext());
+        return mActivityCompositionRoot.getToastsHelper();
     }
 
     public ScreensNavigator getScreensNavigator() {
-        return new ScreensNavigator(getFragmentFrameHelper());
-    }
-
-    private FragmentFrameHelper getFragmentFrameHelper() {
-        return new FragmentFrameHelper(getActivity(), getFragmentFrameWrapper(), getFragmentManager());
-    }
-
-    private FragmentFrameWrapper getFragmentFrameWrapper() {
-        return (FragmentFrameWrapper) getActivity();
+        return mActivityCompositionRoot.getScreensNavigator();
     }
 
     public BackPressDispatcher getBackPressDispatcher() {
-        return (BackPressDispatcher) getActivity();
+        return mActivityCompositionRoot.getBackPressDispatcher();
     }
 
     public QuestionDetailsController getQuestionDetailsController() {
-        return new QuestionDetailsController(getFetchQuestionDetailsUseCase(), getScreensNavigator(), getToastsHelper());
+        return mQuestionDetailsController.get();
     }
 }
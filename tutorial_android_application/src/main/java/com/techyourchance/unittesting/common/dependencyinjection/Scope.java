@@ -0,0 +1,28 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+/**
+ * Lifetime shared by a group of bindings, e.g. that of the application, of an activity or of a
+ * controller. Bindings live as long as the composition root that holds them.
+ */
+public class Scope {
+
+    public static final String APPLICATION = "application";
+    public static final String ACTIVITY = "activity";
+    public static final String CONTROLLER = "controller";
+
+    private final String mName;
+    private final BindingCostReport mBindingCostReport;
+
+    public Scope(String name, BindingCostReport bindingCostReport) {
+        mName = name;
+        mBindingCostReport = bindingCostReport;
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    BindingCostReport getBindingCostReport() {
+        return mBindingCostReport;
+    }
+}
@@ -0,0 +1,45 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Constructs bindings on a background thread during the startup, such that the main thread
+ * doesn't pay for them when the first screen needs them. If the main thread requests a binding
+ * while it's being prewarmed, it waits for the construction in progress instead of repeating it.
+ */
+public class StartupPrewarmer {
+
+    private final Executor mBackgroundExecutor;
+    private final StartupTracer mStartupTracer;
+
+    public StartupPrewarmer(Executor backgroundExecutor, StartupTracer startupTracer) {
+        mBackgroundExecutor = backgroundExecutor;
+        mStartupTracer = startupTracer;
+    }
+
+    /**
+     * @param bindings bindings to construct, in the given order
+     */
+    public void prewarm(List<? extends Binding<?>> bindings) {
+        final List<Binding<?>> bindingsCopy = new ArrayList<Binding<?>>(bindings);
+        mBackgroundExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mStartupTracer.beginPhase(StartupTracer.Phase.PREWARM);
+                for (Binding<?> binding : bindingsCopy) {
+                    try {
+                        binding.get();
+                    } catch (RuntimeException e) {
+                        // failed constructions aren't retained; the binding will be constructed
+                        // again (and the failure surfaced) when it's first used
+                    }
+                }
+                mStartupTracer.endPhase(StartupTracer.Phase.PREWARM);
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.techyourchance.unittesting.common.html;
+
+/**
+ * Decodes character references. Only the named entities that actually show up in StackExchange
+ * content are supported; unknown ones are kept verbatim.
+ */
+final class HtmlEntities {
+
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    private HtmlEntities() {}
+
+    static void appendDecoded(String source, int start, int end, StringBuilder out) {
+        int position = start;
+        while (position < end) {
+            int ampersand = source.indexOf('&', position);
+            if (ampersand < 0 || ampersand >= end) {
+                out.append(source, position, end);
+                return;
+            }
+            out.append(source, position, ampersand);
+            position = appendEntity(source, ampersand, end, out);
+        }
+    }
+
+    /**
+     * @param ampersand position of '&' in the source
+     * @return position right after the entity, or after the ampersand if there is no valid entity
+     */
+    static int appendEntity(String source, int ampersand, int end, StringBuilder out) {
+        int semicolon = source.indexOf(';', ampersand + 1);
+        if (semicolon < 0 || semicolon >= end || semicolon - ampersand > MAX_ENTITY_LENGTH) {
+            out.append('&');
+            return ampersand + 1;
+        }
+        int nameStart = ampersand + 1;
+        int codePoint = -1;
+        if (source.charAt(nameStart) == '#') {
+            codePoint = parseCodePoint(source, nameStart + 1, semicolon);
+        } else if (isEntity(source, nameStart, semicolon, "amp")) {
+            codePoint = '&';
+        } else if (isEntity(source, nameStart, semicolon, "lt")) {
+            codePoint = '<';
+        } else if (isEntity(source, nameStart, semicolon, "gt")) {
+            codePoint = '>';
+        } else if (isEntity(source, nameStart, semicolon, "quot")) {
+            codePoint = '"';
+        } else if (isEntity(source, nameStart, semicolon, "apos")) {
+            codePoint = '\'';
+        } else if (isEntity(source, nameStart, semicolon, "nbsp")) {
+            codePoint = ' ';
+        }
+        if (codePoint < 0) {
+            out.append('&');
+            return ampersand + 1;
+        }
+        out.appendCodePoint(codePoint);
+        return semicolon + 1;
+    }
+
+    private static boolean isEntity(String source, int start, int end, String name) {
+        return end - start == name.length() && source.startsWith(name, start);
+    }
+
+    private static int parseCodePoint(String source, int start, int end) {
+        int radix = 10;
+        if (start < end && (source.charAt(start) == 'x' || source.charAt(start) == 'X')) {
+            radix = 16;
+            start++;
+        }
+        if (start == end) {
+            return -1;
+        }
+        int codePoint = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(source.charAt(i), radix);
+            if (digit < 0) {
+                return -1;
+            }
+            codePoint = codePoint * radix + digit;
+            if (codePoint > Character.MAX_CODE_POINT) {
+                return -1;
+            }
+        }
+        return codePoint;
+    }
+}
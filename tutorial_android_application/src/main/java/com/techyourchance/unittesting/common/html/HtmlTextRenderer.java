@@ -0,0 +1,366 @@
+package com.techyourchance.unittesting.common.html;
+
+import java.util.Arrays;
+
+/**
+ * Renders the subset of HTML used in StackExchange posts into {@link RenderedText} in a single
+ * pass over the source. Whitespace is collapsed the way browsers do, except inside pre.
+ * Unsupported tags are dropped, but their text content is kept.
+ * Instances can be shared between threads.
+ */
+public class HtmlTextRenderer {
+
+    private static final String LIST_ITEM_BULLET = "• ";
+    private static final int INITIAL_SPANS_CAPACITY = 16;
+
+    private enum Tag {
+        BOLD, ITALIC, CODE, LINK, PARAGRAPH, PREFORMATTED, HEADING,
+        LIST, LIST_ITEM, LINE_BREAK, HORIZONTAL_RULE, DIVISION, OTHER
+    }
+
+    public RenderedText render(String html) {
+        return new Rendering(html).render();
+    }
+
+    private static Tag getTag(HtmlTokenizer tokenizer) {
+        if (tokenizer.isTag("p") || tokenizer.isTag("blockquote")) {
+            return Tag.PARAGRAPH;
+        } else if (tokenizer.isTag("code") || tokenizer.isTag("kbd")) {
+            return Tag.CODE;
+        } else if (tokenizer.isTag("a")) {
+            return Tag.LINK;
+        } else if (tokenizer.isTag("strong") || tokenizer.isTag("b")) {
+            return Tag.BOLD;
+        } else if (tokenizer.isTag("em") || tokenizer.isTag("i")) {
+            return Tag.ITALIC;
+        } else if (tokenizer.isTag("li")) {
+            return Tag.LIST_ITEM;
+        } else if (tokenizer.isTag("ul") || tokenizer.isTag("ol")) {
+            return Tag.LIST;
+        } else if (tokenizer.isTag("pre")) {
+            return Tag.PREFORMATTED;
+        } else if (tokenizer.isTag("br")) {
+            return Tag.LINE_BREAK;
+        } else if (tokenizer.isTag("h1") || tokenizer.isTag("h2") || tokenizer.isTag("h3")
+                || tokenizer.isTag("h4") || tokenizer.isTag("h5") || tokenizer.isTag("h6")) {
+            return Tag.HEADING;
+        } else if (tokenizer.isTag("hr")) {
+            return Tag.HORIZONTAL_RULE;
+        } else if (tokenizer.isTag("div")) {
+            return Tag.DIVISION;
+        } else {
+            return Tag.OTHER;
+        }
+    }
+
+    /**
+     * State of rendering of a single HTML string
+     */
+    private static class Rendering {
+
+        private final String mHtml;
+        private final HtmlTokenizer mTokenizer;
+        private final StringBuilder mText;
+
+        // spans that haven't been closed yet, innermost last
+        private byte[] mOpenTypes = new byte[INITIAL_SPANS_CAPACITY];
+        private int[] mOpenStarts = new int[INITIAL_SPANS_CAPACITY];
+        private String[] mOpenUrls = new String[INITIAL_SPANS_CAPACITY];
+        private int mOpenCount;
+
+        private byte[] mTypes = new byte[INITIAL_SPANS_CAPACITY];
+        private int[] mStarts = new int[INITIAL_SPANS_CAPACITY];
+        private int[] mEnds = new int[INITIAL_SPANS_CAPACITY];
+        private String[] mUrls;
+        private int mCount;
+
+        private int mPreformattedDepth;
+        private boolean mPendingSpace;
+
+        private Rendering(String html) {
+            mHtml = html;
+            mTokenizer = new HtmlTokenizer(html);
+            mText = new StringBuilder(html.length());
+        }
+
+        private RenderedText render() {
+            HtmlTokenizer.Token token;
+            while ((token = mTokenizer.next()) != HtmlTokenizer.Token.END_OF_INPUT) {
+                switch (token) {
+                    case TEXT:
+                        appendText(mTokenizer.getTextStart(), mTokenizer.getTextEnd());
+                        break;
+                    case START_TAG:
+                        onStartTag(getTag(mTokenizer));
+                        break;
+                    case END_TAG:
+                        onEndTag(getTag(mTokenizer));
+                        break;
+                }
+            }
+            return finish();
+        }
+
+        private void onStartTag(Tag tag) {
+            switch (tag) {
+                case BOLD:
+                    openSpan(RenderedText.SpanType.BOLD, null);
+                    break;
+                case ITALIC:
+                    openSpan(RenderedText.SpanType.ITALIC, null);
+                    break;
+                case CODE:
+                    openSpan(RenderedText.SpanType.CODE, null);
+                    break;
+                case LINK:
+                    String url = mTokenizer.getAttribute("href");
+                    if (url != null) {
+                        openSpan(RenderedText.SpanType.LINK, url);
+                    }
+                    break;
+                case PARAGRAPH:
+                    breakLines(2);
+                    openSpan(RenderedText.SpanType.PARAGRAPH, null);
+                    break;
+                case PREFORMATTED:
+                    breakLines(2);
+                    openSpan(RenderedText.SpanType.PARAGRAPH, null);
+                    mPreformattedDepth++;
+                    break;
+                case HEADING:
+                    breakLines(2);
+                    openSpan(RenderedText.SpanType.PARAGRAPH, null);
+                    openSpan(RenderedText.SpanType.BOLD, null);
+                    break;
+                case LIST:
+                case HORIZONTAL_RULE:
+                    breakLines(2);
+                    break;
+                case LIST_ITEM:
+                    breakLines(1);
+                    mText.append(LIST_ITEM_BULLET);
+                    break;
+                case LINE_BREAK:
+                    mText.append('\n');
+                    mPendingSpace = false;
+                    break;
+                case DIVISION:
+                    breakLines(1);
+                    break;
+            }
+        }
+
+        private void onEndTag(Tag tag) {
+            switch (tag) {
+                case BOLD:
+                    closeSpan(RenderedText.SpanType.BOLD);
+                    break;
+                case ITALIC:
+                    closeSpan(RenderedText.SpanType.ITALIC);
+                    break;
+                case CODE:
+                    closeSpan(RenderedText.SpanType.CODE);
+                    break;
+                case LINK:
+                    closeSpan(RenderedText.SpanType.LINK);
+                    break;
+                case PARAGRAPH:
+                    trimTrailingSpaces();
+                    closeSpan(RenderedText.SpanType.PARAGRAPH);
+                    breakLines(2);
+                    break;
+                case PREFORMATTED:
+                    trimTrailingWhitespace();
+                    closeSpan(RenderedText.SpanType.PARAGRAPH);
+                    mPreformattedDepth = Math.max(0, mPreformattedDepth - 1);
+                    breakLines(2);
+                    break;
+                case HEADING:
+                    trimTrailingSpaces();
+                    closeSpan(RenderedText.SpanType.BOLD);
+                    closeSpan(RenderedText.SpanType.PARAGRAPH);
+                    breakLines(2);
+                    break;
+                case LIST:
+                    breakLines(2);
+                    break;
+                case DIVISION:
+                    breakLines(1);
+                    break;
+            }
+        }
+
+        private void appendText(int start, int end) {
+            if (mPreformattedDepth > 0) {
+                HtmlEntities.appendDecoded(mHtml, start, end, mText);
+                return;
+            }
+            int position = start;
+            while (position < end) {
+                char c = mHtml.charAt(position);
+                if (isWhitespace(c)) {
+                    mPendingSpace = true;
+                    position++;
+                    continue;
+                }
+                appendPendingSpace();
+                if (c == '&') {
+                    position = HtmlEntities.appendEntity(mHtml, position, end, mText);
+                } else {
+                    mText.append(c);
+                    position++;
+                }
+            }
+        }
+
+        private void appendPendingSpace() {
+            if (!mPendingSpace) {
+                return;
+            }
+            mPendingSpace = false;
+            int length = mText.length();
+            if (length > 0 && !isWhitespace(mText.charAt(length - 1))) {
+                mText.append(' ');
+            }
+        }
+
+        /**
+         * Make sure that the text ends with the given number of line breaks, unless it's empty
+         */
+        private void breakLines(int count) {
+            mPendingSpace = false;
+            trimTrailingSpaces();
+            int length = mText.length();
+            if (length == 0) {
+                return;
+            }
+            int trailingLineBreaks = 0;
+            while (trailingLineBreaks < length && mText.charAt(length - 1 - trailingLineBreaks) == '\n') {
+                trailingLineBreaks++;
+            }
+            for (int i = trailingLineBreaks; i < count; i++) {
+                mText.append('\n');
+            }
+        }
+
+        private void trimTrailingSpaces() {
+            int length = mText.length();
+            while (length > 0 && mText.charAt(length - 1) == ' ') {
+                length--;
+            }
+            setTextLength(length);
+        }
+
+        private void trimTrailingWhitespace() {
+            int length = mText.length();
+            while (length > 0 && isWhitespace(mText.charAt(length - 1))) {
+                length--;
+            }
+            setTextLength(length);
+        }
+
+        private void setTextLength(int length) {
+            if (length == mText.length()) {
+                return;
+            }
+            mText.setLength(length);
+            for (int i = 0; i < mOpenCount; i++) {
+                mOpenStarts[i] = Math.min(mOpenStarts[i], length);
+            }
+            for (int i = 0; i < mCount; i++) {
+                mStarts[i] = Math.min(mStarts[i], length);
+                mEnds[i] = Math.min(mEnds[i], length);
+            }
+        }
+
+        private void openSpan(RenderedText.SpanType type, String url) {
+            // whitespace preceding the tag belongs outside of the span
+            appendPendingSpace();
+            if (mOpenCount == mOpenTypes.length) {
+                int capacity = mOpenCount * 2;
+                mOpenTypes = Arrays.copyOf(mOpenTypes, capacity);
+                mOpenStarts = Arrays.copyOf(mOpenStarts, capacity);
+                mOpenUrls = Arrays.copyOf(mOpenUrls, capacity);
+            }
+            mOpenTypes[mOpenCount] = (byte) type.ordinal();
+            mOpenStarts[mOpenCount] = mText.length();
+            mOpenUrls[mOpenCount] = url;
+            mOpenCount++;
+        }
+
+        /**
+         * Close the innermost open span of the given type; end tags without matching start tags
+         * are ignored
+         */
+        private void closeSpan(RenderedText.SpanType type) {
+            for (int i = mOpenCount - 1; i >= 0; i--) {
+                if (mOpenTypes[i] == type.ordinal()) {
+                    addSpan(mOpenTypes[i], mOpenStarts[i], mText.length(), mOpenUrls[i]);
+                    System.arraycopy(mOpenTypes, i + 1, mOpenTypes, i, mOpenCount - i - 1);
+                    System.arraycopy(mOpenStarts, i + 1, mOpenStarts, i, mOpenCount - i - 1);
+                    System.arraycopy(mOpenUrls, i + 1, mOpenUrls, i, mOpenCount - i - 1);
+                    mOpenCount--;
+                    mOpenUrls[mOpenCount] = null;
+                    return;
+                }
+            }
+        }
+
+        private void addSpan(byte type, int start, int end, String url) {
+            if (start >= end) {
+                return;
+            }
+            if (mCount == mTypes.length) {
+                int capacity = mCount * 2;
+                mTypes = Arrays.copyOf(mTypes, capacity);
+                mStarts = Arrays.copyOf(mStarts, capacity);
+                mEnds = Arrays.copyOf(mEnds, capacity);
+                if (mUrls != null) {
+                    mUrls = Arrays.copyOf(mUrls, capacity);
+                }
+            }
+            if (url != null && mUrls == null) {
+                mUrls = new String[mTypes.length];
+            }
+            mTypes[mCount] = type;
+            mStarts[mCount] = start;
+            mEnds[mCount] = end;
+            if (mUrls != null) {
+                mUrls[mCount] = url;
+            }
+            mCount++;
+        }
+
+        private RenderedText finish() {
+            trimTrailingWhitespace();
+            while (mOpenCount > 0) {
+                closeSpan(RenderedText.SpanType.values()[mOpenTypes[mOpenCount - 1]]);
+            }
+            // trimming could have emptied some of the spans
+            int count = 0;
+            for (int i = 0; i < mCount; i++) {
+                if (mStarts[i] < mEnds[i]) {
+                    mTypes[count] = mTypes[i];
+                    mStarts[count] = mStarts[i];
+                    mEnds[count] = mEnds[i];
+                    if (mUrls != null) {
+                        mUrls[count] = mUrls[i];
+                    }
+                    count++;
+                }
+            }
+            return new RenderedText(
+                    mText.toString(),
+                    count,
+                    Arrays.copyOf(mTypes, count),
+                    Arrays.copyOf(mStarts, count),
+                    Arrays.copyOf(mEnds, count),
+                    mUrls == null ? null : Arrays.copyOf(mUrls, count)
+            );
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.techyourchance.unittesting.common.html;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Splits HTML into text runs and tags without building a tree. Tokens are described by offsets
+ * into the source, such that iterating over them doesn't allocate; only attribute values and
+ * decoded text are materialized, on demand.
+ * Comments, doctypes and processing instructions are skipped. Malformed markup never fails:
+ * a '<' that doesn't start a tag is treated as text.
+ */
+public class HtmlTokenizer {
+
+    public enum Token {
+        TEXT, START_TAG, END_TAG, END_OF_INPUT
+    }
+
+    private final String mHtml;
+    private final int mLength;
+
+    private int mPosition;
+
+    private Token mToken;
+    private int mTextStart;
+    private int mTextEnd;
+    private int mNameStart;
+    private int mNameEnd;
+    private int mAttributesStart;
+    private int mAttributesEnd;
+    private boolean mSelfClosing;
+
+    public HtmlTokenizer(String html) {
+        mHtml = html;
+        mLength = html.length();
+    }
+
+    public Token next() {
+        while (mPosition < mLength) {
+            if (mHtml.charAt(mPosition) != '<') {
+                return readText(mPosition);
+            }
+            if (mHtml.startsWith("<!--", mPosition)) {
+                mPosition = skipPast("-->", mPosition + 4);
+                continue;
+            }
+            char next = charAt(mPosition + 1);
+            if (next == '!' || next == '?') {
+                mPosition = skipPast(">", mPosition + 2);
+                continue;
+            }
+            if (next == '/' && isTagNameStart(charAt(mPosition + 2))) {
+                return readTag(Token.END_TAG, mPosition + 2);
+            }
+            if (isTagNameStart(next)) {
+                return readTag(Token.START_TAG, mPosition + 1);
+            }
+            // a lone '<' is just text
+            return readText(mPosition);
+        }
+        mToken = Token.END_OF_INPUT;
+        return mToken;
+    }
+
+    public Token getToken() {
+        return mToken;
+    }
+
+    /**
+     * @return start offset of the current text token in the source HTML
+     */
+    public int getTextStart() {
+        return mTextStart;
+    }
+
+    /**
+     * @return end offset (exclusive) of the current text token in the source HTML
+     */
+    public int getTextEnd() {
+        return mTextEnd;
+    }
+
+    /**
+     * @return whether the name of the current tag is the given (lower case) name
+     */
+    public boolean isTag(String name) {
+        return mNameEnd - mNameStart == name.length()
+                && mHtml.regionMatches(true, mNameStart, name, 0, name.length());
+    }
+
+    public boolean isSelfClosing() {
+        return mSelfClosing;
+    }
+
+    /**
+     * @return decoded value of the attribute of the current start tag, empty string for attributes
+     *         without value, or null if there is no such attribute
+     */
+    @Nullable
+    public String getAttribute(String name) {
+        int position = mAttributesStart;
+        while (position < mAttributesEnd) {
+            while (position < mAttributesEnd && !isAttributeNameChar(mHtml.charAt(position))) {
+                position++;
+            }
+            int nameStart = position;
+            while (position < mAttributesEnd && isAttributeNameChar(mHtml.charAt(position))) {
+                position++;
+            }
+            int nameEnd = position;
+            if (nameStart == nameEnd) {
+                break;
+            }
+            position = skipWhitespace(position, mAttributesEnd);
+
+            int valueStart = position;
+            int valueEnd = position;
+            if (position < mAttributesEnd && mHtml.charAt(position) == '=') {
+                position = skipWhitespace(position + 1, mAttributesEnd);
+                char quote = charAt(position);
+                if (quote == '"' || quote == '\'') {
+                    valueStart = position + 1;
+                    valueEnd = mHtml.indexOf(quote, valueStart);
+                    if (valueEnd < 0 || valueEnd > mAttributesEnd) {
+                        valueEnd = mAttributesEnd;
+                    }
+                    position = Math.min(valueEnd + 1, mAttributesEnd);
+                } else {
+                    valueStart = position;
+                    while (position < mAttributesEnd && !Character.isWhitespace(mHtml.charAt(position))) {
+                        position++;
+                    }
+                    valueEnd = position;
+                }
+            }
+
+            if (nameEnd - nameStart == name.length()
+                    && mHtml.regionMatches(true, nameStart, name, 0, name.length())) {
+                StringBuilder value = new StringBuilder(valueEnd - valueStart);
+                HtmlEntities.appendDecoded(mHtml, valueStart, valueEnd, value);
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    private Token readText(int start) {
+        int end = mHtml.indexOf('<', start + 1);
+        if (end < 0) {
+            end = mLength;
+        }
+        mTextStart = start;
+        mTextEnd = end;
+        mPosition = end;
+        mToken = Token.TEXT;
+        return mToken;
+    }
+
+    private Token readTag(Token token, int nameStart) {
+        int position = nameStart;
+        while (position < mLength && isTagNameChar(mHtml.charAt(position))) {
+            position++;
+        }
+        mNameStart = nameStart;
+        mNameEnd = position;
+        mAttributesStart = position;
+
+        // quoted attribute values may contain '>'
+        char quote = 0;
+        while (position < mLength) {
+            char c = mHtml.charAt(position);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                break;
+            }
+            position++;
+        }
+        mAttributesEnd = position;
+        mSelfClosing = position > mAttributesStart && mHtml.charAt(position - 1) == '/';
+        if (mSelfClosing) {
+            mAttributesEnd--;
+        }
+        mPosition = Math.min(position + 1, mLength);
+        mToken = token;
+        return mToken;
+    }
+
+    private int skipPast(String terminator, int from) {
+        int index = mHtml.indexOf(terminator, from);
+        return index < 0 ? mLength : index + terminator.length();
+    }
+
+    private int skipWhitespace(int position, int end) {
+        while (position < end && Character.isWhitespace(mHtml.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private char charAt(int position) {
+        return position < mLength ? mHtml.charAt(position) : 0;
+    }
+
+    private static boolean isTagNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isTagNameChar(char c) {
+        return isTagNameStart(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    private static boolean isAttributeNameChar(char c) {
+        return !Character.isWhitespace(c) && c != '=' && c != '"' && c != '\'' && c != '/' && c != '>';
+    }
+}
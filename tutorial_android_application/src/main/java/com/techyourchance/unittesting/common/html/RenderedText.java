@@ -0,0 +1,100 @@
+package com.techyourchance.unittesting.common.html;
+
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Plain text together with the ranges it should be styled in. Spans are stored in parallel arrays
+ * in the order they were closed, which means that nested spans precede the spans that contain them.
+ */
+public final class RenderedText {
+
+    public enum SpanType {
+        BOLD, ITALIC, CODE, LINK, PARAGRAPH
+    }
+
+    private static final SpanType[] SPAN_TYPES = SpanType.values();
+
+    private final String mText;
+    private final int mSpansCount;
+    private final byte[] mSpanTypes;
+    private final int[] mSpanStarts;
+    private final int[] mSpanEnds;
+    // null unless there are links; null elements for spans other than links
+    @Nullable private final String[] mSpanUrls;
+
+    RenderedText(String text,
+                 int spansCount,
+                 byte[] spanTypes,
+                 int[] spanStarts,
+                 int[] spanEnds,
+                 @Nullable String[] spanUrls) {
+        mText = text;
+        mSpansCount = spansCount;
+        mSpanTypes = spanTypes;
+        mSpanStarts = spanStarts;
+        mSpanEnds = spanEnds;
+        mSpanUrls = spanUrls;
+    }
+
+    public String getText() {
+        return mText;
+    }
+
+    public int getSpansCount() {
+        return mSpansCount;
+    }
+
+    public SpanType getSpanType(int index) {
+        return SPAN_TYPES[mSpanTypes[index]];
+    }
+
+    public int getSpanStart(int index) {
+        return mSpanStarts[index];
+    }
+
+    public int getSpanEnd(int index) {
+        return mSpanEnds[index];
+    }
+
+    /**
+     * @return target of the link span at the given index, or null for other span types
+     */
+    @Nullable
+    public String getSpanUrl(int index) {
+        return mSpanUrls == null ? null : mSpanUrls[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RenderedText that = (RenderedText) o;
+        return mText.equals(that.mText)
+                && mSpansCount == that.mSpansCount
+                && Arrays.equals(mSpanTypes, that.mSpanTypes)
+                && Arrays.equals(mSpanStarts, that.mSpanStarts)
+                && Arrays.equals(mSpanEnds, that.mSpanEnds)
+                && Arrays.equals(mSpanUrls, that.mSpanUrls);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mText.hashCode() + Arrays.hashCode(mSpanStarts);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(mText);
+        for (int i = 0; i < mSpansCount; i++) {
+            sb.append(" [").append(getSpanType(i)).append(' ')
+                    .append(mSpanStarts[i]).append('-').append(mSpanEnds[i]);
+            if (getSpanUrl(i) != null) {
+                sb.append(' ').append(getSpanUrl(i));
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+}
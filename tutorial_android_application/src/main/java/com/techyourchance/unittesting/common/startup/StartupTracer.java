@@ -0,0 +1,134 @@
+package com.techyourchance.unittesting.common.startup;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records when each phase of the startup began and how long it took, relative to the creation
+ * of this tracer (which happens when the application is created).
+ * Only the first occurrence of each phase is recorded, therefore phases can be traced from code
+ * that runs repeatedly (e.g. the first bind of data into a screen).
+ * This class is thread safe.
+ */
+public class StartupTracer {
+
+    public enum Phase {
+        APPLICATION_ON_CREATE,
+        PREWARM,
+        MAIN_ACTIVITY_ON_CREATE,
+        FIRST_QUESTIONS_LIST_BIND
+    }
+
+    public static class PhaseTiming {
+
+        private final Phase mPhase;
+        private final long mStartOffsetNanos;
+        private final long mDurationNanos;
+
+        public PhaseTiming(Phase phase, long startOffsetNanos, long durationNanos) {
+            mPhase = phase;
+            mStartOffsetNanos = startOffsetNanos;
+            mDurationNanos = durationNanos;
+        }
+
+        public Phase getPhase() {
+            return mPhase;
+        }
+
+        /**
+         * @return time from the creation of the tracer to the beginning of the phase
+         */
+        public long getStartOffsetNanos() {
+            return mStartOffsetNanos;
+        }
+
+        public long getDurationNanos() {
+            return mDurationNanos;
+        }
+
+        /**
+         * @return time from the creation of the tracer to the end of the phase
+         */
+        public long getEndOffsetNanos() {
+            return mStartOffsetNanos + mDurationNanos;
+        }
+    }
+
+    private final TimeProvider mTimeProvider;
+    private final long mOriginNanos;
+
+    private final Map<Phase, Long> mPhaseStartOffsetsNanos = new EnumMap<>(Phase.class);
+    private final List<PhaseTiming> mPhaseTimings = new ArrayList<>();
+
+    public StartupTracer(TimeProvider timeProvider) {
+        mTimeProvider = timeProvider;
+        mOriginNanos = timeProvider.getNanoTime();
+    }
+
+    /**
+     * Ignored if the phase has already begun
+     */
+    public synchronized void beginPhase(Phase phase) {
+        if (mPhaseStartOffsetsNanos.containsKey(phase)) {
+            return;
+        }
+        mPhaseStartOffsetsNanos.put(phase, mTimeProvider.getNanoTime() - mOriginNanos);
+    }
+
+    /**
+     * Ignored if the phase hasn't begun, or has already ended
+     */
+    public synchronized void endPhase(Phase phase) {
+        Long startOffsetNanos = mPhaseStartOffsetsNanos.get(phase);
+        if (startOffsetNanos == null || getPhaseTiming(phase) != null) {
+            return;
+        }
+        long endOffsetNanos = mTimeProvider.getNanoTime() - mOriginNanos;
+        mPhaseTimings.add(new PhaseTiming(phase, startOffsetNanos, endOffsetNanos - startOffsetNanos));
+    }
+
+    /**
+     * @return timing of the given phase, or null if the phase hasn't ended yet
+     */
+    @Nullable
+    public synchronized PhaseTiming getPhaseTiming(Phase phase) {
+        for (PhaseTiming phaseTiming : mPhaseTimings) {
+            if (phaseTiming.getPhase() == phase) {
+                return phaseTiming;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return timings of the phases which ended, in the order in which they ended
+     */
+    public synchronized List<PhaseTiming> getPhaseTimings() {
+        return new ArrayList<>(mPhaseTimings);
+    }
+
+    /**
+     * @return human readable report of the phases which ended
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (PhaseTiming phaseTiming : getPhaseTimings()) {
+            report.append(String.format(
+                    Locale.US,
+                    "%-26s started at %8.2f ms, took %8.2f ms%n",
+                    phaseTiming.getPhase(),
+                    phaseTiming.getStartOffsetNanos() / 1e6,
+                    phaseTiming.getDurationNanos() / 1e6
+            ));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.techyourchance.unittesting.common.time;
+
+public class FreshnessPolicy {
+
+    public enum Freshness {
+        FRESH,
+        STALE,
+        EXPIRED
+    }
+
+    private final TimeProvider mTimeProvider;
+    private final long mFreshPeriodMs;
+    private final long mStalePeriodMs;
+
+    /**
+     * @param freshPeriodMs data younger than this is served without refresh
+     * @param stalePeriodMs data older than fresh period, but younger than fresh + stale periods, is
+     *                      served and refreshed in background; zero disables stale-while-revalidate
+     */
+    public FreshnessPolicy(TimeProvider timeProvider, long freshPeriodMs, long stalePeriodMs) {
+        mTimeProvider = timeProvider;
+        mFreshPeriodMs = freshPeriodMs;
+        mStalePeriodMs = stalePeriodMs;
+    }
+
+    public Freshness getFreshness(long cachedTimestamp) {
+        long now = mTimeProvider.getCurrentTimestamp();
+        if (now < cachedTimestamp + mFreshPeriodMs) {
+            return Freshness.FRESH;
+        } else if (now < cachedTimestamp + mFreshPeriodMs + mStalePeriodMs) {
+            return Freshness.STALE;
+        } else {
+            return Freshness.EXPIRED;
+        }
+    }
+
+    public long getMaxAgeMs() {
+        return mFreshPeriodMs + mStalePeriodMs;
+    }
+}
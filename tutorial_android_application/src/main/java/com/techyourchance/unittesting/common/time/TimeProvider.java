@@ -5,4 +5,18 @@ public class TimeProvider {
     public long getCurrentTimestamp() {
         return System.currentTimeMillis();
     }
+
+    /**
+     * @return monotonic time in nanoseconds, suitable for measuring durations only
+     */
+    public long getNanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Block the calling thread for the given duration
+     */
+    public void sleep(long durationMs) throws InterruptedException {
+        Thread.sleep(durationMs);
+    }
 }
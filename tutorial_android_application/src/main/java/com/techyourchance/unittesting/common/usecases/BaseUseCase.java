@@ -0,0 +1,97 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.BaseObservable;
+
+/**
+ * Base class for use cases which do their work off the main thread. Listeners are always
+ * notified on the main thread.
+ * If outstanding requests are tracked, they're cancelled once the last listener unregisters.
+ */
+public abstract class BaseUseCase<LISTENER_CLASS> extends BaseObservable<LISTENER_CLASS> {
+
+    private final UseCaseExecutors mUseCaseExecutors;
+    @Nullable private final OutstandingRequests mOutstandingRequests;
+
+    protected BaseUseCase(UseCaseExecutors useCaseExecutors) {
+        this(useCaseExecutors, null);
+    }
+
+    protected BaseUseCase(UseCaseExecutors useCaseExecutors, @Nullable OutstandingRequests outstandingRequests) {
+        mUseCaseExecutors = useCaseExecutors;
+        mOutstandingRequests = outstandingRequests;
+    }
+
+    @Override
+    protected void onFirstListenerRegistered() {
+        if (mOutstandingRequests != null) {
+            mOutstandingRequests.keepAll();
+        }
+    }
+
+    @Override
+    protected void onLastListenerUnregistered() {
+        if (mOutstandingRequests != null) {
+            mOutstandingRequests.cancelAllAfterGracePeriod();
+        }
+    }
+
+    /**
+     * @return token which will be cancelled if nobody is interested in the results of the request
+     *         anymore; {@link #completeRequest(CancellationToken)} must be called when the request
+     *         completes
+     */
+    protected final CancellationToken startRequest() {
+        return mOutstandingRequests != null ? mOutstandingRequests.start() : new CancellationToken();
+    }
+
+    protected final void completeRequest(CancellationToken requestCancellationToken) {
+        if (mOutstandingRequests != null) {
+            mOutstandingRequests.complete(requestCancellationToken);
+        }
+    }
+
+    /**
+     * @return number of requests that completed, or 0 if requests aren't tracked
+     */
+    public long getCompletedRequestsCount() {
+        return mOutstandingRequests != null ? mOutstandingRequests.getCompletedCount() : 0;
+    }
+
+    /**
+     * @return number of requests that were cancelled before completion, or 0 if requests
+     *         aren't tracked
+     */
+    public long getCancelledRequestsCount() {
+        return mOutstandingRequests != null ? mOutstandingRequests.getCancelledCount() : 0;
+    }
+
+    protected final void executeOnIo(Runnable runnable) {
+        mUseCaseExecutors.getIoExecutor().execute(runnable);
+    }
+
+    protected final void executeOnCompute(Runnable runnable) {
+        mUseCaseExecutors.getComputeExecutor().execute(runnable);
+    }
+
+    protected final void executeOnMainThread(Runnable runnable) {
+        mUseCaseExecutors.getMainThreadExecutor().execute(runnable);
+    }
+
+    /**
+     * Notify listeners on the main thread, unless the token has been cancelled by then
+     */
+    protected final <ARGUMENT> void notifyOnMainThread(final ListenerNotification<LISTENER_CLASS, ARGUMENT> notification,
+                                                       final ARGUMENT argument,
+                                                       final CancellationToken cancellationToken) {
+        executeOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                if (!cancellationToken.isCancelled()) {
+                    forEachListener(notification, argument);
+                }
+            }
+        });
+    }
+}
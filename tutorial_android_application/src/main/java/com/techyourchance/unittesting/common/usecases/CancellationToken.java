@@ -0,0 +1,55 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tells a use case that its caller is no longer interested in the results of an operation.
+ * Can be cancelled from any thread; cancellation can't be undone.
+ */
+public class CancellationToken {
+
+    private final Object mLock = new Object();
+
+    private volatile boolean mCancelled;
+    private List<Runnable> mOnCancelledActions;
+
+    public void cancel() {
+        List<Runnable> onCancelledActions;
+        synchronized (mLock) {
+            if (mCancelled) {
+                return;
+            }
+            mCancelled = true;
+            onCancelledActions = mOnCancelledActions;
+            mOnCancelledActions = null;
+        }
+        if (onCancelledActions != null) {
+            for (Runnable onCancelledAction : onCancelledActions) {
+                onCancelledAction.run();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * @param onCancelledAction will be run on the thread that cancels this token, or right away
+     *                          if this token has already been cancelled. Used to abort the work
+     *                          itself, e.g. to cancel network calls.
+     */
+    public void doOnCancelled(Runnable onCancelledAction) {
+        synchronized (mLock) {
+            if (!mCancelled) {
+                if (mOnCancelledActions == null) {
+                    mOnCancelledActions = new ArrayList<>(1);
+                }
+                mOnCancelledActions.add(onCancelledAction);
+                return;
+            }
+        }
+        onCancelledAction.run();
+    }
+}
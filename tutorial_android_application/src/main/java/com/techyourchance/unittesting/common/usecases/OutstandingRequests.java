@@ -0,0 +1,106 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of requests made by a use case, such that they can be cancelled once nobody is
+ * interested in their results anymore. Cancellation is deferred by a grace period, such that
+ * listeners which unregister and register again right away (e.g. during configuration change)
+ * don't lose the work in progress.
+ */
+public class OutstandingRequests {
+
+    private final ScheduledExecutorService mScheduler;
+    private final long mCancellationGracePeriodMs;
+
+    private final Set<CancellationToken> mOutstandingRequests = new HashSet<>();
+
+    private long mCompletedCount;
+    private long mCancelledCount;
+    // incremented whenever scheduled cancellation should no longer take place
+    private int mCancellationGeneration;
+
+    public OutstandingRequests(ScheduledExecutorService scheduler, long cancellationGracePeriodMs) {
+        mScheduler = scheduler;
+        mCancellationGracePeriodMs = cancellationGracePeriodMs;
+    }
+
+    /**
+     * @return token that will be cancelled if the request gets cancelled
+     */
+    public synchronized CancellationToken start() {
+        CancellationToken cancellationToken = new CancellationToken();
+        mOutstandingRequests.add(cancellationToken);
+        return cancellationToken;
+    }
+
+    /**
+     * Must be called when the request completes, whether successfully or not. Requests which have
+     * already been cancelled aren't counted as completed.
+     */
+    public synchronized void complete(CancellationToken cancellationToken) {
+        if (mOutstandingRequests.remove(cancellationToken)) {
+            mCompletedCount++;
+        }
+    }
+
+    /**
+     * Cancel all outstanding requests once the grace period passes, unless
+     * {@link #keepAll()} is called before that
+     */
+    public void cancelAllAfterGracePeriod() {
+        final int cancellationGeneration;
+        synchronized (this) {
+            cancellationGeneration = ++mCancellationGeneration;
+        }
+        if (mCancellationGracePeriodMs <= 0) {
+            cancelAll(cancellationGeneration);
+            return;
+        }
+        mScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                cancelAll(cancellationGeneration);
+            }
+        }, mCancellationGracePeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abort cancellation scheduled by {@link #cancelAllAfterGracePeriod()}
+     */
+    public synchronized void keepAll() {
+        mCancellationGeneration++;
+    }
+
+    private void cancelAll(int cancellationGeneration) {
+        List<CancellationToken> cancelledRequests;
+        synchronized (this) {
+            if (cancellationGeneration != mCancellationGeneration) {
+                return;
+            }
+            cancelledRequests = new ArrayList<>(mOutstandingRequests);
+            mOutstandingRequests.clear();
+            mCancelledCount += cancelledRequests.size();
+        }
+        for (CancellationToken cancellationToken : cancelledRequests) {
+            cancellationToken.cancel();
+        }
+    }
+
+    public synchronized int getOutstandingCount() {
+        return mOutstandingRequests.size();
+    }
+
+    public synchronized long getCompletedCount() {
+        return mCompletedCount;
+    }
+
+    public synchronized long getCancelledCount() {
+        return mCancelledCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs commands on the calling thread. Use it in place of real executors to make code that
+ * switches threads deterministic in tests.
+ */
+public class SynchronousExecutor implements Executor {
+
+    @Override
+    public void execute(Runnable command) {
+        command.run();
+    }
+}
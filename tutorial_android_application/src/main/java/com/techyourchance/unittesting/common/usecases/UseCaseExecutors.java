@@ -0,0 +1,40 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Threads that use cases run on: IO executor for blocking calls, compute executor for mapping
+ * and other CPU bound work, and main thread executor for notifying listeners.
+ */
+public class UseCaseExecutors {
+
+    private final Executor mIoExecutor;
+    private final Executor mComputeExecutor;
+    private final Executor mMainThreadExecutor;
+
+    public UseCaseExecutors(Executor ioExecutor, Executor computeExecutor, Executor mainThreadExecutor) {
+        mIoExecutor = ioExecutor;
+        mComputeExecutor = computeExecutor;
+        mMainThreadExecutor = mainThreadExecutor;
+    }
+
+    /**
+     * @return executors which run everything on the calling thread
+     */
+    public static UseCaseExecutors synchronous() {
+        SynchronousExecutor executor = new SynchronousExecutor();
+        return new UseCaseExecutors(executor, executor, executor);
+    }
+
+    public Executor getIoExecutor() {
+        return mIoExecutor;
+    }
+
+    public Executor getComputeExecutor() {
+        return mComputeExecutor;
+    }
+
+    public Executor getMainThreadExecutor() {
+        return mMainThreadExecutor;
+    }
+}
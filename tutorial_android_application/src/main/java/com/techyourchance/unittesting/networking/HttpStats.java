@@ -0,0 +1,109 @@
+package com.techyourchance.unittesting.networking;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import okhttp3.Cache;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Exposes how well the shared HTTP stack reuses connections and cached responses.
+ * Must be installed as a network interceptor in order to see the connection of each request.
+ */
+public class HttpStats implements Interceptor {
+
+    private final Cache mCache;
+    private final ConnectionPool mConnectionPool;
+
+    private final Set<Connection> mSeenConnections =
+            Collections.newSetFromMap(new WeakHashMap<Connection, Boolean>());
+
+    private int mNetworkRequestCount;
+    private int mReusedConnectionCount;
+    private int mNotModifiedCount;
+
+    public HttpStats(Cache cache, ConnectionPool connectionPool) {
+        mCache = cache;
+        mConnectionPool = connectionPool;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Connection connection = chain.connection();
+        synchronized (this) {
+            mNetworkRequestCount++;
+            if (connection != null && !mSeenConnections.add(connection)) {
+                mReusedConnectionCount++;
+            }
+        }
+        Response response = chain.proceed(chain.request());
+        if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            synchronized (this) {
+                mNotModifiedCount++;
+            }
+        }
+        return response;
+    }
+
+    /**
+     * @return number of requests that reached the network
+     */
+    public synchronized int getNetworkRequestCount() {
+        return mNetworkRequestCount;
+    }
+
+    /**
+     * @return number of network requests that were sent over an already used connection
+     */
+    public synchronized int getReusedConnectionCount() {
+        return mReusedConnectionCount;
+    }
+
+    /**
+     * @return number of conditional requests (ETag/Last-Modified) answered with 304 by the server
+     */
+    public synchronized int getNotModifiedCount() {
+        return mNotModifiedCount;
+    }
+
+    public float getConnectionReuseRate() {
+        return ratio(getReusedConnectionCount(), getNetworkRequestCount());
+    }
+
+    /**
+     * @return number of requests that went through the HTTP cache
+     */
+    public int getCacheRequestCount() {
+        return mCache.requestCount();
+    }
+
+    /**
+     * @return number of requests served by the HTTP cache, including ones that were
+     *         revalidated with the server
+     */
+    public int getCacheHitCount() {
+        return mCache.hitCount();
+    }
+
+    public float getCacheHitRate() {
+        return ratio(getCacheHitCount(), getCacheRequestCount());
+    }
+
+    public int getPooledConnectionCount() {
+        return mConnectionPool.connectionCount();
+    }
+
+    public int getIdleConnectionCount() {
+        return mConnectionPool.idleConnectionCount();
+    }
+
+    private float ratio(int count, int total) {
+        return total == 0 ? 0f : (float) count / total;
+    }
+}
@@ -0,0 +1,56 @@
+package com.techyourchance.unittesting.networking;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Decorates another converter factory, such that the wrapper of any converted response is
+ * reported to the listeners.
+ */
+public class ResponseWrapperConverterFactory extends Converter.Factory {
+
+    private final Converter.Factory mDelegate;
+    private final List<ResponseWrapperListener> mListeners;
+
+    public ResponseWrapperConverterFactory(Converter.Factory delegate, List<ResponseWrapperListener> listeners) {
+        mDelegate = delegate;
+        mListeners = listeners;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+                                                            Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        final Converter<ResponseBody, ?> converter = mDelegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) {
+            return null;
+        }
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(ResponseBody value) throws IOException {
+                Object converted = converter.convert(value);
+                if (converted instanceof ResponseWrapperSchema) {
+                    for (ResponseWrapperListener listener : mListeners) {
+                        listener.onResponseWrapperReceived((ResponseWrapperSchema) converted);
+                    }
+                }
+                return converted;
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type,
+                                                          Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations,
+                                                          Retrofit retrofit) {
+        return mDelegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+}
@@ -0,0 +1,8 @@
+package com.techyourchance.unittesting.networking;
+
+/**
+ * Interested in the wrapper fields of API responses, regardless of the endpoint they came from.
+ */
+public interface ResponseWrapperListener {
+    void onResponseWrapperReceived(ResponseWrapperSchema responseWrapper);
+}
@@ -0,0 +1,55 @@
+package com.techyourchance.unittesting.networking;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Fields of the common wrapper object StackExchange puts around every response.
+ */
+public class ResponseWrapperSchema {
+
+    @SerializedName("backoff")
+    private Integer mBackoffSeconds;
+
+    @SerializedName("quota_remaining")
+    private Integer mQuotaRemaining;
+
+    @SerializedName("quota_max")
+    private Integer mQuotaMax;
+
+    protected ResponseWrapperSchema() {}
+
+    public ResponseWrapperSchema(@Nullable Integer backoffSeconds,
+                                 @Nullable Integer quotaRemaining,
+                                 @Nullable Integer quotaMax) {
+        mBackoffSeconds = backoffSeconds;
+        mQuotaRemaining = quotaRemaining;
+        mQuotaMax = quotaMax;
+    }
+
+    /**
+     * @return number of seconds the API asks clients to wait before hitting the same method
+     *         again, or null if no backoff was requested
+     */
+    @Nullable
+    public Integer getBackoffSeconds() {
+        return mBackoffSeconds;
+    }
+
+    /**
+     * @return number of requests left in the daily quota of the API key
+     */
+    @Nullable
+    public Integer getQuotaRemaining() {
+        return mQuotaRemaining;
+    }
+
+    /**
+     * @return daily quota of the API key
+     */
+    @Nullable
+    public Integer getQuotaMax() {
+        return mQuotaMax;
+    }
+}
@@ -4,16 +4,41 @@ import com.techyourchance.unittesting.common.Constants;
 import com.techyourchance.unittesting.networking.questions.QuestionDetailsResponseSchema;
 import com.techyourchance.unittesting.networking.questions.QuestionsListResponseSchema;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface StackoverflowApi {
 
     @GET("/questions?key=" + Constants.STACKOVERFLOW_API_KEY + "&sort=activity&order=desc&site=stackoverflow&filter=withbody")
     Call<QuestionsListResponseSchema> fetchLastActiveQuestions(@Query("pagesize") Integer pageSize);
 
+    @Streaming
+    @GET("/questions?key=" + Constants.STACKOVERFLOW_API_KEY + "&sort=activity&order=desc&site=stackoverflow&filter=withbody")
+    Call<ResponseBody> fetchLastActiveQuestionsStreaming(@Query("pagesize") Integer pageSize);
+
+    @GET("/questions?key=" + Constants.STACKOVERFLOW_API_KEY + "&sort=activity&order=desc&site=stackoverflow")
+    Call<QuestionsListResponseSchema> fetchLastActiveQuestionsWithoutBody(@Query("pagesize") Integer pageSize);
+
+    /**
+     * @param page 1-based page number
+     * @param maxActivityDate only questions last active at or before this time (in seconds since
+     *                        epoch) are returned, such that pages don't shift as new activity happens
+     */
+    @GET("/questions?key=" + Constants.STACKOVERFLOW_API_KEY + "&sort=activity&order=desc&site=stackoverflow")
+    Call<QuestionsListResponseSchema> fetchLastActiveQuestionsPage(@Query("pagesize") Integer pageSize,
+                                                                   @Query("page") Integer page,
+                                                                   @Query("max") Long maxActivityDate);
+
     @GET("/questions/{questionId}?key=" + Constants.STACKOVERFLOW_API_KEY + "&site=stackoverflow&filter=withbody")
     Call<QuestionDetailsResponseSchema> fetchQuestionDetails(@Path("questionId") String questionId);
+
+    /**
+     * @param questionIds up to 100 semicolon-separated question ids
+     */
+    @GET("/questions/{questionIds}?key=" + Constants.STACKOVERFLOW_API_KEY + "&site=stackoverflow&filter=withbody&pagesize=100")
+    Call<QuestionsListResponseSchema> fetchQuestionsDetails(@Path("questionIds") String questionIds);
 }
@@ -0,0 +1,143 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Entry point for recording API metrics: measures durations with the monotonic clock and forwards
+ * everything to the sink.
+ */
+public class ApiMetrics {
+
+    public static final String ENDPOINT_QUESTIONS = "/questions";
+    public static final String ENDPOINT_QUESTION_DETAILS = "/questions/{id}";
+
+    private static final String ID_PLACEHOLDER = "{id}";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final ApiMetrics DISABLED = new ApiMetrics(new NoOpMetricsSink(), new TimeProvider());
+
+    /**
+     * @return instance which discards all metrics
+     */
+    public static ApiMetrics disabled() {
+        return DISABLED;
+    }
+
+    private final MetricsSink mMetricsSink;
+    private final TimeProvider mTimeProvider;
+
+    public ApiMetrics(MetricsSink metricsSink, TimeProvider timeProvider) {
+        mMetricsSink = metricsSink;
+        mTimeProvider = timeProvider;
+    }
+
+    /**
+     * @return start time to be passed to {@link #recordLatencySince(String, MetricsSink.Phase, long)}
+     *         or {@link #getElapsedNanos(long)}
+     */
+    public long startTiming() {
+        return mTimeProvider.getNanoTime();
+    }
+
+    public long getElapsedNanos(long startNanos) {
+        return mTimeProvider.getNanoTime() - startNanos;
+    }
+
+    public void recordLatencySince(String endpoint, MetricsSink.Phase phase, long startNanos) {
+        mMetricsSink.recordLatency(endpoint, phase, getElapsedNanos(startNanos));
+    }
+
+    public void recordLatency(String endpoint, MetricsSink.Phase phase, long durationNanos) {
+        mMetricsSink.recordLatency(endpoint, phase, durationNanos);
+    }
+
+    public void recordResponseSize(String endpoint, long bytes) {
+        mMetricsSink.recordResponseSize(endpoint, bytes);
+    }
+
+    public void recordCacheLookup(String endpoint, boolean hit) {
+        mMetricsSink.recordCacheLookup(endpoint, hit);
+    }
+
+    public void recordError(String endpoint, MetricsSink.ErrorClass errorClass) {
+        mMetricsSink.recordError(endpoint, errorClass);
+    }
+
+    /**
+     * Record the class of an unsuccessful HTTP response; successful responses are ignored
+     */
+    public void recordResponseCode(String endpoint, int code) {
+        if (code == HTTP_TOO_MANY_REQUESTS) {
+            recordError(endpoint, MetricsSink.ErrorClass.RATE_LIMITED);
+        } else if (code >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            recordError(endpoint, MetricsSink.ErrorClass.SERVER);
+        } else if (code >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            recordError(endpoint, MetricsSink.ErrorClass.CLIENT);
+        }
+    }
+
+    public void recordFailure(String endpoint, IOException failure) {
+        recordError(endpoint, classify(failure));
+    }
+
+    private MetricsSink.ErrorClass classify(IOException failure) {
+        if (failure instanceof InterruptedIOException) {
+            // SocketTimeoutException is a subclass as well
+            return MetricsSink.ErrorClass.TIMEOUT;
+        } else {
+            return MetricsSink.ErrorClass.NETWORK;
+        }
+    }
+
+    /**
+     * @param path either the path of a request, or the path template of an API method
+     * @return the path, with segments which hold ids (or their placeholders) replaced by
+     *         {@link #ID_PLACEHOLDER}, such that all requests to the same endpoint share a name
+     */
+    public static String endpointName(String path) {
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        StringBuilder endpointName = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            endpointName.append('/').append(isIdSegment(segment) ? ID_PLACEHOLDER : segment);
+        }
+        return endpointName.length() == 0 ? "/" : endpointName.toString();
+    }
+
+    private static boolean isIdSegment(String segment) {
+        if (segment.startsWith("{") && segment.endsWith("}")) {
+            return true;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (!Character.isDigit(c) && c != ';') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class NoOpMetricsSink implements MetricsSink {
+
+        @Override
+        public void recordLatency(String endpoint, Phase phase, long durationNanos) {}
+
+        @Override
+        public void recordResponseSize(String endpoint, long bytes) {}
+
+        @Override
+        public void recordCacheLookup(String endpoint, boolean hit) {}
+
+        @Override
+        public void recordError(String endpoint, ErrorClass errorClass) {}
+    }
+}
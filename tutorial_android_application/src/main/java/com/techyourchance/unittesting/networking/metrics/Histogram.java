@@ -0,0 +1,88 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+/**
+ * Histogram of non-negative values with power of two buckets. Recording is constant time and
+ * doesn't allocate; percentiles are therefore approximate, reported as the upper bound of the
+ * bucket that contains them (but never above the maximal recorded value).
+ */
+public class Histogram {
+
+    private static final int BUCKETS_COUNT = 64;
+
+    // bucket i holds values in range [2^(i-1), 2^i - 1]; bucket 0 holds zeros
+    private final long[] mBuckets = new long[BUCKETS_COUNT];
+
+    private long mCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax;
+
+    public Histogram() {}
+
+    /**
+     * Create a snapshot of another histogram
+     */
+    public Histogram(Histogram histogram) {
+        synchronized (histogram) {
+            System.arraycopy(histogram.mBuckets, 0, mBuckets, 0, BUCKETS_COUNT);
+            mCount = histogram.mCount;
+            mSum = histogram.mSum;
+            mMin = histogram.mMin;
+            mMax = histogram.mMax;
+        }
+    }
+
+    public synchronized void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        mBuckets[Math.min(BUCKETS_COUNT - 1, 64 - Long.numberOfLeadingZeros(value))]++;
+        mCount++;
+        mSum += value;
+        mMin = Math.min(mMin, value);
+        mMax = Math.max(mMax, value);
+    }
+
+    public synchronized long getCount() {
+        return mCount;
+    }
+
+    public synchronized long getSum() {
+        return mSum;
+    }
+
+    public synchronized long getMin() {
+        return mCount == 0 ? 0 : mMin;
+    }
+
+    public synchronized long getMax() {
+        return mMax;
+    }
+
+    public synchronized double getMean() {
+        return mCount == 0 ? 0 : (double) mSum / mCount;
+    }
+
+    /**
+     * @param percentile in range [0, 100]
+     * @return approximate value below which the given percentage of the recorded values falls
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(mCount * percentile / 100));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            cumulativeCount += mBuckets[i];
+            if (cumulativeCount >= rank) {
+                return Math.max(mMin, Math.min(mMax, bucketUpperBound(i)));
+            }
+        }
+        return mMax;
+    }
+
+    private long bucketUpperBound(int bucket) {
+        return bucket == BUCKETS_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,232 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import okhttp3.Connection;
+import okhttp3.Dns;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Records per-endpoint network metrics of each attempt: DNS, connect, TTFB and total latencies,
+ * decoded response sizes, cache lookups and error classes.
+ * OkHttp doesn't expose connection events to clients of this version, therefore the phases are
+ * derived from the points where the collector's hooks are invoked: the application interceptor
+ * must be the last one, the network interceptor the first one, and the DNS must be installed into
+ * the client. All of them are invoked on the thread that executes the call, which is how they
+ * share the timings of an attempt.
+ */
+public class HttpMetricsCollector {
+
+    private final ApiMetrics mApiMetrics;
+
+    private final ThreadLocal<AttemptTimings> mAttemptTimings = new ThreadLocal<>();
+
+    private final Set<Connection> mSeenConnections =
+            Collections.newSetFromMap(new WeakHashMap<Connection, Boolean>());
+
+    private final Interceptor mApplicationInterceptor = new Interceptor() {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            return interceptAttempt(chain);
+        }
+    };
+
+    private final Interceptor mNetworkInterceptor = new Interceptor() {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            return interceptNetworkRequest(chain);
+        }
+    };
+
+    public HttpMetricsCollector(ApiMetrics apiMetrics) {
+        mApiMetrics = apiMetrics;
+    }
+
+    /**
+     * @return interceptor which must be installed as the last application interceptor
+     */
+    public Interceptor getApplicationInterceptor() {
+        return mApplicationInterceptor;
+    }
+
+    /**
+     * @return interceptor which must be installed as the first network interceptor
+     */
+    public Interceptor getNetworkInterceptor() {
+        return mNetworkInterceptor;
+    }
+
+    /**
+     * @return DNS which measures the lookups of the given one
+     */
+    public Dns getDns(final Dns dns) {
+        return new Dns() {
+            @Override
+            public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+                long startNanos = mApiMetrics.startTiming();
+                try {
+                    return dns.lookup(hostname);
+                } finally {
+                    AttemptTimings attemptTimings = mAttemptTimings.get();
+                    if (attemptTimings != null) {
+                        attemptTimings.mDnsResolved = true;
+                        attemptTimings.mDnsNanos = mApiMetrics.getElapsedNanos(startNanos);
+                    }
+                }
+            }
+        };
+    }
+
+    private Response interceptAttempt(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpointName(request.url());
+        AttemptTimings attemptTimings = new AttemptTimings(mApiMetrics.startTiming());
+        mAttemptTimings.set(attemptTimings);
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                mApiMetrics.recordError(endpoint, MetricsSink.ErrorClass.CANCELED);
+            } else {
+                mApiMetrics.recordFailure(endpoint, e);
+            }
+            throw e;
+        } finally {
+            mAttemptTimings.remove();
+        }
+        mApiMetrics.recordLatencySince(endpoint, MetricsSink.Phase.TOTAL, attemptTimings.mStartNanos);
+        mApiMetrics.recordCacheLookup(endpoint, isServedFromCache(response));
+        mApiMetrics.recordResponseCode(endpoint, response.code());
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        return response.newBuilder().body(new SizeReportingResponseBody(body, endpoint)).build();
+    }
+
+    private Response interceptNetworkRequest(Interceptor.Chain chain) throws IOException {
+        String endpoint = endpointName(chain.request().url());
+        AttemptTimings attemptTimings = mAttemptTimings.get();
+        if (attemptTimings != null && isNewConnection(chain.connection())) {
+            recordConnectionTimings(endpoint, attemptTimings);
+        }
+        long requestStartNanos = mApiMetrics.startTiming();
+        Response response = chain.proceed(chain.request());
+        mApiMetrics.recordLatencySince(endpoint, MetricsSink.Phase.TTFB, requestStartNanos);
+        return response;
+    }
+
+    private synchronized boolean isNewConnection(@Nullable Connection connection) {
+        return connection != null && mSeenConnections.add(connection);
+    }
+
+    private void recordConnectionTimings(String endpoint, AttemptTimings attemptTimings) {
+        long connectNanos = mApiMetrics.getElapsedNanos(attemptTimings.mStartNanos);
+        if (attemptTimings.mDnsResolved) {
+            mApiMetrics.recordLatency(endpoint, MetricsSink.Phase.DNS, attemptTimings.mDnsNanos);
+            connectNanos -= attemptTimings.mDnsNanos;
+        }
+        mApiMetrics.recordLatency(endpoint, MetricsSink.Phase.CONNECT, connectNanos);
+    }
+
+    private boolean isServedFromCache(Response response) {
+        Response networkResponse = response.networkResponse();
+        return response.cacheResponse() != null
+                && (networkResponse == null || networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED);
+    }
+
+    private String endpointName(HttpUrl url) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : url.pathSegments()) {
+            path.append('/').append(segment);
+        }
+        return ApiMetrics.endpointName(path.toString());
+    }
+
+    private static class AttemptTimings {
+        private final long mStartNanos;
+        private boolean mDnsResolved;
+        private long mDnsNanos;
+
+        private AttemptTimings(long startNanos) {
+            mStartNanos = startNanos;
+        }
+    }
+
+    /**
+     * Reports the number of bytes read once the body is exhausted or closed
+     */
+    private class SizeReportingResponseBody extends ResponseBody {
+
+        private final ResponseBody mResponseBody;
+        private final BufferedSource mSource;
+
+        private SizeReportingResponseBody(ResponseBody responseBody, final String endpoint) {
+            mResponseBody = responseBody;
+            mSource = Okio.buffer(new ForwardingSource(responseBody.source()) {
+
+                private long mBytesRead;
+                private boolean mReported;
+
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long bytesRead = super.read(sink, byteCount);
+                    if (bytesRead == -1) {
+                        report();
+                    } else {
+                        mBytesRead += bytesRead;
+                    }
+                    return bytesRead;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    report();
+                    super.close();
+                }
+
+                private void report() {
+                    if (!mReported) {
+                        mReported = true;
+                        mApiMetrics.recordResponseSize(endpoint, mBytesRead);
+                    }
+                }
+            });
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return mResponseBody.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return mResponseBody.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return mSource;
+        }
+    }
+}
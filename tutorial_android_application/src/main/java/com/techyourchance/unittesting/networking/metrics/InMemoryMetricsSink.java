@@ -0,0 +1,118 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregates metrics in memory, such that they can be inspected at runtime, asserted on in tests
+ * and reported by benchmarks. Histograms are returned as snapshots.
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+
+    private final Map<String, EndpointMetrics> mEndpointsMetrics = new HashMap<>();
+
+    @Override
+    public void recordLatency(String endpoint, Phase phase, long durationNanos) {
+        Histogram histogram;
+        synchronized (this) {
+            EndpointMetrics endpointMetrics = getOrCreateEndpointMetrics(endpoint);
+            histogram = endpointMetrics.mLatencies.get(phase);
+            if (histogram == null) {
+                histogram = new Histogram();
+                endpointMetrics.mLatencies.put(phase, histogram);
+            }
+        }
+        histogram.record(durationNanos);
+    }
+
+    @Override
+    public void recordResponseSize(String endpoint, long bytes) {
+        Histogram histogram;
+        synchronized (this) {
+            histogram = getOrCreateEndpointMetrics(endpoint).mResponseSizes;
+        }
+        histogram.record(bytes);
+    }
+
+    @Override
+    public synchronized void recordCacheLookup(String endpoint, boolean hit) {
+        EndpointMetrics endpointMetrics = getOrCreateEndpointMetrics(endpoint);
+        endpointMetrics.mCacheLookupsCount++;
+        if (hit) {
+            endpointMetrics.mCacheHitsCount++;
+        }
+    }
+
+    @Override
+    public synchronized void recordError(String endpoint, ErrorClass errorClass) {
+        Map<ErrorClass, Integer> errorsCounts = getOrCreateEndpointMetrics(endpoint).mErrorsCounts;
+        Integer count = errorsCounts.get(errorClass);
+        errorsCounts.put(errorClass, count == null ? 1 : count + 1);
+    }
+
+    public synchronized Set<String> getEndpoints() {
+        return new HashSet<>(mEndpointsMetrics.keySet());
+    }
+
+    /**
+     * @return latencies in nanoseconds; empty if none were recorded
+     */
+    public synchronized Histogram getLatencyHistogram(String endpoint, Phase phase) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        Histogram histogram = endpointMetrics == null ? null : endpointMetrics.mLatencies.get(phase);
+        return histogram == null ? new Histogram() : new Histogram(histogram);
+    }
+
+    /**
+     * @return response sizes in bytes; empty if none were recorded
+     */
+    public synchronized Histogram getResponseSizeHistogram(String endpoint) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        return endpointMetrics == null ? new Histogram() : new Histogram(endpointMetrics.mResponseSizes);
+    }
+
+    public synchronized int getCacheLookupsCount(String endpoint) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        return endpointMetrics == null ? 0 : endpointMetrics.mCacheLookupsCount;
+    }
+
+    public synchronized int getCacheHitsCount(String endpoint) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        return endpointMetrics == null ? 0 : endpointMetrics.mCacheHitsCount;
+    }
+
+    public synchronized float getCacheHitRatio(String endpoint) {
+        int lookupsCount = getCacheLookupsCount(endpoint);
+        return lookupsCount == 0 ? 0f : (float) getCacheHitsCount(endpoint) / lookupsCount;
+    }
+
+    public synchronized int getErrorsCount(String endpoint, ErrorClass errorClass) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        Integer count = endpointMetrics == null ? null : endpointMetrics.mErrorsCounts.get(errorClass);
+        return count == null ? 0 : count;
+    }
+
+    public synchronized void clear() {
+        mEndpointsMetrics.clear();
+    }
+
+    private EndpointMetrics getOrCreateEndpointMetrics(String endpoint) {
+        EndpointMetrics endpointMetrics = mEndpointsMetrics.get(endpoint);
+        if (endpointMetrics == null) {
+            endpointMetrics = new EndpointMetrics();
+            mEndpointsMetrics.put(endpoint, endpointMetrics);
+        }
+        return endpointMetrics;
+    }
+
+    private static class EndpointMetrics {
+        private final Map<Phase, Histogram> mLatencies = new EnumMap<>(Phase.class);
+        private final Histogram mResponseSizes = new Histogram();
+        private final Map<ErrorClass, Integer> mErrorsCounts = new EnumMap<>(ErrorClass.class);
+        private int mCacheLookupsCount;
+        private int mCacheHitsCount;
+    }
+}
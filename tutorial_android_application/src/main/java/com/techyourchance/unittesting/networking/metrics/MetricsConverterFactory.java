@@ -0,0 +1,73 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * Decorates another converter factory, such that the duration of each conversion is recorded as
+ * the parse phase of the endpoint, and failed conversions as parse errors. The body is read while
+ * it's being converted, therefore the parse phase includes its download.
+ * Raw response bodies aren't converted, thus they aren't measured.
+ */
+public class MetricsConverterFactory extends Converter.Factory {
+
+    private static final String UNKNOWN_ENDPOINT = "unknown";
+
+    private final Converter.Factory mDelegate;
+    private final ApiMetrics mApiMetrics;
+
+    public MetricsConverterFactory(Converter.Factory delegate, ApiMetrics apiMetrics) {
+        mDelegate = delegate;
+        mApiMetrics = apiMetrics;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+                                                            Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        final Converter<ResponseBody, ?> converter = mDelegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null || type == ResponseBody.class) {
+            return converter;
+        }
+        final String endpoint = endpointName(annotations);
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(ResponseBody value) throws IOException {
+                long startNanos = mApiMetrics.startTiming();
+                Object converted;
+                try {
+                    converted = converter.convert(value);
+                } catch (IOException | RuntimeException e) {
+                    mApiMetrics.recordError(endpoint, MetricsSink.ErrorClass.PARSE);
+                    throw e;
+                }
+                mApiMetrics.recordLatencySince(endpoint, MetricsSink.Phase.PARSE, startNanos);
+                return converted;
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type,
+                                                          Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations,
+                                                          Retrofit retrofit) {
+        return mDelegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    private String endpointName(Annotation[] methodAnnotations) {
+        for (Annotation annotation : methodAnnotations) {
+            if (annotation instanceof GET) {
+                return ApiMetrics.endpointName(((GET) annotation).value());
+            }
+        }
+        return UNKNOWN_ENDPOINT;
+    }
+}
@@ -0,0 +1,49 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+/**
+ * Destination of API metrics. Metrics are keyed by endpoint, which is the path of the request with
+ * ids replaced by a placeholder (see {@link ApiMetrics#endpointName(String)}).
+ * Implementations must be thread safe: metrics are recorded on network, compute and main threads.
+ */
+public interface MetricsSink {
+
+    enum Phase {
+        /** resolution of the host name, if it wasn't already resolved for a pooled connection */
+        DNS,
+        /** establishment of a new connection, including TLS handshake (but excluding DNS) */
+        CONNECT,
+        /** time from sending the request until response headers are received */
+        TTFB,
+        /** time from the start of an attempt until response headers are received */
+        TOTAL,
+        /** reading and parsing of the response body */
+        PARSE,
+        /** mapping of parsed schemas into models */
+        MAP
+    }
+
+    enum ErrorClass {
+        TIMEOUT,
+        CANCELED,
+        NETWORK,
+        RATE_LIMITED,
+        CLIENT,
+        SERVER,
+        PARSE
+    }
+
+    void recordLatency(String endpoint, Phase phase, long durationNanos);
+
+    /**
+     * @param bytes size of the decoded (uncompressed) response body
+     */
+    void recordResponseSize(String endpoint, long bytes);
+
+    /**
+     * @param hit whether the response was served from the HTTP cache, either directly or after
+     *            revalidation with the server
+     */
+    void recordCacheLookup(String endpoint, boolean hit);
+
+    void recordError(String endpoint, ErrorClass errorClass);
+}
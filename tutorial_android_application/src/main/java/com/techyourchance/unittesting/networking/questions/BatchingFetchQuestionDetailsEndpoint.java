@@ -0,0 +1,239 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.StackoverflowApi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Collects question details requests during a short window (or until the max batch size is reached)
+ * and fetches all of them in a single call to the StackExchange multi-id endpoint.
+ * Requests for the same question id within one batch share the result.
+ * Cancelled requests are removed from the batch if it hasn't been fetched yet; the call is
+ * cancelled once all requests in its batch have been cancelled.
+ * A batch fetched because it reached the max size cancels the flush scheduled for it, such that
+ * the next batch gets its own full window.
+ */
+public class BatchingFetchQuestionDetailsEndpoint extends FetchQuestionDetailsEndpoint {
+
+    private final StackoverflowApi mStackoverflowApi;
+    private final ScheduledExecutorService mScheduler;
+    private final long mBatchWindowMs;
+    private final int mMaxBatchSize;
+
+    // insertion order is the order of requests
+    private final LinkedHashMap<String, List<Request>> mPendingRequests = new LinkedHashMap<>();
+    // null if no flush is scheduled
+    private ScheduledFlush mScheduledFlush;
+
+    public BatchingFetchQuestionDetailsEndpoint(StackoverflowApi stackoverflowApi,
+                                                ScheduledExecutorService scheduler,
+                                                long batchWindowMs,
+                                                int maxBatchSize) {
+        super(stackoverflowApi);
+        mStackoverflowApi = stackoverflowApi;
+        mScheduler = scheduler;
+        mBatchWindowMs = batchWindowMs;
+        mMaxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void fetchQuestionDetails(String questionId, CancellationToken cancellationToken, Listener listener) {
+        final Request request = new Request(questionId, listener);
+        Batch fullBatch = null;
+        synchronized (this) {
+            List<Request> requests = mPendingRequests.get(questionId);
+            if (requests == null) {
+                requests = new ArrayList<>(1);
+                mPendingRequests.put(questionId, requests);
+            }
+            requests.add(request);
+
+            if (mPendingRequests.size() >= mMaxBatchSize) {
+                fullBatch = takeBatch();
+                cancelScheduledFlush();
+            } else if (mScheduledFlush == null) {
+                mScheduledFlush = new ScheduledFlush();
+                mScheduledFlush.mFuture = mScheduler.schedule(mScheduledFlush, mBatchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        cancellationToken.doOnCancelled(new Runnable() {
+            @Override
+            public void run() {
+                cancel(request);
+            }
+        });
+        if (fullBatch != null) {
+            fetchBatch(fullBatch);
+        }
+    }
+
+    private void flush(ScheduledFlush scheduledFlush) {
+        Batch batch;
+        synchronized (this) {
+            if (scheduledFlush != mScheduledFlush) {
+                // cancelled after it had already started
+                return;
+            }
+            mScheduledFlush = null;
+            if (mPendingRequests.isEmpty()) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        fetchBatch(batch);
+    }
+
+    private void cancelScheduledFlush() {
+        if (mScheduledFlush != null) {
+            mScheduledFlush.mFuture.cancel(false);
+            mScheduledFlush = null;
+        }
+    }
+
+    private Batch takeBatch() {
+        Batch batch = new Batch();
+        Iterator<Map.Entry<String, List<Request>>> iterator = mPendingRequests.entrySet().iterator();
+        while (iterator.hasNext() && batch.mRequests.size() < mMaxBatchSize) {
+            Map.Entry<String, List<Request>> entry = iterator.next();
+            batch.mRequests.put(entry.getKey(), entry.getValue());
+            for (Request request : entry.getValue()) {
+                request.mBatch = batch;
+            }
+            batch.mActiveRequestsCount += entry.getValue().size();
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void cancel(Request request) {
+        boolean removedFromPending = false;
+        Call<QuestionsListResponseSchema> callToCancel = null;
+        synchronized (this) {
+            if (request.mCancelled) {
+                return;
+            }
+            request.mCancelled = true;
+            Batch batch = request.mBatch;
+            if (batch == null) {
+                List<Request> requests = mPendingRequests.get(request.mQuestionId);
+                requests.remove(request);
+                if (requests.isEmpty()) {
+                    mPendingRequests.remove(request.mQuestionId);
+                }
+                removedFromPending = true;
+            } else if (--batch.mActiveRequestsCount == 0) {
+                // if the call hasn't been made yet, it will be cancelled right after it's made
+                callToCancel = batch.mCall;
+            }
+        }
+        if (removedFromPending) {
+            request.mListener.onQuestionDetailsFetchFailed();
+        }
+        if (callToCancel != null) {
+            callToCancel.cancel();
+        }
+    }
+
+    private void fetchBatch(final Batch batch) {
+        StringBuilder questionIds = new StringBuilder();
+        for (String questionId : batch.mRequests.keySet()) {
+            if (questionIds.length() > 0) {
+                questionIds.append(';');
+            }
+            questionIds.append(questionId);
+        }
+        Call<QuestionsListResponseSchema> call = mStackoverflowApi.fetchQuestionsDetails(questionIds.toString());
+        boolean allRequestsCancelled;
+        synchronized (this) {
+            batch.mCall = call;
+            allRequestsCancelled = batch.mActiveRequestsCount == 0;
+        }
+        if (allRequestsCancelled) {
+            call.cancel();
+        }
+        call.enqueue(new Callback<QuestionsListResponseSchema>() {
+            @Override
+            public void onResponse(Call<QuestionsListResponseSchema> call, Response<QuestionsListResponseSchema> response) {
+                if (response.isSuccessful()) {
+                    notifyFetched(batch, response.body().getQuestions());
+                } else {
+                    notifyFailed(batch);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<QuestionsListResponseSchema> call, Throwable t) {
+                notifyFailed(batch);
+            }
+        });
+    }
+
+    private void notifyFetched(Batch batch, List<QuestionSchema> questions) {
+        Map<String, QuestionSchema> questionsById = new HashMap<>(questions.size());
+        for (QuestionSchema question : questions) {
+            questionsById.put(question.getId(), question);
+        }
+        for (Map.Entry<String, List<Request>> entry : batch.mRequests.entrySet()) {
+            QuestionSchema question = questionsById.get(entry.getKey());
+            for (Request request : entry.getValue()) {
+                if (question != null) {
+                    request.mListener.onQuestionDetailsFetched(question);
+                } else {
+                    request.mListener.onQuestionDetailsFetchFailed();
+                }
+            }
+        }
+    }
+
+    private void notifyFailed(Batch batch) {
+        for (List<Request> requests : batch.mRequests.values()) {
+            for (Request request : requests) {
+                request.mListener.onQuestionDetailsFetchFailed();
+            }
+        }
+    }
+
+    private class ScheduledFlush implements Runnable {
+        // guarded by the endpoint
+        private ScheduledFuture<?> mFuture;
+
+        @Override
+        public void run() {
+            flush(this);
+        }
+    }
+
+    private static class Request {
+        private final String mQuestionId;
+        private final Listener mListener;
+        // guarded by the endpoint; null while the request is pending
+        private Batch mBatch;
+        private boolean mCancelled;
+
+        private Request(String questionId, Listener listener) {
+            mQuestionId = questionId;
+            mListener = listener;
+        }
+    }
+
+    private static class Batch {
+        // insertion order is the order of requests
+        private final Map<String, List<Request>> mRequests = new LinkedHashMap<>();
+        // guarded by the endpoint
+        private int mActiveRequestsCount;
+        private Call<QuestionsListResponseSchema> mCall;
+    }
+}
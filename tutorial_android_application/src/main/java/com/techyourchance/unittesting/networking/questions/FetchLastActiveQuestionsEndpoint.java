@@ -1,6 +1,7 @@
 package com.techyourchance.unittesting.networking.questions;
 
 import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
 import com.techyourchance.unittesting.networking.StackoverflowApi;
 
 import java.util.List;
@@ -16,29 +17,134 @@ public class FetchLastActiveQuestionsEndpoint {
         void onQuestionsFetchFailed();
     }
 
+    /**
+     * Questions are delivered in the order of the response. Failure can be reported after some
+     * of the questions have already been delivered.
+     */
+    public interface StreamingListener {
+        void onQuestionFetched(QuestionSchema question);
+        void onQuestionsFetchCompleted();
+        void onQuestionsFetchFailed();
+    }
+
+    public interface PageListener {
+        void onQuestionsPageFetched(List<QuestionSchema> questions, boolean hasMore);
+        void onQuestionsPageFetchFailed();
+    }
+
     private  final StackoverflowApi mStackoverflowApi;
 
     public FetchLastActiveQuestionsEndpoint(StackoverflowApi stackoverflowApi) {
         mStackoverflowApi = stackoverflowApi;
     }
 
-    public void fetchLastActiveQuestions(final Listener listener) {
-        mStackoverflowApi.fetchLastActiveQuestions(Constants.QUESTIONS_LIST_PAGE_SIZE)
+    public void fetchLastActiveQuestions(Listener listener) {
+        fetchLastActiveQuestions(listener, new CancellationToken());
+    }
+
+    /**
+     * @param cancellationToken once cancelled, the call is cancelled and the listener is notified
+     *                          of failure, unless it has already been notified
+     */
+    public void fetchLastActiveQuestions(Listener listener, CancellationToken cancellationToken) {
+        fetchQuestions(
+                mStackoverflowApi.fetchLastActiveQuestions(Constants.QUESTIONS_LIST_PAGE_SIZE),
+                listener,
+                cancellationToken
+        );
+    }
+
+    /**
+     * Same as {@link #fetchLastActiveQuestions(Listener)}, but the listener is notified of each
+     * question separately. This implementation notifies about all questions once the full response
+     * has been parsed; subclasses can deliver questions while the response is still being parsed.
+     */
+    public void fetchLastActiveQuestions(StreamingListener listener) {
+        fetchLastActiveQuestions(listener, new CancellationToken());
+    }
+
+    /**
+     * Same as {@link #fetchLastActiveQuestions(StreamingListener)}, but the fetch can be cancelled
+     * through the token, in which case the listener is notified of failure
+     */
+    public void fetchLastActiveQuestions(final StreamingListener listener, CancellationToken cancellationToken) {
+        fetchLastActiveQuestions(new Listener() {
+            @Override
+            public void onQuestionsFetched(List<QuestionSchema> questions) {
+                for (QuestionSchema question : questions) {
+                    listener.onQuestionFetched(question);
+                }
+                listener.onQuestionsFetchCompleted();
+            }
+
+            @Override
+            public void onQuestionsFetchFailed() {
+                listener.onQuestionsFetchFailed();
+            }
+        }, cancellationToken);
+    }
+
+    /**
+     * Same as {@link #fetchLastActiveQuestions(Listener)}, but questions' bodies aren't fetched
+     */
+    public void fetchLastActiveQuestionsWithoutBody(Listener listener) {
+        fetchQuestions(
+                mStackoverflowApi.fetchLastActiveQuestionsWithoutBody(Constants.QUESTIONS_LIST_PAGE_SIZE),
+                listener,
+                new CancellationToken()
+        );
+    }
+
+    /**
+     * Fetch a single page of last active questions. Questions' bodies aren't fetched.
+     * @param page 1-based page number
+     * @param maxActivityDate see {@link StackoverflowApi#fetchLastActiveQuestionsPage(Integer, Integer, Long)}
+     */
+    public void fetchLastActiveQuestionsPage(int page,
+                                             int pageSize,
+                                             long maxActivityDate,
+                                             final PageListener listener) {
+        mStackoverflowApi.fetchLastActiveQuestionsPage(pageSize, page, maxActivityDate)
                 .enqueue(new Callback<QuestionsListResponseSchema>() {
-                             @Override
-                             public void onResponse(Call<QuestionsListResponseSchema> call, Response<QuestionsListResponseSchema> response) {
-                                 if (response.isSuccessful()) {
-                                     listener.onQuestionsFetched(response.body().getQuestions());
-                                 } else {
-                                     listener.onQuestionsFetchFailed();
-                                 }
-                             }
-
-                             @Override
-                             public void onFailure(Call<QuestionsListResponseSchema> call, Throwable t) {
-                                 listener.onQuestionsFetchFailed();
-                             }
-                         }
-                );
+                    @Override
+                    public void onResponse(Call<QuestionsListResponseSchema> call, Response<QuestionsListResponseSchema> response) {
+                        if (response.isSuccessful()) {
+                            listener.onQuestionsPageFetched(response.body().getQuestions(), response.body().hasMore());
+                        } else {
+                            listener.onQuestionsPageFetchFailed();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<QuestionsListResponseSchema> call, Throwable t) {
+                        listener.onQuestionsPageFetchFailed();
+                    }
+                });
+    }
+
+    private void fetchQuestions(final Call<QuestionsListResponseSchema> call,
+                                final Listener listener,
+                                CancellationToken cancellationToken) {
+        cancellationToken.doOnCancelled(new Runnable() {
+            @Override
+            public void run() {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback<QuestionsListResponseSchema>() {
+            @Override
+            public void onResponse(Call<QuestionsListResponseSchema> call, Response<QuestionsListResponseSchema> response) {
+                if (response.isSuccessful()) {
+                    listener.onQuestionsFetched(response.body().getQuestions());
+                } else {
+                    listener.onQuestionsFetchFailed();
+                }
+            }
+
+            @Override
+            public void onFailure(Call<QuestionsListResponseSchema> call, Throwable t) {
+                listener.onQuestionsFetchFailed();
+            }
+        });
     }
 }
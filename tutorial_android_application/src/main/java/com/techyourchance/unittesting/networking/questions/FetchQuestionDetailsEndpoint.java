@@ -1,5 +1,6 @@
 package com.techyourchance.unittesting.networking.questions;
 
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
 import com.techyourchance.unittesting.networking.StackoverflowApi;
 
 import retrofit2.Call;
@@ -19,23 +20,36 @@ public class FetchQuestionDetailsEndpoint {
         mStackoverflowApi = stackoverflowApi;
     }
 
-    public void fetchQuestionDetails(String questionId, final Listener listener) {
-        mStackoverflowApi.fetchQuestionDetails(questionId)
-                .enqueue(new Callback<QuestionDetailsResponseSchema>() {
-                             @Override
-                             public void onResponse(Call<QuestionDetailsResponseSchema> call, Response<QuestionDetailsResponseSchema> response) {
-                                 if (response.isSuccessful()) {
-                                     listener.onQuestionDetailsFetched(response.body().getQuestion());
-                                 } else {
-                                     listener.onQuestionDetailsFetchFailed();
-                                 }
-                             }
-
-                             @Override
-                             public void onFailure(Call<QuestionDetailsResponseSchema> call, Throwable t) {
-                                 listener.onQuestionDetailsFetchFailed();
-                             }
-                         }
-                );
+    public void fetchQuestionDetails(String questionId, Listener listener) {
+        fetchQuestionDetails(questionId, new CancellationToken(), listener);
+    }
+
+    /**
+     * @param cancellationToken once cancelled, the call is cancelled and the listener is notified
+     *                          of failure, unless it has already been notified
+     */
+    public void fetchQuestionDetails(String questionId, CancellationToken cancellationToken, final Listener listener) {
+        final Call<QuestionDetailsResponseSchema> call = mStackoverflowApi.fetchQuestionDetails(questionId);
+        cancellationToken.doOnCancelled(new Runnable() {
+            @Override
+            public void run() {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback<QuestionDetailsResponseSchema>() {
+            @Override
+            public void onResponse(Call<QuestionDetailsResponseSchema> call, Response<QuestionDetailsResponseSchema> response) {
+                if (response.isSuccessful()) {
+                    listener.onQuestionDetailsFetched(response.body().getQuestion());
+                } else {
+                    listener.onQuestionDetailsFetchFailed();
+                }
+            }
+
+            @Override
+            public void onFailure(Call<QuestionDetailsResponseSchema> call, Throwable t) {
+                listener.onQuestionDetailsFetchFailed();
+            }
+        });
     }
 }
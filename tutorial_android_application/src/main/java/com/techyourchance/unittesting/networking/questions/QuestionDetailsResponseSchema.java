@@ -1,20 +1,35 @@
 package com.techyourchance.unittesting.networking.questions;
 
+import android.support.annotation.Nullable;
+
 import com.google.gson.annotations.SerializedName;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
 
 import java.util.Collections;
 import java.util.List;
 
-public class QuestionDetailsResponseSchema {
+public class QuestionDetailsResponseSchema extends ResponseWrapperSchema {
 
     @SerializedName("items")
     private final List<QuestionSchema> mQuestions;
 
     public QuestionDetailsResponseSchema(QuestionSchema question) {
-        mQuestions = Collections.singletonList(question);
+        this(Collections.singletonList(question), null, null, null);
+    }
+
+    public QuestionDetailsResponseSchema(List<QuestionSchema> questions,
+                                         @Nullable Integer backoffSeconds,
+                                         @Nullable Integer quotaRemaining,
+                                         @Nullable Integer quotaMax) {
+        super(backoffSeconds, quotaRemaining, quotaMax);
+        mQuestions = questions;
     }
 
     public QuestionSchema getQuestion() {
         return mQuestions.get(0);
     }
+
+    List<QuestionSchema> getQuestions() {
+        return mQuestions;
+    }
 }
@@ -1,19 +1,43 @@
 package com.techyourchance.unittesting.networking.questions;
 
+import android.support.annotation.Nullable;
+
 import com.google.gson.annotations.SerializedName;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
 
 import java.util.List;
 
-public class QuestionsListResponseSchema {
+public class QuestionsListResponseSchema extends ResponseWrapperSchema {
 
     @SerializedName("items")
     private final List<QuestionSchema> mQuestions;
 
+    @SerializedName("has_more")
+    private final boolean mHasMore;
+
     public QuestionsListResponseSchema(List<QuestionSchema> questions) {
+        this(questions, false);
+    }
+
+    public QuestionsListResponseSchema(List<QuestionSchema> questions, boolean hasMore) {
+        this(questions, hasMore, null, null, null);
+    }
+
+    public QuestionsListResponseSchema(List<QuestionSchema> questions,
+                                       boolean hasMore,
+                                       @Nullable Integer backoffSeconds,
+                                       @Nullable Integer quotaRemaining,
+                                       @Nullable Integer quotaMax) {
+        super(backoffSeconds, quotaRemaining, quotaMax);
         mQuestions = questions;
+        mHasMore = hasMore;
     }
 
     public List<QuestionSchema> getQuestions() {
         return mQuestions;
     }
+
+    public boolean hasMore() {
+        return mHasMore;
+    }
 }
@@ -0,0 +1,118 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads questions from the "items" array of a questions list response one at a time, such that
+ * only a single question has to be held in memory at any given moment.
+ * Fields of the response wrapper are available once all questions have been read.
+ */
+public class QuestionsListStreamingParser implements Closeable {
+
+    private static final String ITEMS_FIELD_NAME = "items";
+    private static final String BACKOFF_FIELD_NAME = "backoff";
+    private static final String QUOTA_REMAINING_FIELD_NAME = "quota_remaining";
+    private static final String QUOTA_MAX_FIELD_NAME = "quota_max";
+
+    private final TypeAdapter<QuestionSchema> mQuestionSchemaAdapter;
+    private final JsonReader mJsonReader;
+
+    private boolean mInsideItems;
+    private boolean mItemsConsumed;
+    private Integer mBackoffSeconds;
+    private Integer mQuotaRemaining;
+    private Integer mQuotaMax;
+
+    public QuestionsListStreamingParser(Gson gson, Reader reader) {
+        mQuestionSchemaAdapter = gson.getAdapter(QuestionSchema.class);
+        mJsonReader = gson.newJsonReader(reader);
+    }
+
+    /**
+     * @return next question, or null if all questions have been read
+     * @throws IOException if the response can't be read or isn't a valid questions list
+     */
+    @Nullable
+    public QuestionSchema nextQuestion() throws IOException {
+        try {
+            if (mItemsConsumed) {
+                return null;
+            }
+            if (!mInsideItems && !moveToItems()) {
+                mItemsConsumed = true;
+                return null;
+            }
+            if (mJsonReader.hasNext()) {
+                return mQuestionSchemaAdapter.read(mJsonReader);
+            }
+            mJsonReader.endArray();
+            mInsideItems = false;
+            mItemsConsumed = true;
+            readFieldsFollowingItems();
+            return null;
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("malformed questions list", e);
+        }
+    }
+
+    private boolean moveToItems() throws IOException {
+        if (mJsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+            mJsonReader.beginObject();
+        }
+        while (mJsonReader.hasNext()) {
+            String name = mJsonReader.nextName();
+            if (ITEMS_FIELD_NAME.equals(name)) {
+                mJsonReader.beginArray();
+                mInsideItems = true;
+                return true;
+            }
+            readWrapperField(name);
+        }
+        return false;
+    }
+
+    private void readFieldsFollowingItems() throws IOException {
+        while (mJsonReader.hasNext()) {
+            readWrapperField(mJsonReader.nextName());
+        }
+    }
+
+    private void readWrapperField(String name) throws IOException {
+        if (BACKOFF_FIELD_NAME.equals(name)) {
+            mBackoffSeconds = mJsonReader.nextInt();
+        } else if (QUOTA_REMAINING_FIELD_NAME.equals(name)) {
+            mQuotaRemaining = mJsonReader.nextInt();
+        } else if (QUOTA_MAX_FIELD_NAME.equals(name)) {
+            mQuotaMax = mJsonReader.nextInt();
+        } else {
+            mJsonReader.skipValue();
+        }
+    }
+
+    /**
+     * @return fields of the response wrapper, or null if not all questions have been read yet
+     */
+    @Nullable
+    public ResponseWrapperSchema getResponseWrapper() {
+        if (!mItemsConsumed) {
+            return null;
+        }
+        return new ResponseWrapperSchema(mBackoffSeconds, mQuotaRemaining, mQuotaMax);
+    }
+
+    @Override
+    public void close() throws IOException {
+        mJsonReader.close();
+    }
+}
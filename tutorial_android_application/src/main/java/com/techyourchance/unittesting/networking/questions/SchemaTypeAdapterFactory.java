@@ -0,0 +1,289 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.techyourchance.unittesting.common.StringInterner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand written type adapters for the schemas of questions responses. They bind the same JSON
+ * as Gson's reflective adapters would (including unknown fields being skipped and missing fields
+ * being left null), but they don't need reflection to be constructed and don't allocate
+ * per-field bookkeeping when reading.
+ * Must be kept in sync with the {@code SerializedName} annotations of the schemas.
+ */
+public class SchemaTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final String TITLE_FIELD_NAME = "title";
+    private static final String ID_FIELD_NAME = "question_id";
+    private static final String BODY_FIELD_NAME = "body";
+    private static final String ITEMS_FIELD_NAME = "items";
+    private static final String HAS_MORE_FIELD_NAME = "has_more";
+    private static final String BACKOFF_FIELD_NAME = "backoff";
+    private static final String QUOTA_REMAINING_FIELD_NAME = "quota_remaining";
+    private static final String QUOTA_MAX_FIELD_NAME = "quota_max";
+
+    @Nullable private final StringInterner mTitleInterner;
+
+    private final QuestionSchemaAdapter mQuestionSchemaAdapter = new QuestionSchemaAdapter();
+    private final QuestionsListResponseSchemaAdapter mQuestionsListResponseSchemaAdapter =
+            new QuestionsListResponseSchemaAdapter();
+    private final QuestionDetailsResponseSchemaAdapter mQuestionDetailsResponseSchemaAdapter =
+            new QuestionDetailsResponseSchemaAdapter();
+
+    public SchemaTypeAdapterFactory() {
+        this(null);
+    }
+
+    /**
+     * @param titleInterner if not null, titles of questions will be interned, such that the title
+     *                      of a question that was read several times is held in memory once
+     */
+    public SchemaTypeAdapterFactory(@Nullable StringInterner titleInterner) {
+        mTitleInterner = titleInterner;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == QuestionSchema.class) {
+            return (TypeAdapter<T>) mQuestionSchemaAdapter;
+        } else if (rawType == QuestionsListResponseSchema.class) {
+            return (TypeAdapter<T>) mQuestionsListResponseSchemaAdapter;
+        } else if (rawType == QuestionDetailsResponseSchema.class) {
+            return (TypeAdapter<T>) mQuestionDetailsResponseSchemaAdapter;
+        } else {
+            return null;
+        }
+    }
+
+    private class QuestionSchemaAdapter extends TypeAdapter<QuestionSchema> {
+
+        @Override
+        public QuestionSchema read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            try {
+                String title = null;
+                String id = null;
+                String body = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (TITLE_FIELD_NAME.equals(name)) {
+                        title = readTitle(in);
+                    } else if (ID_FIELD_NAME.equals(name)) {
+                        id = readString(in);
+                    } else if (BODY_FIELD_NAME.equals(name)) {
+                        body = readString(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                return new QuestionSchema(title, id, body);
+            } catch (IllegalStateException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, QuestionSchema value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name(TITLE_FIELD_NAME).value(value.getTitle());
+            out.name(ID_FIELD_NAME).value(value.getId());
+            out.name(BODY_FIELD_NAME).value(value.getBody());
+            out.endObject();
+        }
+    }
+
+    private class QuestionsListResponseSchemaAdapter extends TypeAdapter<QuestionsListResponseSchema> {
+
+        @Override
+        public QuestionsListResponseSchema read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            try {
+                List<QuestionSchema> questions = null;
+                boolean hasMore = false;
+                Integer backoffSeconds = null;
+                Integer quotaRemaining = null;
+                Integer quotaMax = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (ITEMS_FIELD_NAME.equals(name)) {
+                        questions = readQuestions(in);
+                    } else if (HAS_MORE_FIELD_NAME.equals(name)) {
+                        hasMore = readBoolean(in);
+                    } else if (BACKOFF_FIELD_NAME.equals(name)) {
+                        backoffSeconds = readInteger(in);
+                    } else if (QUOTA_REMAINING_FIELD_NAME.equals(name)) {
+                        quotaRemaining = readInteger(in);
+                    } else if (QUOTA_MAX_FIELD_NAME.equals(name)) {
+                        quotaMax = readInteger(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                return new QuestionsListResponseSchema(questions, hasMore, backoffSeconds, quotaRemaining, quotaMax);
+            } catch (IllegalStateException | NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, QuestionsListResponseSchema value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name(ITEMS_FIELD_NAME);
+            writeQuestions(out, value.getQuestions());
+            out.name(HAS_MORE_FIELD_NAME).value(value.hasMore());
+            out.name(BACKOFF_FIELD_NAME).value(value.getBackoffSeconds());
+            out.name(QUOTA_REMAINING_FIELD_NAME).value(value.getQuotaRemaining());
+            out.name(QUOTA_MAX_FIELD_NAME).value(value.getQuotaMax());
+            out.endObject();
+        }
+    }
+
+    private class QuestionDetailsResponseSchemaAdapter extends TypeAdapter<QuestionDetailsResponseSchema> {
+
+        @Override
+        public QuestionDetailsResponseSchema read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            try {
+                List<QuestionSchema> questions = null;
+                Integer backoffSeconds = null;
+                Integer quotaRemaining = null;
+                Integer quotaMax = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (ITEMS_FIELD_NAME.equals(name)) {
+                        questions = readQuestions(in);
+                    } else if (BACKOFF_FIELD_NAME.equals(name)) {
+                        backoffSeconds = readInteger(in);
+                    } else if (QUOTA_REMAINING_FIELD_NAME.equals(name)) {
+                        quotaRemaining = readInteger(in);
+                    } else if (QUOTA_MAX_FIELD_NAME.equals(name)) {
+                        quotaMax = readInteger(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                return new QuestionDetailsResponseSchema(questions, backoffSeconds, quotaRemaining, quotaMax);
+            } catch (IllegalStateException | NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, QuestionDetailsResponseSchema value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name(ITEMS_FIELD_NAME);
+            writeQuestions(out, value.getQuestions());
+            out.name(BACKOFF_FIELD_NAME).value(value.getBackoffSeconds());
+            out.name(QUOTA_REMAINING_FIELD_NAME).value(value.getQuotaRemaining());
+            out.name(QUOTA_MAX_FIELD_NAME).value(value.getQuotaMax());
+            out.endObject();
+        }
+    }
+
+    private List<QuestionSchema> readQuestions(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<QuestionSchema> questions = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            questions.add(mQuestionSchemaAdapter.read(in));
+        }
+        in.endArray();
+        return questions;
+    }
+
+    private void writeQuestions(JsonWriter out, List<QuestionSchema> questions) throws IOException {
+        if (questions == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (QuestionSchema question : questions) {
+            mQuestionSchemaAdapter.write(out, question);
+        }
+        out.endArray();
+    }
+
+    private String readTitle(JsonReader in) throws IOException {
+        String title = readString(in);
+        return mTitleInterner == null ? title : mTitleInterner.intern(title);
+    }
+
+    /**
+     * Numbers are read as strings too (e.g. question ids), same as Gson does
+     */
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        } else if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        } else {
+            return in.nextString();
+        }
+    }
+
+    private static boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        } else if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        } else {
+            return in.nextBoolean();
+        }
+    }
+
+    private static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+}
@@ -0,0 +1,240 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.MalformedJsonException;
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.ResponseWrapperListener;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+import com.techyourchance.unittesting.networking.StackoverflowApi;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Parses the questions list while it's being downloaded, instead of binding the whole response
+ * before the first question can be used. Network calls and parsing take place on the background
+ * executor; listeners are notified on the callback executor.
+ * The response isn't converted by Retrofit, therefore its wrapper is reported to the listeners by
+ * this endpoint on its own, and so is the duration of parsing.
+ */
+public class StreamingFetchLastActiveQuestionsEndpoint extends FetchLastActiveQuestionsEndpoint {
+
+    private final StackoverflowApi mStackoverflowApi;
+    private final Gson mGson;
+    private final Executor mBackgroundExecutor;
+    private final Executor mCallbackExecutor;
+    private final List<ResponseWrapperListener> mResponseWrapperListeners;
+    private final ApiMetrics mApiMetrics;
+
+    public StreamingFetchLastActiveQuestionsEndpoint(StackoverflowApi stackoverflowApi,
+                                                     Gson gson,
+                                                     Executor backgroundExecutor,
+                                                     Executor callbackExecutor) {
+        this(
+                stackoverflowApi,
+                gson,
+                backgroundExecutor,
+                callbackExecutor,
+                Collections.<ResponseWrapperListener>emptyList(),
+                ApiMetrics.disabled()
+        );
+    }
+
+    public StreamingFetchLastActiveQuestionsEndpoint(StackoverflowApi stackoverflowApi,
+                                                     Gson gson,
+                                                     Executor backgroundExecutor,
+                                                     Executor callbackExecutor,
+                                                     List<ResponseWrapperListener> responseWrapperListeners,
+                                                     ApiMetrics apiMetrics) {
+        super(stackoverflowApi);
+        mStackoverflowApi = stackoverflowApi;
+        mGson = gson;
+        mBackgroundExecutor = backgroundExecutor;
+        mCallbackExecutor = callbackExecutor;
+        mResponseWrapperListeners = responseWrapperListeners;
+        mApiMetrics = apiMetrics;
+    }
+
+    @Override
+    public void fetchLastActiveQuestions(final Listener listener, CancellationToken cancellationToken) {
+        fetchAndNotify(new StreamingListener() {
+
+            // accessed on the background executor only
+            private final List<QuestionSchema> mQuestions = new ArrayList<>(Constants.QUESTIONS_LIST_PAGE_SIZE);
+
+            @Override
+            public void onQuestionFetched(QuestionSchema question) {
+                mQuestions.add(question);
+            }
+
+            @Override
+            public void onQuestionsFetchCompleted() {
+                final List<QuestionSchema> questions = mQuestions;
+                mCallbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onQuestionsFetched(questions);
+                    }
+                });
+            }
+
+            @Override
+            public void onQuestionsFetchFailed() {
+                mCallbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onQuestionsFetchFailed();
+                    }
+                });
+            }
+        }, cancellationToken, false);
+    }
+
+    @Override
+    public void fetchLastActiveQuestions(StreamingListener listener, CancellationToken cancellationToken) {
+        fetchAndNotify(listener, cancellationToken, true);
+    }
+
+    /**
+     * @param notifyOnCallbackExecutor whether to notify the listener on the callback executor, or
+     *                                 directly on the background executor
+     */
+    private void fetchAndNotify(final StreamingListener listener,
+                                final CancellationToken cancellationToken,
+                                final boolean notifyOnCallbackExecutor) {
+        mBackgroundExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                StreamingListener targetListener = notifyOnCallbackExecutor
+                        ? new CallbackExecutorStreamingListener(listener)
+                        : listener;
+                if (fetchAndParse(targetListener, cancellationToken)) {
+                    targetListener.onQuestionsFetchCompleted();
+                } else {
+                    targetListener.onQuestionsFetchFailed();
+                }
+            }
+        });
+    }
+
+    private boolean fetchAndParse(StreamingListener listener, CancellationToken cancellationToken) {
+        final Call<ResponseBody> call =
+                mStackoverflowApi.fetchLastActiveQuestionsStreaming(Constants.QUESTIONS_LIST_PAGE_SIZE);
+        cancellationToken.doOnCancelled(new Runnable() {
+            @Override
+            public void run() {
+                call.cancel();
+            }
+        });
+        Response<ResponseBody> response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            return false;
+        }
+        ResponseBody body = response.body();
+        if (!response.isSuccessful() || body == null) {
+            return false;
+        }
+        long parseStartNanos = mApiMetrics.startTiming();
+        QuestionsListStreamingParser parser = new QuestionsListStreamingParser(mGson, body.charStream());
+        try {
+            QuestionSchema question;
+            while ((question = parser.nextQuestion()) != null) {
+                if (cancellationToken.isCancelled()) {
+                    return false;
+                }
+                listener.onQuestionFetched(question);
+            }
+            reportResponseWrapper(parser.getResponseWrapper());
+            // includes the time listeners spent handling the questions, which is the whole point
+            // of streaming: they're handled while the rest of the response is being downloaded
+            mApiMetrics.recordLatencySince(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.PARSE, parseStartNanos);
+            return !cancellationToken.isCancelled();
+        } catch (IOException e) {
+            if (!cancellationToken.isCancelled()) {
+                reportParsingFailure(e);
+            }
+            return false;
+        } finally {
+            closeQuietly(parser);
+        }
+    }
+
+    private void reportResponseWrapper(@Nullable ResponseWrapperSchema responseWrapper) {
+        if (responseWrapper == null) {
+            return;
+        }
+        for (ResponseWrapperListener listener : mResponseWrapperListeners) {
+            listener.onResponseWrapperReceived(responseWrapper);
+        }
+    }
+
+    private void reportParsingFailure(IOException failure) {
+        // the parser wraps malformed data errors; anything else failed to be read
+        if (failure instanceof MalformedJsonException || failure.getCause() != null) {
+            mApiMetrics.recordError(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.ErrorClass.PARSE);
+        } else {
+            mApiMetrics.recordFailure(ApiMetrics.ENDPOINT_QUESTIONS, failure);
+        }
+    }
+
+    private void closeQuietly(QuestionsListStreamingParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // nothing to do
+        }
+    }
+
+    private class CallbackExecutorStreamingListener implements StreamingListener {
+
+        private final StreamingListener mListener;
+
+        private CallbackExecutorStreamingListener(StreamingListener listener) {
+            mListener = listener;
+        }
+
+        @Override
+        public void onQuestionFetched(final QuestionSchema question) {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onQuestionFetched(question);
+                }
+            });
+        }
+
+        @Override
+        public void onQuestionsFetchCompleted() {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onQuestionsFetchCompleted();
+                }
+            });
+        }
+
+        @Override
+        public void onQuestionsFetchFailed() {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onQuestionsFetchFailed();
+                }
+            });
+        }
+    }
+}
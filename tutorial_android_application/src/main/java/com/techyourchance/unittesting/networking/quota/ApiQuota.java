@@ -0,0 +1,39 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.networking.ResponseWrapperListener;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+
+/**
+ * Keeps track of the daily quota of the API key, as reported in the wrappers of API responses.
+ */
+public class ApiQuota implements ResponseWrapperListener {
+
+    public static final int UNKNOWN = -1;
+
+    private int mQuotaRemaining = UNKNOWN;
+    private int mQuotaMax = UNKNOWN;
+
+    @Override
+    public synchronized void onResponseWrapperReceived(ResponseWrapperSchema responseWrapper) {
+        if (responseWrapper.getQuotaRemaining() != null) {
+            mQuotaRemaining = responseWrapper.getQuotaRemaining();
+        }
+        if (responseWrapper.getQuotaMax() != null) {
+            mQuotaMax = responseWrapper.getQuotaMax();
+        }
+    }
+
+    /**
+     * @return number of requests left today, or {@link #UNKNOWN} if no response reported it yet
+     */
+    public synchronized int getQuotaRemaining() {
+        return mQuotaRemaining;
+    }
+
+    /**
+     * @return daily quota, or {@link #UNKNOWN} if no response reported it yet
+     */
+    public synchronized int getQuotaMax() {
+        return mQuotaMax;
+    }
+}
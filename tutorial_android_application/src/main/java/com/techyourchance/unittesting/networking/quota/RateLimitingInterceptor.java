@@ -0,0 +1,71 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Delays requests which would exceed the rate allowed by the token bucket. Requests which may
+ * only be served from the cache don't take tokens.
+ * Must be installed as an application interceptor after the one which retries requests, such
+ * that each attempt is rate limited.
+ */
+public class RateLimitingInterceptor implements Interceptor {
+
+    private final TimeProvider mTimeProvider;
+    private final TokenBucket mTokenBucket;
+
+    private int mThrottledRequestsCount;
+    private long mTotalThrottlingDelayMs;
+
+    public RateLimitingInterceptor(TimeProvider timeProvider, TokenBucket tokenBucket) {
+        mTimeProvider = timeProvider;
+        mTokenBucket = tokenBucket;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        long delayMs;
+        long totalDelayMs = 0;
+        while ((delayMs = mTokenBucket.tryAcquire()) > 0) {
+            sleep(delayMs);
+            totalDelayMs += delayMs;
+        }
+        if (totalDelayMs > 0) {
+            synchronized (this) {
+                mThrottledRequestsCount++;
+                mTotalThrottlingDelayMs += totalDelayMs;
+            }
+        }
+        return chain.proceed(request);
+    }
+
+    private void sleep(long durationMs) throws IOException {
+        try {
+            mTimeProvider.sleep(durationMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for rate limit");
+        }
+    }
+
+    /**
+     * @return number of requests that had to wait for a token
+     */
+    public synchronized int getThrottledRequestsCount() {
+        return mThrottledRequestsCount;
+    }
+
+    public synchronized long getTotalThrottlingDelayMs() {
+        return mTotalThrottlingDelayMs;
+    }
+}
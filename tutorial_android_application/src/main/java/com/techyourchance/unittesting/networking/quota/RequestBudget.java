@@ -0,0 +1,70 @@
+package com.techyourchance.unittesting.networking.quota;
+
+/**
+ * Decides whether background work (e.g. prefetching) can spend requests. Background work may only
+ * use tokens above a reserve which is kept for foreground requests, and stops altogether when the
+ * daily quota runs low, such that foreground requests are never starved by it.
+ */
+public class RequestBudget {
+
+    private final TokenBucket mTokenBucket;
+    private final ApiQuota mApiQuota;
+    private final int mForegroundReservedTokens;
+    private final int mBackgroundMinQuotaRemaining;
+
+    private long mBackgroundRequestsDeniedCount;
+
+    public RequestBudget(TokenBucket tokenBucket,
+                         ApiQuota apiQuota,
+                         int foregroundReservedTokens,
+                         int backgroundMinQuotaRemaining) {
+        mTokenBucket = tokenBucket;
+        mApiQuota = apiQuota;
+        mForegroundReservedTokens = foregroundReservedTokens;
+        mBackgroundMinQuotaRemaining = backgroundMinQuotaRemaining;
+    }
+
+    /**
+     * @return true if a background request can be made now without affecting foreground ones
+     */
+    public boolean hasBackgroundBudget() {
+        int quotaRemaining = mApiQuota.getQuotaRemaining();
+        boolean hasBudget = (quotaRemaining == ApiQuota.UNKNOWN || quotaRemaining >= mBackgroundMinQuotaRemaining)
+                && mTokenBucket.getAvailableTokens() >= mForegroundReservedTokens + 1;
+        if (!hasBudget) {
+            synchronized (this) {
+                mBackgroundRequestsDeniedCount++;
+            }
+        }
+        return hasBudget;
+    }
+
+    public double getAvailableTokens() {
+        return mTokenBucket.getAvailableTokens();
+    }
+
+    public int getTokensCapacity() {
+        return mTokenBucket.getCapacity();
+    }
+
+    /**
+     * @return number of requests left in the daily quota, or {@link ApiQuota#UNKNOWN}
+     */
+    public int getQuotaRemaining() {
+        return mApiQuota.getQuotaRemaining();
+    }
+
+    /**
+     * @return daily quota, or {@link ApiQuota#UNKNOWN}
+     */
+    public int getQuotaMax() {
+        return mApiQuota.getQuotaMax();
+    }
+
+    /**
+     * @return number of times background work was told to hold off
+     */
+    public synchronized long getBackgroundRequestsDeniedCount() {
+        return mBackgroundRequestsDeniedCount;
+    }
+}
@@ -0,0 +1,55 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+/**
+ * Allows bursts of up to "capacity" requests, and a steady rate of "refill rate" requests per
+ * second after that.
+ */
+public class TokenBucket {
+
+    private final TimeProvider mTimeProvider;
+    private final int mCapacity;
+    private final double mRefillTokensPerMs;
+
+    private double mTokens;
+    private long mLastRefillTimestamp;
+
+    public TokenBucket(TimeProvider timeProvider, int capacity, double refillTokensPerSecond) {
+        mTimeProvider = timeProvider;
+        mCapacity = capacity;
+        mRefillTokensPerMs = refillTokensPerSecond / 1000;
+        mTokens = capacity;
+        mLastRefillTimestamp = timeProvider.getCurrentTimestamp();
+    }
+
+    /**
+     * @return 0 if a token has been taken; otherwise, number of milliseconds until a token will
+     *         be available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (mTokens >= 1) {
+            mTokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - mTokens) / mRefillTokensPerMs);
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill();
+        return mTokens;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    private void refill() {
+        long now = mTimeProvider.getCurrentTimestamp();
+        if (now > mLastRefillTimestamp) {
+            mTokens = Math.min(mCapacity, mTokens + (now - mLastRefillTimestamp) * mRefillTokensPerMs);
+            mLastRefillTimestamp = now;
+        }
+    }
+}
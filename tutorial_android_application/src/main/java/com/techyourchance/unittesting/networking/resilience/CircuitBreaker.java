@@ -0,0 +1,91 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+/**
+ * Stops requests to an unhealthy API for a while, instead of piling more load on it.
+ * The circuit opens after a number of consecutive failures. Once the open period passes, a single
+ * probe request is allowed: if it succeeds, the circuit closes; otherwise, it opens again.
+ * The circuit can also be opened right away for a longer period, e.g. when the API states how long
+ * it will reject requests.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final TimeProvider mTimeProvider;
+    private final int mFailureThreshold;
+    private final long mOpenPeriodMs;
+
+    private State mState = State.CLOSED;
+    private int mConsecutiveFailuresCount;
+    private long mOpenUntilTimestamp;
+    private long mProbeTimestamp;
+
+    public CircuitBreaker(TimeProvider timeProvider, int failureThreshold, long openPeriodMs) {
+        mTimeProvider = timeProvider;
+        mFailureThreshold = failureThreshold;
+        mOpenPeriodMs = openPeriodMs;
+    }
+
+    /**
+     * @return true if a request can be made now; if the circuit is half open, the caller becomes
+     *         the probe and must report the outcome
+     */
+    public synchronized boolean allowRequest() {
+        long now = mTimeProvider.getCurrentTimestamp();
+        switch (mState) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now < mOpenUntilTimestamp) {
+                    return false;
+                }
+                mState = State.HALF_OPEN;
+                mProbeTimestamp = now;
+                return true;
+            case HALF_OPEN:
+                // the probe's outcome might never be reported (e.g. if it gets cancelled)
+                if (now - mProbeTimestamp < mOpenPeriodMs) {
+                    return false;
+                }
+                mProbeTimestamp = now;
+                return true;
+            default:
+                throw new IllegalStateException("unhandled state: " + mState);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        mState = State.CLOSED;
+        mConsecutiveFailuresCount = 0;
+    }
+
+    public synchronized void onFailure() {
+        mConsecutiveFailuresCount++;
+        if (mState == State.HALF_OPEN || mConsecutiveFailuresCount >= mFailureThreshold) {
+            open(mOpenPeriodMs);
+        }
+    }
+
+    /**
+     * Open the circuit regardless of the number of failures, for the given period or the default
+     * one, whichever is longer
+     */
+    public synchronized void openFor(long periodMs) {
+        mConsecutiveFailuresCount++;
+        open(Math.max(periodMs, mOpenPeriodMs));
+    }
+
+    private void open(long periodMs) {
+        mState = State.OPEN;
+        // a longer period requested earlier isn't shortened
+        mOpenUntilTimestamp = Math.max(mOpenUntilTimestamp, mTimeProvider.getCurrentTimestamp() + periodMs);
+    }
+
+    public synchronized State getState() {
+        return mState;
+    }
+}
@@ -0,0 +1,39 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import java.util.Random;
+
+/**
+ * Computes delays between retries which grow exponentially up to a cap. "Full jitter" is applied:
+ * the actual delay is picked at random between zero and the exponential delay, such that clients
+ * which failed at the same moment don't retry at the same moment as well.
+ */
+public class ExponentialBackoff {
+
+    private final long mInitialDelayMs;
+    private final long mMaxDelayMs;
+    private final Random mRandom;
+
+    public ExponentialBackoff(long initialDelayMs, long maxDelayMs, Random random) {
+        mInitialDelayMs = initialDelayMs;
+        mMaxDelayMs = maxDelayMs;
+        mRandom = random;
+    }
+
+    /**
+     * @param retryIndex 0 for the first retry
+     */
+    public long getDelayMs(int retryIndex) {
+        long delayMs = mInitialDelayMs;
+        for (int i = 0; i < retryIndex && delayMs < mMaxDelayMs; i++) {
+            delayMs *= 2;
+        }
+        delayMs = Math.min(delayMs, mMaxDelayMs);
+        return (long) (delayMs * nextJitter());
+    }
+
+    private double nextJitter() {
+        synchronized (mRandom) {
+            return mRandom.nextDouble();
+        }
+    }
+}
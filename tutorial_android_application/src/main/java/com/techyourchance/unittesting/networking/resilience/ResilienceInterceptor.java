@@ -0,0 +1,204 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Makes GET requests resilient to transient failures: network errors, server errors and
+ * throttling responses (429) are retried a bounded number of times with exponential backoff, and
+ * backoff requested by the server is honored before every attempt.
+ * StackExchange also reports throttling as 400 with error id 502 ("throttle_violation") in the
+ * body. The period it states in the error message can be hours long and retries could extend it,
+ * therefore such responses aren't retried; the circuit breaker is opened for that period instead.
+ * Cancelled calls are neither retried nor counted as failures.
+ * While the circuit breaker is open, requests are served from the HTTP cache without touching
+ * the network; if nothing is cached, OkHttp responds with 504.
+ * Must be installed as an application interceptor, such that each attempt goes through the cache.
+ */
+public class ResilienceInterceptor implements Interceptor {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final int THROTTLE_VIOLATION_ERROR_ID = 502;
+    private static final String ERROR_ID_FIELD_NAME = "error_id";
+    private static final String ERROR_MESSAGE_FIELD_NAME = "error_message";
+    // e.g. "too many requests from this IP, more requests available in 82753 seconds"
+    private static final Pattern THROTTLE_PERIOD_PATTERN = Pattern.compile("(\\d+) seconds");
+    private static final long NOT_THROTTLED = -1;
+    private static final long UNKNOWN_THROTTLE_PERIOD = 0;
+    // error bodies are tiny; larger bodies aren't errors of the API
+    private static final long MAX_ERROR_BODY_BYTES = 4096;
+
+    private final TimeProvider mTimeProvider;
+    private final CircuitBreaker mCircuitBreaker;
+    private final ExponentialBackoff mExponentialBackoff;
+    private final ServerBackoff mServerBackoff;
+    private final int mMaxAttempts;
+
+    private int mRetriesCount;
+    private int mShortCircuitedCount;
+
+    public ResilienceInterceptor(TimeProvider timeProvider,
+                                 CircuitBreaker circuitBreaker,
+                                 ExponentialBackoff exponentialBackoff,
+                                 ServerBackoff serverBackoff,
+                                 int maxAttempts) {
+        mTimeProvider = timeProvider;
+        mCircuitBreaker = circuitBreaker;
+        mExponentialBackoff = exponentialBackoff;
+        mServerBackoff = serverBackoff;
+        mMaxAttempts = maxAttempts;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        if (!mCircuitBreaker.allowRequest()) {
+            synchronized (this) {
+                mShortCircuitedCount++;
+            }
+            return chain.proceed(request.newBuilder().cacheControl(CacheControl.FORCE_CACHE).build());
+        }
+        int attempt = 1;
+        while (true) {
+            sleep(mServerBackoff.getRemainingBackoffMs());
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    throw e;
+                }
+                mCircuitBreaker.onFailure();
+                if (!retryAfterFailure(attempt++)) {
+                    throw e;
+                }
+                continue;
+            }
+            long throttlePeriodSeconds = getThrottlePeriodSeconds(response);
+            if (throttlePeriodSeconds != NOT_THROTTLED) {
+                mCircuitBreaker.openFor(TimeUnit.SECONDS.toMillis(throttlePeriodSeconds));
+                return response;
+            }
+            if (!isRetryable(response)) {
+                mCircuitBreaker.onSuccess();
+                return response;
+            }
+            mCircuitBreaker.onFailure();
+            honorRetryAfter(response);
+            if (!retryAfterFailure(attempt++)) {
+                return response;
+            }
+            response.close();
+        }
+    }
+
+    /**
+     * @return true if another attempt should be made; the backoff delay has already passed then
+     */
+    private boolean retryAfterFailure(int failedAttempt) throws IOException {
+        if (failedAttempt >= mMaxAttempts || !mCircuitBreaker.allowRequest()) {
+            return false;
+        }
+        sleep(mExponentialBackoff.getDelayMs(failedAttempt - 1));
+        synchronized (this) {
+            mRetriesCount++;
+        }
+        return true;
+    }
+
+    private boolean isRetryable(Response response) {
+        return response.code() >= HttpURLConnection.HTTP_INTERNAL_ERROR
+                || response.code() == HTTP_TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * @return the period stated in StackExchange's throttle violation response,
+     *         {@link #UNKNOWN_THROTTLE_PERIOD} if it can't be parsed, or {@link #NOT_THROTTLED} if
+     *         this isn't a throttle violation response (the body is peeked, such that it's still
+     *         available to the caller)
+     */
+    private long getThrottlePeriodSeconds(Response response) throws IOException {
+        if (response.code() != HttpURLConnection.HTTP_BAD_REQUEST) {
+            return NOT_THROTTLED;
+        }
+        try {
+            JsonElement error = new JsonParser().parse(response.peekBody(MAX_ERROR_BODY_BYTES).string());
+            if (!error.isJsonObject()) {
+                return NOT_THROTTLED;
+            }
+            JsonElement errorId = error.getAsJsonObject().get(ERROR_ID_FIELD_NAME);
+            if (errorId == null
+                    || !errorId.isJsonPrimitive()
+                    || !errorId.getAsJsonPrimitive().isNumber()
+                    || errorId.getAsInt() != THROTTLE_VIOLATION_ERROR_ID) {
+                return NOT_THROTTLED;
+            }
+            JsonElement errorMessage = error.getAsJsonObject().get(ERROR_MESSAGE_FIELD_NAME);
+            if (errorMessage == null || !errorMessage.isJsonPrimitive()) {
+                return UNKNOWN_THROTTLE_PERIOD;
+            }
+            Matcher matcher = THROTTLE_PERIOD_PATTERN.matcher(errorMessage.getAsString());
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : UNKNOWN_THROTTLE_PERIOD;
+        } catch (JsonParseException | NumberFormatException e) {
+            return NOT_THROTTLED;
+        }
+    }
+
+    private void honorRetryAfter(Response response) {
+        String retryAfter = response.header(RETRY_AFTER_HEADER);
+        if (retryAfter == null) {
+            return;
+        }
+        try {
+            mServerBackoff.backOff(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            // HTTP-date format isn't used by StackExchange
+        }
+    }
+
+    private void sleep(long durationMs) throws IOException {
+        if (durationMs <= 0) {
+            return;
+        }
+        try {
+            mTimeProvider.sleep(durationMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while backing off");
+        }
+    }
+
+    /**
+     * @return number of attempts that were made after a failed attempt
+     */
+    public synchronized int getRetriesCount() {
+        return mRetriesCount;
+    }
+
+    /**
+     * @return number of requests that were served from the cache because the circuit was open
+     */
+    public synchronized int getShortCircuitedCount() {
+        return mShortCircuitedCount;
+    }
+}
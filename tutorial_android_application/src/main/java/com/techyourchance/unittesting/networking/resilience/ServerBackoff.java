@@ -0,0 +1,49 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.networking.ResponseWrapperListener;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+
+/**
+ * Remembers until when the API asked clients to back off, either through the "backoff" field of
+ * a response or through the Retry-After header.
+ */
+public class ServerBackoff implements ResponseWrapperListener {
+
+    private final TimeProvider mTimeProvider;
+
+    private long mBackoffUntilTimestamp;
+
+    public ServerBackoff(TimeProvider timeProvider) {
+        mTimeProvider = timeProvider;
+    }
+
+    @Override
+    public void onResponseWrapperReceived(ResponseWrapperSchema responseWrapper) {
+        Integer backoffSeconds = responseWrapper.getBackoffSeconds();
+        if (backoffSeconds != null) {
+            backOff(backoffSeconds);
+        }
+    }
+
+    /**
+     * Extend the backoff period, such that it lasts at least the given number of seconds from now
+     */
+    public void backOff(long backoffSeconds) {
+        long backoffUntilTimestamp = mTimeProvider.getCurrentTimestamp() + backoffSeconds * 1000;
+        synchronized (this) {
+            mBackoffUntilTimestamp = Math.max(mBackoffUntilTimestamp, backoffUntilTimestamp);
+        }
+    }
+
+    /**
+     * @return number of milliseconds left until requests can be made again, or 0 if there is no
+     *         backoff in effect
+     */
+    public long getRemainingBackoffMs() {
+        long now = mTimeProvider.getCurrentTimestamp();
+        synchronized (this) {
+            return Math.max(0, mBackoffUntilTimestamp - now);
+        }
+    }
+}
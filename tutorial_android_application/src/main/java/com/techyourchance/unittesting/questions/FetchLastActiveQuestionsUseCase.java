@@ -1,52 +1,204 @@
 package com.techyourchance.unittesting.questions;
 
-import com.techyourchance.unittesting.common.BaseObservable;
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.BaseUseCase;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.common.usecases.OutstandingRequests;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
 import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
 import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+import com.techyourchance.unittesting.questions.storage.QuestionsStore;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
-public class FetchLastActiveQuestionsUseCase extends BaseObservable<FetchLastActiveQuestionsUseCase.Listener> {
+/**
+ * Stored questions are read on the IO executor. Fetched questions are mapped on the thread the
+ * endpoint delivers them on, such that their bodies don't have to be retained until the whole
+ * list is fetched. Listeners are notified on the main thread.
+ * If outstanding requests are tracked, fetches are cancelled once the last listener unregisters.
+ * The time spent mapping each fetched list is recorded as a whole.
+ */
+public class FetchLastActiveQuestionsUseCase extends BaseUseCase<FetchLastActiveQuestionsUseCase.Listener> {
 
     public interface Listener {
-        void onLastActiveQuestionsFetched(List<Question> questions);
+        /**
+         * @param fetchedTimestamp the time these questions were requested from the server, or
+         *                         stored at, if they're delivered from the store
+         */
+        void onLastActiveQuestionsFetched(List<Question> questions, long fetchedTimestamp);
         void onLastActiveQuestionsFetchFailed();
     }
 
+    private static final ListenerNotification<Listener, QuestionsStore.LastActiveQuestions> NOTIFY_FETCHED =
+            new ListenerNotification<Listener, QuestionsStore.LastActiveQuestions>() {
+                @Override
+                public void notify(Listener listener, QuestionsStore.LastActiveQuestions questions) {
+                    listener.onLastActiveQuestionsFetched(questions.getQuestions(), questions.getStoredTimestamp());
+                }
+            };
+
+    private static final ListenerNotification<Listener, Void> NOTIFY_FETCH_FAILED =
+            new ListenerNotification<Listener, Void>() {
+                @Override
+                public void notify(Listener listener, Void argument) {
+                    listener.onLastActiveQuestionsFetchFailed();
+                }
+            };
+
     private final FetchLastActiveQuestionsEndpoint mFetchLastActiveQuestionsEndpoint;
+    @Nullable private final QuestionsStore mQuestionsStore;
+    private final TimeProvider mTimeProvider;
+    private final Executor mStoreExecutor;
+    @Nullable private final QuestionDetailsCache mQuestionDetailsCache;
+    private final ApiMetrics mApiMetrics;
+
+    private volatile boolean mStoreConsulted;
 
     public FetchLastActiveQuestionsUseCase(FetchLastActiveQuestionsEndpoint fetchLastActiveQuestionsEndpoint) {
+        this(
+                fetchLastActiveQuestionsEndpoint,
+                null,
+                new TimeProvider(),
+                null,
+                null,
+                UseCaseExecutors.synchronous(),
+                null,
+                ApiMetrics.disabled()
+        );
+    }
+
+    /**
+     * @param questionsStore if not null, the last fetched questions will be persisted there and
+     *                       delivered to listeners on the first fetch, ahead of the fresh data
+     * @param questionDetailsCache if not null, it will be seeded with details of fetched questions,
+     *                             such that opening any of them won't require another request
+     * @param outstandingRequests if not null, fetches will be cancelled once the last listener
+     *                            unregisters
+     */
+    public FetchLastActiveQuestionsUseCase(FetchLastActiveQuestionsEndpoint fetchLastActiveQuestionsEndpoint,
+                                           @Nullable QuestionsStore questionsStore,
+                                           TimeProvider timeProvider,
+                                           Executor storeExecutor,
+                                           @Nullable QuestionDetailsCache questionDetailsCache,
+                                           UseCaseExecutors useCaseExecutors,
+                                           @Nullable OutstandingRequests outstandingRequests,
+                                           ApiMetrics apiMetrics) {
+        super(useCaseExecutors, outstandingRequests);
         mFetchLastActiveQuestionsEndpoint = fetchLastActiveQuestionsEndpoint;
+        mQuestionsStore = questionsStore;
+        mTimeProvider = timeProvider;
+        mStoreExecutor = storeExecutor;
+        mQuestionDetailsCache = questionDetailsCache;
+        mApiMetrics = apiMetrics;
     }
 
     public void fetchLastActiveQuestionsAndNotify() {
-        mFetchLastActiveQuestionsEndpoint.fetchLastActiveQuestions(new FetchLastActiveQuestionsEndpoint.Listener() {
+        fetchLastActiveQuestionsAndNotify(new CancellationToken());
+    }
+
+    /**
+     * @param cancellationToken once cancelled, fetched questions are neither mapped nor delivered
+     *                          to listeners
+     */
+    public void fetchLastActiveQuestionsAndNotify(final CancellationToken cancellationToken) {
+        if (mQuestionsStore == null || mStoreConsulted) {
+            fetchFromEndpointAndNotify(cancellationToken);
+            return;
+        }
+        mStoreConsulted = true;
+        executeOnIo(new Runnable() {
             @Override
-            public void onQuestionsFetched(List<QuestionSchema> questions) {
-                notifySuccess(questions);
+            public void run() {
+                // stored questions are posted to the main thread before the fetch starts, such
+                // that they're always delivered ahead of the fresh data
+                serveLastActiveQuestionsFromStoreIfAvailable(cancellationToken);
+                fetchFromEndpointAndNotify(cancellationToken);
+            }
+        });
+    }
+
+    private void fetchFromEndpointAndNotify(final CancellationToken cancellationToken) {
+        final CancellationToken requestCancellationToken = startRequest();
+        final long fetchedTimestamp = mTimeProvider.getCurrentTimestamp();
+        mFetchLastActiveQuestionsEndpoint.fetchLastActiveQuestions(new FetchLastActiveQuestionsEndpoint.StreamingListener() {
+
+            private final List<Question> mQuestions = new ArrayList<>();
+            private long mMappingNanos;
+
+            @Override
+            public void onQuestionFetched(QuestionSchema question) {
+                if (cancellationToken.isCancelled() || requestCancellationToken.isCancelled()) {
+                    return;
+                }
+                long startNanos = mApiMetrics.startTiming();
+                mQuestions.add(new Question(question.getId(), question.getTitle()));
+                seedQuestionDetailsCache(question);
+                mMappingNanos += mApiMetrics.getElapsedNanos(startNanos);
+            }
+
+            @Override
+            public void onQuestionsFetchCompleted() {
+                completeRequest(requestCancellationToken);
+                if (!cancellationToken.isCancelled() && !requestCancellationToken.isCancelled()) {
+                    mApiMetrics.recordLatency(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP, mMappingNanos);
+                    notifySuccess(mQuestions, fetchedTimestamp, cancellationToken);
+                }
             }
 
             @Override
             public void onQuestionsFetchFailed() {
-                notifyFailure();
+                completeRequest(requestCancellationToken);
+                notifyFailure(cancellationToken);
             }
-        });
+        }, requestCancellationToken);
     }
 
-    private void notifyFailure() {
-        for (Listener listener : getListeners()) {
-            listener.onLastActiveQuestionsFetchFailed();
+    private void serveLastActiveQuestionsFromStoreIfAvailable(CancellationToken cancellationToken) {
+        QuestionsStore.LastActiveQuestions storedQuestions = mQuestionsStore.getLastActiveQuestions();
+        if (storedQuestions != null) {
+            notifyOnMainThread(NOTIFY_FETCHED, storedQuestions, cancellationToken);
         }
     }
 
-    private void notifySuccess(List<QuestionSchema> questionSchemas) {
-        List<Question> questions = new ArrayList<>(questionSchemas.size());
-        for (QuestionSchema questionSchema : questionSchemas) {
-            questions.add(new Question(questionSchema.getId(), questionSchema.getTitle()));
+    private void storeLastActiveQuestions(final List<Question> questions, final long timestamp) {
+        if (mQuestionsStore == null) {
+            return;
         }
-        for (Listener listener : getListeners()) {
-            listener.onLastActiveQuestionsFetched(questions);
+        mStoreExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mQuestionsStore.putLastActiveQuestions(questions, timestamp);
+            }
+        });
+    }
+
+    private void seedQuestionDetailsCache(QuestionSchema questionSchema) {
+        if (mQuestionDetailsCache != null && questionSchema.getBody() != null) {
+            mQuestionDetailsCache.put(new QuestionDetails(
+                    questionSchema.getId(),
+                    questionSchema.getTitle(),
+                    questionSchema.getBody()
+            ));
         }
     }
+
+    private void notifyFailure(CancellationToken cancellationToken) {
+        notifyOnMainThread(NOTIFY_FETCH_FAILED, null, cancellationToken);
+    }
+
+    private void notifySuccess(List<Question> questions, long fetchedTimestamp, CancellationToken cancellationToken) {
+        storeLastActiveQuestions(questions, fetchedTimestamp);
+        notifyOnMainThread(
+                NOTIFY_FETCHED,
+                new QuestionsStore.LastActiveQuestions(questions, fetchedTimestamp),
+                cancellationToken
+        );
+    }
 }
@@ -1,93 +1,412 @@
 package com.techyourchance.unittesting.questions;
 
-import com.techyourchance.unittesting.common.BaseObservable;
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.BaseUseCase;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.common.usecases.OutstandingRequests;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
 import com.techyourchance.unittesting.networking.questions.FetchQuestionDetailsEndpoint;
 import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.questions.cache.LruQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
-public class FetchQuestionDetailsUseCase extends BaseObservable<FetchQuestionDetailsUseCase.Listener> {
+/**
+ * Details cached in memory are delivered synchronously on the calling thread. Otherwise, the
+ * cache is consulted beyond memory (e.g. persistent storage) on the IO executor, and only then
+ * details are fetched. Loaded and fetched details are delivered to listeners on the main thread;
+ * fetched details are mapped and cached on the compute executor.
+ * If outstanding requests are tracked, requests made on behalf of listeners are cancelled once
+ * the last listener unregisters. Prefetches are never cancelled.
+ */
+public class FetchQuestionDetailsUseCase extends BaseUseCase<FetchQuestionDetailsUseCase.Listener> {
 
     public interface Listener {
         void onQuestionDetailsFetched(QuestionDetails questionDetails);
         void onQuestionDetailsFetchFailed();
     }
 
-    private static final long CACHE_TIMEOUT_MS = 60000;
+    public interface PrefetchListener {
+        void onQuestionDetailsPrefetchCompleted(String questionId);
+    }
+
+    private static final ListenerNotification<Listener, QuestionDetails> NOTIFY_FETCHED =
+            new ListenerNotification<Listener, QuestionDetails>() {
+                @Override
+                public void notify(Listener listener, QuestionDetails questionDetails) {
+                    listener.onQuestionDetailsFetched(questionDetails);
+                }
+            };
+
+    private static final ListenerNotification<Listener, Void> NOTIFY_FETCH_FAILED =
+            new ListenerNotification<Listener, Void>() {
+                @Override
+                public void notify(Listener listener, Void argument) {
+                    listener.onQuestionDetailsFetchFailed();
+                }
+            };
 
     private final FetchQuestionDetailsEndpoint mFetchQuestionDetailsEndpoint;
-    private final TimeProvider mTimeProvider;
+    private final QuestionDetailsCache mQuestionDetailsCache;
+    private final FreshnessPolicy mFreshnessPolicy;
+    private final ApiMetrics mApiMetrics;
+
+    private final Object mLock = new Object();
 
-    private final Map<String, QuestionDetailsCacheEntry> mQuestionDetailsCache = new HashMap<>();
+    // requests for these ids are pending; all listeners will be notified when they complete
+    private final Map<String, RequestInFlight> mRequestsInFlight = new HashMap<>();
+
+    // ids of cached entries which were prefetched and haven't been requested yet; insertion order
+    // is the order of prefetches
+    private final LinkedHashSet<String> mPrefetchedIds = new LinkedHashSet<>();
+
+    private long mPrefetchCount;
+    private long mPrefetchHitCount;
 
     public FetchQuestionDetailsUseCase(FetchQuestionDetailsEndpoint fetchQuestionDetailsEndpoint,
                                        TimeProvider timeProvider) {
+        this(
+                fetchQuestionDetailsEndpoint,
+                new LruQuestionDetailsCache(
+                        timeProvider,
+                        Constants.QUESTION_DETAILS_FRESH_PERIOD_MS,
+                        Constants.QUESTION_DETAILS_CACHE_MAX_ENTRIES,
+                        Constants.QUESTION_DETAILS_CACHE_MAX_SIZE_BYTES
+                ),
+                new FreshnessPolicy(timeProvider, Constants.QUESTION_DETAILS_FRESH_PERIOD_MS, 0),
+                UseCaseExecutors.synchronous(),
+                null,
+                ApiMetrics.disabled()
+        );
+    }
+
+    /**
+     * @param outstandingRequests if not null, requests made on behalf of listeners will be
+     *                            cancelled once the last listener unregisters
+     */
+    public FetchQuestionDetailsUseCase(FetchQuestionDetailsEndpoint fetchQuestionDetailsEndpoint,
+                                       QuestionDetailsCache questionDetailsCache,
+                                       FreshnessPolicy freshnessPolicy,
+                                       UseCaseExecutors useCaseExecutors,
+                                       @Nullable OutstandingRequests outstandingRequests,
+                                       ApiMetrics apiMetrics) {
+        super(useCaseExecutors, outstandingRequests);
         mFetchQuestionDetailsEndpoint = fetchQuestionDetailsEndpoint;
-        mTimeProvider = timeProvider;
+        mQuestionDetailsCache = questionDetailsCache;
+        mFreshnessPolicy = freshnessPolicy;
+        mApiMetrics = apiMetrics;
+    }
+
+    public void fetchQuestionDetailsAndNotify(String questionId) {
+        fetchQuestionDetailsAndNotify(questionId, new CancellationToken());
+    }
+
+    /**
+     * @param cancellationToken once cancelled, listeners won't be notified about the results of
+     *                          the request made on behalf of this call, unless other calls which
+     *                          joined the same request are still interested in them. Fetched data
+     *                          is cached regardless.
+     */
+    public void fetchQuestionDetailsAndNotify(final String questionId, final CancellationToken cancellationToken) {
+        long cachedTimestamp = mQuestionDetailsCache.getCachedTimestamp(questionId);
+        if (cachedTimestamp != QuestionDetailsCache.NOT_CACHED) {
+            if (mFreshnessPolicy.getFreshness(cachedTimestamp) == FreshnessPolicy.Freshness.EXPIRED) {
+                fetchFromEndpointAndNotify(questionId, null, null, cancellationToken);
+                return;
+            }
+            // cached entry is materialized only once it's known to be delivered
+            QuestionDetailsCache.Entry cachedEntry = mQuestionDetailsCache.get(questionId);
+            if (cachedEntry != null) {
+                serveCachedEntryAndNotify(questionId, cachedEntry, true, cancellationToken);
+                return;
+            }
+            // evicted in the meantime
+        }
+        executeOnIo(new Runnable() {
+            @Override
+            public void run() {
+                QuestionDetailsCache.Entry loadedEntry = mQuestionDetailsCache.load(questionId);
+                if (loadedEntry != null) {
+                    serveCachedEntryAndNotify(questionId, loadedEntry, false, cancellationToken);
+                } else {
+                    fetchFromEndpointAndNotify(questionId, null, null, cancellationToken);
+                }
+            }
+        });
     }
 
-    public void fetchQuestionDetailsAndNotify(final String questionId) {
-        if (serveQuestionDetailsFromCacheIfValid(questionId)) {
+    /**
+     * @param notifySynchronously whether listeners are notified on the calling thread, rather than
+     *                            on the main thread
+     */
+    private void serveCachedEntryAndNotify(String questionId,
+                                           QuestionDetailsCache.Entry cachedEntry,
+                                           boolean notifySynchronously,
+                                           CancellationToken cancellationToken) {
+        switch (mFreshnessPolicy.getFreshness(cachedEntry.getCachedTimestamp())) {
+            case FRESH:
+                countPrefetchHit(questionId);
+                notifyCachedSuccess(cachedEntry.getQuestionDetails(), notifySynchronously, cancellationToken);
+                break;
+            case STALE:
+                countPrefetchHit(questionId);
+                notifyCachedSuccess(cachedEntry.getQuestionDetails(), notifySynchronously, cancellationToken);
+                fetchFromEndpointAndNotify(questionId, cachedEntry.getQuestionDetails(), null, cancellationToken);
+                break;
+            case EXPIRED:
+                fetchFromEndpointAndNotify(questionId, null, null, cancellationToken);
+                break;
+        }
+    }
+
+    // guarded by mLock
+    private void addPrefetchedId(String questionId) {
+        mPrefetchedIds.add(questionId);
+        Iterator<String> iterator = mPrefetchedIds.iterator();
+        while (mPrefetchedIds.size() > Constants.QUESTION_DETAILS_CACHE_MAX_ENTRIES) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void countPrefetchHit(String questionId) {
+        synchronized (mLock) {
+            if (mPrefetchedIds.remove(questionId)) {
+                mPrefetchHitCount++;
+            }
+        }
+    }
+
+    /**
+     * Warm up the cache without notifying listeners of this use case. Fresh cached data isn't
+     * fetched again.
+     * @param prefetchListener will be notified when prefetch completes, either successfully or not
+     */
+    public void prefetchQuestionDetails(final String questionId, final PrefetchListener prefetchListener) {
+        // cached entries aren't materialized, because they aren't delivered to anyone
+        long cachedTimestamp = mQuestionDetailsCache.getCachedTimestamp(questionId);
+        if (cachedTimestamp != QuestionDetailsCache.NOT_CACHED) {
+            prefetchIfNotFresh(questionId, cachedTimestamp, prefetchListener);
             return;
         }
-        mFetchQuestionDetailsEndpoint.fetchQuestionDetails(questionId, new FetchQuestionDetailsEndpoint.Listener() {
+        executeOnIo(new Runnable() {
             @Override
-            public void onQuestionDetailsFetched(QuestionSchema question) {
-                QuestionDetailsCacheEntry cacheEntry = new QuestionDetailsCacheEntry(
-                        schemaToQuestionDetails(question),
-                        mTimeProvider.getCurrentTimestamp()
+            public void run() {
+                QuestionDetailsCache.Entry loadedEntry = mQuestionDetailsCache.load(questionId);
+                prefetchIfNotFresh(
+                        questionId,
+                        loadedEntry == null ? QuestionDetailsCache.NOT_CACHED : loadedEntry.getCachedTimestamp(),
+                        prefetchListener
                 );
-                mQuestionDetailsCache.put(questionId, cacheEntry);
-                notifySuccess(cacheEntry.mQuestionDetails);
+            }
+        });
+    }
+
+    private void prefetchIfNotFresh(String questionId, long cachedTimestamp, PrefetchListener prefetchListener) {
+        if (cachedTimestamp != QuestionDetailsCache.NOT_CACHED
+                && mFreshnessPolicy.getFreshness(cachedTimestamp) == FreshnessPolicy.Freshness.FRESH) {
+            prefetchListener.onQuestionDetailsPrefetchCompleted(questionId);
+        } else {
+            fetchFromEndpointAndNotify(questionId, null, prefetchListener, null);
+        }
+    }
+
+    /**
+     * @return number of prefetches that stored new data in the cache
+     */
+    public long getPrefetchCount() {
+        synchronized (mLock) {
+            return mPrefetchCount;
+        }
+    }
+
+    /**
+     * @return number of requests that were served with prefetched data, either from the cache
+     *         or by joining a prefetch which was still in flight
+     */
+    public long getPrefetchHitCount() {
+        synchronized (mLock) {
+            return mPrefetchHitCount;
+        }
+    }
+
+    /**
+     * @param staleQuestionDetails data already delivered to listeners; if not null, listeners will
+     *                             be notified only if fetched data differs from it, and won't be
+     *                             notified of failure
+     * @param prefetchListener if not null, this is a prefetch and listeners aren't awaiting data
+     * @param cancellationToken null for prefetches
+     */
+    private void fetchFromEndpointAndNotify(final String questionId,
+                                            @Nullable QuestionDetails staleQuestionDetails,
+                                            @Nullable PrefetchListener prefetchListener,
+                                            @Nullable CancellationToken cancellationToken) {
+        boolean awaitingData = staleQuestionDetails == null && prefetchListener == null;
+        CancellationToken requestCancellationToken;
+        synchronized (mLock) {
+            RequestInFlight requestInFlight = mRequestsInFlight.get(questionId);
+            if (requestInFlight != null) {
+                if (staleQuestionDetails != null) {
+                    // listeners have just been notified with this data, so it's what fetched data
+                    // should be compared with (e.g. a prefetch in flight doesn't have stale data)
+                    requestInFlight.mStaleQuestionDetails = staleQuestionDetails;
+                }
+                if (awaitingData) {
+                    if (requestInFlight.mPrefetch && !requestInFlight.mAwaitingData) {
+                        mPrefetchHitCount++;
+                    }
+                    requestInFlight.mAwaitingData = true;
+                }
+                if (prefetchListener != null) {
+                    requestInFlight.mPrefetchListeners.add(prefetchListener);
+                }
+                if (cancellationToken != null) {
+                    requestInFlight.mCancellationTokens.add(cancellationToken);
+                }
+                return;
+            }
+            requestInFlight = new RequestInFlight(
+                    staleQuestionDetails,
+                    prefetchListener != null,
+                    prefetchListener == null ? startRequest() : new CancellationToken()
+            );
+            requestInFlight.mAwaitingData = awaitingData;
+            if (prefetchListener != null) {
+                requestInFlight.mPrefetchListeners.add(prefetchListener);
+            }
+            if (cancellationToken != null) {
+                requestInFlight.mCancellationTokens.add(cancellationToken);
+            }
+            mRequestsInFlight.put(questionId, requestInFlight);
+            requestCancellationToken = requestInFlight.mRequestCancellationToken;
+        }
+        mFetchQuestionDetailsEndpoint.fetchQuestionDetails(questionId, requestCancellationToken, new FetchQuestionDetailsEndpoint.Listener() {
+            @Override
+            public void onQuestionDetailsFetched(final QuestionSchema question) {
+                executeOnCompute(new Runnable() {
+                    @Override
+                    public void run() {
+                        onFetched(questionId, schemaToQuestionDetails(question));
+                    }
+                });
             }
 
             @Override
             public void onQuestionDetailsFetchFailed() {
-                notifyFailure();
+                onFetchFailed(questionId);
             }
         });
     }
 
-    private boolean serveQuestionDetailsFromCacheIfValid(String questionId) {
-        final QuestionDetailsCacheEntry cachedQuestionDetailsEntry = mQuestionDetailsCache.get(questionId);
-        if (cachedQuestionDetailsEntry != null
-                && mTimeProvider.getCurrentTimestamp() < cachedQuestionDetailsEntry.mCachedTimestamp + CACHE_TIMEOUT_MS) {
-            notifySuccess(cachedQuestionDetailsEntry.mQuestionDetails);
-            return true;
-        } else {
-            return false;
+    private void onFetched(String questionId, QuestionDetails questionDetails) {
+        mQuestionDetailsCache.put(questionDetails);
+        RequestInFlight requestInFlight;
+        synchronized (mLock) {
+            requestInFlight = mRequestsInFlight.remove(questionId);
+            if (requestInFlight.mPrefetch && !requestInFlight.mAwaitingData) {
+                mPrefetchCount++;
+                addPrefetchedId(questionId);
+            }
+        }
+        completeRequest(requestInFlight.mRequestCancellationToken);
+        CancellationToken cancellationToken = requestInFlight.getActiveCancellationToken();
+        QuestionDetails staleQuestionDetails = requestInFlight.mStaleQuestionDetails;
+        if (cancellationToken != null
+                && (requestInFlight.mAwaitingData
+                        || (staleQuestionDetails != null && !questionDetails.equals(staleQuestionDetails)))) {
+            notifySuccess(questionDetails, cancellationToken);
+        }
+        notifyPrefetchCompleted(questionId, requestInFlight);
+    }
+
+    private void onFetchFailed(String questionId) {
+        RequestInFlight requestInFlight;
+        synchronized (mLock) {
+            requestInFlight = mRequestsInFlight.remove(questionId);
+        }
+        completeRequest(requestInFlight.mRequestCancellationToken);
+        CancellationToken cancellationToken = requestInFlight.getActiveCancellationToken();
+        if (requestInFlight.mAwaitingData && cancellationToken != null) {
+            notifyFailure(cancellationToken);
+        }
+        notifyPrefetchCompleted(questionId, requestInFlight);
+    }
+
+    private void notifyPrefetchCompleted(String questionId, RequestInFlight requestInFlight) {
+        for (PrefetchListener prefetchListener : requestInFlight.mPrefetchListeners) {
+            prefetchListener.onQuestionDetailsPrefetchCompleted(questionId);
         }
     }
 
     private QuestionDetails schemaToQuestionDetails(QuestionSchema questionSchema) {
-        return new QuestionDetails(
+        long startNanos = mApiMetrics.startTiming();
+        QuestionDetails questionDetails = new QuestionDetails(
                 questionSchema.getId(),
                 questionSchema.getTitle(),
                 questionSchema.getBody()
         );
+        mApiMetrics.recordLatencySince(ApiMetrics.ENDPOINT_QUESTION_DETAILS, MetricsSink.Phase.MAP, startNanos);
+        return questionDetails;
     }
 
-    private void notifyFailure() {
-        for (Listener listener : getListeners()) {
-            listener.onQuestionDetailsFetchFailed();
-        }
+    private void notifyFailure(CancellationToken cancellationToken) {
+        notifyOnMainThread(NOTIFY_FETCH_FAILED, null, cancellationToken);
+    }
+
+    private void notifySuccess(QuestionDetails questionDetails, CancellationToken cancellationToken) {
+        notifyOnMainThread(NOTIFY_FETCHED, questionDetails, cancellationToken);
     }
 
-    private void notifySuccess(QuestionDetails questionDetails) {
-        for (Listener listener : getListeners()) {
-            listener.onQuestionDetailsFetched(questionDetails);
+    private void notifyCachedSuccess(QuestionDetails questionDetails,
+                                     boolean notifySynchronously,
+                                     CancellationToken cancellationToken) {
+        if (notifySynchronously) {
+            forEachListener(NOTIFY_FETCHED, questionDetails);
+        } else {
+            notifySuccess(questionDetails, cancellationToken);
         }
     }
 
-    private static class QuestionDetailsCacheEntry {
-        private final QuestionDetails mQuestionDetails;
-        private final long mCachedTimestamp;
+    private static class RequestInFlight {
+        @Nullable private QuestionDetails mStaleQuestionDetails;
+        private final boolean mPrefetch;
+        private final CancellationToken mRequestCancellationToken;
+        private final List<PrefetchListener> mPrefetchListeners = new ArrayList<>(1);
+        private final List<CancellationToken> mCancellationTokens = new ArrayList<>(1);
+        private boolean mAwaitingData;
+
+        private RequestInFlight(@Nullable QuestionDetails staleQuestionDetails,
+                                boolean prefetch,
+                                CancellationToken requestCancellationToken) {
+            mStaleQuestionDetails = staleQuestionDetails;
+            mPrefetch = prefetch;
+            mRequestCancellationToken = requestCancellationToken;
+        }
 
-        private QuestionDetailsCacheEntry(QuestionDetails questionDetails, long cachedTimestamp) {
-            mQuestionDetails = questionDetails;
-            mCachedTimestamp = cachedTimestamp;
+        /**
+         * @return token of any of the calls which are still interested in the results, or null
+         *         if all of them have been cancelled
+         */
+        @Nullable
+        private CancellationToken getActiveCancellationToken() {
+            for (CancellationToken cancellationToken : mCancellationTokens) {
+                if (!cancellationToken.isCancelled()) {
+                    return cancellationToken;
+                }
+            }
+            return null;
         }
     }
 
@@ -2,12 +2,19 @@ package com.techyourchance.unittesting.questions;
 
 import java.util.Objects;
 
+/**
+ * Immutable. The hash code is computed once, because questions are hashed repeatedly by lookups
+ * and by list diffing.
+ */
 public class Question {
 
     private final String mId;
 
     private final String mTitle;
 
+    // racy single-check caching, same as String does: 0 means not computed yet
+    private int mHashCode;
+
     public Question(String id, String title) {
         mId = id;
         mTitle = title;
@@ -21,17 +28,27 @@ public class Question {
         return mTitle;
     }
 
+    public boolean hasSameId(Question other) {
+        return Objects.equals(mId, other.mId);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Question question = (Question) o;
-        return Objects.equals(mId, question.mId) &&
+        return hasSameId(question) &&
+                hashCode() == question.hashCode() &&
                 Objects.equals(mTitle, question.mTitle);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(mId, mTitle);
+        int hashCode = mHashCode;
+        if (hashCode == 0) {
+            hashCode = 31 * Objects.hashCode(mId) + Objects.hashCode(mTitle);
+            mHashCode = hashCode;
+        }
+        return hashCode;
     }
 }
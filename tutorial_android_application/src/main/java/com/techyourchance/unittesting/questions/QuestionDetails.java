@@ -2,6 +2,10 @@ package com.techyourchance.unittesting.questions;
 
 import java.util.Objects;
 
+/**
+ * Immutable. The hash code is computed once, such that the (possibly large) body isn't rehashed
+ * by each lookup.
+ */
 public class QuestionDetails {
 
     private final String mId;
@@ -10,6 +14,9 @@ public class QuestionDetails {
 
     private final String mBody;
 
+    // racy single-check caching, same as String does: 0 means not computed yet
+    private int mHashCode;
+
     public QuestionDetails(String id, String title, String body) {
         mId = id;
         mTitle = title;
@@ -34,12 +41,20 @@ public class QuestionDetails {
         if (o == null || getClass() != o.getClass()) return false;
         QuestionDetails that = (QuestionDetails) o;
         return Objects.equals(mId, that.mId) &&
+                hashCode() == that.hashCode() &&
                 Objects.equals(mTitle, that.mTitle) &&
                 Objects.equals(mBody, that.mBody);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(mId, mTitle, mBody);
+        int hashCode = mHashCode;
+        if (hashCode == 0) {
+            hashCode = Objects.hashCode(mId);
+            hashCode = 31 * hashCode + Objects.hashCode(mTitle);
+            hashCode = 31 * hashCode + Objects.hashCode(mBody);
+            mHashCode = hashCode;
+        }
+        return hashCode;
     }
 }
@@ -0,0 +1,94 @@
+package com.techyourchance.unittesting.questions;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.networking.quota.RequestBudget;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Prefetches details of questions through {@link FetchQuestionDetailsUseCase}, keeping at most
+ * a fixed number of prefetches in flight.
+ * Prefetches are background work: if the request budget doesn't allow them, they stay pending
+ * until the next call to {@link #prefetch(List)} or until another prefetch completes.
+ */
+public class QuestionDetailsPrefetcher implements FetchQuestionDetailsUseCase.PrefetchListener {
+
+    private final FetchQuestionDetailsUseCase mFetchQuestionDetailsUseCase;
+    private final int mMaxConcurrentPrefetches;
+    @Nullable private final RequestBudget mRequestBudget;
+
+    private final Queue<String> mPendingQuestionIds = new LinkedList<>();
+    private final Set<String> mPrefetchesInFlight = new HashSet<>();
+
+    public QuestionDetailsPrefetcher(FetchQuestionDetailsUseCase fetchQuestionDetailsUseCase,
+                                     int maxConcurrentPrefetches) {
+        this(fetchQuestionDetailsUseCase, maxConcurrentPrefetches, null);
+    }
+
+    public QuestionDetailsPrefetcher(FetchQuestionDetailsUseCase fetchQuestionDetailsUseCase,
+                                     int maxConcurrentPrefetches,
+                                     @Nullable RequestBudget requestBudget) {
+        mFetchQuestionDetailsUseCase = fetchQuestionDetailsUseCase;
+        mMaxConcurrentPrefetches = maxConcurrentPrefetches;
+        mRequestBudget = requestBudget;
+    }
+
+    /**
+     * Replace the questions waiting to be prefetched. Prefetches that are already in flight
+     * aren't affected.
+     */
+    public void prefetch(List<Question> questions) {
+        synchronized (this) {
+            mPendingQuestionIds.clear();
+            for (Question question : questions) {
+                if (!mPrefetchesInFlight.contains(question.getId())) {
+                    mPendingQuestionIds.add(question.getId());
+                }
+            }
+        }
+        startPrefetches();
+    }
+
+    /**
+     * Drop the questions waiting to be prefetched. Results of prefetches that are already in
+     * flight will still be cached.
+     */
+    public synchronized void cancel() {
+        mPendingQuestionIds.clear();
+    }
+
+    @Override
+    public void onQuestionDetailsPrefetchCompleted(String questionId) {
+        synchronized (this) {
+            mPrefetchesInFlight.remove(questionId);
+        }
+        startPrefetches();
+    }
+
+    private void startPrefetches() {
+        String questionId;
+        while ((questionId = nextQuestionIdToPrefetch()) != null) {
+            mFetchQuestionDetailsUseCase.prefetchQuestionDetails(questionId, this);
+        }
+    }
+
+    private synchronized String nextQuestionIdToPrefetch() {
+        if (mPrefetchesInFlight.size() >= mMaxConcurrentPrefetches || mPendingQuestionIds.isEmpty()) {
+            return null;
+        }
+        if (mRequestBudget != null && !mRequestBudget.hasBackgroundBudget()) {
+            return null;
+        }
+        String questionId = mPendingQuestionIds.poll();
+        if (questionId != null) {
+            mPrefetchesInFlight.add(questionId);
+        }
+        return questionId;
+    }
+
+}
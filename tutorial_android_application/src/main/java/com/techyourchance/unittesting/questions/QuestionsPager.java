@@ -0,0 +1,238 @@
+package com.techyourchance.unittesting.questions;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.BaseUseCase;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
+import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads last active questions page by page, keeping at most a fixed number of pages in memory.
+ * When the limit is exceeded, the pages most distant from the last loaded one are dropped: their
+ * positions are preserved, but hold nulls until these pages are loaded again.
+ * All pages are anchored to the time the first page was obtained, such that activity which
+ * happens while the user scrolls doesn't shift them.
+ * This class isn't thread safe and should be used on UI thread only. Fetched pages are mapped on
+ * the compute executor and applied on the main thread.
+ */
+public class QuestionsPager extends BaseUseCase<QuestionsPager.Listener> {
+
+    public interface Listener {
+        void onQuestionsPageLoaded();
+        void onQuestionsPageLoadFailed();
+    }
+
+    private static final ListenerNotification<Listener, Void> NOTIFY_LOADED =
+            new ListenerNotification<Listener, Void>() {
+                @Override
+                public void notify(Listener listener, Void argument) {
+                    listener.onQuestionsPageLoaded();
+                }
+            };
+
+    private static final ListenerNotification<Listener, Void> NOTIFY_LOAD_FAILED =
+            new ListenerNotification<Listener, Void>() {
+                @Override
+                public void notify(Listener listener, Void argument) {
+                    listener.onQuestionsPageLoadFailed();
+                }
+            };
+
+    private final FetchLastActiveQuestionsEndpoint mFetchLastActiveQuestionsEndpoint;
+    private final TimeProvider mTimeProvider;
+    private final int mPageSize;
+    private final int mMaxPagesInMemory;
+    private final ApiMetrics mApiMetrics;
+
+    private final Map<Integer, List<Question>> mPages = new HashMap<>();
+    private final Set<Integer> mPagesInFlight = new HashSet<>();
+
+    private int mPagesCount;
+    private int mLastPageSize;
+    private boolean mHasMore;
+    private long mMaxActivityDate;
+    // incremented on reset in order to ignore results of pages requested before it
+    private int mGeneration;
+
+    public QuestionsPager(FetchLastActiveQuestionsEndpoint fetchLastActiveQuestionsEndpoint,
+                          TimeProvider timeProvider,
+                          int pageSize,
+                          int maxPagesInMemory) {
+        this(
+                fetchLastActiveQuestionsEndpoint,
+                timeProvider,
+                pageSize,
+                maxPagesInMemory,
+                UseCaseExecutors.synchronous(),
+                ApiMetrics.disabled()
+        );
+    }
+
+    public QuestionsPager(FetchLastActiveQuestionsEndpoint fetchLastActiveQuestionsEndpoint,
+                          TimeProvider timeProvider,
+                          int pageSize,
+                          int maxPagesInMemory,
+                          UseCaseExecutors useCaseExecutors,
+                          ApiMetrics apiMetrics) {
+        super(useCaseExecutors);
+        mFetchLastActiveQuestionsEndpoint = fetchLastActiveQuestionsEndpoint;
+        mTimeProvider = timeProvider;
+        mPageSize = pageSize;
+        mMaxPagesInMemory = maxPagesInMemory;
+        mApiMetrics = apiMetrics;
+    }
+
+    /**
+     * Discard all pages and start paging from scratch, using questions that were already fetched
+     * by other means as the first page.
+     * @param fetchedTimestamp the time the given questions were fetched at; subsequent pages are
+     *                         anchored to it, such that they continue the given page
+     */
+    public void setFirstPage(List<Question> questions, long fetchedTimestamp) {
+        reset(fetchedTimestamp);
+        onPageLoaded(0, new ArrayList<>(questions), questions.size() >= mPageSize);
+    }
+
+    /**
+     * Discard all pages and start paging from scratch by loading the first page.
+     */
+    public void loadFirstPage() {
+        reset(mTimeProvider.getCurrentTimestamp());
+        loadPage(0);
+    }
+
+    /**
+     * Load the page following the last known page, unless all pages have already been loaded.
+     */
+    public void loadNextPage() {
+        if (mPagesCount > 0 && mHasMore) {
+            loadPage(mPagesCount);
+        }
+    }
+
+    /**
+     * Load the page containing the given position if it has been dropped from memory.
+     */
+    public void ensureLoaded(int position) {
+        int page = position / mPageSize;
+        if (page < mPagesCount && !mPages.containsKey(page)) {
+            loadPage(page);
+        }
+    }
+
+    public boolean hasMore() {
+        return mHasMore;
+    }
+
+    public int getQuestionsCount() {
+        return mPagesCount == 0 ? 0 : (mPagesCount - 1) * mPageSize + mLastPageSize;
+    }
+
+    /**
+     * @return questions at all known positions; positions of pages that aren't in memory hold nulls
+     */
+    public List<Question> getQuestions() {
+        int questionsCount = getQuestionsCount();
+        List<Question> questions = new ArrayList<>(questionsCount);
+        for (int position = 0; position < questionsCount; position++) {
+            List<Question> page = mPages.get(position / mPageSize);
+            int indexInPage = position % mPageSize;
+            questions.add(page != null && indexInPage < page.size() ? page.get(indexInPage) : null);
+        }
+        return questions;
+    }
+
+    private void reset(long anchorTimestamp) {
+        mGeneration++;
+        mPages.clear();
+        mPagesInFlight.clear();
+        mPagesCount = 0;
+        mLastPageSize = 0;
+        mHasMore = false;
+        mMaxActivityDate = anchorTimestamp / 1000;
+    }
+
+    private void loadPage(final int page) {
+        if (!mPagesInFlight.add(page)) {
+            return;
+        }
+        final int generation = mGeneration;
+        mFetchLastActiveQuestionsEndpoint.fetchLastActiveQuestionsPage(
+                page + 1,
+                mPageSize,
+                mMaxActivityDate,
+                new FetchLastActiveQuestionsEndpoint.PageListener() {
+                    @Override
+                    public void onQuestionsPageFetched(final List<QuestionSchema> questionSchemas, final boolean hasMore) {
+                        executeOnCompute(new Runnable() {
+                            @Override
+                            public void run() {
+                                long startNanos = mApiMetrics.startTiming();
+                                final List<Question> questions = new ArrayList<>(questionSchemas.size());
+                                for (QuestionSchema questionSchema : questionSchemas) {
+                                    questions.add(new Question(questionSchema.getId(), questionSchema.getTitle()));
+                                }
+                                mApiMetrics.recordLatencySince(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP, startNanos);
+                                executeOnMainThread(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        if (generation != mGeneration) {
+                                            return;
+                                        }
+                                        mPagesInFlight.remove(page);
+                                        onPageLoaded(page, questions, hasMore);
+                                        forEachListener(NOTIFY_LOADED, null);
+                                    }
+                                });
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onQuestionsPageFetchFailed() {
+                        executeOnMainThread(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (generation != mGeneration) {
+                                    return;
+                                }
+                                mPagesInFlight.remove(page);
+                                forEachListener(NOTIFY_LOAD_FAILED, null);
+                            }
+                        });
+                    }
+                }
+        );
+    }
+
+    private void onPageLoaded(int page, List<Question> questions, boolean hasMore) {
+        mPages.put(page, questions);
+        if (page >= mPagesCount - 1) {
+            mPagesCount = page + 1;
+            mLastPageSize = questions.size();
+            mHasMore = hasMore;
+        }
+        dropPagesDistantFrom(page);
+    }
+
+    private void dropPagesDistantFrom(int page) {
+        while (mPages.size() > mMaxPagesInMemory) {
+            int mostDistantPage = page;
+            for (int loadedPage : mPages.keySet()) {
+                if (Math.abs(loadedPage - page) > Math.abs(mostDistantPage - page)) {
+                    mostDistantPage = loadedPage;
+                }
+            }
+            mPages.remove(mostDistantPage);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.techyourchance.unittesting.questions.cache;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory cache bounded by number of entries and by estimated size of the cached strings.
+ * Least recently used entries are evicted first; entries older than time-to-live are evicted
+ * on every access.
+ * Bodies longer than the compression threshold are held deflated (see {@link DeflatedText}) and
+ * inflated on each read, outside of the cache's lock.
+ */
+public class LruQuestionDetailsCache implements QuestionDetailsCache {
+
+    public static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+    // approximate per-entry overhead of the entry, the map node and three String headers
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final TimeProvider mTimeProvider;
+    private final long mTimeToLiveMs;
+    private final int mMaxEntries;
+    private final long mMaxSizeBytes;
+    private final int mCompressionThresholdChars;
+
+    // iteration order is least recently used first
+    private final LinkedHashMap<String, CacheEntry> mEntriesByAccess = new LinkedHashMap<>(16, 0.75f, true);
+
+    // iteration order is oldest write first, which is also the expiration order
+    private final LinkedHashMap<String, CacheEntry> mEntriesByWrite = new LinkedHashMap<>();
+
+    private long mSizeBytes;
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+
+    public LruQuestionDetailsCache(TimeProvider timeProvider,
+                                   long timeToLiveMs,
+                                   int maxEntries,
+                                   long maxSizeBytes) {
+        this(timeProvider, timeToLiveMs, maxEntries, maxSizeBytes, NO_COMPRESSION);
+    }
+
+    /**
+     * @param compressionThresholdChars bodies longer than this are held compressed
+     */
+    public LruQuestionDetailsCache(TimeProvider timeProvider,
+                                   long timeToLiveMs,
+                                   int maxEntries,
+                                   long maxSizeBytes,
+                                   int compressionThresholdChars) {
+        mTimeProvider = timeProvider;
+        mTimeToLiveMs = timeToLiveMs;
+        mMaxEntries = maxEntries;
+        mMaxSizeBytes = maxSizeBytes;
+        mCompressionThresholdChars = compressionThresholdChars;
+    }
+
+    @Nullable
+    @Override
+    public Entry get(String questionId) {
+        CacheEntry entry;
+        synchronized (this) {
+            evictExpired();
+            entry = mEntriesByAccess.get(questionId);
+            if (entry != null && isExpired(entry.mCachedTimestamp)) {
+                // entries put with their original timestamps might be out of write order
+                remove(questionId);
+                mEvictionCount++;
+                entry = null;
+            }
+            if (entry != null) {
+                mHitCount++;
+            } else {
+                mMissCount++;
+            }
+        }
+        return entry == null ? null : entry.toEntry();
+    }
+
+    @Override
+    public synchronized long getCachedTimestamp(String questionId) {
+        // write order map, such that probing doesn't count as use
+        CacheEntry entry = mEntriesByWrite.get(questionId);
+        if (entry == null || isExpired(entry.mCachedTimestamp)) {
+            return NOT_CACHED;
+        }
+        return entry.mCachedTimestamp;
+    }
+
+    /**
+     * This cache is held in memory only, therefore there is nothing to load
+     */
+    @Nullable
+    @Override
+    public Entry load(String questionId) {
+        return null;
+    }
+
+    @Override
+    public void put(QuestionDetails questionDetails) {
+        put(new Entry(questionDetails, mTimeProvider.getCurrentTimestamp()));
+    }
+
+    @Override
+    public void put(Entry entry) {
+        // compress outside of the lock
+        DeflatedText deflatedBody = null;
+        String body = entry.getQuestionDetails().getBody();
+        if (length(body) > mCompressionThresholdChars) {
+            deflatedBody = DeflatedText.deflate(body);
+        }
+        synchronized (this) {
+            put(entry, deflatedBody);
+        }
+    }
+
+    private void put(Entry entry, @Nullable DeflatedText deflatedBody) {
+        evictExpired();
+        QuestionDetails questionDetails = entry.getQuestionDetails();
+        String id = questionDetails.getId();
+        remove(id);
+        if (isExpired(entry.getCachedTimestamp())) {
+            return;
+        }
+        CacheEntry cacheEntry = deflatedBody == null
+                ? new CacheEntry(entry, estimateSizeBytes(questionDetails))
+                : new CacheEntry(questionDetails, deflatedBody, entry.getCachedTimestamp());
+        if (cacheEntry.mSizeBytes > mMaxSizeBytes) {
+            return;
+        }
+        mEntriesByAccess.put(id, cacheEntry);
+        mEntriesByWrite.put(id, cacheEntry);
+        mSizeBytes += cacheEntry.mSizeBytes;
+        trimToBounds();
+    }
+
+    @Override
+    public synchronized void evictExpired() {
+        long now = mTimeProvider.getCurrentTimestamp();
+        Iterator<CacheEntry> iterator = mEntriesByWrite.values().iterator();
+        while (iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            if (now < entry.mCachedTimestamp + mTimeToLiveMs) {
+                break;
+            }
+            iterator.remove();
+            mEntriesByAccess.remove(entry.mQuestionId);
+            mSizeBytes -= entry.mSizeBytes;
+            mEvictionCount++;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        mEntriesByAccess.clear();
+        mEntriesByWrite.clear();
+        mSizeBytes = 0;
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return mEntriesByAccess.size();
+    }
+
+    @Override
+    public synchronized long getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    private boolean isExpired(long cachedTimestamp) {
+        return mTimeProvider.getCurrentTimestamp() >= cachedTimestamp + mTimeToLiveMs;
+    }
+
+    private void remove(String questionId) {
+        CacheEntry entry = mEntriesByAccess.remove(questionId);
+        if (entry != null) {
+            mEntriesByWrite.remove(questionId);
+            mSizeBytes -= entry.mSizeBytes;
+        }
+    }
+
+    private void trimToBounds() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = mEntriesByAccess.entrySet().iterator();
+        while ((mEntriesByAccess.size() > mMaxEntries || mSizeBytes > mMaxSizeBytes) && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            mEntriesByWrite.remove(eldest.getKey());
+            mSizeBytes -= eldest.getValue().mSizeBytes;
+            mEvictionCount++;
+        }
+    }
+
+    private static long estimateSizeBytes(QuestionDetails questionDetails) {
+        return ENTRY_OVERHEAD_BYTES
+                + 2L * length(questionDetails.getId())
+                + 2L * length(questionDetails.getTitle())
+                + 2L * length(questionDetails.getBody());
+    }
+
+    private static int length(@Nullable String string) {
+        return string == null ? 0 : string.length();
+    }
+
+    private static class CacheEntry {
+        private final String mQuestionId;
+        private final long mCachedTimestamp;
+        private final long mSizeBytes;
+
+        // entry with uncompressed body, or null if the body is compressed
+        @Nullable private final Entry mEntry;
+
+        @Nullable private final String mTitle;
+        @Nullable private final DeflatedText mDeflatedBody;
+
+        private CacheEntry(Entry entry, long sizeBytes) {
+            mQuestionId = entry.getQuestionDetails().getId();
+            mCachedTimestamp = entry.getCachedTimestamp();
+            mSizeBytes = sizeBytes;
+            mEntry = entry;
+            mTitle = null;
+            mDeflatedBody = null;
+        }
+
+        private CacheEntry(QuestionDetails questionDetails, DeflatedText deflatedBody, long cachedTimestamp) {
+            mQuestionId = questionDetails.getId();
+            mCachedTimestamp = cachedTimestamp;
+            mSizeBytes = ENTRY_OVERHEAD_BYTES
+                    + 2L * length(mQuestionId)
+                    + 2L * length(questionDetails.getTitle())
+                    + deflatedBody.getSizeBytes();
+            mEntry = null;
+            mTitle = questionDetails.getTitle();
+            mDeflatedBody = deflatedBody;
+        }
+
+        private Entry toEntry() {
+            if (mEntry != null) {
+                return mEntry;
+            }
+            return new Entry(new QuestionDetails(mQuestionId, mTitle, mDeflatedBody.inflate()), mCachedTimestamp);
+        }
+    }
+}
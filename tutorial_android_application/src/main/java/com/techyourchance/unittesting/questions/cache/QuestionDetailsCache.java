@@ -0,0 +1,71 @@
+package com.techyourchance.unittesting.questions.cache;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.questions.QuestionDetails;
+
+public interface QuestionDetailsCache {
+
+    long NOT_CACHED = Long.MIN_VALUE;
+
+    class Entry {
+        private final QuestionDetails mQuestionDetails;
+        private final long mCachedTimestamp;
+
+        public Entry(QuestionDetails questionDetails, long cachedTimestamp) {
+            mQuestionDetails = questionDetails;
+            mCachedTimestamp = cachedTimestamp;
+        }
+
+        public QuestionDetails getQuestionDetails() {
+            return mQuestionDetails;
+        }
+
+        public long getCachedTimestamp() {
+            return mCachedTimestamp;
+        }
+    }
+
+    /**
+     * Look up the entry in memory only; never blocks, therefore can be called on the main thread.
+     * @return cached entry if present and not expired, or null otherwise
+     */
+    @Nullable Entry get(String questionId);
+
+    /**
+     * Look up when the entry was cached, in memory only. Unlike {@link #get(String)}, it neither
+     * counts a hit or a miss, nor materializes the entry (e.g. decompresses its body), therefore
+     * it's cheap enough for freshness checks of entries which might not be used.
+     * @return timestamp of the cached entry if present and not expired, or {@link #NOT_CACHED}
+     */
+    long getCachedTimestamp(String questionId);
+
+    /**
+     * Look up the entry beyond memory (e.g. in persistent storage), and keep it in memory if found,
+     * such that subsequent {@link #get(String)} calls will return it. May block on I/O, therefore
+     * mustn't be called on the main thread.
+     * @return entry found beyond memory, or null if there is none
+     */
+    @Nullable Entry load(String questionId);
+
+    void put(QuestionDetails questionDetails);
+
+    /**
+     * Put entry which was cached earlier, keeping its original timestamp
+     */
+    void put(Entry entry);
+
+    void evictExpired();
+
+    void clear();
+
+    int getSize();
+
+    long getSizeBytes();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+}
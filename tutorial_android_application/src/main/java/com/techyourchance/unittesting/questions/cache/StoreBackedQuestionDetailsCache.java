@@ -0,0 +1,107 @@
+package com.techyourchance.unittesting.questions.cache;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.questions.storage.QuestionsStore;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Two-level cache: in-memory cache backed by persistent {@link QuestionsStore}.
+ * {@link #get(String)} consults memory only; misses in memory are served from the store by
+ * {@link #load(String)}, which promotes entries it finds into memory. Writes go to the store on
+ * the provided executor.
+ */
+public class StoreBackedQuestionDetailsCache implements QuestionDetailsCache {
+
+    private final QuestionDetailsCache mMemoryCache;
+    private final QuestionsStore mQuestionsStore;
+    private final TimeProvider mTimeProvider;
+    private final Executor mStoreExecutor;
+
+    public StoreBackedQuestionDetailsCache(QuestionDetailsCache memoryCache,
+                                           QuestionsStore questionsStore,
+                                           TimeProvider timeProvider,
+                                           Executor storeExecutor) {
+        mMemoryCache = memoryCache;
+        mQuestionsStore = questionsStore;
+        mTimeProvider = timeProvider;
+        mStoreExecutor = storeExecutor;
+    }
+
+    @Nullable
+    @Override
+    public Entry get(String questionId) {
+        return mMemoryCache.get(questionId);
+    }
+
+    @Override
+    public long getCachedTimestamp(String questionId) {
+        return mMemoryCache.getCachedTimestamp(questionId);
+    }
+
+    @Nullable
+    @Override
+    public Entry load(String questionId) {
+        Entry entry = mQuestionsStore.getQuestionDetails(questionId);
+        if (entry != null) {
+            mMemoryCache.put(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(QuestionDetails questionDetails) {
+        put(new Entry(questionDetails, mTimeProvider.getCurrentTimestamp()));
+    }
+
+    @Override
+    public void put(Entry entry) {
+        mMemoryCache.put(entry);
+        final QuestionDetails questionDetails = entry.getQuestionDetails();
+        final long timestamp = entry.getCachedTimestamp();
+        mStoreExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mQuestionsStore.putQuestionDetails(questionDetails, timestamp);
+            }
+        });
+    }
+
+    @Override
+    public void evictExpired() {
+        mMemoryCache.evictExpired();
+    }
+
+    @Override
+    public void clear() {
+        mMemoryCache.clear();
+    }
+
+    @Override
+    public int getSize() {
+        return mMemoryCache.getSize();
+    }
+
+    @Override
+    public long getSizeBytes() {
+        return mMemoryCache.getSizeBytes();
+    }
+
+    @Override
+    public long getHitCount() {
+        return mMemoryCache.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return mMemoryCache.getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return mMemoryCache.getEvictionCount();
+    }
+}
@@ -0,0 +1,411 @@
+package com.techyourchance.unittesting.questions.storage;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Pure-Java {@link QuestionsStore} backed by a single append-only log file.
+ * <p>
+ * Every write appends a record; an in-memory index maps question ids to the offset of their latest
+ * record. The index is rebuilt on open by reading and checksumming every record in the log, and
+ * records are read through a memory-mapped view of the log. When most of the log consists of
+ * overwritten records, or when it holds details of more than twice the allowed number of
+ * questions, live records are copied into a new log which atomically replaces the old one.
+ * Compaction keeps only the details with the most recent timestamps, therefore both the size of
+ * the log and the time it takes to open it stay bounded.
+ * <p>
+ * Record layout: [int payload length][int checksum][byte type][long timestamp][payload], where
+ * the checksum is CRC32 of everything that follows it. The index is built from records whose
+ * checksums match only; the log is truncated at the first record that is torn or corrupt.
+ * <p>
+ * This class is thread safe, but all its methods block on disk I/O and on each other (including
+ * compaction), therefore they mustn't be called on the main thread.
+ */
+public class AppendOnlyQuestionsStore implements QuestionsStore {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String LOG_FILE_NAME = "questions.log";
+    private static final String COMPACTED_LOG_FILE_NAME = "questions.log.compacted";
+
+    private static final byte TYPE_QUESTION_DETAILS = 1;
+    private static final byte TYPE_LAST_ACTIVE_QUESTIONS = 2;
+
+    private static final int CHECKSUM_OFFSET = 4;
+    private static final int TYPE_OFFSET = CHECKSUM_OFFSET + 4;
+    private static final int TIMESTAMP_OFFSET = TYPE_OFFSET + 1;
+    private static final int HEADER_SIZE_BYTES = TIMESTAMP_OFFSET + 8;
+
+    private static final long COMPACTION_MIN_LOG_SIZE_BYTES = 1024 * 1024;
+    private static final int MAX_QUESTION_DETAILS = 1000;
+
+    private final File mDirectory;
+    private final long mCompactionMinLogSizeBytes;
+    private final int mMaxQuestionDetails;
+
+    private final Map<String, Long> mQuestionDetailsOffsets = new HashMap<>();
+    private long mLastActiveQuestionsOffset = -1;
+    private long mLiveBytes;
+
+    private RandomAccessFile mLogFile;
+    private FileChannel mLogChannel;
+    private MappedByteBuffer mMappedLog;
+
+    public AppendOnlyQuestionsStore(File directory) {
+        this(directory, COMPACTION_MIN_LOG_SIZE_BYTES, MAX_QUESTION_DETAILS);
+    }
+
+    public AppendOnlyQuestionsStore(File directory,
+                                    long compactionMinLogSizeBytes,
+                                    int maxQuestionDetails) {
+        mDirectory = directory;
+        mCompactionMinLogSizeBytes = compactionMinLogSizeBytes;
+        mMaxQuestionDetails = maxQuestionDetails;
+    }
+
+    @Nullable
+    @Override
+    public synchronized QuestionDetailsCache.Entry getQuestionDetails(String questionId) {
+        try {
+            openIfNeeded();
+            Long offset = mQuestionDetailsOffsets.get(questionId);
+            if (offset == null) {
+                return null;
+            }
+            ByteBuffer record = readRecord(offset);
+            long timestamp = record.getLong(TIMESTAMP_OFFSET);
+            record.position(HEADER_SIZE_BYTES);
+            return new QuestionDetailsCache.Entry(
+                    new QuestionDetails(readString(record), readString(record), readString(record)),
+                    timestamp
+            );
+        } catch (IOException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void putQuestionDetails(QuestionDetails questionDetails, long timestamp) {
+        try {
+            openIfNeeded();
+            byte[][] strings = {
+                    encode(questionDetails.getId()),
+                    encode(questionDetails.getTitle()),
+                    encode(questionDetails.getBody())
+            };
+            ByteBuffer record = newRecord(TYPE_QUESTION_DETAILS, timestamp, stringsSize(strings));
+            for (byte[] string : strings) {
+                writeString(record, string);
+            }
+            Long previousOffset = mQuestionDetailsOffsets.get(questionDetails.getId());
+            long offset = append(record);
+            if (previousOffset != null) {
+                mLiveBytes -= readRecordSize(previousOffset);
+            }
+            mQuestionDetailsOffsets.put(questionDetails.getId(), offset);
+            mLiveBytes += record.capacity();
+            compactIfNeeded();
+        } catch (IOException e) {
+            // persistence is an optimization; data will be fetched from the network instead
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized LastActiveQuestions getLastActiveQuestions() {
+        try {
+            openIfNeeded();
+            if (mLastActiveQuestionsOffset < 0) {
+                return null;
+            }
+            ByteBuffer record = readRecord(mLastActiveQuestionsOffset);
+            long timestamp = record.getLong(TIMESTAMP_OFFSET);
+            record.position(HEADER_SIZE_BYTES);
+            int count = record.getInt();
+            List<Question> questions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                questions.add(new Question(readString(record), readString(record)));
+            }
+            return new LastActiveQuestions(questions, timestamp);
+        } catch (IOException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void putLastActiveQuestions(List<Question> questions, long timestamp) {
+        try {
+            openIfNeeded();
+            byte[][] strings = new byte[questions.size() * 2][];
+            for (int i = 0; i < questions.size(); i++) {
+                strings[2 * i] = encode(questions.get(i).getId());
+                strings[2 * i + 1] = encode(questions.get(i).getTitle());
+            }
+            ByteBuffer record = newRecord(TYPE_LAST_ACTIVE_QUESTIONS, timestamp, 4 + stringsSize(strings));
+            record.putInt(questions.size());
+            for (byte[] string : strings) {
+                writeString(record, string);
+            }
+            long previousOffset = mLastActiveQuestionsOffset;
+            long offset = append(record);
+            if (previousOffset >= 0) {
+                mLiveBytes -= readRecordSize(previousOffset);
+            }
+            mLastActiveQuestionsOffset = offset;
+            mLiveBytes += record.capacity();
+            compactIfNeeded();
+        } catch (IOException e) {
+            // persistence is an optimization; data will be fetched from the network instead
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (mLogFile != null) {
+            mLogFile.close();
+            mLogFile = null;
+            mLogChannel = null;
+            mMappedLog = null;
+        }
+    }
+
+    public synchronized long getLogSizeBytes() throws IOException {
+        openIfNeeded();
+        return mLogChannel.size();
+    }
+
+    private void openIfNeeded() throws IOException {
+        if (mLogFile != null) {
+            return;
+        }
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            throw new IOException("failed to create directory " + mDirectory);
+        }
+        mLogFile = new RandomAccessFile(new File(mDirectory, LOG_FILE_NAME), "rw");
+        mLogChannel = mLogFile.getChannel();
+        mMappedLog = null;
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() throws IOException {
+        mQuestionDetailsOffsets.clear();
+        mLastActiveQuestionsOffset = -1;
+        mLiveBytes = 0;
+
+        long logSize = mLogChannel.size();
+        ByteBuffer log = map(logSize);
+        long offset = 0;
+        while (offset + HEADER_SIZE_BYTES <= logSize) {
+            int payloadSize = log.getInt((int) offset);
+            long recordSize = HEADER_SIZE_BYTES + (long) payloadSize;
+            if (payloadSize < 0 || offset + recordSize > logSize) {
+                break; // torn write at the end of the log
+            }
+            ByteBuffer record = slice(log, offset, recordSize);
+            if (record.getInt(CHECKSUM_OFFSET) != checksum(record)) {
+                break; // corrupt record means the rest of the log can't be trusted
+            }
+            byte type = record.get(TYPE_OFFSET);
+            if (type == TYPE_QUESTION_DETAILS) {
+                record.position(HEADER_SIZE_BYTES);
+                String questionId;
+                try {
+                    questionId = readString(record);
+                } catch (IOException | BufferUnderflowException e) {
+                    break;
+                }
+                Long previousOffset = mQuestionDetailsOffsets.put(questionId, offset);
+                if (previousOffset != null) {
+                    mLiveBytes -= readRecordSize(previousOffset);
+                }
+            } else if (type == TYPE_LAST_ACTIVE_QUESTIONS) {
+                if (mLastActiveQuestionsOffset >= 0) {
+                    mLiveBytes -= readRecordSize(mLastActiveQuestionsOffset);
+                }
+                mLastActiveQuestionsOffset = offset;
+            } else {
+                break; // unknown record type means the rest of the log can't be trusted
+            }
+            mLiveBytes += recordSize;
+            offset += recordSize;
+        }
+
+        if (offset < logSize) {
+            mLogChannel.truncate(offset);
+            mMappedLog = null;
+        }
+    }
+
+    private ByteBuffer map(long size) throws IOException {
+        if (mMappedLog == null || mMappedLog.capacity() < size) {
+            mMappedLog = mLogChannel.map(FileChannel.MapMode.READ_ONLY, 0, mLogChannel.size());
+        }
+        return mMappedLog;
+    }
+
+    private ByteBuffer readRecord(long offset) throws IOException {
+        ByteBuffer log = map(offset + HEADER_SIZE_BYTES);
+        long recordSize = HEADER_SIZE_BYTES + (long) log.getInt((int) offset);
+        log = map(offset + recordSize);
+        return slice(log, offset, recordSize);
+    }
+
+    private long readRecordSize(long offset) throws IOException {
+        return HEADER_SIZE_BYTES + (long) map(offset + HEADER_SIZE_BYTES).getInt((int) offset);
+    }
+
+    private static ByteBuffer slice(ByteBuffer log, long offset, long size) {
+        ByteBuffer duplicate = log.duplicate();
+        duplicate.limit((int) (offset + size));
+        duplicate.position((int) offset);
+        return duplicate.slice();
+    }
+
+    private static ByteBuffer newRecord(byte type, long timestamp, int payloadSize) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE_BYTES + payloadSize);
+        record.putInt(payloadSize);
+        record.putInt(0); // checksum is computed once the payload is written
+        record.put(type);
+        record.putLong(timestamp);
+        return record;
+    }
+
+    /**
+     * @return CRC32 of the record's type, timestamp and payload (i.e. everything but the length
+     *         and the checksum themselves)
+     */
+    private static int checksum(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        int length = record.limit() - TYPE_OFFSET;
+        if (record.hasArray()) {
+            crc.update(record.array(), record.arrayOffset() + TYPE_OFFSET, length);
+        } else {
+            // mapped log; ByteBuffer overload of CRC32.update isn't available on older Androids
+            byte[] bytes = new byte[length];
+            ByteBuffer duplicate = record.duplicate();
+            duplicate.position(TYPE_OFFSET);
+            duplicate.get(bytes);
+            crc.update(bytes, 0, length);
+        }
+        return (int) crc.getValue();
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        long offset = mLogChannel.size();
+        record.putInt(CHECKSUM_OFFSET, checksum(record));
+        record.flip();
+        while (record.hasRemaining()) {
+            mLogChannel.write(record, offset + record.position());
+        }
+        return offset;
+    }
+
+    private static byte[] encode(@Nullable String string) {
+        return string == null ? null : string.getBytes(UTF_8);
+    }
+
+    private static int stringsSize(byte[][] strings) {
+        int size = 0;
+        for (byte[] string : strings) {
+            size += 4 + (string == null ? 0 : string.length);
+        }
+        return size;
+    }
+
+    private static void writeString(ByteBuffer buffer, @Nullable byte[] string) {
+        if (string == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(string.length);
+            buffer.put(string);
+        }
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IOException("string exceeds record bounds");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long logSize = mLogChannel.size();
+        boolean mostlyOverwritten =
+                logSize >= mCompactionMinLogSizeBytes && mLiveBytes * 2 <= logSize;
+        // trimming down to the cap only once it's exceeded twice keeps compactions infrequent
+        boolean tooManyQuestionDetails = mQuestionDetailsOffsets.size() > 2 * mMaxQuestionDetails;
+        if (!mostlyOverwritten && !tooManyQuestionDetails) {
+            return;
+        }
+
+        File compactedFile = new File(mDirectory, COMPACTED_LOG_FILE_NAME);
+        RandomAccessFile compacted = new RandomAccessFile(compactedFile, "rw");
+        try {
+            FileChannel compactedChannel = compacted.getChannel();
+            compactedChannel.truncate(0);
+            List<Long> liveOffsets = getMostRecentQuestionDetailsOffsets();
+            if (mLastActiveQuestionsOffset >= 0) {
+                liveOffsets.add(mLastActiveQuestionsOffset);
+            }
+            long position = 0;
+            for (long offset : liveOffsets) {
+                ByteBuffer record = readRecord(offset);
+                while (record.hasRemaining()) {
+                    position += compactedChannel.write(record, position);
+                }
+            }
+            compactedChannel.force(true);
+        } finally {
+            compacted.close();
+        }
+
+        close();
+        if (!compactedFile.renameTo(new File(mDirectory, LOG_FILE_NAME))) {
+            throw new IOException("failed to replace log with compacted log");
+        }
+        openIfNeeded();
+    }
+
+    private List<Long> getMostRecentQuestionDetailsOffsets() throws IOException {
+        List<Long> offsets = new ArrayList<>(mQuestionDetailsOffsets.values());
+        if (offsets.size() <= mMaxQuestionDetails) {
+            return offsets;
+        }
+        final Map<Long, Long> timestamps = new HashMap<>(offsets.size());
+        for (long offset : offsets) {
+            timestamps.put(offset, readRecord(offset).getLong(TIMESTAMP_OFFSET));
+        }
+        Collections.sort(offsets, new Comparator<Long>() {
+            @Override
+            public int compare(Long lhs, Long rhs) {
+                return Long.compare(timestamps.get(rhs), timestamps.get(lhs)); // most recent first
+            }
+        });
+        return offsets.subList(0, mMaxQuestionDetails);
+    }
+}
@@ -0,0 +1,41 @@
+package com.techyourchance.unittesting.questions.storage;
+
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+
+import java.util.List;
+
+/**
+ * Persistent storage of questions data that survives process death.
+ */
+public interface QuestionsStore {
+
+    class LastActiveQuestions {
+        private final List<Question> mQuestions;
+        private final long mStoredTimestamp;
+
+        public LastActiveQuestions(List<Question> questions, long storedTimestamp) {
+            mQuestions = questions;
+            mStoredTimestamp = storedTimestamp;
+        }
+
+        public List<Question> getQuestions() {
+            return mQuestions;
+        }
+
+        public long getStoredTimestamp() {
+            return mStoredTimestamp;
+        }
+    }
+
+    @Nullable QuestionDetailsCache.Entry getQuestionDetails(String questionId);
+
+    void putQuestionDetails(QuestionDetails questionDetails, long timestamp);
+
+    @Nullable LastActiveQuestions getLastActiveQuestions();
+
+    void putLastActiveQuestions(List<Question> questions, long timestamp);
+}
@@ -4,6 +4,7 @@ import android.support.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
+import com.techyourchance.unittesting.screens.common.html.CachingHtmlRenderer;
 import com.techyourchance.unittesting.screens.common.navdrawer.NavDrawerHelper;
 import com.techyourchance.unittesting.screens.common.navdrawer.NavDrawerViewMvc;
 import com.techyourchance.unittesting.screens.common.navdrawer.NavDrawerViewMvcImpl;
@@ -15,26 +16,39 @@ import com.techyourchance.unittesting.screens.questionslist.QuestionsListViewMvc
 import com.techyourchance.unittesting.screens.questionslist.questionslistitem.QuestionsListItemViewMvc;
 import com.techyourchance.unittesting.screens.questionslist.questionslistitem.QuestionsListItemViewMvcImpl;
 
+import java.util.concurrent.Executor;
+
 public class ViewMvcFactory {
 
     private final LayoutInflater mLayoutInflater;
     private final NavDrawerHelper mNavDrawerHelper;
-
-    public ViewMvcFactory(LayoutInflater layoutInflater, NavDrawerHelper navDrawerHelper) {
+    private final Executor mListDiffExecutor;
+    private final Executor mMainThreadExecutor;
+    private final CachingHtmlRenderer mHtmlRenderer;
+
+    public ViewMvcFactory(LayoutInflater layoutInflater,
+                          NavDrawerHelper navDrawerHelper,
+                          Executor listDiffExecutor,
+                          Executor mainThreadExecutor,
+                          CachingHtmlRenderer htmlRenderer) {
         mLayoutInflater = layoutInflater;
         mNavDrawerHelper = navDrawerHelper;
+        mListDiffExecutor = listDiffExecutor;
+        mMainThreadExecutor = mainThreadExecutor;
+        mHtmlRenderer = htmlRenderer;
     }
 
     public QuestionsListViewMvc getQuestionsListViewMvc(@Nullable ViewGroup parent) {
-        return new QuestionsListViewMvcImpl(mLayoutInflater, parent, mNavDrawerHelper, this);
+        return new QuestionsListViewMvcImpl(
+                mLayoutInflater, parent, mNavDrawerHelper, this, mListDiffExecutor, mMainThreadExecutor);
     }
 
     public QuestionsListItemViewMvc getQuestionsListItemViewMvc(@Nullable ViewGroup parent) {
-        return new QuestionsListItemViewMvcImpl(mLayoutInflater, parent);
+        return new QuestionsListItemViewMvcImpl(mLayoutInflater, parent, mHtmlRenderer);
     }
 
     public QuestionDetailsViewMvc getQuestionDetailsViewMvc(@Nullable ViewGroup parent) {
-        return new QuestionDetailsViewMvcImpl(mLayoutInflater, parent, this);
+        return new QuestionDetailsViewMvcImpl(mLayoutInflater, parent, this, mHtmlRenderer);
     }
 
     public ToolbarViewMvc getToolbarViewMvc(@Nullable ViewGroup parent) {
@@ -3,19 +3,28 @@ package com.techyourchance.unittesting.screens.common.controllers;
 import android.support.v7.app.AppCompatActivity;
 
 import com.techyourchance.unittesting.common.CustomApplication;
+import com.techyourchance.unittesting.common.dependencyinjection.ActivityCompositionRoot;
 import com.techyourchance.unittesting.common.dependencyinjection.ControllerCompositionRoot;
 
 public class BaseActivity extends AppCompatActivity {
 
+    private ActivityCompositionRoot mActivityCompositionRoot;
     private ControllerCompositionRoot mControllerCompositionRoot;
 
-    protected ControllerCompositionRoot getCompositionRoot() {
-        if (mControllerCompositionRoot == null) {
-            mControllerCompositionRoot = new ControllerCompositionRoot(
+    public ActivityCompositionRoot getActivityCompositionRoot() {
+        if (mActivityCompositionRoot == null) {
+            mActivityCompositionRoot = new ActivityCompositionRoot(
                     ((CustomApplication) getApplication()).getCompositionRoot(),
                     this
             );
         }
+        return mActivityCompositionRoot;
+    }
+
+    protected ControllerCompositionRoot getCompositionRoot() {
+        if (mControllerCompositionRoot == null) {
+            mControllerCompositionRoot = new ControllerCompositionRoot(getActivityCompositionRoot());
+        }
         return mControllerCompositionRoot;
     }
 
@@ -2,7 +2,6 @@ package com.techyourchance.unittesting.screens.common.controllers;
 
 import android.support.v4.app.Fragment;
 
-import com.techyourchance.unittesting.common.CustomApplication;
 import com.techyourchance.unittesting.common.dependencyinjection.ControllerCompositionRoot;
 
 public class BaseFragment extends Fragment {
@@ -12,8 +11,7 @@ public class BaseFragment extends Fragment {
     protected ControllerCompositionRoot getCompositionRoot() {
         if (mControllerCompositionRoot == null) {
             mControllerCompositionRoot = new ControllerCompositionRoot(
-                    ((CustomApplication) requireActivity().getApplication()).getCompositionRoot(),
-                    requireActivity()
+                    ((BaseActivity) requireActivity()).getActivityCompositionRoot()
             );
         }
         return mControllerCompositionRoot;
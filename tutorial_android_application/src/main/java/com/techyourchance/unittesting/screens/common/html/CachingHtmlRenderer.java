@@ -0,0 +1,160 @@
+package com.techyourchance.unittesting.screens.common.html;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Renders HTML on the background executor and keeps the most recently used results in memory.
+ * Each result is cached under a key chosen by the client (e.g. question id) together with the HTML
+ * it has been rendered from, such that changed content is rendered again.
+ * Requests for HTML which is already being rendered under the same key wait for that rendering
+ * instead of starting another one.
+ */
+public class CachingHtmlRenderer {
+
+    public interface Listener {
+        /**
+         * @param key the key the HTML has been rendered for. Clients that render HTML for different
+         *            keys with the same listener should ignore keys they're no longer interested in
+         */
+        void onHtmlRendered(String key, CharSequence rendered);
+    }
+
+    private final HtmlRenderer mHtmlRenderer;
+    private final Executor mRenderingExecutor;
+    private final Executor mCallbackExecutor;
+
+    private final int mMaxEntries;
+
+    // iteration order is least recently used first
+    private final LinkedHashMap<String, RenderedHtml> mCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, RenderInFlight> mRendersInFlight = new HashMap<>();
+
+    private long mHitCount;
+    private long mMissCount;
+
+    public CachingHtmlRenderer(HtmlRenderer htmlRenderer,
+                               Executor renderingExecutor,
+                               Executor callbackExecutor,
+                               int maxEntries) {
+        mHtmlRenderer = htmlRenderer;
+        mRenderingExecutor = renderingExecutor;
+        mCallbackExecutor = callbackExecutor;
+        mMaxEntries = maxEntries;
+    }
+
+    /**
+     * If the HTML has already been rendered for this key, the listener is notified before this
+     * method returns. Otherwise, it's notified on the callback executor once rendering completes.
+     */
+    public void renderAndNotify(String key, String html, Listener listener) {
+        int htmlHash = html.hashCode();
+        RenderedHtml cached;
+        RenderInFlight renderInFlight = null;
+        synchronized (this) {
+            cached = mCache.get(key);
+            if (cached != null && cached.isRenderedFrom(html, htmlHash)) {
+                mHitCount++;
+            } else {
+                cached = null;
+                mMissCount++;
+                RenderInFlight existingRender = mRendersInFlight.get(key);
+                if (existingRender != null && existingRender.isRenderingFrom(html, htmlHash)) {
+                    existingRender.mListeners.add(listener);
+                    return;
+                }
+                renderInFlight = new RenderInFlight(html, htmlHash, listener);
+                mRendersInFlight.put(key, renderInFlight);
+            }
+        }
+
+        if (cached != null) {
+            listener.onHtmlRendered(key, cached.mRendered);
+        } else {
+            render(key, html, htmlHash, renderInFlight);
+        }
+    }
+
+    private void render(final String key, final String html, final int htmlHash, final RenderInFlight renderInFlight) {
+        mRenderingExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final CharSequence rendered = mHtmlRenderer.render(html);
+                final List<Listener> listeners;
+                synchronized (CachingHtmlRenderer.this) {
+                    // a render of different HTML for this key might have started in the meantime
+                    if (mRendersInFlight.get(key) == renderInFlight) {
+                        mRendersInFlight.remove(key);
+                        putInCache(key, new RenderedHtml(html, htmlHash, rendered));
+                    }
+                    listeners = new ArrayList<>(renderInFlight.mListeners);
+                }
+                mCallbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (Listener listener : listeners) {
+                            listener.onHtmlRendered(key, rendered);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    // guarded by this
+    private void putInCache(String key, RenderedHtml renderedHtml) {
+        mCache.put(key, renderedHtml);
+        Iterator<RenderedHtml> iterator = mCache.values().iterator();
+        while (mCache.size() > mMaxEntries) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static class RenderedHtml {
+        private final String mHtml;
+        private final int mHtmlHash;
+        private final CharSequence mRendered;
+
+        private RenderedHtml(String html, int htmlHash, CharSequence rendered) {
+            mHtml = html;
+            mHtmlHash = htmlHash;
+            mRendered = rendered;
+        }
+
+        private boolean isRenderedFrom(String html, int htmlHash) {
+            // the hash rules out most changed HTML without comparing the whole of it
+            return mHtmlHash == htmlHash && mHtml.equals(html);
+        }
+    }
+
+    private static class RenderInFlight {
+        private final String mHtml;
+        private final int mHtmlHash;
+        // guarded by the renderer; no listeners are added once the render is removed from in flight
+        private final List<Listener> mListeners = new ArrayList<>(1);
+
+        private RenderInFlight(String html, int htmlHash, Listener listener) {
+            mHtml = html;
+            mHtmlHash = htmlHash;
+            mListeners.add(listener);
+        }
+
+        private boolean isRenderingFrom(String html, int htmlHash) {
+            return mHtmlHash == htmlHash && mHtml.equals(html);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.techyourchance.unittesting.screens.common.html;
+
+public interface HtmlRenderer {
+
+    /**
+     * @return text with the formatting of the given HTML, ready to be displayed
+     */
+    CharSequence render(String html);
+}
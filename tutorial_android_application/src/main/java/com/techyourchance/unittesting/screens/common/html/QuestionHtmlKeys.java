@@ -0,0 +1,18 @@
+package com.techyourchance.unittesting.screens.common.html;
+
+/**
+ * Keys under which questions' HTML is rendered, shared by all screens such that e.g. a title
+ * rendered for the questions list is reused by question details
+ */
+public final class QuestionHtmlKeys {
+
+    private QuestionHtmlKeys() {}
+
+    public static String title(String questionId) {
+        return questionId + "/title";
+    }
+
+    public static String body(String questionId) {
+        return questionId + "/body";
+    }
+}
@@ -0,0 +1,60 @@
+package com.techyourchance.unittesting.screens.common.html;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.text.style.TypefaceSpan;
+import android.text.style.URLSpan;
+
+import com.techyourchance.unittesting.common.html.HtmlTextRenderer;
+import com.techyourchance.unittesting.common.html.RenderedText;
+
+/**
+ * Renders HTML using {@link HtmlTextRenderer} and maps the resulting spans to {@link Spanned}.
+ * Paragraphs are represented by line breaks in the text, therefore they don't need spans.
+ * Can be used on any thread.
+ */
+public class SpannedHtmlRenderer implements HtmlRenderer {
+
+    private static final String CODE_FONT_FAMILY = "monospace";
+
+    private final HtmlTextRenderer mHtmlTextRenderer;
+
+    public SpannedHtmlRenderer(HtmlTextRenderer htmlTextRenderer) {
+        mHtmlTextRenderer = htmlTextRenderer;
+    }
+
+    @Override
+    public CharSequence render(String html) {
+        RenderedText renderedText = mHtmlTextRenderer.render(html);
+        SpannableStringBuilder spanned = new SpannableStringBuilder(renderedText.getText());
+        for (int i = 0; i < renderedText.getSpansCount(); i++) {
+            Object span = toSpan(renderedText, i);
+            if (span != null) {
+                spanned.setSpan(
+                        span,
+                        renderedText.getSpanStart(i),
+                        renderedText.getSpanEnd(i),
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
+                );
+            }
+        }
+        return spanned;
+    }
+
+    private Object toSpan(RenderedText renderedText, int index) {
+        switch (renderedText.getSpanType(index)) {
+            case BOLD:
+                return new StyleSpan(Typeface.BOLD);
+            case ITALIC:
+                return new StyleSpan(Typeface.ITALIC);
+            case CODE:
+                return new TypefaceSpan(CODE_FONT_FAMILY);
+            case LINK:
+                return new URLSpan(renderedText.getSpanUrl(index));
+            default:
+                return null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.support.annotation.Nullable;
 import android.widget.FrameLayout;
 
+import com.techyourchance.unittesting.common.startup.StartupTracer;
 import com.techyourchance.unittesting.screens.common.controllers.BackPressDispatcher;
 import com.techyourchance.unittesting.screens.common.controllers.BackPressedListener;
 import com.techyourchance.unittesting.screens.common.controllers.BaseActivity;
@@ -28,6 +29,8 @@ public class MainActivity extends BaseActivity implements
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        StartupTracer startupTracer = getCompositionRoot().getStartupTracer();
+        startupTracer.beginPhase(StartupTracer.Phase.MAIN_ACTIVITY_ON_CREATE);
         super.onCreate(savedInstanceState);
         mScreensNavigator = getCompositionRoot().getScreensNavigator();
         mViewMvc = getCompositionRoot().getViewMvcFactory().getNavDrawerViewMvc(null);
@@ -36,6 +39,7 @@ public class MainActivity extends BaseActivity implements
         if (savedInstanceState == null) {
             mScreensNavigator.toQuestionsList();
         }
+        startupTracer.endPhase(StartupTracer.Phase.MAIN_ACTIVITY_ON_CREATE);
     }
 
     @Override
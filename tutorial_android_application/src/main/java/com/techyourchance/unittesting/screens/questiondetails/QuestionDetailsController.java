@@ -1,5 +1,6 @@
 package com.techyourchance.unittesting.screens.questiondetails;
 
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
 import com.techyourchance.unittesting.questions.FetchQuestionDetailsUseCase;
 import com.techyourchance.unittesting.questions.QuestionDetails;
 import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
@@ -13,6 +14,7 @@ public class QuestionDetailsController implements QuestionDetailsViewMvc.Listene
 
     private String mQuestionId;
     private QuestionDetailsViewMvc mViewMvc;
+    private CancellationToken mCancellationToken;
 
     public QuestionDetailsController(FetchQuestionDetailsUseCase fetchQuestionDetailsUseCase,
                                      ScreensNavigator screensNavigator,
@@ -33,12 +35,14 @@ public class QuestionDetailsController implements QuestionDetailsViewMvc.Listene
     public void onStart() {
         mViewMvc.registerListener(this);
         mFetchQuestionDetailsUseCase.registerListener(this);
+        mCancellationToken = new CancellationToken();
 
         mViewMvc.showProgressIndication();
-        mFetchQuestionDetailsUseCase.fetchQuestionDetailsAndNotify(mQuestionId);
+        mFetchQuestionDetailsUseCase.fetchQuestionDetailsAndNotify(mQuestionId, mCancellationToken);
     }
 
     public void onStop() {
+        mCancellationToken.cancel();
         mViewMvc.unregisterListener(this);
         mFetchQuestionDetailsUseCase.unregisterListener(this);
     }
@@ -1,7 +1,6 @@
 package com.techyourchance.unittesting.screens.questiondetails;
 
 import android.support.v7.widget.Toolbar;
-import android.text.Html;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,6 +10,8 @@ import android.widget.TextView;
 import com.techyourchance.unittesting.R;
 import com.techyourchance.unittesting.questions.QuestionDetails;
 import com.techyourchance.unittesting.screens.common.ViewMvcFactory;
+import com.techyourchance.unittesting.screens.common.html.CachingHtmlRenderer;
+import com.techyourchance.unittesting.screens.common.html.QuestionHtmlKeys;
 import com.techyourchance.unittesting.screens.common.toolbar.ToolbarViewMvc;
 import com.techyourchance.unittesting.screens.common.views.BaseObservableViewMvc;
 
@@ -26,7 +27,26 @@ public class QuestionDetailsViewMvcImpl extends BaseObservableViewMvc<QuestionDe
     private final TextView mTxtQuestionBody;
     private final ProgressBar mProgressBar;
 
-    public QuestionDetailsViewMvcImpl(LayoutInflater inflater, ViewGroup parent, ViewMvcFactory viewMvcFactory) {
+    private final CachingHtmlRenderer mHtmlRenderer;
+    private final CachingHtmlRenderer.Listener mHtmlRenderedListener = new CachingHtmlRenderer.Listener() {
+        @Override
+        public void onHtmlRendered(String key, CharSequence rendered) {
+            if (key.equals(mTitleKey)) {
+                mTxtQuestionTitle.setText(rendered);
+            } else if (key.equals(mBodyKey)) {
+                mTxtQuestionBody.setText(rendered);
+            }
+        }
+    };
+
+    private String mTitleKey;
+    private String mBodyKey;
+
+    public QuestionDetailsViewMvcImpl(LayoutInflater inflater,
+                                      ViewGroup parent,
+                                      ViewMvcFactory viewMvcFactory,
+                                      CachingHtmlRenderer htmlRenderer) {
+        mHtmlRenderer = htmlRenderer;
 
         setRootView(inflater.inflate(R.layout.layout_question_details, parent, false));
 
@@ -57,16 +77,10 @@ public class QuestionDetailsViewMvcImpl extends BaseObservableViewMvc<QuestionDe
 
     @Override
     public void bindQuestion(QuestionDetails question) {
-        String questionTitle = question.getTitle();
-        String questionBody = question.getBody();
-
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
-            mTxtQuestionTitle.setText(Html.fromHtml(questionTitle, Html.FROM_HTML_MODE_LEGACY));
-            mTxtQuestionBody.setText(Html.fromHtml(questionBody, Html.FROM_HTML_MODE_LEGACY));
-        } else {
-            mTxtQuestionTitle.setText(Html.fromHtml(questionTitle));
-            mTxtQuestionBody.setText(Html.fromHtml(questionBody));
-        }
+        mTitleKey = QuestionHtmlKeys.title(question.getId());
+        mBodyKey = QuestionHtmlKeys.body(question.getId());
+        mHtmlRenderer.renderAndNotify(mTitleKey, question.getTitle(), mHtmlRenderedListener);
+        mHtmlRenderer.renderAndNotify(mBodyKey, question.getBody(), mHtmlRenderedListener);
     }
 
 
@@ -0,0 +1,50 @@
+package com.techyourchance.unittesting.screens.questionslist;
+
+import android.support.v7.util.DiffUtil;
+
+import com.techyourchance.unittesting.questions.Question;
+
+import java.util.List;
+
+/**
+ * Questions with equal ids are the same item, and equal questions have the same contents.
+ * Null elements are placeholders (see {@link QuestionsListViewMvc#bindQuestions(List)}), and are
+ * only the same item as other placeholders.
+ */
+public class QuestionsDiffCallback extends DiffUtil.Callback {
+
+    private final List<Question> mOldQuestions;
+    private final List<Question> mNewQuestions;
+
+    public QuestionsDiffCallback(List<Question> oldQuestions, List<Question> newQuestions) {
+        mOldQuestions = oldQuestions;
+        mNewQuestions = newQuestions;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldQuestions.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewQuestions.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        Question oldQuestion = mOldQuestions.get(oldItemPosition);
+        Question newQuestion = mNewQuestions.get(newItemPosition);
+        if (oldQuestion == null || newQuestion == null) {
+            return oldQuestion == newQuestion;
+        }
+        return oldQuestion.hasSameId(newQuestion);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        Question oldQuestion = mOldQuestions.get(oldItemPosition);
+        Question newQuestion = mNewQuestions.get(newItemPosition);
+        return oldQuestion == null ? newQuestion == null : oldQuestion.equals(newQuestion);
+    }
+}
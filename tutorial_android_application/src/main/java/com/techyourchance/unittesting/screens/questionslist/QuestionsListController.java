@@ -1,8 +1,16 @@
 package com.techyourchance.unittesting.screens.questionslist;
 
+import android.support.annotation.Nullable;
+
+import com.techyourchance.unittesting.common.Constants;
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
 import com.techyourchance.unittesting.questions.FetchLastActiveQuestionsUseCase;
 import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.questions.QuestionDetailsPrefetcher;
+import com.techyourchance.unittesting.questions.QuestionsPager;
 import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
 import com.techyourchance.unittesting.screens.common.toastshelper.ToastsHelper;
 
@@ -10,71 +18,190 @@ import java.util.List;
 
 public class QuestionsListController  implements
         QuestionsListViewMvc.Listener,
-        FetchLastActiveQuestionsUseCase.Listener {
-
-    private static final int CACHE_TIMEOUT_MS = 10000;
+        FetchLastActiveQuestionsUseCase.Listener,
+        QuestionsPager.Listener {
 
     private final FetchLastActiveQuestionsUseCase mFetchLastActiveQuestionsUseCase;
     private final ScreensNavigator mScreensNavigator;
     private final ToastsHelper mToastsHelper;
-    private final TimeProvider mTimeProvider;
+    private final FreshnessPolicy mFreshnessPolicy;
+    @Nullable private final QuestionDetailsPrefetcher mQuestionDetailsPrefetcher;
+    @Nullable private final QuestionsPager mQuestionsPager;
+    @Nullable private final StartupTracer mStartupTracer;
 
     private QuestionsListViewMvc mViewMvc;
+    private CancellationToken mCancellationToken;
     private List<Question> mQuestions;
     private long mLastCachedTimestamp;
+    private boolean mRevalidating;
 
     public QuestionsListController(FetchLastActiveQuestionsUseCase fetchLastActiveQuestionsUseCase,
                                    ScreensNavigator screensNavigator,
                                    ToastsHelper toastsHelper,
                                    TimeProvider timeProvider) {
+        this(
+                fetchLastActiveQuestionsUseCase,
+                screensNavigator,
+                toastsHelper,
+                new FreshnessPolicy(timeProvider, Constants.QUESTIONS_LIST_FRESH_PERIOD_MS, 0),
+                null,
+                null,
+                null
+        );
+    }
+
+    /**
+     * @param questionDetailsPrefetcher if not null, details of the top and the visible questions
+     *                                  will be prefetched while this screen is started
+     * @param questionsPager if not null, the fetched questions will be used as the first page and
+     *                       further pages will be loaded as the user approaches the end of the list
+     * @param startupTracer if not null, the time from the first bind of the view to the first
+     *                      bind of questions into it will be traced
+     */
+    public QuestionsListController(FetchLastActiveQuestionsUseCase fetchLastActiveQuestionsUseCase,
+                                   ScreensNavigator screensNavigator,
+                                   ToastsHelper toastsHelper,
+                                   FreshnessPolicy freshnessPolicy,
+                                   @Nullable QuestionDetailsPrefetcher questionDetailsPrefetcher,
+                                   @Nullable QuestionsPager questionsPager,
+                                   @Nullable StartupTracer startupTracer) {
         mFetchLastActiveQuestionsUseCase = fetchLastActiveQuestionsUseCase;
         mScreensNavigator = screensNavigator;
         mToastsHelper = toastsHelper;
-        mTimeProvider = timeProvider;
+        mFreshnessPolicy = freshnessPolicy;
+        mQuestionDetailsPrefetcher = questionDetailsPrefetcher;
+        mQuestionsPager = questionsPager;
+        mStartupTracer = startupTracer;
     }
 
     public void bindView(QuestionsListViewMvc viewMvc) {
         mViewMvc = viewMvc;
+        if (mStartupTracer != null) {
+            mStartupTracer.beginPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        }
     }
 
     public void onStart() {
         mViewMvc.registerListener(this);
         mFetchLastActiveQuestionsUseCase.registerListener(this);
+        if (mQuestionsPager != null) {
+            mQuestionsPager.registerListener(this);
+        }
+        mCancellationToken = new CancellationToken();
 
-        if (isCachedDataValid()) {
-            mViewMvc.bindQuestions(mQuestions);
-        } else {
-            mViewMvc.showProgressIndication();
-            mFetchLastActiveQuestionsUseCase.fetchLastActiveQuestionsAndNotify();
+        switch (getCachedDataFreshness()) {
+            case FRESH:
+                bindQuestions();
+                break;
+            case STALE:
+                bindQuestions();
+                mRevalidating = true;
+                mFetchLastActiveQuestionsUseCase.fetchLastActiveQuestionsAndNotify(mCancellationToken);
+                break;
+            case EXPIRED:
+                mRevalidating = false;
+                mViewMvc.showProgressIndication();
+                mFetchLastActiveQuestionsUseCase.fetchLastActiveQuestionsAndNotify(mCancellationToken);
+                break;
         }
     }
 
-    private boolean isCachedDataValid() {
-        return mQuestions != null
-                && mTimeProvider.getCurrentTimestamp() < mLastCachedTimestamp + CACHE_TIMEOUT_MS;
+    private FreshnessPolicy.Freshness getCachedDataFreshness() {
+        if (mQuestions == null) {
+            return FreshnessPolicy.Freshness.EXPIRED;
+        }
+        return mFreshnessPolicy.getFreshness(mLastCachedTimestamp);
     }
 
     public void onStop() {
+        mCancellationToken.cancel();
         mViewMvc.unregisterListener(this);
         mFetchLastActiveQuestionsUseCase.unregisterListener(this);
+        if (mQuestionsPager != null) {
+            mQuestionsPager.unregisterListener(this);
+        }
+        if (mQuestionDetailsPrefetcher != null) {
+            mQuestionDetailsPrefetcher.cancel();
+        }
     }
 
     @Override
     public void onQuestionClicked(Question question) {
         mScreensNavigator.toQuestionDetails(question.getId());
     }
+
+    @Override
+    public void onVisibleQuestionsChanged(List<Question> questions) {
+        prefetchQuestionDetails(questions);
+    }
+
+    @Override
+    public void onQuestionPlaceholderShown(int position) {
+        if (mQuestionsPager != null) {
+            mQuestionsPager.ensureLoaded(position);
+        }
+    }
+
+    @Override
+    public void onEndOfQuestionsApproaching() {
+        if (mQuestionsPager != null) {
+            mQuestionsPager.loadNextPage();
+        }
+    }
+
+    private void bindQuestions() {
+        if (mQuestionsPager != null) {
+            mViewMvc.bindQuestions(mQuestionsPager.getQuestions());
+        } else {
+            mViewMvc.bindQuestions(mQuestions);
+        }
+        if (mStartupTracer != null) {
+            mStartupTracer.endPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        }
+    }
+
+    private void prefetchQuestionDetails(List<Question> questions) {
+        if (mQuestionDetailsPrefetcher != null) {
+            mQuestionDetailsPrefetcher.prefetch(questions);
+        }
+    }
     
     @Override
-    public void onLastActiveQuestionsFetched(List<Question> questions) {
+    public void onLastActiveQuestionsFetched(List<Question> questions, long fetchedTimestamp) {
+        boolean changed = !questions.equals(mQuestions);
+        boolean revalidating = mRevalidating;
+        mRevalidating = false;
         mQuestions = questions;
-        mLastCachedTimestamp = mTimeProvider.getCurrentTimestamp();
+        mLastCachedTimestamp = fetchedTimestamp;
         mViewMvc.hideProgressIndication();
-        mViewMvc.bindQuestions(questions);
+        if (!revalidating || changed) {
+            if (mQuestionsPager != null) {
+                mQuestionsPager.setFirstPage(questions, fetchedTimestamp);
+            }
+            bindQuestions();
+            prefetchQuestionDetails(
+                    questions.subList(0, Math.min(questions.size(), Constants.QUESTION_DETAILS_PREFETCH_COUNT)));
+        }
     }
 
     @Override
     public void onLastActiveQuestionsFetchFailed() {
         mViewMvc.hideProgressIndication();
+        if (mRevalidating) {
+            // stale data is already shown to the user
+            mRevalidating = false;
+        } else {
+            mToastsHelper.showUseCaseError();
+        }
+    }
+
+    @Override
+    public void onQuestionsPageLoaded() {
+        bindQuestions();
+    }
+
+    @Override
+    public void onQuestionsPageLoadFailed() {
         mToastsHelper.showUseCaseError();
     }
 }
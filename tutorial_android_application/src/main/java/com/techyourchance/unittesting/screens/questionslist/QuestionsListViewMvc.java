@@ -9,8 +9,14 @@ public interface QuestionsListViewMvc extends ObservableViewMvc<QuestionsListVie
 
     public interface Listener {
         void onQuestionClicked(Question question);
+        void onVisibleQuestionsChanged(List<Question> questions);
+        void onQuestionPlaceholderShown(int position);
+        void onEndOfQuestionsApproaching();
     }
 
+    /**
+     * @param questions null elements are shown as placeholders
+     */
     void bindQuestions(List<Question> questions);
 
     void showProgressIndication();
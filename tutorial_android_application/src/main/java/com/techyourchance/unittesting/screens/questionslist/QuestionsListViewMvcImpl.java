@@ -17,6 +17,7 @@ import com.techyourchance.unittesting.screens.common.toolbar.ToolbarViewMvc;
 import com.techyourchance.unittesting.screens.common.views.BaseObservableViewMvc;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class QuestionsListViewMvcImpl extends BaseObservableViewMvc<QuestionsListViewMvc.Listener>
         implements QuestionsListViewMvc, QuestionsRecyclerAdapter.Listener {
@@ -26,20 +27,32 @@ public class QuestionsListViewMvcImpl extends BaseObservableViewMvc<QuestionsLis
 
     private final Toolbar mToolbar;
     private final RecyclerView mRecyclerQuestions;
+    private final LinearLayoutManager mLayoutManager;
     private final QuestionsRecyclerAdapter mAdapter;
     private final ProgressBar mProgressBar;
 
     public QuestionsListViewMvcImpl(LayoutInflater inflater,
                                     @Nullable ViewGroup parent,
                                     NavDrawerHelper navDrawerHelper,
-                                    ViewMvcFactory viewMvcFactory) {
+                                    ViewMvcFactory viewMvcFactory,
+                                    Executor listDiffExecutor,
+                                    Executor mainThreadExecutor) {
         mNavDrawerHelper = navDrawerHelper;
         setRootView(inflater.inflate(R.layout.layout_questions_list, parent, false));
 
         mRecyclerQuestions = findViewById(R.id.recycler_questions);
-        mRecyclerQuestions.setLayoutManager(new LinearLayoutManager(getContext()));
-        mAdapter = new QuestionsRecyclerAdapter(this, viewMvcFactory);
+        mLayoutManager = new LinearLayoutManager(getContext());
+        mRecyclerQuestions.setLayoutManager(mLayoutManager);
+        mAdapter = new QuestionsRecyclerAdapter(this, viewMvcFactory, listDiffExecutor, mainThreadExecutor);
         mRecyclerQuestions.setAdapter(mAdapter);
+        mRecyclerQuestions.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    notifyVisibleQuestionsChanged();
+                }
+            }
+        });
 
         mProgressBar = findViewById(R.id.progress);
 
@@ -66,6 +79,32 @@ public class QuestionsListViewMvcImpl extends BaseObservableViewMvc<QuestionsLis
         }
     }
 
+    @Override
+    public void onQuestionPlaceholderBound(int position) {
+        for (Listener listener : getListeners()) {
+            listener.onQuestionPlaceholderShown(position);
+        }
+    }
+
+    @Override
+    public void onEndOfQuestionsApproaching() {
+        for (Listener listener : getListeners()) {
+            listener.onEndOfQuestionsApproaching();
+        }
+    }
+
+    private void notifyVisibleQuestionsChanged() {
+        int firstVisiblePosition = mLayoutManager.findFirstVisibleItemPosition();
+        int lastVisiblePosition = mLayoutManager.findLastVisibleItemPosition();
+        if (firstVisiblePosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+        List<Question> visibleQuestions = mAdapter.getQuestions(firstVisiblePosition, lastVisiblePosition + 1);
+        for (Listener listener : getListeners()) {
+            listener.onVisibleQuestionsChanged(visibleQuestions);
+        }
+    }
+
     @Override
     public void bindQuestions(List<Question> questions) {
         mAdapter.bindQuestions(questions);
@@ -1,6 +1,7 @@
 package com.techyourchance.unittesting.screens.questionslist;
 
 import android.support.annotation.NonNull;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.ViewGroup;
 
@@ -9,15 +10,21 @@ import com.techyourchance.unittesting.screens.common.ViewMvcFactory;
 import com.techyourchance.unittesting.screens.questionslist.questionslistitem.QuestionsListItemViewMvc;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class QuestionsRecyclerAdapter extends RecyclerView.Adapter<QuestionsRecyclerAdapter.MyViewHolder>
         implements QuestionsListItemViewMvc.Listener {
 
     public interface Listener {
         void onQuestionClicked(Question question);
+        void onQuestionPlaceholderBound(int position);
+        void onEndOfQuestionsApproaching();
     }
 
+    private static final int ITEMS_LEFT_BEFORE_END_APPROACHING = 5;
+
     static class MyViewHolder extends RecyclerView.ViewHolder {
 
         private final QuestionsListItemViewMvc mViewMvc;
@@ -31,17 +38,78 @@ public class QuestionsRecyclerAdapter extends RecyclerView.Adapter<QuestionsRecy
 
     private final Listener mListener;
     private final ViewMvcFactory mViewMvcFactory;
-
-    private List<Question> mQuestions = new ArrayList<>();
-
-    public QuestionsRecyclerAdapter(Listener listener, ViewMvcFactory viewMvcFactory) {
+    private final Executor mDiffExecutor;
+    private final Executor mMainThreadExecutor;
+
+    // replaced, but never modified, such that it can be diffed on the background thread
+    private List<Question> mQuestions = Collections.emptyList();
+    // incremented on each bind in order to discard diffs against outdated lists
+    private volatile int mDiffGeneration;
+
+    /**
+     * @param diffExecutor differences between the bound lists will be computed on this executor
+     * @param mainThreadExecutor differences will be dispatched on this executor
+     */
+    public QuestionsRecyclerAdapter(Listener listener,
+                                    ViewMvcFactory viewMvcFactory,
+                                    Executor diffExecutor,
+                                    Executor mainThreadExecutor) {
         mListener = listener;
         mViewMvcFactory = viewMvcFactory;
+        mDiffExecutor = diffExecutor;
+        mMainThreadExecutor = mainThreadExecutor;
     }
 
+    /**
+     * Only the changed items are updated once the difference from the currently bound list has
+     * been computed. If another list is bound in the meantime, this list is never shown.
+     * @param questions null elements are shown as placeholders
+     */
     public void bindQuestions(List<Question> questions) {
-        mQuestions = new ArrayList<>(questions);
-        notifyDataSetChanged();
+        final int diffGeneration = ++mDiffGeneration;
+        final List<Question> oldQuestions = mQuestions;
+        final List<Question> newQuestions = Collections.unmodifiableList(new ArrayList<>(questions));
+
+        if (oldQuestions.isEmpty() || newQuestions.isEmpty()) {
+            mQuestions = newQuestions;
+            notifyItemRangeRemoved(0, oldQuestions.size());
+            notifyItemRangeInserted(0, newQuestions.size());
+            return;
+        }
+
+        mDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (diffGeneration != mDiffGeneration) {
+                    return;
+                }
+                final DiffUtil.DiffResult diffResult =
+                        DiffUtil.calculateDiff(new QuestionsDiffCallback(oldQuestions, newQuestions));
+                mMainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (diffGeneration != mDiffGeneration) {
+                            return;
+                        }
+                        mQuestions = newQuestions;
+                        diffResult.dispatchUpdatesTo(QuestionsRecyclerAdapter.this);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return questions in the given range of positions, excluding placeholders
+     */
+    public List<Question> getQuestions(int fromPosition, int toPosition) {
+        List<Question> questions = new ArrayList<>(toPosition - fromPosition);
+        for (Question question : mQuestions.subList(fromPosition, Math.min(toPosition, mQuestions.size()))) {
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
     }
 
     @NonNull
@@ -54,7 +122,16 @@ public class QuestionsRecyclerAdapter extends RecyclerView.Adapter<QuestionsRecy
 
     @Override
     public void onBindViewHolder(@NonNull MyViewHolder holder, int position) {
-        holder.mViewMvc.bindQuestion(mQuestions.get(position));
+        Question question = mQuestions.get(position);
+        if (question != null) {
+            holder.mViewMvc.bindQuestion(question);
+        } else {
+            holder.mViewMvc.bindPlaceholder();
+            mListener.onQuestionPlaceholderBound(position);
+        }
+        if (position >= mQuestions.size() - ITEMS_LEFT_BEFORE_END_APPROACHING) {
+            mListener.onEndOfQuestionsApproaching();
+        }
     }
 
     @Override
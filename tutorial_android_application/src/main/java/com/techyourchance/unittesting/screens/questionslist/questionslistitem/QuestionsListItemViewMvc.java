@@ -10,4 +10,9 @@ public interface QuestionsListItemViewMvc extends ObservableViewMvc<QuestionsLis
     }
 
     void bindQuestion(Question question);
+
+    /**
+     * Show a placeholder while the question at this position isn't available
+     */
+    void bindPlaceholder();
 }
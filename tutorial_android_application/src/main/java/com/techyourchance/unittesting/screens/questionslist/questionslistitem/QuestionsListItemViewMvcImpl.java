@@ -8,22 +8,32 @@ import android.widget.TextView;
 
 import com.techyourchance.unittesting.R;
 import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.screens.common.html.CachingHtmlRenderer;
+import com.techyourchance.unittesting.screens.common.html.QuestionHtmlKeys;
 import com.techyourchance.unittesting.screens.common.views.BaseObservableViewMvc;
 
 public class QuestionsListItemViewMvcImpl extends BaseObservableViewMvc<QuestionsListItemViewMvc.Listener>
-        implements QuestionsListItemViewMvc {
+        implements QuestionsListItemViewMvc, CachingHtmlRenderer.Listener {
 
     private final TextView mTxtTitle;
+    private final CachingHtmlRenderer mHtmlRenderer;
 
     private Question mQuestion;
+    @Nullable private String mTitleKey;
 
-    public QuestionsListItemViewMvcImpl(LayoutInflater inflater, @Nullable ViewGroup parent) {
+    public QuestionsListItemViewMvcImpl(LayoutInflater inflater,
+                                        @Nullable ViewGroup parent,
+                                        CachingHtmlRenderer htmlRenderer) {
+        mHtmlRenderer = htmlRenderer;
         setRootView(inflater.inflate(R.layout.layout_question_list_item, parent, false));
 
         mTxtTitle = findViewById(R.id.txt_title);
         getRootView().setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
+                if (mQuestion == null) {
+                    return;
+                }
                 for (Listener listener : getListeners()) {
                     listener.onQuestionClicked(mQuestion);
                 }
@@ -33,7 +43,26 @@ public class QuestionsListItemViewMvcImpl extends BaseObservableViewMvc<Question
 
     @Override
     public void bindQuestion(Question question) {
+        if (mQuestion == null || !mQuestion.hasSameId(question)) {
+            mTitleKey = QuestionHtmlKeys.title(question.getId());
+        }
         mQuestion = question;
-        mTxtTitle.setText(question.getTitle());
+        mTxtTitle.setText(null);
+        mHtmlRenderer.renderAndNotify(mTitleKey, question.getTitle(), this);
+    }
+
+    @Override
+    public void onHtmlRendered(String key, CharSequence rendered) {
+        // this view might have been rebound to another question while rendering
+        if (mQuestion != null && key.equals(mTitleKey)) {
+            mTxtTitle.setText(rendered);
+        }
+    }
+
+    @Override
+    public void bindPlaceholder() {
+        mQuestion = null;
+        mTitleKey = null;
+        mTxtTitle.setText(null);
     }
 }
@@ -0,0 +1,158 @@
+package com.techyourchance.unittesting.common;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BaseObservableTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String EVENT = "event";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private ListenerTd mListener1;
+    private ListenerTd mListener2;
+    private ListenerTd mListener3;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    ObservableTd SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mListener1 = new ListenerTd();
+        mListener2 = new ListenerTd();
+        mListener3 = new ListenerTd();
+        SUT = new ObservableTd();
+    }
+
+    @Test
+    public void forEachListener_registeredListeners_allNotifiedInRegistrationOrder() throws Exception {
+        // Arrange
+        List<ListenerTd> notified = new ArrayList<>();
+        mListener1.mNotified = notified;
+        mListener2.mNotified = notified;
+        mListener3.mNotified = notified;
+        SUT.registerListener(mListener1);
+        SUT.registerListener(mListener2);
+        SUT.registerListener(mListener3);
+        // Act
+        SUT.notifyEvent(EVENT);
+        // Assert
+        assertThat(notified.size(), is(3));
+        assertThat(notified.get(0), is(mListener1));
+        assertThat(notified.get(1), is(mListener2));
+        assertThat(notified.get(2), is(mListener3));
+        assertThat(mListener1.mLastEvent, is(EVENT));
+    }
+
+    @Test
+    public void forEachListener_listenerRegisteredTwice_notifiedOnce() throws Exception {
+        // Arrange
+        SUT.registerListener(mListener1);
+        SUT.registerListener(mListener1);
+        // Act
+        SUT.notifyEvent(EVENT);
+        // Assert
+        assertThat(mListener1.mCallCount, is(1));
+    }
+
+    @Test
+    public void forEachListener_listenerUnregistered_otherListenersNotified() throws Exception {
+        // Arrange
+        SUT.registerListener(mListener1);
+        SUT.registerListener(mListener2);
+        SUT.registerListener(mListener3);
+        SUT.unregisterListener(mListener2);
+        // Act
+        SUT.notifyEvent(EVENT);
+        // Assert
+        assertThat(mListener1.mCallCount, is(1));
+        assertThat(mListener2.mCallCount, is(0));
+        assertThat(mListener3.mCallCount, is(1));
+    }
+
+    @Test
+    public void forEachListener_unregisteredListenerNeverRegistered_registeredListenersNotified() throws Exception {
+        // Arrange
+        SUT.registerListener(mListener1);
+        SUT.unregisterListener(mListener2);
+        // Act
+        SUT.notifyEvent(EVENT);
+        // Assert
+        assertThat(mListener1.mCallCount, is(1));
+    }
+
+    @Test
+    public void forEachListener_listenerUnregistersOtherListenerDuringNotification_allListenersRegisteredAtCallNotified() throws Exception {
+        // Arrange
+        mListener1.mListenerToUnregister = mListener2;
+        SUT.registerListener(mListener1);
+        SUT.registerListener(mListener2);
+        // Act
+        SUT.notifyEvent(EVENT);
+        SUT.notifyEvent(EVENT);
+        // Assert
+        assertThat(mListener1.mCallCount, is(2));
+        assertThat(mListener2.mCallCount, is(1));
+    }
+
+    @Test
+    public void getListeners_registeredListeners_snapshotReturned() throws Exception {
+        // Arrange
+        SUT.registerListener(mListener1);
+        List<ListenerTd> listeners = SUT.getListenersSnapshot();
+        // Act
+        SUT.registerListener(mListener2);
+        // Assert
+        assertThat(listeners.size(), is(1));
+        assertThat(SUT.getListenersSnapshot().size(), is(2));
+    }
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class ObservableTd extends BaseObservable<ListenerTd> {
+
+        private static final ListenerNotification<ListenerTd, String> NOTIFY_EVENT =
+                new ListenerNotification<ListenerTd, String>() {
+                    @Override
+                    public void notify(ListenerTd listener, String event) {
+                        listener.onEvent(event);
+                    }
+                };
+
+        public void notifyEvent(String event) {
+            forEachListener(NOTIFY_EVENT, event);
+        }
+
+        public List<ListenerTd> getListenersSnapshot() {
+            return getListeners();
+        }
+    }
+
+    private class ListenerTd {
+        private int mCallCount;
+        private String mLastEvent;
+        private List<ListenerTd> mNotified;
+        private ListenerTd mListenerToUnregister;
+
+        public void onEvent(String event) {
+            mCallCount++;
+            mLastEvent = event;
+            if (mNotified != null) {
+                mNotified.add(this);
+            }
+            if (mListenerToUnregister != null) {
+                SUT.unregisterListener(mListenerToUnregister);
+            }
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,52 @@
+package com.techyourchance.unittesting.common;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StringInternerTest {
+
+    StringInterner SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new StringInterner();
+    }
+
+    @Test
+    public void intern_equalStrings_firstInstanceReturned() throws Exception {
+        // Arrange
+        String first = new String("title");
+        // Act
+        SUT.intern(first);
+        String result = SUT.intern(new String("title"));
+        // Assert
+        assertThat(result, sameInstance(first));
+        assertThat(SUT.size(), is(1));
+    }
+
+    @Test
+    public void intern_differentStrings_bothRetained() throws Exception {
+        // Arrange
+        // Act
+        SUT.intern("title1");
+        SUT.intern("title2");
+        // Assert
+        assertThat(SUT.size(), is(2));
+    }
+
+    @Test
+    public void intern_null_nullReturned() throws Exception {
+        // Arrange
+        // Act
+        String result = SUT.intern(null);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.size(), is(0));
+    }
+
+}
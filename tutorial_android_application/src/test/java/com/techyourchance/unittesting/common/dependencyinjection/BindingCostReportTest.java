@@ -0,0 +1,130 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BindingCostReportTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long PARENT_SELF_NANOS = 300;
+    private static final long CHILD_NANOS = 1000;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private TimeProviderTd mTimeProviderTd;
+    private Scope mApplicationScope;
+    private Scope mControllerScope;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    BindingCostReport SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mTimeProviderTd = new TimeProviderTd();
+        SUT = new BindingCostReport(mTimeProviderTd);
+        mApplicationScope = new Scope(Scope.APPLICATION, SUT);
+        mControllerScope = new Scope(Scope.CONTROLLER, SUT);
+    }
+
+    @Test
+    public void nestedConstruction_childTimeExcludedFromParentSelfTime() throws Exception {
+        // Arrange
+        Binding<Object> child = binding(mApplicationScope, "Child", CHILD_NANOS, null);
+        Binding<Object> parent = binding(mControllerScope, "Parent", PARENT_SELF_NANOS, child);
+        // Act
+        parent.get();
+        // Assert
+        List<BindingCostReport.Entry> entries = SUT.getEntries();
+        assertThat(entries.size(), is(2));
+        BindingCostReport.Entry childEntry = entries.get(0);
+        BindingCostReport.Entry parentEntry = entries.get(1);
+        assertThat(childEntry.getName(), is("Child"));
+        assertThat(childEntry.getSelfNanos(), is(CHILD_NANOS));
+        assertThat(childEntry.getTotalNanos(), is(CHILD_NANOS));
+        assertThat(parentEntry.getName(), is("Parent"));
+        assertThat(parentEntry.getScope(), is(Scope.CONTROLLER));
+        assertThat(parentEntry.getSelfNanos(), is(PARENT_SELF_NANOS));
+        assertThat(parentEntry.getTotalNanos(), is(PARENT_SELF_NANOS + CHILD_NANOS));
+    }
+
+    @Test
+    public void nestedConstruction_dependencyAlreadyConstructed_notChargedToParent() throws Exception {
+        // Arrange
+        Binding<Object> child = binding(mApplicationScope, "Child", CHILD_NANOS, null);
+        Binding<Object> parent = binding(mControllerScope, "Parent", PARENT_SELF_NANOS, child);
+        child.get();
+        // Act
+        parent.get();
+        // Assert
+        BindingCostReport.Entry parentEntry = SUT.getEntries().get(1);
+        assertThat(parentEntry.getTotalNanos(), is(PARENT_SELF_NANOS));
+    }
+
+    @Test
+    public void getTotalSelfNanos_sumOfSelfTimes() throws Exception {
+        // Arrange
+        Binding<Object> child = binding(mApplicationScope, "Child", CHILD_NANOS, null);
+        Binding<Object> parent = binding(mControllerScope, "Parent", PARENT_SELF_NANOS, child);
+        // Act
+        parent.get();
+        // Assert
+        assertThat(SUT.getTotalSelfNanos(), is(PARENT_SELF_NANOS + CHILD_NANOS));
+    }
+
+    @Test
+    public void toString_mostExpensiveBindingListedFirst() throws Exception {
+        // Arrange
+        Binding<Object> child = binding(mApplicationScope, "Child", CHILD_NANOS, null);
+        Binding<Object> parent = binding(mControllerScope, "Parent", PARENT_SELF_NANOS, child);
+        parent.get();
+        // Act
+        String report = SUT.toString();
+        // Assert
+        assertThat(report, containsString("2 bindings"));
+        assertThat(report.indexOf("application/Child") < report.indexOf("controller/Parent"), is(true));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    /**
+     * @return binding which takes the given time to construct, excluding the construction of the
+     *         given dependency (if any)
+     */
+    private Binding<Object> binding(Scope scope, String name, final long selfNanos, final Binding<Object> dependency) {
+        return new Binding<Object>(scope, name) {
+            @Override
+            protected Object create() {
+                mTimeProviderTd.mNanoTime += selfNanos;
+                if (dependency != null) {
+                    dependency.get();
+                }
+                return new Object();
+            }
+        };
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class TimeProviderTd extends TimeProvider {
+
+        private long mNanoTime = 1000;
+
+        @Override
+        public long getNanoTime() {
+            return mNanoTime;
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,138 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BindingTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int THREADS = 8;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private BindingCostReport mBindingCostReport;
+    private AtomicInteger mCreateCount;
+    private volatile RuntimeException mCreateFailure;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    Binding<Object> SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mBindingCostReport = new BindingCostReport(new TimeProvider());
+        mCreateCount = new AtomicInteger();
+        SUT = new Binding<Object>(new Scope(Scope.APPLICATION, mBindingCostReport), "Object") {
+            @Override
+            protected Object create() {
+                mCreateCount.incrementAndGet();
+                if (mCreateFailure != null) {
+                    throw mCreateFailure;
+                }
+                return new Object();
+            }
+        };
+    }
+
+    @Test
+    public void isConstructed_notRequested_false() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(SUT.isConstructed(), is(false));
+        assertThat(mCreateCount.get(), is(0));
+    }
+
+    @Test
+    public void get_calledTwice_sameInstanceConstructedOnce() throws Exception {
+        // Arrange
+        // Act
+        Object first = SUT.get();
+        Object second = SUT.get();
+        // Assert
+        assertThat(second, sameInstance(first));
+        assertThat(mCreateCount.get(), is(1));
+        assertThat(SUT.isConstructed(), is(true));
+    }
+
+    @Test
+    public void get_calledConcurrently_constructedOnce() throws Exception {
+        // Arrange
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Object> instances = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    Object instance = SUT.get();
+                    synchronized (instances) {
+                        instances.add(instance);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        // Act
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Assert
+        assertThat(mCreateCount.get(), is(1));
+        assertThat(instances.size(), is(THREADS));
+        for (Object instance : instances) {
+            assertThat(instance, sameInstance(instances.get(0)));
+        }
+    }
+
+    @Test
+    public void get_constructionRecordedInReport() throws Exception {
+        // Arrange
+        // Act
+        SUT.get();
+        SUT.get();
+        // Assert
+        List<BindingCostReport.Entry> entries = mBindingCostReport.getEntries();
+        assertThat(entries.size(), is(1));
+        assertThat(entries.get(0).getScope(), is(Scope.APPLICATION));
+        assertThat(entries.get(0).getName(), is("Object"));
+    }
+
+    @Test
+    public void get_constructionFails_failurePropagatedNotRecordedAndRetriedOnNextGet() throws Exception {
+        // Arrange
+        mCreateFailure = new IllegalStateException();
+        // Act
+        try {
+            SUT.get();
+            fail("failure should be propagated");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        mCreateFailure = null;
+        SUT.get();
+        // Assert
+        assertThat(mCreateCount.get(), is(2));
+        assertThat(mBindingCostReport.getEntries().size(), is(1));
+    }
+
+}
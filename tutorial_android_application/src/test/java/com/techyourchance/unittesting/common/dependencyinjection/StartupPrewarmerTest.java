@@ -0,0 +1,126 @@
+package com.techyourchance.unittesting.common.dependencyinjection;
+
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StartupPrewarmerTest {
+
+    // region helper fields ------------------------------------------------------------------------
+    private ExecutorTd mExecutorTd;
+    private StartupTracer mStartupTracer;
+    private Scope mScope;
+    private List<String> mConstructed;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    StartupPrewarmer SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mExecutorTd = new ExecutorTd();
+        mStartupTracer = new StartupTracer(new TimeProvider());
+        mScope = new Scope(Scope.APPLICATION, new BindingCostReport(new TimeProvider()));
+        mConstructed = new ArrayList<>();
+        SUT = new StartupPrewarmer(mExecutorTd, mStartupTracer);
+    }
+
+    @Test
+    public void prewarm_nothingConstructedOnCallingThread() throws Exception {
+        // Arrange
+        Binding<Object> binding = binding("first", false);
+        // Act
+        SUT.prewarm(Arrays.asList(binding));
+        // Assert
+        assertThat(binding.isConstructed(), is(false));
+        assertThat(mStartupTracer.getPhaseTiming(StartupTracer.Phase.PREWARM), is(nullValue()));
+    }
+
+    @Test
+    public void prewarm_bindingsConstructedInOrderOnBackgroundExecutor() throws Exception {
+        // Arrange
+        Binding<Object> first = binding("first", false);
+        Binding<Object> second = binding("second", false);
+        // Act
+        SUT.prewarm(Arrays.asList(first, second));
+        mExecutorTd.runAll();
+        // Assert
+        assertThat(mConstructed, is(Arrays.asList("first", "second")));
+        assertThat(first.isConstructed(), is(true));
+        assertThat(second.isConstructed(), is(true));
+    }
+
+    @Test
+    public void prewarm_phaseTraced() throws Exception {
+        // Arrange
+        // Act
+        SUT.prewarm(Arrays.asList(binding("first", false)));
+        mExecutorTd.runAll();
+        // Assert
+        assertThat(mStartupTracer.getPhaseTiming(StartupTracer.Phase.PREWARM), is(notNullValue()));
+    }
+
+    @Test
+    public void prewarm_constructionFails_failureSwallowedAndRemainingBindingsConstructed() throws Exception {
+        // Arrange
+        Binding<Object> failing = binding("failing", true);
+        Binding<Object> second = binding("second", false);
+        // Act
+        SUT.prewarm(Arrays.asList(failing, second));
+        mExecutorTd.runAll();
+        // Assert
+        assertThat(failing.isConstructed(), is(false));
+        assertThat(second.isConstructed(), is(true));
+        assertThat(mStartupTracer.getPhaseTiming(StartupTracer.Phase.PREWARM), is(notNullValue()));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private Binding<Object> binding(final String name, final boolean failing) {
+        return new Binding<Object>(mScope, name) {
+            @Override
+            protected Object create() {
+                mConstructed.add(name);
+                if (failing) {
+                    throw new IllegalStateException();
+                }
+                return new Object();
+            }
+        };
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class ExecutorTd implements Executor {
+
+        private final List<Runnable> mRunnables = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mRunnables.add(command);
+        }
+
+        private void runAll() {
+            while (!mRunnables.isEmpty()) {
+                mRunnables.remove(0).run();
+            }
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,146 @@
+package com.techyourchance.unittesting.common.html;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class HtmlTextRendererTest {
+
+    HtmlTextRenderer SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new HtmlTextRenderer();
+    }
+
+    @Test
+    public void render_plainText_returnedAsIs() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("plain text");
+        // Assert
+        assertThat(result.getText(), is("plain text"));
+        assertThat(result.getSpansCount(), is(0));
+    }
+
+    @Test
+    public void render_inlineTags_spansCoverTheirContent() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("a <strong>bold</strong> <em>it</em> <code>x++</code>");
+        // Assert
+        assertThat(result.getText(), is("a bold it x++"));
+        assertThat(spans(result), is(Arrays.asList("BOLD 2-6", "ITALIC 7-9", "CODE 10-13")));
+    }
+
+    @Test
+    public void render_link_urlRetained() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("see <a href=\"https://stackoverflow.com\">this</a>");
+        // Assert
+        assertThat(result.getText(), is("see this"));
+        assertThat(spans(result), is(Arrays.asList("LINK 4-8 https://stackoverflow.com")));
+    }
+
+    @Test
+    public void render_paragraphs_separatedByBlankLine() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("<p>first</p>\n\n<p>second</p>\n");
+        // Assert
+        assertThat(result.getText(), is("first\n\nsecond"));
+        assertThat(spans(result), is(Arrays.asList("PARAGRAPH 0-5", "PARAGRAPH 7-13")));
+    }
+
+    @Test
+    public void render_whitespaceOutsidePre_collapsed() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("  a \n\t b  ");
+        // Assert
+        assertThat(result.getText(), is("a b"));
+    }
+
+    @Test
+    public void render_pre_whitespacePreservedAndEntitiesDecoded() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("<pre><code>if (a &lt; b) {\n    b++;\n}\n</code></pre>");
+        // Assert
+        assertThat(result.getText(), is("if (a < b) {\n    b++;\n}"));
+        assertThat(spans(result), is(Arrays.asList("CODE 0-23", "PARAGRAPH 0-23")));
+    }
+
+    @Test
+    public void render_list_itemsOnSeparateLinesWithBullets() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("items:<ul><li>one</li><li>two</li></ul>after");
+        // Assert
+        assertThat(result.getText(), is("items:\n\n• one\n• two\n\nafter"));
+    }
+
+    @Test
+    public void render_heading_boldParagraph() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("<h2>Title</h2>text");
+        // Assert
+        assertThat(result.getText(), is("Title\n\ntext"));
+        assertThat(spans(result), is(Arrays.asList("BOLD 0-5", "PARAGRAPH 0-5")));
+    }
+
+    @Test
+    public void render_entities_decoded() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("&lt;b&gt; &amp; &#39;q&#x27; &unknown;");
+        // Assert
+        assertThat(result.getText(), is("<b> & 'q' &unknown;"));
+    }
+
+    @Test
+    public void render_unclosedAndUnmatchedTags_spansClosedAtEndAndStrayEndTagsIgnored() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("a</em> <b>bold");
+        // Assert
+        assertThat(result.getText(), is("a bold"));
+        assertThat(spans(result), is(Arrays.asList("BOLD 2-6")));
+    }
+
+    @Test
+    public void render_emptyTags_noSpans() throws Exception {
+        // Arrange
+        // Act
+        RenderedText result = SUT.render("<p></p>text<b></b>");
+        // Assert
+        assertThat(result.getText(), is("text"));
+        assertThat(result.getSpansCount(), is(0));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private List<String> spans(RenderedText renderedText) {
+        List<String> spans = new ArrayList<>(renderedText.getSpansCount());
+        for (int i = 0; i < renderedText.getSpansCount(); i++) {
+            String span = renderedText.getSpanType(i) + " "
+                    + renderedText.getSpanStart(i) + "-" + renderedText.getSpanEnd(i);
+            if (renderedText.getSpanUrl(i) != null) {
+                span += " " + renderedText.getSpanUrl(i);
+            }
+            spans.add(span);
+        }
+        return spans;
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
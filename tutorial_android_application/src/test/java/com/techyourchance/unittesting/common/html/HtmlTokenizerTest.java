@@ -0,0 +1,91 @@
+package com.techyourchance.unittesting.common.html;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class HtmlTokenizerTest {
+
+    HtmlTokenizer SUT;
+
+    @Test
+    public void next_textAndTags_tokensReturnedInOrder() throws Exception {
+        // Arrange
+        String html = "<p>text</p>";
+        SUT = new HtmlTokenizer(html);
+        // Act
+        // Assert
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.START_TAG));
+        assertThat(SUT.isTag("p"), is(true));
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.TEXT));
+        assertThat(html.substring(SUT.getTextStart(), SUT.getTextEnd()), is("text"));
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.END_TAG));
+        assertThat(SUT.isTag("p"), is(true));
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.END_OF_INPUT));
+    }
+
+    @Test
+    public void isTag_upperCaseTagName_matchedCaseInsensitively() throws Exception {
+        // Arrange
+        SUT = new HtmlTokenizer("<STRONG>");
+        // Act
+        SUT.next();
+        // Assert
+        assertThat(SUT.isTag("strong"), is(true));
+        assertThat(SUT.isTag("s"), is(false));
+    }
+
+    @Test
+    public void next_commentsAndDoctype_skipped() throws Exception {
+        // Arrange
+        SUT = new HtmlTokenizer("<!DOCTYPE html><!-- <b>comment</b> --><i>");
+        // Act
+        HtmlTokenizer.Token token = SUT.next();
+        // Assert
+        assertThat(token, is(HtmlTokenizer.Token.START_TAG));
+        assertThat(SUT.isTag("i"), is(true));
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.END_OF_INPUT));
+    }
+
+    @Test
+    public void next_loneLessThanSign_returnedAsText() throws Exception {
+        // Arrange
+        String html = "a < b";
+        SUT = new HtmlTokenizer(html);
+        // Act
+        StringBuilder text = new StringBuilder();
+        while (SUT.next() != HtmlTokenizer.Token.END_OF_INPUT) {
+            assertThat(SUT.getToken(), is(HtmlTokenizer.Token.TEXT));
+            text.append(html, SUT.getTextStart(), SUT.getTextEnd());
+        }
+        // Assert
+        assertThat(text.toString(), is(html));
+    }
+
+    @Test
+    public void getAttribute_quotedValueContainingTagEnd_wholeValueReturnedDecoded() throws Exception {
+        // Arrange
+        SUT = new HtmlTokenizer("<a title=\"a > b\" href='http://x.com/?a=1&amp;b=2'>");
+        // Act
+        SUT.next();
+        // Assert
+        assertThat(SUT.getAttribute("title"), is("a > b"));
+        assertThat(SUT.getAttribute("href"), is("http://x.com/?a=1&b=2"));
+        assertThat(SUT.getAttribute("rel"), is(nullValue()));
+        assertThat(SUT.next(), is(HtmlTokenizer.Token.END_OF_INPUT));
+    }
+
+    @Test
+    public void isSelfClosing_selfClosingTag_true() throws Exception {
+        // Arrange
+        SUT = new HtmlTokenizer("<br/>");
+        // Act
+        SUT.next();
+        // Assert
+        assertThat(SUT.isTag("br"), is(true));
+        assertThat(SUT.isSelfClosing(), is(true));
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.techyourchance.unittesting.common.startup;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StartupTracerTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long OFFSET_NANOS = 100;
+    private static final long DURATION_NANOS = 1000;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private TimeProviderTd mTimeProviderTd;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    StartupTracer SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mTimeProviderTd = new TimeProviderTd();
+        SUT = new StartupTracer(mTimeProviderTd);
+    }
+
+    @Test
+    public void endPhase_offsetAndDurationRecordedRelativeToCreation() throws Exception {
+        // Arrange
+        mTimeProviderTd.mNanoTime += OFFSET_NANOS;
+        SUT.beginPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        mTimeProviderTd.mNanoTime += DURATION_NANOS;
+        // Act
+        SUT.endPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        // Assert
+        StartupTracer.PhaseTiming phaseTiming = SUT.getPhaseTiming(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        assertThat(phaseTiming.getStartOffsetNanos(), is(OFFSET_NANOS));
+        assertThat(phaseTiming.getDurationNanos(), is(DURATION_NANOS));
+        assertThat(phaseTiming.getEndOffsetNanos(), is(OFFSET_NANOS + DURATION_NANOS));
+    }
+
+    @Test
+    public void endPhase_phaseNotBegun_nothingRecorded() throws Exception {
+        // Arrange
+        // Act
+        SUT.endPhase(StartupTracer.Phase.PREWARM);
+        // Assert
+        assertThat(SUT.getPhaseTiming(StartupTracer.Phase.PREWARM), is(nullValue()));
+        assertThat(SUT.getPhaseTimings().size(), is(0));
+    }
+
+    @Test
+    public void beginPhase_phaseNotEnded_phaseTimingNotAvailable() throws Exception {
+        // Arrange
+        // Act
+        SUT.beginPhase(StartupTracer.Phase.PREWARM);
+        // Assert
+        assertThat(SUT.getPhaseTiming(StartupTracer.Phase.PREWARM), is(nullValue()));
+    }
+
+    @Test
+    public void phaseRepeated_onlyFirstOccurrenceRecorded() throws Exception {
+        // Arrange
+        SUT.beginPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        mTimeProviderTd.mNanoTime += DURATION_NANOS;
+        SUT.endPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        // Act
+        mTimeProviderTd.mNanoTime += DURATION_NANOS;
+        SUT.beginPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        mTimeProviderTd.mNanoTime += DURATION_NANOS;
+        SUT.endPhase(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        // Assert
+        assertThat(SUT.getPhaseTimings().size(), is(1));
+        StartupTracer.PhaseTiming phaseTiming = SUT.getPhaseTiming(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND);
+        assertThat(phaseTiming.getStartOffsetNanos(), is(0L));
+        assertThat(phaseTiming.getDurationNanos(), is(DURATION_NANOS));
+    }
+
+    @Test
+    public void getPhaseTimings_inOrderOfCompletion() throws Exception {
+        // Arrange
+        SUT.beginPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        SUT.beginPhase(StartupTracer.Phase.PREWARM);
+        SUT.endPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        SUT.beginPhase(StartupTracer.Phase.MAIN_ACTIVITY_ON_CREATE);
+        SUT.endPhase(StartupTracer.Phase.MAIN_ACTIVITY_ON_CREATE);
+        SUT.endPhase(StartupTracer.Phase.PREWARM);
+        // Act
+        List<StartupTracer.PhaseTiming> phaseTimings = SUT.getPhaseTimings();
+        // Assert
+        assertThat(phaseTimings.size(), is(3));
+        assertThat(phaseTimings.get(0).getPhase(), is(StartupTracer.Phase.APPLICATION_ON_CREATE));
+        assertThat(phaseTimings.get(1).getPhase(), is(StartupTracer.Phase.MAIN_ACTIVITY_ON_CREATE));
+        assertThat(phaseTimings.get(2).getPhase(), is(StartupTracer.Phase.PREWARM));
+    }
+
+    @Test
+    public void toString_endedPhasesReported() throws Exception {
+        // Arrange
+        SUT.beginPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        SUT.endPhase(StartupTracer.Phase.APPLICATION_ON_CREATE);
+        SUT.beginPhase(StartupTracer.Phase.PREWARM);
+        // Act
+        String report = SUT.toString();
+        // Assert
+        assertThat(report, containsString("APPLICATION_ON_CREATE"));
+        assertThat(report.contains("PREWARM"), is(false));
+    }
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class TimeProviderTd extends TimeProvider {
+
+        private long mNanoTime = 1000;
+
+        @Override
+        public long getNanoTime() {
+            return mNanoTime;
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,127 @@
+package com.techyourchance.unittesting.common.usecases;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutstandingRequestsTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long GRACE_PERIOD_MS = 1000;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock ScheduledExecutorService mSchedulerMock;
+
+    @Captor ArgumentCaptor<Runnable> mRunnableCaptor;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    OutstandingRequests SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new OutstandingRequests(mSchedulerMock, GRACE_PERIOD_MS);
+    }
+
+    @Test
+    public void cancelAllAfterGracePeriod_beforeGracePeriodPassed_requestsNotCancelled() throws Exception {
+        // Arrange
+        CancellationToken request = SUT.start();
+        // Act
+        SUT.cancelAllAfterGracePeriod();
+        // Assert
+        verify(mSchedulerMock).schedule(mRunnableCaptor.capture(), eq(GRACE_PERIOD_MS), eq(TimeUnit.MILLISECONDS));
+        assertThat(request.isCancelled(), is(false));
+        assertThat(SUT.getOutstandingCount(), is(1));
+    }
+
+    @Test
+    public void cancelAllAfterGracePeriod_gracePeriodPassed_outstandingRequestsCancelledAndCounted() throws Exception {
+        // Arrange
+        CancellationToken request1 = SUT.start();
+        CancellationToken request2 = SUT.start();
+        SUT.cancelAllAfterGracePeriod();
+        // Act
+        gracePeriodPassed();
+        // Assert
+        assertThat(request1.isCancelled(), is(true));
+        assertThat(request2.isCancelled(), is(true));
+        assertThat(SUT.getCancelledCount(), is(2l));
+        assertThat(SUT.getOutstandingCount(), is(0));
+    }
+
+    @Test
+    public void cancelAllAfterGracePeriod_keptWithinGracePeriod_requestsNotCancelled() throws Exception {
+        // Arrange
+        CancellationToken request = SUT.start();
+        SUT.cancelAllAfterGracePeriod();
+        SUT.keepAll();
+        // Act
+        gracePeriodPassed();
+        // Assert
+        assertThat(request.isCancelled(), is(false));
+        assertThat(SUT.getCancelledCount(), is(0l));
+    }
+
+    @Test
+    public void cancelAllAfterGracePeriod_completedRequests_notCancelled() throws Exception {
+        // Arrange
+        CancellationToken request = SUT.start();
+        SUT.complete(request);
+        SUT.cancelAllAfterGracePeriod();
+        // Act
+        gracePeriodPassed();
+        // Assert
+        assertThat(request.isCancelled(), is(false));
+        assertThat(SUT.getCompletedCount(), is(1l));
+        assertThat(SUT.getCancelledCount(), is(0l));
+    }
+
+    @Test
+    public void cancelAllAfterGracePeriod_zeroGracePeriod_requestsCancelledImmediately() throws Exception {
+        // Arrange
+        SUT = new OutstandingRequests(mSchedulerMock, 0);
+        CancellationToken request = SUT.start();
+        // Act
+        SUT.cancelAllAfterGracePeriod();
+        // Assert
+        assertThat(request.isCancelled(), is(true));
+        assertThat(SUT.getCancelledCount(), is(1l));
+    }
+
+    @Test
+    public void complete_requestAlreadyCancelled_notCountedAsCompleted() throws Exception {
+        // Arrange
+        SUT = new OutstandingRequests(mSchedulerMock, 0);
+        CancellationToken request = SUT.start();
+        SUT.cancelAllAfterGracePeriod();
+        // Act
+        SUT.complete(request);
+        // Assert
+        assertThat(SUT.getCompletedCount(), is(0l));
+        assertThat(SUT.getCancelledCount(), is(1l));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void gracePeriodPassed() {
+        verify(mSchedulerMock).schedule(mRunnableCaptor.capture(), eq(GRACE_PERIOD_MS), eq(TimeUnit.MILLISECONDS));
+        mRunnableCaptor.getValue().run();
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
@@ -0,0 +1,120 @@
+package com.techyourchance.unittesting.networking;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import okhttp3.Cache;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpStatsTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final Request REQUEST = new Request.Builder().url("https://example.com/questions").build();
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Mock Interceptor.Chain mChainMock;
+    @Mock Connection mConnection1;
+    @Mock Connection mConnection2;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    HttpStats SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new HttpStats(new Cache(mTemporaryFolder.getRoot(), 1024), new ConnectionPool());
+        when(mChainMock.request()).thenReturn(REQUEST);
+    }
+
+    @Test
+    public void intercept_newConnections_networkRequestsCountedWithoutReuse() throws Exception {
+        // Arrange
+        respondWith(200);
+        // Act
+        interceptOn(mConnection1);
+        interceptOn(mConnection2);
+        // Assert
+        assertThat(SUT.getNetworkRequestCount(), is(2));
+        assertThat(SUT.getReusedConnectionCount(), is(0));
+        assertThat(SUT.getConnectionReuseRate(), is(0f));
+    }
+
+    @Test
+    public void intercept_sameConnectionTwice_reuseCounted() throws Exception {
+        // Arrange
+        respondWith(200);
+        // Act
+        interceptOn(mConnection1);
+        interceptOn(mConnection1);
+        // Assert
+        assertThat(SUT.getReusedConnectionCount(), is(1));
+        assertThat(SUT.getConnectionReuseRate(), is(0.5f));
+    }
+
+    @Test
+    public void intercept_notModifiedResponse_notModifiedCounted() throws Exception {
+        // Arrange
+        respondWith(304);
+        // Act
+        interceptOn(mConnection1);
+        // Assert
+        assertThat(SUT.getNotModifiedCount(), is(1));
+    }
+
+    @Test
+    public void intercept_successfulResponse_notModifiedNotCounted() throws Exception {
+        // Arrange
+        respondWith(200);
+        // Act
+        interceptOn(mConnection1);
+        // Assert
+        assertThat(SUT.getNotModifiedCount(), is(0));
+    }
+
+    @Test
+    public void getCacheHitRate_noRequests_zeroReturned() throws Exception {
+        // Arrange
+        // Act
+        float result = SUT.getCacheHitRate();
+        // Assert
+        assertThat(result, is(0f));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void respondWith(int code) throws Exception {
+        Response response = new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .build();
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response);
+    }
+
+    private void interceptOn(Connection connection) throws Exception {
+        when(mChainMock.connection()).thenReturn(connection);
+        SUT.intercept(mChainMock);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
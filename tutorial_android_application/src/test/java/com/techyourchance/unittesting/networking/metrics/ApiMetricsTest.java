@@ -0,0 +1,112 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApiMetricsTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String ENDPOINT = "/questions";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock MetricsSink mMetricsSinkMock;
+    @Mock TimeProvider mTimeProviderMock;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    ApiMetrics SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new ApiMetrics(mMetricsSinkMock, mTimeProviderMock);
+    }
+
+    @Test
+    public void recordLatencySince_elapsedTimeRecorded() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getNanoTime()).thenReturn(1000L, 1600L);
+        long startNanos = SUT.startTiming();
+        // Act
+        SUT.recordLatencySince(ENDPOINT, MetricsSink.Phase.MAP, startNanos);
+        // Assert
+        verify(mMetricsSinkMock).recordLatency(ENDPOINT, MetricsSink.Phase.MAP, 600L);
+    }
+
+    @Test
+    public void recordResponseCode_tooManyRequests_rateLimitedErrorRecorded() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordResponseCode(ENDPOINT, 429);
+        // Assert
+        verify(mMetricsSinkMock).recordError(ENDPOINT, MetricsSink.ErrorClass.RATE_LIMITED);
+    }
+
+    @Test
+    public void recordResponseCode_clientAndServerErrors_classifiedByCode() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordResponseCode(ENDPOINT, 404);
+        SUT.recordResponseCode(ENDPOINT, 503);
+        // Assert
+        verify(mMetricsSinkMock).recordError(ENDPOINT, MetricsSink.ErrorClass.CLIENT);
+        verify(mMetricsSinkMock).recordError(ENDPOINT, MetricsSink.ErrorClass.SERVER);
+    }
+
+    @Test
+    public void recordResponseCode_successfulOrNotModified_nothingRecorded() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordResponseCode(ENDPOINT, 200);
+        SUT.recordResponseCode(ENDPOINT, 304);
+        // Assert
+        verify(mMetricsSinkMock, never()).recordError(anyString(), any(MetricsSink.ErrorClass.class));
+    }
+
+    @Test
+    public void recordFailure_failuresClassifiedByType() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordFailure(ENDPOINT, new SocketTimeoutException());
+        SUT.recordFailure(ENDPOINT, new UnknownHostException());
+        // Assert
+        verify(mMetricsSinkMock).recordError(ENDPOINT, MetricsSink.ErrorClass.TIMEOUT);
+        verify(mMetricsSinkMock).recordError(ENDPOINT, MetricsSink.ErrorClass.NETWORK);
+    }
+
+    @Test
+    public void endpointName_pathWithIds_idsReplacedWithPlaceholder() throws Exception {
+        // Arrange
+        // Act
+        String result = ApiMetrics.endpointName("/questions/123;456");
+        // Assert
+        assertThat(result, is(ApiMetrics.ENDPOINT_QUESTION_DETAILS));
+    }
+
+    @Test
+    public void endpointName_pathTemplateWithQuery_placeholderUnifiedAndQueryDropped() throws Exception {
+        // Arrange
+        // Act
+        String questions = ApiMetrics.endpointName("/questions?key=abc&site=stackoverflow");
+        String questionDetails = ApiMetrics.endpointName("/questions/{questionId}?site=stackoverflow");
+        // Assert
+        assertThat(questions, is(ApiMetrics.ENDPOINT_QUESTIONS));
+        assertThat(questionDetails, is(ApiMetrics.ENDPOINT_QUESTION_DETAILS));
+    }
+}
@@ -0,0 +1,90 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class HistogramTest {
+
+    Histogram SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new Histogram();
+    }
+
+    @Test
+    public void getPercentile_noValues_zeroReturned() throws Exception {
+        // Arrange
+        // Act
+        long result = SUT.getPercentile(50);
+        // Assert
+        assertThat(result, is(0L));
+        assertThat(SUT.getMin(), is(0L));
+        assertThat(SUT.getMean(), is(0d));
+    }
+
+    @Test
+    public void record_values_countSumMinMaxAndMeanExact() throws Exception {
+        // Arrange
+        // Act
+        SUT.record(10);
+        SUT.record(30);
+        SUT.record(20);
+        // Assert
+        assertThat(SUT.getCount(), is(3L));
+        assertThat(SUT.getSum(), is(60L));
+        assertThat(SUT.getMin(), is(10L));
+        assertThat(SUT.getMax(), is(30L));
+        assertThat(SUT.getMean(), is(20d));
+    }
+
+    @Test
+    public void getPercentile_valuesInDifferentBuckets_upperBoundOfBucketReturned() throws Exception {
+        // Arrange
+        for (int i = 0; i < 9; i++) {
+            SUT.record(5);
+        }
+        SUT.record(1000);
+        // Act
+        long median = SUT.getPercentile(50);
+        long p99 = SUT.getPercentile(99);
+        // Assert
+        assertThat(median, is(7L));
+        assertThat(p99, is(1000L));
+    }
+
+    @Test
+    public void getPercentile_singleValue_valueReturned() throws Exception {
+        // Arrange
+        SUT.record(100);
+        // Act
+        long result = SUT.getPercentile(50);
+        // Assert
+        assertThat(result, is(100L));
+    }
+
+    @Test
+    public void record_negativeValue_recordedAsZero() throws Exception {
+        // Arrange
+        // Act
+        SUT.record(-5);
+        // Assert
+        assertThat(SUT.getMin(), is(0L));
+        assertThat(SUT.getPercentile(100), is(0L));
+    }
+
+    @Test
+    public void copyConstructor_originalRecordedAfterwards_copyUnchanged() throws Exception {
+        // Arrange
+        SUT.record(1);
+        Histogram copy = new Histogram(SUT);
+        // Act
+        SUT.record(2);
+        // Assert
+        assertThat(copy.getCount(), is(1L));
+        assertThat(copy.getMax(), is(1L));
+    }
+}
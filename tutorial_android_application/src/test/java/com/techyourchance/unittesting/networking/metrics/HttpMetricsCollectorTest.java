@@ -0,0 +1,267 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Dns;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpMetricsCollectorTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final Request REQUEST = new Request.Builder().url("https://example.com/questions/123").build();
+    private static final String ENDPOINT = ApiMetrics.ENDPOINT_QUESTION_DETAILS;
+    private static final String BODY = "{\"items\":[]}";
+    private static final long DNS_NANOS = 20;
+    private static final long CONNECT_NANOS = 100;
+    private static final long TTFB_NANOS = 300;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock Interceptor.Chain mApplicationChainMock;
+    @Mock Interceptor.Chain mNetworkChainMock;
+    @Mock Call mCallMock;
+    @Mock Connection mConnection1;
+    @Mock Connection mConnection2;
+
+    private TimeProviderTd mTimeProviderTd;
+    private InMemoryMetricsSink mMetricsSink;
+    private Dns mDns;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    HttpMetricsCollector SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mTimeProviderTd = new TimeProviderTd();
+        mMetricsSink = new InMemoryMetricsSink();
+        SUT = new HttpMetricsCollector(new ApiMetrics(mMetricsSink, mTimeProviderTd));
+        mDns = SUT.getDns(new DnsTd());
+        when(mApplicationChainMock.request()).thenReturn(REQUEST);
+    }
+
+    @Test
+    public void intercept_newConnection_allPhasesRecorded() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(latency(MetricsSink.Phase.DNS).getSum(), is(DNS_NANOS));
+        assertThat(latency(MetricsSink.Phase.CONNECT).getSum(), is(CONNECT_NANOS));
+        assertThat(latency(MetricsSink.Phase.TTFB).getSum(), is(TTFB_NANOS));
+        assertThat(latency(MetricsSink.Phase.TOTAL).getSum(), is(DNS_NANOS + CONNECT_NANOS + TTFB_NANOS));
+    }
+
+    @Test
+    public void intercept_reusedConnection_connectionPhasesNotRecordedAgain() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(latency(MetricsSink.Phase.CONNECT).getCount(), is(1L));
+        assertThat(latency(MetricsSink.Phase.TTFB).getCount(), is(2L));
+        assertThat(latency(MetricsSink.Phase.TOTAL).getCount(), is(2L));
+    }
+
+    @Test
+    public void intercept_differentConnections_connectionPhasesRecordedForEach() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        networkResponse(mConnection2, 200);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(latency(MetricsSink.Phase.CONNECT).getCount(), is(2L));
+    }
+
+    @Test
+    public void intercept_networkResponse_cacheMissRecorded() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(mMetricsSink.getCacheLookupsCount(ENDPOINT), is(1));
+        assertThat(mMetricsSink.getCacheHitsCount(ENDPOINT), is(0));
+    }
+
+    @Test
+    public void intercept_cachedResponse_cacheHitRecordedWithoutNetworkPhases() throws Exception {
+        // Arrange
+        when(mApplicationChainMock.proceed(any(Request.class))).thenReturn(response(200).newBuilder()
+                .cacheResponse(response(200).newBuilder().body(null).build())
+                .build());
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(mMetricsSink.getCacheHitRatio(ENDPOINT), is(1f));
+        assertThat(latency(MetricsSink.Phase.TTFB).getCount(), is(0L));
+    }
+
+    @Test
+    public void intercept_serverError_errorClassRecorded() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 503);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(mMetricsSink.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.SERVER), is(1));
+    }
+
+    @Test
+    public void intercept_timeout_errorClassRecordedAndFailurePropagated() throws Exception {
+        // Arrange
+        when(mApplicationChainMock.proceed(any(Request.class))).thenThrow(new SocketTimeoutException());
+        when(mApplicationChainMock.call()).thenReturn(mCallMock);
+        // Act
+        try {
+            SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+            fail("failure should be propagated");
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+        // Assert
+        assertThat(mMetricsSink.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.TIMEOUT), is(1));
+        assertThat(latency(MetricsSink.Phase.TOTAL).getCount(), is(0L));
+    }
+
+    @Test
+    public void intercept_canceled_canceledErrorClassRecordedAndFailurePropagated() throws Exception {
+        // Arrange
+        when(mApplicationChainMock.proceed(any(Request.class))).thenThrow(new IOException("Canceled"));
+        when(mApplicationChainMock.call()).thenReturn(mCallMock);
+        when(mCallMock.isCanceled()).thenReturn(true);
+        // Act
+        try {
+            SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+            fail("failure should be propagated");
+        } catch (IOException e) {
+            // expected
+        }
+        // Assert
+        assertThat(mMetricsSink.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.CANCELED), is(1));
+        assertThat(mMetricsSink.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.NETWORK), is(0));
+    }
+
+    @Test
+    public void intercept_bodyRead_decodedSizeRecorded() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        Response response = SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Act
+        String body = response.body().string();
+        // Assert
+        assertThat(body, is(BODY));
+        Histogram sizes = mMetricsSink.getResponseSizeHistogram(ENDPOINT);
+        assertThat(sizes.getCount(), is(1L));
+        assertThat(sizes.getSum(), is((long) BODY.length()));
+    }
+
+    @Test
+    public void intercept_bodyNotRead_sizeNotRecorded() throws Exception {
+        // Arrange
+        networkResponse(mConnection1, 200);
+        // Act
+        SUT.getApplicationInterceptor().intercept(mApplicationChainMock);
+        // Assert
+        assertThat(mMetricsSink.getResponseSizeHistogram(ENDPOINT).getCount(), is(0L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    /**
+     * Simulate a request which resolves the host, connects, and then obtains a response over the
+     * given connection
+     */
+    private void networkResponse(final Connection connection, int code) throws Exception {
+        when(mApplicationChainMock.proceed(any(Request.class))).thenAnswer(new Answer<Response>() {
+            @Override
+            public Response answer(InvocationOnMock invocation) throws Throwable {
+                mDns.lookup(REQUEST.url().host());
+                mTimeProviderTd.mNanoTime += CONNECT_NANOS;
+                return SUT.getNetworkInterceptor().intercept(mNetworkChainMock);
+            }
+        });
+        when(mNetworkChainMock.request()).thenReturn(REQUEST);
+        when(mNetworkChainMock.connection()).thenReturn(connection);
+        final Response response = response(code);
+        when(mNetworkChainMock.proceed(any(Request.class))).thenAnswer(new Answer<Response>() {
+            @Override
+            public Response answer(InvocationOnMock invocation) throws Throwable {
+                mTimeProviderTd.mNanoTime += TTFB_NANOS;
+                return response;
+            }
+        });
+    }
+
+    private Response response(int code) {
+        return new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(MediaType.parse("application/json"), BODY))
+                .build();
+    }
+
+    private Histogram latency(MetricsSink.Phase phase) {
+        return mMetricsSink.getLatencyHistogram(ENDPOINT, phase);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class TimeProviderTd extends TimeProvider {
+
+        private long mNanoTime = 1000;
+
+        @Override
+        public long getNanoTime() {
+            return mNanoTime;
+        }
+    }
+
+    private class DnsTd implements Dns {
+
+        @Override
+        public List<InetAddress> lookup(String hostname) {
+            mTimeProviderTd.mNanoTime += DNS_NANOS;
+            return Collections.emptyList();
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
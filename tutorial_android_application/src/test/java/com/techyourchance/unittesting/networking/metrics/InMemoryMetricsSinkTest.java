@@ -0,0 +1,108 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InMemoryMetricsSinkTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String ENDPOINT = "/questions";
+    private static final String OTHER_ENDPOINT = "/questions/{id}";
+    // endregion constants -------------------------------------------------------------------------
+
+    InMemoryMetricsSink SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new InMemoryMetricsSink();
+    }
+
+    @Test
+    public void recordLatency_latenciesRecordedPerEndpointAndPhase() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordLatency(ENDPOINT, MetricsSink.Phase.TTFB, 100);
+        SUT.recordLatency(ENDPOINT, MetricsSink.Phase.TTFB, 300);
+        SUT.recordLatency(ENDPOINT, MetricsSink.Phase.PARSE, 50);
+        SUT.recordLatency(OTHER_ENDPOINT, MetricsSink.Phase.TTFB, 1000);
+        // Assert
+        Histogram ttfb = SUT.getLatencyHistogram(ENDPOINT, MetricsSink.Phase.TTFB);
+        assertThat(ttfb.getCount(), is(2L));
+        assertThat(ttfb.getSum(), is(400L));
+        assertThat(SUT.getLatencyHistogram(ENDPOINT, MetricsSink.Phase.PARSE).getCount(), is(1L));
+        assertThat(SUT.getLatencyHistogram(OTHER_ENDPOINT, MetricsSink.Phase.TTFB).getMax(), is(1000L));
+    }
+
+    @Test
+    public void getLatencyHistogram_nothingRecorded_emptyHistogramReturned() throws Exception {
+        // Arrange
+        // Act
+        Histogram result = SUT.getLatencyHistogram(ENDPOINT, MetricsSink.Phase.DNS);
+        // Assert
+        assertThat(result.getCount(), is(0L));
+    }
+
+    @Test
+    public void recordResponseSize_sizesRecorded() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordResponseSize(ENDPOINT, 1024);
+        SUT.recordResponseSize(ENDPOINT, 2048);
+        // Assert
+        assertThat(SUT.getResponseSizeHistogram(ENDPOINT).getSum(), is(3072L));
+        assertThat(SUT.getResponseSizeHistogram(OTHER_ENDPOINT).getCount(), is(0L));
+    }
+
+    @Test
+    public void recordCacheLookup_hitsAndMisses_hitRatioComputed() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordCacheLookup(ENDPOINT, true);
+        SUT.recordCacheLookup(ENDPOINT, false);
+        SUT.recordCacheLookup(ENDPOINT, false);
+        SUT.recordCacheLookup(ENDPOINT, true);
+        // Assert
+        assertThat(SUT.getCacheLookupsCount(ENDPOINT), is(4));
+        assertThat(SUT.getCacheHitsCount(ENDPOINT), is(2));
+        assertThat(SUT.getCacheHitRatio(ENDPOINT), is(0.5f));
+    }
+
+    @Test
+    public void getCacheHitRatio_noLookups_zeroReturned() throws Exception {
+        // Arrange
+        // Act
+        float result = SUT.getCacheHitRatio(ENDPOINT);
+        // Assert
+        assertThat(result, is(0f));
+    }
+
+    @Test
+    public void recordError_errorsCountedPerClass() throws Exception {
+        // Arrange
+        // Act
+        SUT.recordError(ENDPOINT, MetricsSink.ErrorClass.TIMEOUT);
+        SUT.recordError(ENDPOINT, MetricsSink.ErrorClass.TIMEOUT);
+        SUT.recordError(ENDPOINT, MetricsSink.ErrorClass.SERVER);
+        // Assert
+        assertThat(SUT.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.TIMEOUT), is(2));
+        assertThat(SUT.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.SERVER), is(1));
+        assertThat(SUT.getErrorsCount(ENDPOINT, MetricsSink.ErrorClass.NETWORK), is(0));
+    }
+
+    @Test
+    public void clear_allMetricsDiscarded() throws Exception {
+        // Arrange
+        SUT.recordLatency(ENDPOINT, MetricsSink.Phase.TOTAL, 100);
+        SUT.recordError(ENDPOINT, MetricsSink.ErrorClass.CLIENT);
+        // Act
+        SUT.clear();
+        // Assert
+        assertThat(SUT.getEndpoints(), is(Collections.<String>emptySet()));
+        assertThat(SUT.getLatencyHistogram(ENDPOINT, MetricsSink.Phase.TOTAL).getCount(), is(0L));
+    }
+}
@@ -0,0 +1,87 @@
+package com.techyourchance.unittesting.networking.metrics;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.networking.StackoverflowApi;
+import com.techyourchance.unittesting.networking.questions.QuestionsListResponseSchema;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MetricsConverterFactoryTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final MediaType JSON = MediaType.parse("application/json");
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private InMemoryMetricsSink mMetricsSink;
+    private Retrofit mRetrofit;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    MetricsConverterFactory SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mMetricsSink = new InMemoryMetricsSink();
+        SUT = new MetricsConverterFactory(
+                GsonConverterFactory.create(), new ApiMetrics(mMetricsSink, new TimeProvider()));
+        mRetrofit = new Retrofit.Builder()
+                .baseUrl("https://example.com/")
+                .addConverterFactory(SUT)
+                .build();
+    }
+
+    @Test
+    public void convert_validBody_parseLatencyRecordedForEndpointOfMethod() throws Exception {
+        // Arrange
+        Converter<ResponseBody, ?> converter = converterOf("fetchQuestionDetails", String.class);
+        // Act
+        Object result = converter.convert(ResponseBody.create(JSON, "{\"items\":[]}"));
+        // Assert
+        assertThat(((QuestionsListResponseSchema) result).getQuestions().size(), is(0));
+        assertThat(parseLatency(ApiMetrics.ENDPOINT_QUESTION_DETAILS).getCount(), is(1L));
+    }
+
+    @Test
+    public void convert_malformedBody_parseErrorRecordedAndFailurePropagated() throws Exception {
+        // Arrange
+        Converter<ResponseBody, ?> converter = converterOf("fetchLastActiveQuestions", Integer.class);
+        // Act
+        try {
+            converter.convert(ResponseBody.create(JSON, "{\"items\":{"));
+            fail("failure should be propagated");
+        } catch (IOException | RuntimeException e) {
+            // expected
+        }
+        // Assert
+        assertThat(mMetricsSink.getErrorsCount(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.ErrorClass.PARSE), is(1));
+        assertThat(parseLatency(ApiMetrics.ENDPOINT_QUESTIONS).getCount(), is(0L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private Converter<ResponseBody, ?> converterOf(String methodName, Class<?> parameterType) throws Exception {
+        Annotation[] annotations = StackoverflowApi.class.getMethod(methodName, parameterType).getAnnotations();
+        return SUT.responseBodyConverter(QuestionsListResponseSchema.class, annotations, mRetrofit);
+    }
+
+    private Histogram parseLatency(String endpoint) {
+        return mMetricsSink.getLatencyHistogram(endpoint, MetricsSink.Phase.PARSE);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
@@ -0,0 +1,348 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.StackoverflowApi;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchingFetchQuestionDetailsEndpointTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long BATCH_WINDOW_MS = 20;
+    private static final int MAX_BATCH_SIZE = 3;
+    private static final QuestionSchema QUESTION_1 = new QuestionSchema("title1", "id1", "body1");
+    private static final QuestionSchema QUESTION_2 = new QuestionSchema("title2", "id2", "body2");
+    private static final QuestionSchema QUESTION_3 = new QuestionSchema("title3", "id3", "body3");
+    private static final QuestionSchema QUESTION_4 = new QuestionSchema("title4", "id4", "body4");
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock StackoverflowApi mStackoverflowApiMock;
+    @Mock ScheduledExecutorService mSchedulerMock;
+    @Mock ScheduledFuture<?> mScheduledFutureMock;
+    @Mock FetchQuestionDetailsEndpoint.Listener mListener1;
+    @Mock FetchQuestionDetailsEndpoint.Listener mListener2;
+    @Mock FetchQuestionDetailsEndpoint.Listener mListener3;
+
+    @Captor ArgumentCaptor<Runnable> mRunnableCaptor;
+
+    private List<CallTd> mCalls = new LinkedList<>();
+    // endregion helper fields ---------------------------------------------------------------------
+
+    BatchingFetchQuestionDetailsEndpoint SUT;
+
+    @Before
+    public void setup() throws Exception {
+        doReturn(mScheduledFutureMock).when(mSchedulerMock)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        SUT = new BatchingFetchQuestionDetailsEndpoint(
+                mStackoverflowApiMock, mSchedulerMock, BATCH_WINDOW_MS, MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void fetchQuestionDetails_withinWindow_singleCallWithAllIds() throws Exception {
+        // Arrange
+        calls();
+        // Act
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        flushScheduledBatch();
+        // Assert
+        verify(mSchedulerMock, times(1)).schedule(any(Runnable.class), eq(BATCH_WINDOW_MS), eq(TimeUnit.MILLISECONDS));
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id1;id2");
+        assertThat(mCalls.size(), is(1));
+    }
+
+    @Test
+    public void fetchQuestionDetails_success_eachListenerNotifiedWithItsQuestion() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        flushScheduledBatch();
+        // Act
+        mCalls.get(0).succeed(QUESTION_2, QUESTION_1);
+        // Assert
+        verify(mListener1).onQuestionDetailsFetched(QUESTION_1);
+        verify(mListener2).onQuestionDetailsFetched(QUESTION_2);
+    }
+
+    @Test
+    public void fetchQuestionDetails_sameIdTwice_idRequestedOnceAndBothListenersNotified() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener2);
+        flushScheduledBatch();
+        // Act
+        mCalls.get(0).succeed(QUESTION_1);
+        // Assert
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id1");
+        verify(mListener1).onQuestionDetailsFetched(QUESTION_1);
+        verify(mListener2).onQuestionDetailsFetched(QUESTION_1);
+    }
+
+    @Test
+    public void fetchQuestionDetails_maxBatchSizeReached_callMadeWithoutWaitingForWindow() throws Exception {
+        // Arrange
+        calls();
+        // Act
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_3.getId(), mListener1);
+        // Assert
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id1;id2;id3");
+    }
+
+    @Test
+    public void fetchQuestionDetails_requestAfterFullBatch_fetchedInNextBatch() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_3.getId(), mListener1);
+        // Act
+        SUT.fetchQuestionDetails(QUESTION_4.getId(), mListener2);
+        flushScheduledBatch();
+        // Assert
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id4");
+        assertThat(mCalls.size(), is(2));
+    }
+
+    @Test
+    public void fetchQuestionDetails_maxBatchSizeReached_scheduledFlushCancelled() throws Exception {
+        // Arrange
+        calls();
+        // Act
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_3.getId(), mListener1);
+        // Assert
+        verify(mScheduledFutureMock).cancel(false);
+    }
+
+    @Test
+    public void fetchQuestionDetails_flushOfFullBatchRunsAfterNextRequest_nextBatchWaitsForItsOwnWindow() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_3.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_4.getId(), mListener2);
+        verify(mSchedulerMock, times(2))
+                .schedule(mRunnableCaptor.capture(), eq(BATCH_WINDOW_MS), eq(TimeUnit.MILLISECONDS));
+        // Act
+        mRunnableCaptor.getAllValues().get(0).run();
+        // Assert
+        assertThat(mCalls.size(), is(1));
+        mRunnableCaptor.getAllValues().get(1).run();
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id4");
+    }
+
+    @Test
+    public void fetchQuestionDetails_idMissingFromResponse_listenerNotifiedOfFailure() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        flushScheduledBatch();
+        // Act
+        mCalls.get(0).succeed(QUESTION_1);
+        // Assert
+        verify(mListener1).onQuestionDetailsFetched(QUESTION_1);
+        verify(mListener2).onQuestionDetailsFetchFailed();
+    }
+
+    @Test
+    public void fetchQuestionDetails_callFailure_allListenersNotifiedOfFailure() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener3);
+        flushScheduledBatch();
+        // Act
+        mCalls.get(0).fail();
+        // Assert
+        verify(mListener1).onQuestionDetailsFetchFailed();
+        verify(mListener2).onQuestionDetailsFetchFailed();
+        verify(mListener3).onQuestionDetailsFetchFailed();
+        verify(mListener1, never()).onQuestionDetailsFetched(any(QuestionSchema.class));
+    }
+
+    @Test
+    public void fetchQuestionDetails_unsuccessfulResponse_allListenersNotifiedOfFailure() throws Exception {
+        // Arrange
+        calls();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        flushScheduledBatch();
+        // Act
+        mCalls.get(0).respondWithError();
+        // Assert
+        verify(mListener1).onQuestionDetailsFetchFailed();
+        verify(mListener2).onQuestionDetailsFetchFailed();
+    }
+
+    @Test
+    public void fetchQuestionDetails_cancelledBeforeBatchFetched_idNotRequestedAndListenerNotifiedOfFailure() throws Exception {
+        // Arrange
+        calls();
+        CancellationToken cancellationToken = new CancellationToken();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), cancellationToken, mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        // Act
+        cancellationToken.cancel();
+        flushScheduledBatch();
+        // Assert
+        verify(mListener1).onQuestionDetailsFetchFailed();
+        verify(mStackoverflowApiMock).fetchQuestionsDetails("id2");
+    }
+
+    @Test
+    public void fetchQuestionDetails_someRequestsInFetchedBatchCancelled_callNotCancelled() throws Exception {
+        // Arrange
+        calls();
+        CancellationToken cancellationToken = new CancellationToken();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), cancellationToken, mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), mListener2);
+        flushScheduledBatch();
+        // Act
+        cancellationToken.cancel();
+        // Assert
+        assertThat(mCalls.get(0).isCanceled(), is(false));
+    }
+
+    @Test
+    public void fetchQuestionDetails_allRequestsInFetchedBatchCancelled_callCancelled() throws Exception {
+        // Arrange
+        calls();
+        CancellationToken cancellationToken1 = new CancellationToken();
+        CancellationToken cancellationToken2 = new CancellationToken();
+        SUT.fetchQuestionDetails(QUESTION_1.getId(), cancellationToken1, mListener1);
+        SUT.fetchQuestionDetails(QUESTION_2.getId(), cancellationToken2, mListener2);
+        flushScheduledBatch();
+        // Act
+        cancellationToken1.cancel();
+        cancellationToken2.cancel();
+        // Assert
+        assertThat(mCalls.get(0).isCanceled(), is(true));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void calls() {
+        when(mStackoverflowApiMock.fetchQuestionsDetails(anyString())).thenAnswer(new Answer<Call<QuestionsListResponseSchema>>() {
+            @Override
+            public Call<QuestionsListResponseSchema> answer(InvocationOnMock invocation) {
+                CallTd call = new CallTd();
+                mCalls.add(call);
+                return call;
+            }
+        });
+    }
+
+    private void flushScheduledBatch() {
+        verify(mSchedulerMock, atLeastOnce())
+                .schedule(mRunnableCaptor.capture(), eq(BATCH_WINDOW_MS), eq(TimeUnit.MILLISECONDS));
+        mRunnableCaptor.getValue().run();
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class CallTd implements Call<QuestionsListResponseSchema> {
+
+        private Callback<QuestionsListResponseSchema> mCallback;
+        private boolean mCanceled;
+
+        public void succeed(QuestionSchema... questions) {
+            mCallback.onResponse(this, Response.success(new QuestionsListResponseSchema(Arrays.asList(questions))));
+        }
+
+        public void respondWithError() {
+            mCallback.onResponse(this, Response.<QuestionsListResponseSchema>error(
+                    500, ResponseBody.create(MediaType.parse("application/json"), "")));
+        }
+
+        public void fail() {
+            mCallback.onFailure(this, new IOException());
+        }
+
+        @Override
+        public Response<QuestionsListResponseSchema> execute() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback<QuestionsListResponseSchema> callback) {
+            mCallback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return mCallback != null;
+        }
+
+        @Override
+        public void cancel() {
+            mCanceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return mCanceled;
+        }
+
+        @Override
+        public Call<QuestionsListResponseSchema> clone() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request request() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,149 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import com.google.gson.Gson;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QuestionsListStreamingParserTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String QUESTION_1_JSON = "{\"title\":\"title1\",\"question_id\":1,\"body\":\"<p>body1</p>\",\"tags\":[\"java\"]}";
+    private static final String QUESTION_2_JSON = "{\"title\":\"title2\",\"question_id\":2,\"body\":\"<p>body2</p>\"}";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private Gson mGson;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    QuestionsListStreamingParser SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mGson = new Gson();
+    }
+
+    @Test
+    public void nextQuestion_questionsInResponse_questionsReturnedInOrder() throws Exception {
+        // Arrange
+        response("{\"items\":[" + QUESTION_1_JSON + "," + QUESTION_2_JSON + "],\"has_more\":true}");
+        // Act
+        QuestionSchema question1 = SUT.nextQuestion();
+        QuestionSchema question2 = SUT.nextQuestion();
+        QuestionSchema question3 = SUT.nextQuestion();
+        // Assert
+        assertThat(question1.getId(), is("1"));
+        assertThat(question1.getTitle(), is("title1"));
+        assertThat(question1.getBody(), is("<p>body1</p>"));
+        assertThat(question2.getId(), is("2"));
+        assertThat(question3, is(nullValue()));
+    }
+
+    @Test
+    public void nextQuestion_itemsPrecededByOtherFields_questionsReturned() throws Exception {
+        // Arrange
+        response("{\"quota_max\":300,\"error\":{\"a\":[1,2]},\"items\":[" + QUESTION_1_JSON + "]}");
+        // Act
+        QuestionSchema question = SUT.nextQuestion();
+        // Assert
+        assertThat(question.getId(), is("1"));
+    }
+
+    @Test
+    public void nextQuestion_emptyItems_nullReturned() throws Exception {
+        // Arrange
+        response("{\"items\":[],\"has_more\":false}");
+        // Act
+        QuestionSchema question = SUT.nextQuestion();
+        // Assert
+        assertThat(question, is(nullValue()));
+    }
+
+    @Test
+    public void nextQuestion_noItems_nullReturned() throws Exception {
+        // Arrange
+        response("{\"error_id\":502,\"error_name\":\"throttle_violation\"}");
+        // Act
+        QuestionSchema question = SUT.nextQuestion();
+        // Assert
+        assertThat(question, is(nullValue()));
+    }
+
+    @Test
+    public void nextQuestion_calledAfterAllQuestionsRead_nullReturned() throws Exception {
+        // Arrange
+        response("{\"items\":[" + QUESTION_1_JSON + "]}");
+        SUT.nextQuestion();
+        SUT.nextQuestion();
+        // Act
+        QuestionSchema question = SUT.nextQuestion();
+        // Assert
+        assertThat(question, is(nullValue()));
+    }
+
+    @Test(expected = IOException.class)
+    public void nextQuestion_truncatedResponse_exceptionThrown() throws Exception {
+        // Arrange
+        response("{\"items\":[" + QUESTION_1_JSON + ",{\"title\":\"tit");
+        SUT.nextQuestion();
+        // Act
+        SUT.nextQuestion();
+        // Assert
+    }
+
+    @Test
+    public void getResponseWrapper_wrapperFieldsFollowItems_availableOnceAllQuestionsRead() throws Exception {
+        // Arrange
+        response("{\"items\":[" + QUESTION_1_JSON + "],\"has_more\":true,\"backoff\":10,"
+                + "\"quota_max\":300,\"quota_remaining\":250}");
+        // Act
+        SUT.nextQuestion();
+        ResponseWrapperSchema wrapperBeforeEnd = SUT.getResponseWrapper();
+        SUT.nextQuestion();
+        ResponseWrapperSchema wrapperAfterEnd = SUT.getResponseWrapper();
+        // Assert
+        assertThat(wrapperBeforeEnd, is(nullValue()));
+        assertThat(wrapperAfterEnd.getBackoffSeconds(), is(10));
+        assertThat(wrapperAfterEnd.getQuotaMax(), is(300));
+        assertThat(wrapperAfterEnd.getQuotaRemaining(), is(250));
+    }
+
+    @Test
+    public void getResponseWrapper_backoffPrecedesItems_backoffReturned() throws Exception {
+        // Arrange
+        response("{\"backoff\":5,\"items\":[" + QUESTION_1_JSON + "]}");
+        // Act
+        SUT.nextQuestion();
+        SUT.nextQuestion();
+        // Assert
+        assertThat(SUT.getResponseWrapper().getBackoffSeconds(), is(5));
+    }
+
+    @Test
+    public void getResponseWrapper_noBackoff_nullBackoffReturned() throws Exception {
+        // Arrange
+        response("{\"items\":[" + QUESTION_1_JSON + "],\"has_more\":false}");
+        // Act
+        SUT.nextQuestion();
+        SUT.nextQuestion();
+        // Assert
+        assertThat(SUT.getResponseWrapper().getBackoffSeconds(), is(nullValue()));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void response(String json) {
+        SUT = new QuestionsListStreamingParser(mGson, new StringReader(json));
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
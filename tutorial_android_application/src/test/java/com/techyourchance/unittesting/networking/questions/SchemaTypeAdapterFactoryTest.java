@@ -0,0 +1,157 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.techyourchance.unittesting.common.StringInterner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SchemaTypeAdapterFactoryTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String QUESTIONS_LIST_JSON = "{" +
+            "\"items\":[" +
+            "{\"tags\":[\"android\"],\"owner\":{\"user_id\":1},\"question_id\":123,\"title\":\"title1\",\"body\":\"<p>body1</p>\"}," +
+            "{\"title\":\"title2\",\"question_id\":\"456\",\"body\":null}" +
+            "]," +
+            "\"has_more\":true,\"quota_max\":300,\"quota_remaining\":299,\"backoff\":10" +
+            "}";
+    private static final String QUESTION_DETAILS_JSON =
+            "{\"quota_remaining\":5,\"items\":[{\"question_id\":789,\"title\":\"title\",\"body\":\"body\"}]}";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private Gson mReflectiveGson;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    Gson SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mReflectiveGson = new Gson();
+        SUT = new GsonBuilder().registerTypeAdapterFactory(new SchemaTypeAdapterFactory()).create();
+    }
+
+    @Test
+    public void create_schemaTypes_adaptersReturned() throws Exception {
+        // Arrange
+        SchemaTypeAdapterFactory factory = new SchemaTypeAdapterFactory();
+        // Act
+        // Assert
+        assertThat(factory.create(SUT, TypeToken.get(QuestionSchema.class)), is(notNullValue()));
+        assertThat(factory.create(SUT, TypeToken.get(QuestionsListResponseSchema.class)), is(notNullValue()));
+        assertThat(factory.create(SUT, TypeToken.get(QuestionDetailsResponseSchema.class)), is(notNullValue()));
+    }
+
+    @Test
+    public void create_otherType_nullReturned() throws Exception {
+        // Arrange
+        SchemaTypeAdapterFactory factory = new SchemaTypeAdapterFactory();
+        // Act
+        // Assert
+        assertThat(factory.create(SUT, TypeToken.get(String.class)), is(nullValue()));
+    }
+
+    @Test
+    public void fromJson_questionsList_sameAsReflective() throws Exception {
+        // Arrange
+        // Act
+        QuestionsListResponseSchema result = SUT.fromJson(QUESTIONS_LIST_JSON, QuestionsListResponseSchema.class);
+        // Assert
+        assertSame(result, mReflectiveGson.fromJson(QUESTIONS_LIST_JSON, QuestionsListResponseSchema.class));
+        assertThat(result.getQuestions().get(0).getId(), is("123"));
+        assertThat(result.getQuestions().get(1).getBody(), is(nullValue()));
+        assertThat(result.hasMore(), is(true));
+        assertThat(result.getBackoffSeconds(), is(10));
+    }
+
+    @Test
+    public void fromJson_questionDetails_sameAsReflective() throws Exception {
+        // Arrange
+        // Act
+        QuestionDetailsResponseSchema result = SUT.fromJson(QUESTION_DETAILS_JSON, QuestionDetailsResponseSchema.class);
+        // Assert
+        QuestionDetailsResponseSchema expected =
+                mReflectiveGson.fromJson(QUESTION_DETAILS_JSON, QuestionDetailsResponseSchema.class);
+        assertSame(result.getQuestion(), expected.getQuestion());
+        assertThat(result.getQuotaRemaining(), is(expected.getQuotaRemaining()));
+        assertThat(result.getQuotaMax(), is(nullValue()));
+        assertThat(result.getBackoffSeconds(), is(nullValue()));
+    }
+
+    @Test
+    public void fromJson_missingFields_nullOrDefault() throws Exception {
+        // Arrange
+        // Act
+        QuestionsListResponseSchema result = SUT.fromJson("{}", QuestionsListResponseSchema.class);
+        // Assert
+        assertThat(result.getQuestions(), is(nullValue()));
+        assertThat(result.hasMore(), is(false));
+        assertThat(result.getQuotaRemaining(), is(nullValue()));
+    }
+
+    @Test
+    public void toJson_questionsList_readBackByReflectiveAdapter() throws Exception {
+        // Arrange
+        QuestionsListResponseSchema schema = new QuestionsListResponseSchema(
+                Arrays.asList(new QuestionSchema("title", "1", "body")), true, null, 10, 20);
+        // Act
+        String json = SUT.toJson(schema);
+        // Assert
+        assertSame(mReflectiveGson.fromJson(json, QuestionsListResponseSchema.class), schema);
+        assertThat(json.contains("backoff"), is(false));
+    }
+
+    @Test
+    public void fromJson_titleInterner_equalTitlesSharedBetweenResponses() throws Exception {
+        // Arrange
+        SUT = new GsonBuilder().registerTypeAdapterFactory(new SchemaTypeAdapterFactory(new StringInterner())).create();
+        QuestionsListResponseSchema questionsList = SUT.fromJson(QUESTIONS_LIST_JSON, QuestionsListResponseSchema.class);
+        // Act
+        QuestionDetailsResponseSchema questionDetails = SUT.fromJson(
+                "{\"items\":[{\"question_id\":123,\"title\":\"title1\"}]}", QuestionDetailsResponseSchema.class);
+        // Assert
+        assertThat(questionDetails.getQuestion().getTitle(), sameInstance(questionsList.getQuestions().get(0).getTitle()));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void fromJson_wrongFieldType_syntaxExceptionThrown() throws Exception {
+        // Arrange
+        // Act
+        SUT.fromJson("{\"items\":{}}", QuestionsListResponseSchema.class);
+        // Assert
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void assertSame(QuestionsListResponseSchema actual, QuestionsListResponseSchema expected) {
+        assertThat(actual.getQuestions().size(), is(expected.getQuestions().size()));
+        for (int i = 0; i < actual.getQuestions().size(); i++) {
+            assertSame(actual.getQuestions().get(i), expected.getQuestions().get(i));
+        }
+        assertThat(actual.hasMore(), is(expected.hasMore()));
+        assertThat(actual.getBackoffSeconds(), is(expected.getBackoffSeconds()));
+        assertThat(actual.getQuotaRemaining(), is(expected.getQuotaRemaining()));
+        assertThat(actual.getQuotaMax(), is(expected.getQuotaMax()));
+    }
+
+    private void assertSame(QuestionSchema actual, QuestionSchema expected) {
+        assertThat(actual.getId(), is(expected.getId()));
+        assertThat(actual.getTitle(), is(expected.getTitle()));
+        assertThat(actual.getBody(), is(expected.getBody()));
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
@@ -0,0 +1,312 @@
+package com.techyourchance.unittesting.networking.questions;
+
+import com.google.gson.Gson;
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.ResponseWrapperListener;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+import com.techyourchance.unittesting.networking.StackoverflowApi;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingFetchLastActiveQuestionsEndpointTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String RESPONSE_JSON = "{\"items\":["
+            + "{\"title\":\"title1\",\"question_id\":\"id1\",\"body\":\"body1\"},"
+            + "{\"title\":\"title2\",\"question_id\":\"id2\",\"body\":\"body2\"}"
+            + "]}";
+    private static final MediaType JSON = MediaType.parse("application/json");
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock StackoverflowApi mStackoverflowApiMock;
+    @Mock FetchLastActiveQuestionsEndpoint.Listener mListenerMock;
+    @Mock FetchLastActiveQuestionsEndpoint.StreamingListener mStreamingListenerMock;
+    @Mock ResponseWrapperListener mResponseWrapperListenerMock;
+
+    @Captor ArgumentCaptor<List<QuestionSchema>> mQuestionsCaptor;
+    @Captor ArgumentCaptor<QuestionSchema> mQuestionCaptor;
+    @Captor ArgumentCaptor<ResponseWrapperSchema> mResponseWrapperCaptor;
+
+    private ExecutorTd mBackgroundExecutorTd;
+    private ExecutorTd mCallbackExecutorTd;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    StreamingFetchLastActiveQuestionsEndpoint SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mBackgroundExecutorTd = new ExecutorTd();
+        mCallbackExecutorTd = new ExecutorTd();
+        SUT = new StreamingFetchLastActiveQuestionsEndpoint(
+                mStackoverflowApiMock, new Gson(), mBackgroundExecutorTd, mCallbackExecutorTd);
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_success_questionsDeliveredInOrderAndThenCompletion() throws Exception {
+        // Arrange
+        success();
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        InOrder inOrder = inOrder(mStreamingListenerMock);
+        inOrder.verify(mStreamingListenerMock, times(2)).onQuestionFetched(mQuestionCaptor.capture());
+        inOrder.verify(mStreamingListenerMock).onQuestionsFetchCompleted();
+        assertThat(mQuestionCaptor.getAllValues().get(0).getId(), is("id1"));
+        assertThat(mQuestionCaptor.getAllValues().get(1).getId(), is("id2"));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_success_listenerNotifiedOnCallbackExecutor() throws Exception {
+        // Arrange
+        success();
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        assertThat(mBackgroundExecutorTd.mExecutedCount, is(1));
+        assertThat(mCallbackExecutorTd.mExecutedCount, is(3));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_malformedResponse_questionsBeforeErrorDeliveredAndThenFailure() throws Exception {
+        // Arrange
+        response(Response.success(ResponseBody.create(JSON, RESPONSE_JSON.substring(0, 80))));
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        InOrder inOrder = inOrder(mStreamingListenerMock);
+        inOrder.verify(mStreamingListenerMock).onQuestionFetched(any(QuestionSchema.class));
+        inOrder.verify(mStreamingListenerMock).onQuestionsFetchFailed();
+        verify(mStreamingListenerMock, never()).onQuestionsFetchCompleted();
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_errorResponse_failureNotified() throws Exception {
+        // Arrange
+        response(Response.<ResponseBody>error(400, ResponseBody.create(JSON, "{}")));
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        verify(mStreamingListenerMock).onQuestionsFetchFailed();
+        verify(mStreamingListenerMock, never()).onQuestionFetched(any(QuestionSchema.class));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_networkError_failureNotified() throws Exception {
+        // Arrange
+        networkError();
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        verify(mStreamingListenerMock).onQuestionsFetchFailed();
+    }
+
+    @Test
+    public void fetchLastActiveQuestions_success_allQuestionsDeliveredOnceOnCallbackExecutor() throws Exception {
+        // Arrange
+        success();
+        // Act
+        SUT.fetchLastActiveQuestions(mListenerMock);
+        // Assert
+        verify(mListenerMock).onQuestionsFetched(mQuestionsCaptor.capture());
+        assertThat(mQuestionsCaptor.getValue().size(), is(2));
+        assertThat(mQuestionsCaptor.getValue().get(1).getTitle(), is("title2"));
+        assertThat(mCallbackExecutorTd.mExecutedCount, is(1));
+    }
+
+    @Test
+    public void fetchLastActiveQuestions_networkError_failureNotified() throws Exception {
+        // Arrange
+        networkError();
+        // Act
+        SUT.fetchLastActiveQuestions(mListenerMock);
+        // Assert
+        verify(mListenerMock).onQuestionsFetchFailed();
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_cancelled_noQuestionsDeliveredAndListenerNotifiedOfFailure() throws Exception {
+        // Arrange
+        success();
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock, cancellationToken);
+        // Assert
+        verify(mStreamingListenerMock, never()).onQuestionFetched(any(QuestionSchema.class));
+        verify(mStreamingListenerMock).onQuestionsFetchFailed();
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_success_responseWrapperReported() throws Exception {
+        // Arrange
+        SUT = new StreamingFetchLastActiveQuestionsEndpoint(
+                mStackoverflowApiMock,
+                new Gson(),
+                mBackgroundExecutorTd,
+                mCallbackExecutorTd,
+                Collections.singletonList(mResponseWrapperListenerMock),
+                ApiMetrics.disabled()
+        );
+        response(Response.success(ResponseBody.create(JSON, "{\"items\":[],\"backoff\":10,\"quota_remaining\":42}")));
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        verify(mResponseWrapperListenerMock).onResponseWrapperReceived(mResponseWrapperCaptor.capture());
+        assertThat(mResponseWrapperCaptor.getValue().getBackoffSeconds(), is(10));
+        assertThat(mResponseWrapperCaptor.getValue().getQuotaRemaining(), is(42));
+        verify(mStreamingListenerMock).onQuestionsFetchCompleted();
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_success_parseLatencyRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = instrumented();
+        success();
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        assertThat(metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.PARSE).getCount(), is(1L));
+        assertThat(metricsSink.getErrorsCount(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.ErrorClass.PARSE), is(0));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsStreaming_malformedResponse_parseErrorRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = instrumented();
+        response(Response.success(ResponseBody.create(JSON, "{\"items\":[{\"title\":[]}]}")));
+        // Act
+        SUT.fetchLastActiveQuestions(mStreamingListenerMock);
+        // Assert
+        assertThat(metricsSink.getErrorsCount(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.ErrorClass.PARSE), is(1));
+        assertThat(metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.PARSE).getCount(), is(0L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private InMemoryMetricsSink instrumented() {
+        InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        SUT = new StreamingFetchLastActiveQuestionsEndpoint(
+                mStackoverflowApiMock,
+                new Gson(),
+                mBackgroundExecutorTd,
+                mCallbackExecutorTd,
+                Collections.<ResponseWrapperListener>emptyList(),
+                new ApiMetrics(metricsSink, new TimeProvider())
+        );
+        return metricsSink;
+    }
+
+    private void success() {
+        response(Response.success(ResponseBody.create(JSON, RESPONSE_JSON)));
+    }
+
+    private void networkError() {
+        response(null);
+    }
+
+    private void response(Response<ResponseBody> response) {
+        when(mStackoverflowApiMock.fetchLastActiveQuestionsStreaming(anyInt())).thenReturn(new CallTd(response));
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class ExecutorTd implements Executor {
+
+        private int mExecutedCount;
+
+        @Override
+        public void execute(Runnable command) {
+            mExecutedCount++;
+            command.run();
+        }
+    }
+
+    private static class CallTd implements Call<ResponseBody> {
+
+        private final Response<ResponseBody> mResponse;
+
+        /**
+         * @param response null in order to simulate network error
+         */
+        public CallTd(Response<ResponseBody> response) {
+            mResponse = response;
+        }
+
+        @Override
+        public Response<ResponseBody> execute() throws IOException {
+            if (mResponse == null) {
+                throw new IOException();
+            }
+            return mResponse;
+        }
+
+        @Override
+        public void enqueue(Callback<ResponseBody> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public Call<ResponseBody> clone() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request request() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
@@ -0,0 +1,108 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RateLimitingInterceptorTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final Request REQUEST = new Request.Builder().url("https://example.com/questions").build();
+    private static final int CAPACITY = 1;
+    private static final double REFILL_PER_SECOND = 2;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock Interceptor.Chain mChainMock;
+
+    private TimeProviderTd mTimeProviderTd;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    RateLimitingInterceptor SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mTimeProviderTd = new TimeProviderTd();
+        SUT = new RateLimitingInterceptor(
+                mTimeProviderTd, new TokenBucket(mTimeProviderTd, CAPACITY, REFILL_PER_SECOND));
+        when(mChainMock.proceed(any(Request.class))).thenReturn(new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("")
+                .build());
+    }
+
+    @Test
+    public void intercept_tokenAvailable_proceededWithoutDelay() throws Exception {
+        // Arrange
+        when(mChainMock.request()).thenReturn(REQUEST);
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        assertThat(mTimeProviderTd.mTotalSleepMs, is(0L));
+        assertThat(SUT.getThrottledRequestsCount(), is(0));
+    }
+
+    @Test
+    public void intercept_noTokenAvailable_delayedUntilTokenRefilled() throws Exception {
+        // Arrange
+        when(mChainMock.request()).thenReturn(REQUEST);
+        SUT.intercept(mChainMock);
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        assertThat(mTimeProviderTd.mTotalSleepMs, is(500L));
+        assertThat(SUT.getThrottledRequestsCount(), is(1));
+        assertThat(SUT.getTotalThrottlingDelayMs(), is(500L));
+    }
+
+    @Test
+    public void intercept_cacheOnlyRequest_noTokenTaken() throws Exception {
+        // Arrange
+        when(mChainMock.request()).thenReturn(REQUEST.newBuilder().cacheControl(CacheControl.FORCE_CACHE).build());
+        // Act
+        SUT.intercept(mChainMock);
+        SUT.intercept(mChainMock);
+        // Assert
+        assertThat(mTimeProviderTd.mTotalSleepMs, is(0L));
+    }
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class TimeProviderTd extends TimeProvider {
+
+        private long mTimestamp = 1000;
+        private long mTotalSleepMs;
+
+        @Override
+        public long getCurrentTimestamp() {
+            return mTimestamp;
+        }
+
+        @Override
+        public void sleep(long durationMs) {
+            mTotalSleepMs += durationMs;
+            mTimestamp += durationMs;
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
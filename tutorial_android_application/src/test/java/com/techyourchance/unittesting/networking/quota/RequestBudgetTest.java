@@ -0,0 +1,86 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.networking.ResponseWrapperSchema;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestBudgetTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int CAPACITY = 4;
+    private static final int FOREGROUND_RESERVED_TOKENS = 2;
+    private static final int BACKGROUND_MIN_QUOTA_REMAINING = 100;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock TimeProvider mTimeProviderMock;
+
+    private TokenBucket mTokenBucket;
+    private ApiQuota mApiQuota;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    RequestBudget SUT;
+
+    @Before
+    public void setup() throws Exception {
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(1000L);
+        mTokenBucket = new TokenBucket(mTimeProviderMock, CAPACITY, 1);
+        mApiQuota = new ApiQuota();
+        SUT = new RequestBudget(mTokenBucket, mApiQuota, FOREGROUND_RESERVED_TOKENS, BACKGROUND_MIN_QUOTA_REMAINING);
+    }
+
+    @Test
+    public void hasBackgroundBudget_tokensAboveReserveAndQuotaUnknown_true() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.hasBackgroundBudget();
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void hasBackgroundBudget_onlyReservedTokensLeft_false() throws Exception {
+        // Arrange
+        mTokenBucket.tryAcquire();
+        mTokenBucket.tryAcquire();
+        // Act
+        boolean result = SUT.hasBackgroundBudget();
+        // Assert
+        assertThat(result, is(false));
+        assertThat(SUT.getBackgroundRequestsDeniedCount(), is(1L));
+    }
+
+    @Test
+    public void hasBackgroundBudget_quotaBelowMinimum_false() throws Exception {
+        // Arrange
+        mApiQuota.onResponseWrapperReceived(new ResponseWrapperSchema(null, BACKGROUND_MIN_QUOTA_REMAINING - 1, 10000));
+        // Act
+        boolean result = SUT.hasBackgroundBudget();
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void getQuotaRemaining_reportedByResponses_latestValueReturned() throws Exception {
+        // Arrange
+        mApiQuota.onResponseWrapperReceived(new ResponseWrapperSchema(null, 500, 10000));
+        mApiQuota.onResponseWrapperReceived(new ResponseWrapperSchema(null, 499, null));
+        // Act
+        int quotaRemaining = SUT.getQuotaRemaining();
+        int quotaMax = SUT.getQuotaMax();
+        // Assert
+        assertThat(quotaRemaining, is(499));
+        assertThat(quotaMax, is(10000));
+    }
+
+}
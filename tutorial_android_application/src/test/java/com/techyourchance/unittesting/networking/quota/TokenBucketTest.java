@@ -0,0 +1,89 @@
+package com.techyourchance.unittesting.networking.quota;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TokenBucketTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int CAPACITY = 2;
+    private static final double REFILL_PER_SECOND = 4;
+    private static final long TIMESTAMP = 1000;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock TimeProvider mTimeProviderMock;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    TokenBucket SUT;
+
+    @Before
+    public void setup() throws Exception {
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP);
+        SUT = new TokenBucket(mTimeProviderMock, CAPACITY, REFILL_PER_SECOND);
+    }
+
+    @Test
+    public void tryAcquire_withinCapacity_acquired() throws Exception {
+        // Arrange
+        // Act
+        long result1 = SUT.tryAcquire();
+        long result2 = SUT.tryAcquire();
+        // Assert
+        assertThat(result1, is(0L));
+        assertThat(result2, is(0L));
+    }
+
+    @Test
+    public void tryAcquire_bucketEmpty_delayUntilNextTokenReturned() throws Exception {
+        // Arrange
+        SUT.tryAcquire();
+        SUT.tryAcquire();
+        // Act
+        long result = SUT.tryAcquire();
+        // Assert
+        assertThat(result, is(250L));
+    }
+
+    @Test
+    public void tryAcquire_timePassed_tokensRefilled() throws Exception {
+        // Arrange
+        SUT.tryAcquire();
+        SUT.tryAcquire();
+        timePassed(250);
+        // Act
+        long result = SUT.tryAcquire();
+        // Assert
+        assertThat(result, is(0L));
+    }
+
+    @Test
+    public void getAvailableTokens_longTimePassed_cappedAtCapacity() throws Exception {
+        // Arrange
+        SUT.tryAcquire();
+        timePassed(60000);
+        // Act
+        double result = SUT.getAvailableTokens();
+        // Assert
+        assertThat(result, is((double) CAPACITY));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void timePassed(long durationMs) {
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP + durationMs);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
@@ -0,0 +1,140 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CircuitBreakerTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int FAILURE_THRESHOLD = 2;
+    private static final long OPEN_PERIOD_MS = 10000;
+    private static final long TIMESTAMP = 1000;
+    private static final long LONG_OPEN_PERIOD_MS = 3 * OPEN_PERIOD_MS;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock TimeProvider mTimeProviderMock;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    CircuitBreaker SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new CircuitBreaker(mTimeProviderMock, FAILURE_THRESHOLD, OPEN_PERIOD_MS);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP);
+    }
+
+    @Test
+    public void allowRequest_failuresBelowThreshold_allowed() throws Exception {
+        // Arrange
+        SUT.onFailure();
+        // Act
+        boolean result = SUT.allowRequest();
+        // Assert
+        assertThat(result, is(true));
+        assertThat(SUT.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void allowRequest_consecutiveFailuresReachedThreshold_notAllowed() throws Exception {
+        // Arrange
+        SUT.onFailure();
+        SUT.onFailure();
+        // Act
+        boolean result = SUT.allowRequest();
+        // Assert
+        assertThat(result, is(false));
+        assertThat(SUT.getState(), is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void allowRequest_successBetweenFailures_allowed() throws Exception {
+        // Arrange
+        SUT.onFailure();
+        SUT.onSuccess();
+        SUT.onFailure();
+        // Act
+        boolean result = SUT.allowRequest();
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void allowRequest_openPeriodPassed_singleProbeAllowed() throws Exception {
+        // Arrange
+        open();
+        openPeriodPassed();
+        // Act
+        boolean result1 = SUT.allowRequest();
+        boolean result2 = SUT.allowRequest();
+        // Assert
+        assertThat(result1, is(true));
+        assertThat(result2, is(false));
+        assertThat(SUT.getState(), is(CircuitBreaker.State.HALF_OPEN));
+    }
+
+    @Test
+    public void allowRequest_probeFailed_openedAgain() throws Exception {
+        // Arrange
+        open();
+        openPeriodPassed();
+        SUT.allowRequest();
+        // Act
+        SUT.onFailure();
+        // Assert
+        assertThat(SUT.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(SUT.allowRequest(), is(false));
+    }
+
+    @Test
+    public void allowRequest_probeSucceeded_closed() throws Exception {
+        // Arrange
+        open();
+        openPeriodPassed();
+        SUT.allowRequest();
+        // Act
+        SUT.onSuccess();
+        // Assert
+        assertThat(SUT.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(SUT.allowRequest(), is(true));
+    }
+
+    @Test
+    public void allowRequest_openedForLongerPeriodThenFailed_notAllowedUntilLongerPeriodPasses() throws Exception {
+        // Arrange
+        SUT.openFor(LONG_OPEN_PERIOD_MS);
+        SUT.onFailure();
+        openPeriodPassed();
+        // Act
+        boolean result = SUT.allowRequest();
+        // Assert
+        assertThat(result, is(false));
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP + LONG_OPEN_PERIOD_MS);
+        assertThat(SUT.allowRequest(), is(true));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void open() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            SUT.onFailure();
+        }
+    }
+
+    private void openPeriodPassed() {
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP + OPEN_PERIOD_MS);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
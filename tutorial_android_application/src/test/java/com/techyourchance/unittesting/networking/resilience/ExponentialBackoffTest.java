@@ -0,0 +1,78 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ExponentialBackoffTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long INITIAL_DELAY_MS = 100;
+    private static final long MAX_DELAY_MS = 1000;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    private RandomTd mRandomTd;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    ExponentialBackoff SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mRandomTd = new RandomTd();
+        SUT = new ExponentialBackoff(INITIAL_DELAY_MS, MAX_DELAY_MS, mRandomTd);
+    }
+
+    @Test
+    public void getDelayMs_consecutiveRetries_delayDoubled() throws Exception {
+        // Arrange
+        mRandomTd.mNextDouble = 1;
+        // Act
+        long delay0 = SUT.getDelayMs(0);
+        long delay1 = SUT.getDelayMs(1);
+        long delay2 = SUT.getDelayMs(2);
+        // Assert
+        assertThat(delay0, is(100L));
+        assertThat(delay1, is(200L));
+        assertThat(delay2, is(400L));
+    }
+
+    @Test
+    public void getDelayMs_manyRetries_delayCapped() throws Exception {
+        // Arrange
+        mRandomTd.mNextDouble = 1;
+        // Act
+        long result = SUT.getDelayMs(100);
+        // Assert
+        assertThat(result, is(MAX_DELAY_MS));
+    }
+
+    @Test
+    public void getDelayMs_jitter_delayScaledByRandomFraction() throws Exception {
+        // Arrange
+        mRandomTd.mNextDouble = 0.25;
+        // Act
+        long result = SUT.getDelayMs(2);
+        // Assert
+        assertThat(result, is(100L));
+    }
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class RandomTd extends Random {
+
+        private double mNextDouble;
+
+        @Override
+        public double nextDouble() {
+            return mNextDouble;
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
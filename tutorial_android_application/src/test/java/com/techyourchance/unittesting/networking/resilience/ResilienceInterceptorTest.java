@@ -0,0 +1,328 @@
+package com.techyourchance.unittesting.networking.resilience;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResilienceInterceptorTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final Request REQUEST = new Request.Builder().url("https://example.com/questions").build();
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_DELAY_MS = 500;
+    private static final long MAX_DELAY_MS = 8000;
+    private static final double JITTER = 0.5;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_PERIOD_MS = 30000;
+    private static final String THROTTLE_VIOLATION_BODY = "{\"error_id\":502,"
+            + "\"error_message\":\"too many requests from this IP, more requests available in 82753 seconds\","
+            + "\"error_name\":\"throttle_violation\"}";
+    private static final long THROTTLE_PERIOD_MS = 82753 * 1000L;
+    private static final String THROTTLE_VIOLATION_WITHOUT_PERIOD_BODY =
+            "{\"error_id\":502,\"error_message\":\"too many requests\",\"error_name\":\"throttle_violation\"}";
+    private static final String BAD_PARAMETER_BODY =
+            "{\"error_id\":400,\"error_message\":\"ids\",\"error_name\":\"bad_parameter\"}";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock Interceptor.Chain mChainMock;
+    @Mock Call mCallMock;
+
+    @Captor ArgumentCaptor<Request> mRequestCaptor;
+
+    private TimeProviderTd mTimeProviderTd;
+    private CircuitBreaker mCircuitBreaker;
+    private ServerBackoff mServerBackoff;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    ResilienceInterceptor SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mTimeProviderTd = new TimeProviderTd();
+        mCircuitBreaker = new CircuitBreaker(mTimeProviderTd, FAILURE_THRESHOLD, OPEN_PERIOD_MS);
+        mServerBackoff = new ServerBackoff(mTimeProviderTd);
+        SUT = new ResilienceInterceptor(
+                mTimeProviderTd,
+                mCircuitBreaker,
+                new ExponentialBackoff(INITIAL_DELAY_MS, MAX_DELAY_MS, new RandomTd()),
+                mServerBackoff,
+                MAX_ATTEMPTS
+        );
+        when(mChainMock.request()).thenReturn(REQUEST);
+    }
+
+    @Test
+    public void intercept_success_responseReturnedWithoutRetries() throws Exception {
+        // Arrange
+        respondWith(200);
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(200));
+        verify(mChainMock, times(1)).proceed(REQUEST);
+        assertThat(SUT.getRetriesCount(), is(0));
+    }
+
+    @Test
+    public void intercept_serverErrorThenSuccess_retriedAfterBackoffAndSuccessReturned() throws Exception {
+        // Arrange
+        respondWith(500, 200);
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(200));
+        assertThat(mTimeProviderTd.mSleeps, is(Arrays.asList(250L)));
+        assertThat(SUT.getRetriesCount(), is(1));
+    }
+
+    @Test
+    public void intercept_persistentServerError_attemptsBoundedWithGrowingBackoff() throws Exception {
+        // Arrange
+        respondWith(503);
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(503));
+        verify(mChainMock, times(MAX_ATTEMPTS)).proceed(REQUEST);
+        assertThat(mTimeProviderTd.mSleeps, is(Arrays.asList(250L, 500L)));
+    }
+
+    @Test
+    public void intercept_networkErrorThenSuccess_retried() throws Exception {
+        // Arrange
+        when(mChainMock.call()).thenReturn(mCallMock);
+        when(mChainMock.proceed(any(Request.class)))
+                .thenThrow(new IOException())
+                .thenReturn(response(200));
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(200));
+        assertThat(SUT.getRetriesCount(), is(1));
+    }
+
+    @Test
+    public void intercept_callCancelled_notRetried() throws Exception {
+        // Arrange
+        when(mChainMock.call()).thenReturn(mCallMock);
+        when(mCallMock.isCanceled()).thenReturn(true);
+        when(mChainMock.proceed(any(Request.class))).thenThrow(new IOException("Socket closed"));
+        // Act
+        try {
+            SUT.intercept(mChainMock);
+            fail("exception expected");
+        } catch (IOException e) {
+            // expected
+        }
+        // Assert
+        verify(mChainMock, times(1)).proceed(REQUEST);
+        assertThat(mCircuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void intercept_clientError_notRetried() throws Exception {
+        // Arrange
+        respondWith(404);
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(404));
+        verify(mChainMock, times(1)).proceed(REQUEST);
+    }
+
+    @Test
+    public void intercept_throttleViolation_singleAttemptMadeAndResponseReturned() throws Exception {
+        // Arrange
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response(400, THROTTLE_VIOLATION_BODY));
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(400));
+        assertThat(result.body().string(), is(THROTTLE_VIOLATION_BODY));
+        verify(mChainMock, times(1)).proceed(REQUEST);
+        assertThat(SUT.getRetriesCount(), is(0));
+        assertThat(mTimeProviderTd.mSleeps.isEmpty(), is(true));
+    }
+
+    @Test
+    public void intercept_throttleViolation_circuitOpenedForStatedPeriod() throws Exception {
+        // Arrange
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response(400, THROTTLE_VIOLATION_BODY));
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        mTimeProviderTd.mTimestamp += THROTTLE_PERIOD_MS - 1;
+        assertThat(mCircuitBreaker.allowRequest(), is(false));
+        mTimeProviderTd.mTimestamp += 1;
+        assertThat(mCircuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    public void intercept_throttleViolationWithoutPeriod_circuitOpenedForDefaultPeriod() throws Exception {
+        // Arrange
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response(400, THROTTLE_VIOLATION_WITHOUT_PERIOD_BODY));
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        verify(mChainMock, times(1)).proceed(REQUEST);
+        assertThat(mCircuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+        mTimeProviderTd.mTimestamp += OPEN_PERIOD_MS;
+        assertThat(mCircuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    public void intercept_otherBadRequestError_notRetried() throws Exception {
+        // Arrange
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response(400, BAD_PARAMETER_BODY));
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(400));
+        verify(mChainMock, times(1)).proceed(REQUEST);
+        assertThat(mCircuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void intercept_tooManyRequestsWithRetryAfter_retryDelayedByRetryAfter() throws Exception {
+        // Arrange
+        when(mChainMock.proceed(any(Request.class)))
+                .thenReturn(response(429).newBuilder().header("Retry-After", "3").build())
+                .thenReturn(response(200));
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(200));
+        assertThat(mTimeProviderTd.getTotalSleepMs(), is(3000L));
+    }
+
+    @Test
+    public void intercept_serverBackoffInEffect_requestDelayedUntilBackoffPasses() throws Exception {
+        // Arrange
+        respondWith(200);
+        mServerBackoff.backOff(2);
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        assertThat(mTimeProviderTd.mSleeps, is(Arrays.asList(2000L)));
+    }
+
+    @Test
+    public void intercept_circuitOpen_requestServedFromCacheOnly() throws Exception {
+        // Arrange
+        respondWith(500);
+        SUT.intercept(mChainMock);
+        // Act
+        SUT.intercept(mChainMock);
+        // Assert
+        verify(mChainMock, times(MAX_ATTEMPTS + 1)).proceed(mRequestCaptor.capture());
+        assertThat(mRequestCaptor.getValue().cacheControl().onlyIfCached(), is(true));
+        assertThat(SUT.getShortCircuitedCount(), is(1));
+    }
+
+    @Test
+    public void intercept_circuitOpenPeriodPassed_probeSentToNetworkAndCircuitClosedOnSuccess() throws Exception {
+        // Arrange
+        respondWith(500, 500, 500, 200);
+        SUT.intercept(mChainMock);
+        mTimeProviderTd.mTimestamp += OPEN_PERIOD_MS;
+        // Act
+        Response result = SUT.intercept(mChainMock);
+        // Assert
+        assertThat(result.code(), is(200));
+        verify(mChainMock, times(MAX_ATTEMPTS + 1)).proceed(REQUEST);
+        assertThat(mCircuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void respondWith(int code, int... followingCodes) throws Exception {
+        Response[] followingResponses = new Response[followingCodes.length];
+        for (int i = 0; i < followingCodes.length; i++) {
+            followingResponses[i] = response(followingCodes[i]);
+        }
+        when(mChainMock.proceed(any(Request.class))).thenReturn(response(code), followingResponses);
+    }
+
+    private Response response(int code) {
+        return response(code, "");
+    }
+
+    private Response response(int code, String body) {
+        return new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(MediaType.parse("application/json"), body))
+                .build();
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class TimeProviderTd extends TimeProvider {
+
+        private long mTimestamp = 1000;
+        private final List<Long> mSleeps = new ArrayList<>();
+
+        @Override
+        public long getCurrentTimestamp() {
+            return mTimestamp;
+        }
+
+        @Override
+        public void sleep(long durationMs) {
+            mSleeps.add(durationMs);
+            mTimestamp += durationMs;
+        }
+
+        private long getTotalSleepMs() {
+            long totalSleepMs = 0;
+            for (long sleepMs : mSleeps) {
+                totalSleepMs += sleepMs;
+            }
+            return totalSleepMs;
+        }
+    }
+
+    private static class RandomTd extends Random {
+        @Override
+        public double nextDouble() {
+            return JITTER;
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
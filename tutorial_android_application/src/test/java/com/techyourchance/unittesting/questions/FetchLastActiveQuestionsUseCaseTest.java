@@ -1,7 +1,18 @@
 package com.techyourchance.unittesting.questions;
 
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.common.usecases.OutstandingRequests;
+import com.techyourchance.unittesting.common.usecases.SynchronousExecutor;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.Histogram;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
 import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
 import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+import com.techyourchance.unittesting.questions.storage.QuestionsStore;
 import com.techyourchance.unittesting.testdata.QuestionsTestData;
 
 import org.junit.Before;
@@ -9,32 +20,51 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FetchLastActiveQuestionsUseCaseTest {
 
     // region constants ----------------------------------------------------------------------------
     private static final List<Question> QUESTIONS = QuestionsTestData.getQuestions();
+    private static final List<Question> STORED_QUESTIONS = QuestionsTestData.getStoredQuestions();
+    private static final long TIMESTAMP = 1000;
     // endregion constants -------------------------------------------------------------------------
 
     // region helper fields ------------------------------------------------------------------------
     private EndpointTd mEndpointTd;
+    private ExecutorTd mMainThreadExecutorTd;
     @Mock FetchLastActiveQuestionsUseCase.Listener mListener1;
     @Mock FetchLastActiveQuestionsUseCase.Listener mListener2;
+    @Mock QuestionsStore mQuestionsStoreMock;
+    @Mock TimeProvider mTimeProviderMock;
+    @Mock QuestionDetailsCache mQuestionDetailsCacheMock;
+    @Mock ScheduledExecutorService mSchedulerMock;
 
     @Captor ArgumentCaptor<List<Question>> mQuestionsCaptor;
+    @Captor ArgumentCaptor<Runnable> mRunnableCaptor;
     // endregion helper fields ---------------------------------------------------------------------
 
     FetchLastActiveQuestionsUseCase SUT;
@@ -54,8 +84,8 @@ public class FetchLastActiveQuestionsUseCaseTest {
         // Act
         SUT.fetchLastActiveQuestionsAndNotify();
         // Assert
-        verify(mListener1).onLastActiveQuestionsFetched(mQuestionsCaptor.capture());
-        verify(mListener2).onLastActiveQuestionsFetched(mQuestionsCaptor.capture());
+        verify(mListener1).onLastActiveQuestionsFetched(mQuestionsCaptor.capture(), anyLong());
+        verify(mListener2).onLastActiveQuestionsFetched(mQuestionsCaptor.capture(), anyLong());
         List<List<Question>> questionLists = mQuestionsCaptor.getAllValues();
         assertThat(questionLists.get(0), is(QUESTIONS));
         assertThat(questionLists.get(1), is(QUESTIONS));
@@ -74,6 +104,184 @@ public class FetchLastActiveQuestionsUseCaseTest {
         verify(mListener2).onLastActiveQuestionsFetchFailed();
     }
 
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_storedQuestionsAvailable_listenersNotifiedWithStoredDataAndThenWithFetchedData() throws Exception {
+        // Arrange
+        withStore();
+        storedQuestions();
+        SUT.registerListener(mListener1);
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        InOrder inOrder = inOrder(mListener1);
+        inOrder.verify(mListener1).onLastActiveQuestionsFetched(eq(STORED_QUESTIONS), anyLong());
+        inOrder.verify(mListener1).onLastActiveQuestionsFetched(eq(QUESTIONS), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_secondTimeWithStoredQuestionsAvailable_storeReadOnce() throws Exception {
+        // Arrange
+        withStore();
+        storedQuestions();
+        SUT.registerListener(mListener1);
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionsStoreMock, times(1)).getLastActiveQuestions();
+        verify(mListener1, times(1)).onLastActiveQuestionsFetched(eq(STORED_QUESTIONS), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_success_fetchedQuestionsStored() throws Exception {
+        // Arrange
+        withStore();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP);
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionsStoreMock).putLastActiveQuestions(QUESTIONS, TIMESTAMP);
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_failure_nothingStored() throws Exception {
+        // Arrange
+        withStore();
+        failure();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionsStoreMock, times(0)).putLastActiveQuestions(any(List.class), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_success_questionDetailsCacheSeededWithFetchedData() throws Exception {
+        // Arrange
+        withQuestionDetailsCache();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionDetailsCacheMock).put(new QuestionDetails("id1", "title1", "body1"));
+        verify(mQuestionDetailsCacheMock).put(new QuestionDetails("id2", "title2", "body2"));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_successWithoutBodies_questionDetailsCacheNotSeeded() throws Exception {
+        // Arrange
+        withQuestionDetailsCache();
+        questionsWithoutBodies();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionDetailsCacheMock, never()).put(any(QuestionDetails.class));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_failure_questionDetailsCacheNotSeeded() throws Exception {
+        // Arrange
+        withQuestionDetailsCache();
+        failure();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mQuestionDetailsCacheMock, never()).put(any(QuestionDetails.class));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_success_listenersNotifiedOnMainThreadExecutor() throws Exception {
+        // Arrange
+        withMainThreadExecutor();
+        SUT.registerListener(mListener1);
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        verify(mListener1, never()).onLastActiveQuestionsFetched(any(List.class), anyLong());
+        mMainThreadExecutorTd.runAll();
+        verify(mListener1).onLastActiveQuestionsFetched(eq(QUESTIONS), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_cancelledBeforeDelivery_listenersNotNotified() throws Exception {
+        // Arrange
+        withMainThreadExecutor();
+        SUT.registerListener(mListener1);
+        CancellationToken cancellationToken = new CancellationToken();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify(cancellationToken);
+        cancellationToken.cancel();
+        mMainThreadExecutorTd.runAll();
+        // Assert
+        verify(mListener1, never()).onLastActiveQuestionsFetched(any(List.class), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_cancelledBeforeFetchCompleted_nothingStored() throws Exception {
+        // Arrange
+        withStore();
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify(cancellationToken);
+        // Assert
+        verify(mQuestionsStoreMock, never()).putLastActiveQuestions(any(List.class), anyLong());
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_lastListenerUnregisteredWhilePending_fetchCancelled() throws Exception {
+        // Arrange
+        outstandingRequestsTracked();
+        pending();
+        SUT.registerListener(mListener1);
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Act
+        SUT.unregisterListener(mListener1);
+        // Assert
+        assertThat(mEndpointTd.mCancellationToken.isCancelled(), is(true));
+        assertThat(SUT.getCancelledRequestsCount(), is(1l));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_listenerRegisteredAgainWithinGracePeriod_fetchNotCancelled() throws Exception {
+        // Arrange
+        outstandingRequestsTracked(1000);
+        pending();
+        SUT.registerListener(mListener1);
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Act
+        SUT.unregisterListener(mListener1);
+        SUT.registerListener(mListener1);
+        verify(mSchedulerMock).schedule(mRunnableCaptor.capture(), anyLong(), any(TimeUnit.class));
+        mRunnableCaptor.getValue().run();
+        // Assert
+        assertThat(mEndpointTd.mCancellationToken.isCancelled(), is(false));
+        assertThat(SUT.getCancelledRequestsCount(), is(0l));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_success_mappingOfWholeListRecordedOnce() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = withMetrics();
+        // two questions, mapped in 10ns and 15ns
+        when(mTimeProviderMock.getNanoTime()).thenReturn(100L, 110L, 200L, 215L);
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        Histogram mapLatency = metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP);
+        assertThat(mapLatency.getCount(), is(1L));
+        assertThat(mapLatency.getSum(), is(25L));
+    }
+
+    @Test
+    public void fetchLastActiveQuestionsAndNotify_failure_mappingNotRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = withMetrics();
+        failure();
+        // Act
+        SUT.fetchLastActiveQuestionsAndNotify();
+        // Assert
+        assertThat(metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP).getCount(), is(0L));
+    }
+
     // region helper methods -----------------------------------------------------------------------
 
     private void success() {
@@ -84,29 +292,105 @@ public class FetchLastActiveQuestionsUseCaseTest {
         mEndpointTd.mFailure = true;
     }
 
+    private void withStore() {
+        SUT = new FetchLastActiveQuestionsUseCase(mEndpointTd, mQuestionsStoreMock, mTimeProviderMock, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        }, null, UseCaseExecutors.synchronous(), null, ApiMetrics.disabled());
+    }
+
+    private void withQuestionDetailsCache() {
+        SUT = new FetchLastActiveQuestionsUseCase(mEndpointTd, null, mTimeProviderMock, null, mQuestionDetailsCacheMock,
+                UseCaseExecutors.synchronous(), null, ApiMetrics.disabled());
+    }
+
+    private void withMainThreadExecutor() {
+        mMainThreadExecutorTd = new ExecutorTd();
+        SynchronousExecutor synchronousExecutor = new SynchronousExecutor();
+        SUT = new FetchLastActiveQuestionsUseCase(mEndpointTd, null, mTimeProviderMock, null, null,
+                new UseCaseExecutors(synchronousExecutor, synchronousExecutor, mMainThreadExecutorTd),
+                null, ApiMetrics.disabled());
+    }
+
+    private void outstandingRequestsTracked() {
+        outstandingRequestsTracked(0);
+    }
+
+    private void outstandingRequestsTracked(long cancellationGracePeriodMs) {
+        SUT = new FetchLastActiveQuestionsUseCase(mEndpointTd, null, mTimeProviderMock, null, null,
+                UseCaseExecutors.synchronous(), new OutstandingRequests(mSchedulerMock, cancellationGracePeriodMs),
+                ApiMetrics.disabled());
+    }
+
+    private InMemoryMetricsSink withMetrics() {
+        InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        SUT = new FetchLastActiveQuestionsUseCase(mEndpointTd, null, mTimeProviderMock, null, null,
+                UseCaseExecutors.synchronous(), null, new ApiMetrics(metricsSink, mTimeProviderMock));
+        return metricsSink;
+    }
+
+    private void pending() {
+        mEndpointTd.mPending = true;
+    }
+
+    private void questionsWithoutBodies() {
+        mEndpointTd.mWithoutBodies = true;
+    }
+
+    private void storedQuestions() {
+        when(mQuestionsStoreMock.getLastActiveQuestions())
+                .thenReturn(new QuestionsStore.LastActiveQuestions(STORED_QUESTIONS, TIMESTAMP));
+    }
+
     // endregion helper methods --------------------------------------------------------------------
 
     // region helper classes -----------------------------------------------------------------------
     private static class EndpointTd extends FetchLastActiveQuestionsEndpoint {
 
         public boolean mFailure;
+        public boolean mWithoutBodies;
+        public boolean mPending;
+        public CancellationToken mCancellationToken;
 
         public EndpointTd() {
             super(null);
         }
 
         @Override
-        public void fetchLastActiveQuestions(Listener listener) {
+        public void fetchLastActiveQuestions(Listener listener, CancellationToken cancellationToken) {
+            mCancellationToken = cancellationToken;
+            if (mPending) {
+                return;
+            }
             if (mFailure) {
                 listener.onQuestionsFetchFailed();
             } else {
                 List<QuestionSchema> questionSchemas = new LinkedList<>();
-                questionSchemas.add(new QuestionSchema("title1", "id1", "body1"));
-                questionSchemas.add(new QuestionSchema("title2", "id2", "body2"));
+                questionSchemas.add(new QuestionSchema("title1", "id1", mWithoutBodies ? null : "body1"));
+                questionSchemas.add(new QuestionSchema("title2", "id2", mWithoutBodies ? null : "body2"));
                 listener.onQuestionsFetched(questionSchemas);
             }
         }
     }
+
+    private static class ExecutorTd implements Executor {
+
+        private final Queue<Runnable> mPending = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mPending.add(command);
+        }
+
+        public void runAll() {
+            Runnable runnable;
+            while ((runnable = mPending.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
     // endregion helper classes --------------------------------------------------------------------
 
 }
\ No newline at end of file
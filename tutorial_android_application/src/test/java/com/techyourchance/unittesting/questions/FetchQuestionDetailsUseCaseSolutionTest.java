@@ -1,8 +1,21 @@
 package com.techyourchance.unittesting.questions;
 
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.common.usecases.OutstandingRequests;
+import com.techyourchance.unittesting.common.usecases.SynchronousExecutor;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.Histogram;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
 import com.techyourchance.unittesting.networking.questions.FetchQuestionDetailsEndpoint;
 import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+import com.techyourchance.unittesting.questions.cache.LruQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+import com.techyourchance.unittesting.questions.cache.StoreBackedQuestionDetailsCache;
+import com.techyourchance.unittesting.questions.storage.QuestionsStore;
 import com.techyourchance.unittesting.testdata.QuestionDetailsTestData;
 
 import org.junit.Before;
@@ -13,6 +26,15 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -20,6 +42,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,10 +52,13 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
 
     // region constants ----------------------------------------------------------------------------
     private static final long CACHE_TIMEOUT = 60000;
+    private static final long STALE_PERIOD = 60000;
     private static final QuestionDetails QUESTION_DETAILS_1 = QuestionDetailsTestData.getQuestionDetails1();
     private static final String QUESTION_ID_1 = QUESTION_DETAILS_1.getId();
     private static final QuestionDetails QUESTION_DETAILS_2 = QuestionDetailsTestData.getQuestionDetails2();
     private static final String QUESTION_ID_2 = QUESTION_DETAILS_2.getId();
+    private static final QuestionDetails QUESTION_DETAILS_1_UPDATED = new QuestionDetails(
+            QUESTION_ID_1, QUESTION_DETAILS_1.getTitle(), "updated body");
     // endregion constants -------------------------------------------------------------------------
 
     // region helper fields ------------------------------------------------------------------------
@@ -39,8 +66,18 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
     private ListenerTd mListener1;
     private ListenerTd mListener2;
     @Mock TimeProvider mTimeProviderMock;
+    @Mock FetchQuestionDetailsUseCase.PrefetchListener mPrefetchListenerMock;
+    @Mock ScheduledExecutorService mSchedulerMock;
+    @Mock QuestionsStore mQuestionsStoreMock;
+    @Mock QuestionDetailsCache mQuestionDetailsCacheMock;
+    private ExecutorTd mIoExecutorTd;
 
     private int mEndpointCallsCount;
+    private boolean mUpdatedDataFromSecondCall;
+    private final List<FetchQuestionDetailsEndpoint.Listener> mPendingEndpointListeners =
+            Collections.synchronizedList(new ArrayList<FetchQuestionDetailsEndpoint.Listener>());
+    private final List<CancellationToken> mPendingRequestCancellationTokens =
+            Collections.synchronizedList(new ArrayList<CancellationToken>());
     // endregion helper fields ---------------------------------------------------------------------
 
     FetchQuestionDetailsUseCase SUT;
@@ -182,6 +219,407 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
     }
 
 
+    @Test
+    public void fetchQuestionDetailsAndNotify_secondTimeWhileFirstRequestPending_endpointCalledOnce() throws Exception {
+        // Arrange
+        pending();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        completePendingRequestsWithSuccess();
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        mListener1.assertSuccessfulCalls(1);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1));
+        mListener2.assertSuccessfulCalls(1);
+        assertThat(mListener2.getLastData(), is(QUESTION_DETAILS_1));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_manyConcurrentCallsForSameId_endpointCalledOnce() throws Exception {
+        // Arrange
+        final int callersCount = 10;
+        pending();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(callersCount);
+        for (int i = 0; i < callersCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        // Act
+        startLatch.countDown();
+        doneLatch.await();
+        completePendingRequestsWithSuccess();
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        mListener1.assertSuccessfulCalls(1);
+        mListener2.assertSuccessfulCalls(1);
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_differentIdWhileFirstRequestPending_endpointCalledForEachId() throws Exception {
+        // Arrange
+        pending();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_2);
+        // Assert
+        assertThat(mEndpointCallsCount, is(2));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_secondTimeAfterFailure_endpointCalledAgain() throws Exception {
+        // Arrange
+        failure();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        assertThat(mEndpointCallsCount, is(2));
+    }
+
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_staleWhileRevalidateAfterTimeoutDataNotChanged_listenersNotifiedOnceWithDataFromCache() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        success();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(CACHE_TIMEOUT);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        mListener1.assertSuccessfulCalls(2);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1));
+        mListener2.assertSuccessfulCalls(2);
+        assertThat(mEndpointCallsCount, is(2));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_staleWhileRevalidateAfterTimeoutDataChanged_listenersNotifiedWithDataFromCacheAndThenFromEndpoint() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        success();
+        updatedDataFromSecondCall();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(CACHE_TIMEOUT);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        mListener1.assertSuccessfulCalls(3);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1_UPDATED));
+        mListener2.assertSuccessfulCalls(3);
+        assertThat(mListener2.getLastData(), is(QUESTION_DETAILS_1_UPDATED));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_staleWhilePrefetchPendingDataChanged_listenersNotifiedWithDataFromEndpoint() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        success();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(CACHE_TIMEOUT);
+        pending();
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        completePendingRequestsWithSuccess(QUESTION_DETAILS_1_UPDATED);
+        // Assert
+        assertThat(mEndpointCallsCount, is(2));
+        mListener1.assertSuccessfulCalls(3);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1_UPDATED));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_staleWhileRevalidateAfterTimeoutRefreshFailed_listenersNotNotifiedOfFailure() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        success();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        failure();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(CACHE_TIMEOUT);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        mListener1.assertSuccessfulCalls(2);
+        mListener2.assertSuccessfulCalls(2);
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_staleWhileRevalidateAfterStalePeriod_listenersNotifiedOnceWithDataFromEndpoint() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        success();
+        updatedDataFromSecondCall();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(CACHE_TIMEOUT + STALE_PERIOD);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        mListener1.assertSuccessfulCalls(2);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1_UPDATED));
+        assertThat(mEndpointCallsCount, is(2));
+    }
+
+    @Test
+    public void prefetchQuestionDetails_success_listenersNotNotifiedAndPrefetchListenerNotified() throws Exception {
+        // Arrange
+        success();
+        // Act
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Assert
+        mListener1.assertSuccessfulCalls(0);
+        mListener2.assertSuccessfulCalls(0);
+        verify(mPrefetchListenerMock).onQuestionDetailsPrefetchCompleted(QUESTION_ID_1);
+        assertThat(SUT.getPrefetchCount(), is(1l));
+    }
+
+    @Test
+    public void prefetchQuestionDetails_failure_listenersNotNotifiedAndPrefetchListenerNotified() throws Exception {
+        // Arrange
+        failure();
+        // Act
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Assert
+        mListener1.assertSuccessfulCalls(0);
+        verify(mPrefetchListenerMock).onQuestionDetailsPrefetchCompleted(QUESTION_ID_1);
+        assertThat(SUT.getPrefetchCount(), is(0l));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_notInMemoryButStored_storeReadOnIoExecutorAndEndpointNotCalled() throws Exception {
+        // Arrange
+        storeBacked();
+        when(mQuestionsStoreMock.getQuestionDetails(QUESTION_ID_1))
+                .thenReturn(new QuestionDetailsCache.Entry(QUESTION_DETAILS_1, 0));
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        verify(mQuestionsStoreMock, never()).getQuestionDetails(any(String.class));
+        mListener1.assertSuccessfulCalls(0);
+        mIoExecutorTd.runAll();
+        mListener1.assertSuccessfulCalls(1);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1));
+        assertThat(mEndpointCallsCount, is(0));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_secondTimeAfterServedFromStore_servedFromMemory() throws Exception {
+        // Arrange
+        storeBacked();
+        when(mQuestionsStoreMock.getQuestionDetails(QUESTION_ID_1))
+                .thenReturn(new QuestionDetailsCache.Entry(QUESTION_DETAILS_1, 0));
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        mIoExecutorTd.runAll();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        mListener1.assertSuccessfulCalls(2);
+        verify(mQuestionsStoreMock, times(1)).getQuestionDetails(QUESTION_ID_1);
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_notInMemoryNorStored_fetchedFromEndpoint() throws Exception {
+        // Arrange
+        storeBacked();
+        success();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        mIoExecutorTd.runAll();
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        mListener1.assertSuccessfulCalls(1);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1));
+    }
+
+    @Test
+    public void prefetchQuestionDetails_dataCached_endpointNotCalledAndPrefetchListenerNotified() throws Exception {
+        // Arrange
+        success();
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Act
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        verify(mPrefetchListenerMock).onQuestionDetailsPrefetchCompleted(QUESTION_ID_1);
+        assertThat(SUT.getPrefetchCount(), is(0l));
+    }
+
+    @Test
+    public void prefetchQuestionDetails_freshInMemory_entryNotMaterialized() throws Exception {
+        // Arrange
+        SUT = new FetchQuestionDetailsUseCase(
+                mFetchQuestionDetailsEndpointMock,
+                mQuestionDetailsCacheMock,
+                new FreshnessPolicy(mTimeProviderMock, CACHE_TIMEOUT, 0),
+                UseCaseExecutors.synchronous(),
+                null,
+                ApiMetrics.disabled()
+        );
+        when(mQuestionDetailsCacheMock.getCachedTimestamp(QUESTION_ID_1)).thenReturn(0L);
+        // Act
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Assert
+        verify(mQuestionDetailsCacheMock, never()).get(any(String.class));
+        verify(mPrefetchListenerMock).onQuestionDetailsPrefetchCompleted(QUESTION_ID_1);
+        assertThat(mEndpointCallsCount, is(0));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_afterPrefetch_listenersNotifiedWithDataFromCacheAndPrefetchHitCounted() throws Exception {
+        // Arrange
+        success();
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        mListener1.assertSuccessfulCalls(2);
+        assertThat(mListener1.getLastData(), is(QUESTION_DETAILS_1));
+        assertThat(SUT.getPrefetchHitCount(), is(1l));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_whilePrefetchPending_endpointCalledOnceAndListenersNotified() throws Exception {
+        // Arrange
+        pending();
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        completePendingRequestsWithSuccess();
+        // Assert
+        assertThat(mEndpointCallsCount, is(1));
+        mListener1.assertSuccessfulCalls(1);
+        mListener2.assertSuccessfulCalls(1);
+        verify(mPrefetchListenerMock).onQuestionDetailsPrefetchCompleted(QUESTION_ID_1);
+        assertThat(SUT.getPrefetchHitCount(), is(1l));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_withoutPrefetch_prefetchHitNotCounted() throws Exception {
+        // Arrange
+        success();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        assertThat(SUT.getPrefetchHitCount(), is(0l));
+        verify(mPrefetchListenerMock, never()).onQuestionDetailsPrefetchCompleted(any(String.class));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_cancelledWhilePending_listenersNotNotifiedButDataCached() throws Exception {
+        // Arrange
+        pending();
+        CancellationToken cancellationToken = new CancellationToken();
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1, cancellationToken);
+        // Act
+        cancellationToken.cancel();
+        completePendingRequestsWithSuccess();
+        // Assert
+        mListener1.assertSuccessfulCalls(0);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        mListener1.assertSuccessfulCalls(1);
+        assertThat(mEndpointCallsCount, is(1));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_oneOfJoinedCallsCancelled_listenersNotified() throws Exception {
+        // Arrange
+        pending();
+        CancellationToken cancellationToken = new CancellationToken();
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1, cancellationToken);
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1, new CancellationToken());
+        // Act
+        cancellationToken.cancel();
+        completePendingRequestsWithSuccess();
+        // Assert
+        mListener1.assertSuccessfulCalls(1);
+        assertThat(mEndpointCallsCount, is(1));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_lastListenerUnregisteredWhilePending_requestCancelled() throws Exception {
+        // Arrange
+        outstandingRequestsTracked();
+        pending();
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Act
+        SUT.unregisterListener(mListener1);
+        // Assert
+        assertThat(mPendingRequestCancellationTokens.get(0).isCancelled(), is(true));
+        assertThat(SUT.getCancelledRequestsCount(), is(1l));
+        assertThat(SUT.getCompletedRequestsCount(), is(0l));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_lastListenerUnregisteredAfterCompletion_requestCountedAsCompleted() throws Exception {
+        // Arrange
+        outstandingRequestsTracked();
+        success();
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Act
+        SUT.unregisterListener(mListener1);
+        // Assert
+        assertThat(SUT.getCancelledRequestsCount(), is(0l));
+        assertThat(SUT.getCompletedRequestsCount(), is(1l));
+    }
+
+    @Test
+    public void prefetchQuestionDetails_lastListenerUnregisteredWhilePending_prefetchNotCancelled() throws Exception {
+        // Arrange
+        outstandingRequestsTracked();
+        pending();
+        SUT.prefetchQuestionDetails(QUESTION_ID_1, mPrefetchListenerMock);
+        // Act
+        SUT.unregisterListener(mListener1);
+        // Assert
+        assertThat(mPendingRequestCancellationTokens.get(0).isCancelled(), is(false));
+        assertThat(SUT.getCancelledRequestsCount(), is(0l));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_success_mappingLatencyRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = withMetrics();
+        success();
+        when(mTimeProviderMock.getNanoTime()).thenReturn(100L, 130L);
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        Histogram mapLatency = metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTION_DETAILS, MetricsSink.Phase.MAP);
+        assertThat(mapLatency.getCount(), is(1L));
+        assertThat(mapLatency.getSum(), is(30L));
+    }
+
+    @Test
+    public void fetchQuestionDetailsAndNotify_failure_mappingNotRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = withMetrics();
+        failure();
+        // Act
+        SUT.fetchQuestionDetailsAndNotify(QUESTION_ID_1);
+        // Assert
+        assertThat(metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTION_DETAILS, MetricsSink.Phase.MAP).getCount(), is(0L));
+    }
+
     // region helper methods -----------------------------------------------------------------------
 
     private void success() {
@@ -193,10 +631,12 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
                 Object[] args = invocation.getArguments();
                 String questionId = (String)args[0];
                 FetchQuestionDetailsEndpoint.Listener listener =
-                        (FetchQuestionDetailsEndpoint.Listener) args[1];
+                        (FetchQuestionDetailsEndpoint.Listener) args[2];
 
                 QuestionSchema response;
-                if (questionId.equals(QUESTION_ID_1)) {
+                if (questionId.equals(QUESTION_ID_1) && mUpdatedDataFromSecondCall && mEndpointCallsCount > 1) {
+                    response = new QuestionSchema(QUESTION_DETAILS_1_UPDATED.getTitle(), QUESTION_DETAILS_1_UPDATED.getId(), QUESTION_DETAILS_1_UPDATED.getBody());
+                } else if (questionId.equals(QUESTION_ID_1)) {
                     response = new QuestionSchema(QUESTION_DETAILS_1.getTitle(), QUESTION_DETAILS_1.getId(), QUESTION_DETAILS_1.getBody());
                 } else if (questionId.equals(QUESTION_ID_2)) {
                     response = new QuestionSchema(QUESTION_DETAILS_2.getTitle(), QUESTION_DETAILS_2.getId(), QUESTION_DETAILS_2.getBody());
@@ -208,6 +648,7 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
             }
         }).when(mFetchQuestionDetailsEndpointMock).fetchQuestionDetails(
                 any(String.class),
+                any(CancellationToken.class),
                 any(FetchQuestionDetailsEndpoint.Listener.class)
         );
     }
@@ -220,17 +661,112 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
 
                 Object[] args = invocation.getArguments();
                 FetchQuestionDetailsEndpoint.Listener listener =
-                        (FetchQuestionDetailsEndpoint.Listener) args[1];
+                        (FetchQuestionDetailsEndpoint.Listener) args[2];
 
                 listener.onQuestionDetailsFetchFailed();
                 return null;
             }
         }).when(mFetchQuestionDetailsEndpointMock).fetchQuestionDetails(
                 any(String.class),
+                any(CancellationToken.class),
                 any(FetchQuestionDetailsEndpoint.Listener.class)
         );
     }
 
+    private void pending() {
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                mEndpointCallsCount++;
+                mPendingRequestCancellationTokens.add((CancellationToken) invocation.getArguments()[1]);
+                mPendingEndpointListeners.add((FetchQuestionDetailsEndpoint.Listener) invocation.getArguments()[2]);
+                return null;
+            }
+        }).when(mFetchQuestionDetailsEndpointMock).fetchQuestionDetails(
+                any(String.class),
+                any(CancellationToken.class),
+                any(FetchQuestionDetailsEndpoint.Listener.class)
+        );
+    }
+
+    private void completePendingRequestsWithSuccess() {
+        completePendingRequestsWithSuccess(QUESTION_DETAILS_1);
+    }
+
+    private void completePendingRequestsWithSuccess(QuestionDetails questionDetails) {
+        for (FetchQuestionDetailsEndpoint.Listener listener : new ArrayList<>(mPendingEndpointListeners)) {
+            listener.onQuestionDetailsFetched(new QuestionSchema(
+                    questionDetails.getTitle(), questionDetails.getId(), questionDetails.getBody()));
+        }
+        mPendingEndpointListeners.clear();
+    }
+
+    private void staleWhileRevalidate() {
+        FreshnessPolicy freshnessPolicy = new FreshnessPolicy(mTimeProviderMock, CACHE_TIMEOUT, STALE_PERIOD);
+        SUT = new FetchQuestionDetailsUseCase(
+                mFetchQuestionDetailsEndpointMock,
+                new LruQuestionDetailsCache(mTimeProviderMock, freshnessPolicy.getMaxAgeMs(), 100, Long.MAX_VALUE),
+                freshnessPolicy,
+                UseCaseExecutors.synchronous(),
+                null,
+                ApiMetrics.disabled()
+        );
+        SUT.registerListener(mListener1);
+        SUT.registerListener(mListener2);
+    }
+
+    private void outstandingRequestsTracked() {
+        FreshnessPolicy freshnessPolicy = new FreshnessPolicy(mTimeProviderMock, CACHE_TIMEOUT, 0);
+        SUT = new FetchQuestionDetailsUseCase(
+                mFetchQuestionDetailsEndpointMock,
+                new LruQuestionDetailsCache(mTimeProviderMock, freshnessPolicy.getMaxAgeMs(), 100, Long.MAX_VALUE),
+                freshnessPolicy,
+                UseCaseExecutors.synchronous(),
+                new OutstandingRequests(mSchedulerMock, 0),
+                ApiMetrics.disabled()
+        );
+        SUT.registerListener(mListener1);
+    }
+
+    private InMemoryMetricsSink withMetrics() {
+        InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        FreshnessPolicy freshnessPolicy = new FreshnessPolicy(mTimeProviderMock, CACHE_TIMEOUT, 0);
+        SUT = new FetchQuestionDetailsUseCase(
+                mFetchQuestionDetailsEndpointMock,
+                new LruQuestionDetailsCache(mTimeProviderMock, freshnessPolicy.getMaxAgeMs(), 100, Long.MAX_VALUE),
+                freshnessPolicy,
+                UseCaseExecutors.synchronous(),
+                null,
+                new ApiMetrics(metricsSink, mTimeProviderMock)
+        );
+        SUT.registerListener(mListener1);
+        return metricsSink;
+    }
+
+    private void storeBacked() {
+        FreshnessPolicy freshnessPolicy = new FreshnessPolicy(mTimeProviderMock, CACHE_TIMEOUT, 0);
+        SynchronousExecutor synchronousExecutor = new SynchronousExecutor();
+        mIoExecutorTd = new ExecutorTd();
+        SUT = new FetchQuestionDetailsUseCase(
+                mFetchQuestionDetailsEndpointMock,
+                new StoreBackedQuestionDetailsCache(
+                        new LruQuestionDetailsCache(mTimeProviderMock, freshnessPolicy.getMaxAgeMs(), 100, Long.MAX_VALUE),
+                        mQuestionsStoreMock,
+                        mTimeProviderMock,
+                        synchronousExecutor
+                ),
+                freshnessPolicy,
+                new UseCaseExecutors(mIoExecutorTd, synchronousExecutor, synchronousExecutor),
+                null,
+                ApiMetrics.disabled()
+        );
+        SUT.registerListener(mListener1);
+    }
+
+    private void updatedDataFromSecondCall() {
+        mUpdatedDataFromSecondCall = true;
+    }
+
     // endregion helper methods --------------------------------------------------------------------
 
     // region helper classes -----------------------------------------------------------------------
@@ -267,7 +803,24 @@ public class FetchQuestionDetailsUseCaseSolutionTest {
             return mData;
         }
     }
-    
+
+    private static class ExecutorTd implements Executor {
+
+        private final Queue<Runnable> mPending = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mPending.add(command);
+        }
+
+        public void runAll() {
+            Runnable runnable;
+            while ((runnable = mPending.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
+
     // endregion helper classes --------------------------------------------------------------------
 
 }
\ No newline at end of file
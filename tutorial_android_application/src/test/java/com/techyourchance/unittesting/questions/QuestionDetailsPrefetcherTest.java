@@ -0,0 +1,133 @@
+package com.techyourchance.unittesting.questions;
+
+import com.techyourchance.unittesting.networking.quota.RequestBudget;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QuestionDetailsPrefetcherTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int MAX_CONCURRENT_PREFETCHES = 2;
+    private static final Question QUESTION_1 = new Question("id1", "title1");
+    private static final Question QUESTION_2 = new Question("id2", "title2");
+    private static final Question QUESTION_3 = new Question("id3", "title3");
+    private static final Question QUESTION_4 = new Question("id4", "title4");
+    private static final List<Question> QUESTIONS = Arrays.asList(QUESTION_1, QUESTION_2, QUESTION_3);
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock FetchQuestionDetailsUseCase mFetchQuestionDetailsUseCaseMock;
+    @Mock RequestBudget mRequestBudgetMock;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    QuestionDetailsPrefetcher SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new QuestionDetailsPrefetcher(mFetchQuestionDetailsUseCaseMock, MAX_CONCURRENT_PREFETCHES);
+    }
+
+    @Test
+    public void prefetch_moreQuestionsThanConcurrencyLimit_onlyLimitedNumberOfPrefetchesStarted() throws Exception {
+        // Arrange
+        // Act
+        SUT.prefetch(QUESTIONS);
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock).prefetchQuestionDetails(QUESTION_1.getId(), SUT);
+        verify(mFetchQuestionDetailsUseCaseMock).prefetchQuestionDetails(QUESTION_2.getId(), SUT);
+        verify(mFetchQuestionDetailsUseCaseMock, never()).prefetchQuestionDetails(QUESTION_3.getId(), SUT);
+    }
+
+    @Test
+    public void onQuestionDetailsPrefetchCompleted_questionsPending_nextPrefetchStarted() throws Exception {
+        // Arrange
+        SUT.prefetch(QUESTIONS);
+        // Act
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_1.getId());
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock).prefetchQuestionDetails(QUESTION_3.getId(), SUT);
+    }
+
+    @Test
+    public void prefetch_secondTime_pendingQuestionsReplaced() throws Exception {
+        // Arrange
+        SUT.prefetch(QUESTIONS);
+        // Act
+        SUT.prefetch(Arrays.asList(QUESTION_4));
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_1.getId());
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_2.getId());
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock).prefetchQuestionDetails(QUESTION_4.getId(), SUT);
+        verify(mFetchQuestionDetailsUseCaseMock, never()).prefetchQuestionDetails(QUESTION_3.getId(), SUT);
+    }
+
+    @Test
+    public void prefetch_questionAlreadyInFlight_notPrefetchedAgain() throws Exception {
+        // Arrange
+        SUT.prefetch(QUESTIONS);
+        // Act
+        SUT.prefetch(Arrays.asList(QUESTION_1));
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_2.getId());
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock, times(1)).prefetchQuestionDetails(QUESTION_1.getId(), SUT);
+    }
+
+    @Test
+    public void cancel_pendingQuestionsNotPrefetched() throws Exception {
+        // Arrange
+        SUT.prefetch(QUESTIONS);
+        // Act
+        SUT.cancel();
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_1.getId());
+        SUT.onQuestionDetailsPrefetchCompleted(QUESTION_2.getId());
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock, times(2)).prefetchQuestionDetails(anyString(), any(QuestionDetailsPrefetcher.class));
+    }
+
+    @Test
+    public void prefetch_noBackgroundBudget_nothingPrefetched() throws Exception {
+        // Arrange
+        withRequestBudget();
+        when(mRequestBudgetMock.hasBackgroundBudget()).thenReturn(false);
+        // Act
+        SUT.prefetch(QUESTIONS);
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock, never()).prefetchQuestionDetails(anyString(), any(QuestionDetailsPrefetcher.class));
+    }
+
+    @Test
+    public void prefetch_backgroundBudgetAvailableAgain_pendingQuestionsPrefetched() throws Exception {
+        // Arrange
+        withRequestBudget();
+        when(mRequestBudgetMock.hasBackgroundBudget()).thenReturn(false, true);
+        SUT.prefetch(QUESTIONS);
+        // Act
+        SUT.prefetch(Arrays.asList(QUESTION_4));
+        // Assert
+        verify(mFetchQuestionDetailsUseCaseMock).prefetchQuestionDetails(QUESTION_4.getId(), SUT);
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void withRequestBudget() {
+        SUT = new QuestionDetailsPrefetcher(mFetchQuestionDetailsUseCaseMock, MAX_CONCURRENT_PREFETCHES, mRequestBudgetMock);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
@@ -0,0 +1,119 @@
+package com.techyourchance.unittesting.questions;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QuestionTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final String NUMERIC_ID = "51234567";
+    private static final String TITLE = "title";
+    // endregion constants -------------------------------------------------------------------------
+
+    Question SUT;
+
+    @Test
+    public void getId_numericId_sameIdReturned() throws Exception {
+        // Arrange
+        SUT = new Question(NUMERIC_ID, TITLE);
+        // Act
+        String id = SUT.getId();
+        // Assert
+        assertThat(id, is(NUMERIC_ID));
+    }
+
+    @Test
+    public void getId_numericId_idPassedToConstructorReturned() throws Exception {
+        // Arrange
+        SUT = new Question(NUMERIC_ID, TITLE);
+        // Act
+        String id = SUT.getId();
+        // Assert
+        assertThat(id, is(sameInstance(NUMERIC_ID)));
+    }
+
+    @Test
+    public void getId_nonCanonicalNumericId_sameIdReturned() throws Exception {
+        // Arrange
+        SUT = new Question("0123", TITLE);
+        // Act
+        String id = SUT.getId();
+        // Assert
+        assertThat(id, is("0123"));
+    }
+
+    @Test
+    public void getId_nonNumericId_sameIdReturned() throws Exception {
+        // Arrange
+        SUT = new Question("id1", TITLE);
+        // Act
+        String id = SUT.getId();
+        // Assert
+        assertThat(id, is("id1"));
+    }
+
+    @Test
+    public void getId_idTooLongForLong_sameIdReturned() throws Exception {
+        // Arrange
+        SUT = new Question("99999999999999999999", TITLE);
+        // Act
+        String id = SUT.getId();
+        // Assert
+        assertThat(id, is("99999999999999999999"));
+    }
+
+    @Test
+    public void equals_equalFields_equalWithEqualHashCodes() throws Exception {
+        // Arrange
+        SUT = new Question(NUMERIC_ID, TITLE);
+        Question other = new Question(new String(NUMERIC_ID), new String(TITLE));
+        // Act
+        // Assert
+        assertThat(SUT.equals(other), is(true));
+        assertThat(SUT.hashCode(), is(other.hashCode()));
+    }
+
+    @Test
+    public void equals_differentTitles_notEqual() throws Exception {
+        // Arrange
+        SUT = new Question(NUMERIC_ID, TITLE);
+        // Act
+        // Assert
+        assertThat(SUT, is(not(new Question(NUMERIC_ID, "other title"))));
+    }
+
+    @Test
+    public void equals_numericAndNonNumericIds_notEqual() throws Exception {
+        // Arrange
+        SUT = new Question("123", TITLE);
+        // Act
+        // Assert
+        assertThat(SUT, is(not(new Question("0123", TITLE))));
+        assertThat(SUT, is(not(new Question("id", TITLE))));
+    }
+
+    @Test
+    public void hasSameId_sameIdDifferentTitle_true() throws Exception {
+        // Arrange
+        SUT = new Question(NUMERIC_ID, TITLE);
+        // Act
+        // Assert
+        assertThat(SUT.hasSameId(new Question(NUMERIC_ID, "other title")), is(true));
+        assertThat(SUT.hasSameId(new Question("1", TITLE)), is(false));
+    }
+
+    @Test
+    public void hashCode_nullFields_noFailure() throws Exception {
+        // Arrange
+        SUT = new Question(null, null);
+        // Act
+        SUT.hashCode();
+        // Assert
+        assertThat(SUT.equals(new Question(null, null)), is(true));
+    }
+
+}
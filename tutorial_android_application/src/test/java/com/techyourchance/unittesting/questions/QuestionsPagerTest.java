@@ -0,0 +1,262 @@
+package com.techyourchance.unittesting.questions;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.UseCaseExecutors;
+import com.techyourchance.unittesting.networking.metrics.ApiMetrics;
+import com.techyourchance.unittesting.networking.metrics.InMemoryMetricsSink;
+import com.techyourchance.unittesting.networking.metrics.MetricsSink;
+import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QuestionsPagerTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int PAGE_SIZE = 2;
+    private static final int MAX_PAGES_IN_MEMORY = 2;
+    private static final long TIMESTAMP = 5000;
+    private static final long MAX_ACTIVITY_DATE = 5;
+    private static final long FETCHED_TIMESTAMP = 3000;
+    private static final long FETCHED_MAX_ACTIVITY_DATE = 3;
+    private static final QuestionSchema QUESTION_1 = new QuestionSchema("title1", "id1", "body1");
+    private static final QuestionSchema QUESTION_2 = new QuestionSchema("title2", "id2", "body2");
+    private static final QuestionSchema QUESTION_3 = new QuestionSchema("title3", "id3", "body3");
+    private static final QuestionSchema QUESTION_4 = new QuestionSchema("title4", "id4", "body4");
+    private static final QuestionSchema QUESTION_5 = new QuestionSchema("title5", "id5", "body5");
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock FetchLastActiveQuestionsEndpoint mEndpointMock;
+    @Mock TimeProvider mTimeProviderMock;
+    @Mock QuestionsPager.Listener mListenerMock;
+
+    @Captor ArgumentCaptor<FetchLastActiveQuestionsEndpoint.PageListener> mPageListenerCaptor;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    QuestionsPager SUT;
+
+    @Before
+    public void setup() throws Exception {
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIMESTAMP);
+        SUT = new QuestionsPager(mEndpointMock, mTimeProviderMock, PAGE_SIZE, MAX_PAGES_IN_MEMORY);
+        SUT.registerListener(mListenerMock);
+    }
+
+    @Test
+    public void loadFirstPage_firstPageRequestedAnchoredAtCurrentTime() throws Exception {
+        // Arrange
+        // Act
+        SUT.loadFirstPage();
+        // Assert
+        verify(mEndpointMock).fetchLastActiveQuestionsPage(
+                eq(1), eq(PAGE_SIZE), eq(MAX_ACTIVITY_DATE), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void loadFirstPage_success_listenerNotifiedAndQuestionsAvailable() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        // Act
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Assert
+        verify(mListenerMock).onQuestionsPageLoaded();
+        assertThat(SUT.getQuestions(), is(questions(QUESTION_1, QUESTION_2)));
+        assertThat(SUT.hasMore(), is(true));
+    }
+
+    @Test
+    public void loadFirstPage_failure_listenerNotifiedOfFailure() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        // Act
+        pageFetchFailed(0);
+        // Assert
+        verify(mListenerMock).onQuestionsPageLoadFailed();
+        assertThat(SUT.getQuestionsCount(), is(0));
+    }
+
+    @Test
+    public void loadNextPage_morePagesAvailable_followingPageRequestedWithSameAnchor() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Act
+        SUT.loadNextPage();
+        // Assert
+        verify(mTimeProviderMock, times(1)).getCurrentTimestamp();
+        verify(mEndpointMock).fetchLastActiveQuestionsPage(
+                eq(2), eq(PAGE_SIZE), eq(MAX_ACTIVITY_DATE), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void loadNextPage_pageAlreadyInFlight_notRequestedAgain() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Act
+        SUT.loadNextPage();
+        SUT.loadNextPage();
+        // Assert
+        verify(mEndpointMock, times(1)).fetchLastActiveQuestionsPage(
+                eq(2), anyInt(), anyLong(), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void loadNextPage_noMorePages_nothingRequested() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, false, QUESTION_1);
+        // Act
+        SUT.loadNextPage();
+        // Assert
+        verify(mEndpointMock, never()).fetchLastActiveQuestionsPage(
+                eq(2), anyInt(), anyLong(), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void loadNextPage_success_questionsAppended() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        SUT.loadNextPage();
+        // Act
+        pageFetched(1, false, QUESTION_3);
+        // Assert
+        assertThat(SUT.getQuestions(), is(questions(QUESTION_1, QUESTION_2, QUESTION_3)));
+        assertThat(SUT.hasMore(), is(false));
+    }
+
+    @Test
+    public void loadNextPage_maxPagesInMemoryExceeded_mostDistantPageReplacedWithNulls() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        SUT.loadNextPage();
+        pageFetched(1, true, QUESTION_3, QUESTION_4);
+        SUT.loadNextPage();
+        // Act
+        pageFetched(2, false, QUESTION_5);
+        // Assert
+        List<Question> questions = SUT.getQuestions();
+        assertThat(questions.size(), is(5));
+        assertThat(questions.get(0), is(nullValue()));
+        assertThat(questions.get(1), is(nullValue()));
+        assertThat(questions.subList(2, 5), is(questions(QUESTION_3, QUESTION_4, QUESTION_5)));
+    }
+
+    @Test
+    public void ensureLoaded_positionOfDroppedPage_pageRequestedAgain() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        SUT.loadNextPage();
+        pageFetched(1, true, QUESTION_3, QUESTION_4);
+        SUT.loadNextPage();
+        pageFetched(2, false, QUESTION_5);
+        // Act
+        SUT.ensureLoaded(1);
+        // Assert
+        verify(mEndpointMock, times(2)).fetchLastActiveQuestionsPage(
+                eq(1), anyInt(), anyLong(), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void ensureLoaded_positionOfPageInMemory_nothingRequested() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Act
+        SUT.ensureLoaded(1);
+        // Assert
+        verify(mEndpointMock, times(1)).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void setFirstPage_pageOfPreviousGenerationFetchedLater_resultIgnored() throws Exception {
+        // Arrange
+        SUT.loadFirstPage();
+        SUT.setFirstPage(questions(QUESTION_3, QUESTION_4), FETCHED_TIMESTAMP);
+        // Act
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Assert
+        verify(mListenerMock, never()).onQuestionsPageLoaded();
+        assertThat(SUT.getQuestions(), is(questions(QUESTION_3, QUESTION_4)));
+    }
+
+    @Test
+    public void setFirstPage_fullPage_nextPageRequestedAnchoredAtFetchTimeOfFirstPage() throws Exception {
+        // Arrange
+        SUT.setFirstPage(questions(QUESTION_1, QUESTION_2), FETCHED_TIMESTAMP);
+        // Act
+        SUT.loadNextPage();
+        // Assert
+        verify(mEndpointMock).fetchLastActiveQuestionsPage(
+                eq(2), eq(PAGE_SIZE), eq(FETCHED_MAX_ACTIVITY_DATE), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void loadFirstPage_success_mappingOfPageRecorded() throws Exception {
+        // Arrange
+        InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        SUT = new QuestionsPager(mEndpointMock, mTimeProviderMock, PAGE_SIZE, MAX_PAGES_IN_MEMORY,
+                UseCaseExecutors.synchronous(), new ApiMetrics(metricsSink, mTimeProviderMock));
+        when(mTimeProviderMock.getNanoTime()).thenReturn(100L, 140L);
+        SUT.loadFirstPage();
+        // Act
+        pageFetched(0, true, QUESTION_1, QUESTION_2);
+        // Assert
+        assertThat(metricsSink.getLatencyHistogram(ApiMetrics.ENDPOINT_QUESTIONS, MetricsSink.Phase.MAP).getSum(), is(40L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    /**
+     * @param requestIndex index of the latest request to the endpoint
+     */
+    private void pageFetched(int requestIndex, boolean hasMore, QuestionSchema... questions) {
+        verify(mEndpointMock, times(requestIndex + 1)).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), mPageListenerCaptor.capture());
+        mPageListenerCaptor.getValue().onQuestionsPageFetched(Arrays.asList(questions), hasMore);
+    }
+
+    private void pageFetchFailed(int requestIndex) {
+        verify(mEndpointMock, times(requestIndex + 1)).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), mPageListenerCaptor.capture());
+        mPageListenerCaptor.getValue().onQuestionsPageFetchFailed();
+    }
+
+    private List<Question> questions(QuestionSchema... questionSchemas) {
+        Question[] questions = new Question[questionSchemas.length];
+        for (int i = 0; i < questionSchemas.length; i++) {
+            questions[i] = new Question(questionSchemas[i].getId(), questionSchemas[i].getTitle());
+        }
+        return Arrays.asList(questions);
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
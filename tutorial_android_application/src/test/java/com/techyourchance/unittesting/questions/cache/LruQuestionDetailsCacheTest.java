@@ -0,0 +1,291 @@
+package com.techyourchance.unittesting.questions.cache;
+
+import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.testdata.QuestionDetailsTestData;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LruQuestionDetailsCacheTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long TIME_TO_LIVE = 60000;
+    private static final int MAX_ENTRIES = 2;
+    private static final long MAX_SIZE_BYTES = 1024;
+    private static final QuestionDetails QUESTION_DETAILS_1 = QuestionDetailsTestData.getQuestionDetails1();
+    private static final String QUESTION_ID_1 = QUESTION_DETAILS_1.getId();
+    private static final QuestionDetails QUESTION_DETAILS_2 = QuestionDetailsTestData.getQuestionDetails2();
+    private static final String QUESTION_ID_2 = QUESTION_DETAILS_2.getId();
+    private static final QuestionDetails QUESTION_DETAILS_3 = new QuestionDetails("id3", "title3", "body3");
+    private static final String QUESTION_ID_3 = QUESTION_DETAILS_3.getId();
+    private static final int COMPRESSION_THRESHOLD_CHARS = 100;
+    private static final QuestionDetails LARGE_QUESTION_DETAILS =
+            new QuestionDetails("id4", "title4", "<p>\u00e9\u20ac" + repeat('a', 2000) + "</p>");
+    private static final String LARGE_QUESTION_ID = LARGE_QUESTION_DETAILS.getId();
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock TimeProvider mTimeProviderMock;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    LruQuestionDetailsCache SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new LruQuestionDetailsCache(mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES);
+    }
+
+    @Test
+    public void get_afterPut_cachedDataReturnedAndHitCounted() throws Exception {
+        // Arrange
+        SUT.put(QUESTION_DETAILS_1);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_1);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(SUT.getHitCount(), is(1L));
+        assertThat(SUT.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void get_notCached_nullReturnedAndMissCounted() throws Exception {
+        // Arrange
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_1);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void get_rightBeforeTimeout_cachedDataReturned() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0L);
+        SUT.put(QUESTION_DETAILS_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE - 1);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_1);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(result.getCachedTimestamp(), is(0L));
+    }
+
+    @Test
+    public void get_rightAfterTimeout_nullReturnedAndEntryEvicted() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0L);
+        SUT.put(QUESTION_DETAILS_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_1);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.getSize(), is(0));
+        assertThat(SUT.getSizeBytes(), is(0L));
+        assertThat(SUT.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void evictExpired_onlyExpiredEntriesEvicted() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0L);
+        SUT.put(QUESTION_DETAILS_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE / 2);
+        SUT.put(QUESTION_DETAILS_2);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        SUT.evictExpired();
+        // Assert
+        assertThat(SUT.getSize(), is(1));
+        assertThat(SUT.get(QUESTION_ID_2).getQuestionDetails(), is(QUESTION_DETAILS_2));
+    }
+
+    @Test
+    public void put_maxEntriesExceeded_leastRecentlyUsedEntryEvicted() throws Exception {
+        // Arrange
+        SUT.put(QUESTION_DETAILS_1);
+        SUT.put(QUESTION_DETAILS_2);
+        SUT.get(QUESTION_ID_1);
+        // Act
+        SUT.put(QUESTION_DETAILS_3);
+        // Assert
+        assertThat(SUT.getSize(), is(2));
+        assertThat(SUT.get(QUESTION_ID_2), is(nullValue()));
+        assertThat(SUT.get(QUESTION_ID_1).getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(SUT.get(QUESTION_ID_3).getQuestionDetails(), is(QUESTION_DETAILS_3));
+        assertThat(SUT.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void put_maxSizeExceeded_leastRecentlyUsedEntriesEvicted() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(mTimeProviderMock, TIME_TO_LIVE, 10, 600);
+        SUT.put(QUESTION_DETAILS_1);
+        SUT.put(QUESTION_DETAILS_2);
+        // Act
+        SUT.put(new QuestionDetails(QUESTION_ID_3, "title3", repeat('a', 140)));
+        // Assert
+        assertThat(SUT.get(QUESTION_ID_1), is(nullValue()));
+        assertThat(SUT.get(QUESTION_ID_2).getQuestionDetails(), is(QUESTION_DETAILS_2));
+        assertThat(SUT.getSizeBytes() <= 600, is(true));
+    }
+
+    @Test
+    public void put_entryLargerThanMaxSize_entryNotCached() throws Exception {
+        // Arrange
+        SUT.put(QUESTION_DETAILS_1);
+        // Act
+        SUT.put(new QuestionDetails(QUESTION_ID_1, "title1", repeat('a', (int) MAX_SIZE_BYTES)));
+        // Assert
+        assertThat(SUT.get(QUESTION_ID_1), is(nullValue()));
+        assertThat(SUT.getSizeBytes(), is(0L));
+    }
+
+    @Test
+    public void put_sameIdTwice_entryReplacedAndSizeNotDoubled() throws Exception {
+        // Arrange
+        SUT.put(QUESTION_DETAILS_1);
+        long sizeBytes = SUT.getSizeBytes();
+        // Act
+        SUT.put(QUESTION_DETAILS_1);
+        // Assert
+        assertThat(SUT.getSize(), is(1));
+        assertThat(SUT.getSizeBytes(), is(sizeBytes));
+    }
+
+    @Test
+    public void get_entryPutWithOriginalTimestampAfterNewerEntry_expiresByOriginalTimestamp() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE / 2);
+        SUT.put(QUESTION_DETAILS_1);
+        SUT.put(new QuestionDetailsCache.Entry(QUESTION_DETAILS_2, 0));
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_2);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.getSize(), is(1));
+        assertThat(SUT.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void put_expiredEntry_entryNotCached() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        SUT.put(new QuestionDetailsCache.Entry(QUESTION_DETAILS_1, 0));
+        // Assert
+        assertThat(SUT.getSize(), is(0));
+    }
+
+    @Test
+    public void get_compressedBody_equalDetailsAndTimestampReturned() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(
+                mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES, COMPRESSION_THRESHOLD_CHARS);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(10L);
+        SUT.put(LARGE_QUESTION_DETAILS);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(LARGE_QUESTION_ID);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(LARGE_QUESTION_DETAILS));
+        assertThat(result.getQuestionDetails(), is(not(sameInstance(LARGE_QUESTION_DETAILS))));
+        assertThat(result.getCachedTimestamp(), is(10L));
+        assertThat(SUT.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void getCachedTimestamp_compressedBody_timestampReturnedAndHitNotCounted() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(
+                mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES, COMPRESSION_THRESHOLD_CHARS);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(10L);
+        SUT.put(LARGE_QUESTION_DETAILS);
+        // Act
+        long result = SUT.getCachedTimestamp(LARGE_QUESTION_ID);
+        // Assert
+        assertThat(result, is(10L));
+        assertThat(SUT.getHitCount(), is(0L));
+        assertThat(SUT.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void getCachedTimestamp_notCachedOrExpired_notCachedReturned() throws Exception {
+        // Arrange
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0L);
+        SUT.put(QUESTION_DETAILS_1);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        long result1 = SUT.getCachedTimestamp(QUESTION_ID_1);
+        long result2 = SUT.getCachedTimestamp(QUESTION_ID_2);
+        // Assert
+        assertThat(result1, is(QuestionDetailsCache.NOT_CACHED));
+        assertThat(result2, is(QuestionDetailsCache.NOT_CACHED));
+    }
+
+    @Test
+    public void get_bodyBelowCompressionThreshold_sameInstanceReturned() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(
+                mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES, COMPRESSION_THRESHOLD_CHARS);
+        SUT.put(QUESTION_DETAILS_3);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(QUESTION_ID_3);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(sameInstance(QUESTION_DETAILS_3)));
+    }
+
+    @Test
+    public void put_compressedBody_sizeOfCompressedBodyCounted() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(
+                mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES, COMPRESSION_THRESHOLD_CHARS);
+        // Act
+        SUT.put(LARGE_QUESTION_DETAILS);
+        // Assert
+        // the uncompressed body alone wouldn't fit into the cache
+        assertThat(SUT.getSize(), is(1));
+        assertThat(SUT.getSizeBytes() < MAX_SIZE_BYTES, is(true));
+    }
+
+    @Test
+    public void get_compressedBodyAfterTimeout_nullReturnedAndEntryEvicted() throws Exception {
+        // Arrange
+        SUT = new LruQuestionDetailsCache(
+                mTimeProviderMock, TIME_TO_LIVE, MAX_ENTRIES, MAX_SIZE_BYTES, COMPRESSION_THRESHOLD_CHARS);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0L);
+        SUT.put(LARGE_QUESTION_DETAILS);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(TIME_TO_LIVE);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.get(LARGE_QUESTION_ID);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.getSizeBytes(), is(0L));
+        assertThat(SUT.getEvictionCount(), is(1L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
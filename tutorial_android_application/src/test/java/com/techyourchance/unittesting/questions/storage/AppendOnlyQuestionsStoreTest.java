@@ -0,0 +1,254 @@
+package com.techyourchance.unittesting.questions.storage;
+
+import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.questions.QuestionDetails;
+import com.techyourchance.unittesting.questions.cache.QuestionDetailsCache;
+import com.techyourchance.unittesting.testdata.QuestionDetailsTestData;
+import com.techyourchance.unittesting.testdata.QuestionsTestData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AppendOnlyQuestionsStoreTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final long TIMESTAMP = 1000;
+    private static final long COMPACTION_MIN_LOG_SIZE = 1024;
+    private static final int MAX_QUESTION_DETAILS = 10;
+    private static final QuestionDetails QUESTION_DETAILS_1 = QuestionDetailsTestData.getQuestionDetails1();
+    private static final String QUESTION_ID_1 = QUESTION_DETAILS_1.getId();
+    private static final QuestionDetails QUESTION_DETAILS_2 = QuestionDetailsTestData.getQuestionDetails2();
+    private static final String QUESTION_ID_2 = QUESTION_DETAILS_2.getId();
+    private static final List<Question> QUESTIONS = QuestionsTestData.getQuestions();
+    private static final long LAST_BYTE_OF_LOG = -1;
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+    private File mDirectory;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    AppendOnlyQuestionsStore SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mDirectory = mTemporaryFolder.newFolder();
+        SUT = new AppendOnlyQuestionsStore(mDirectory, COMPACTION_MIN_LOG_SIZE, MAX_QUESTION_DETAILS);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        SUT.close();
+    }
+
+    @Test
+    public void getQuestionDetails_empty_nullReturned() throws Exception {
+        // Arrange
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_1);
+        // Assert
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getQuestionDetails_afterPut_storedDataReturned() throws Exception {
+        // Arrange
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        SUT.putQuestionDetails(QUESTION_DETAILS_2, TIMESTAMP);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_1);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(result.getCachedTimestamp(), is(TIMESTAMP));
+    }
+
+    @Test
+    public void getQuestionDetails_afterPutTwice_latestDataReturned() throws Exception {
+        // Arrange
+        QuestionDetails updated = new QuestionDetails(QUESTION_ID_1, "title", "updated body");
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        SUT.putQuestionDetails(updated, TIMESTAMP + 1);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_1);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(updated));
+        assertThat(result.getCachedTimestamp(), is(TIMESTAMP + 1));
+    }
+
+    @Test
+    public void getQuestionDetails_nonAsciiAndNullFields_storedDataReturned() throws Exception {
+        // Arrange
+        QuestionDetails questionDetails = new QuestionDetails(QUESTION_ID_1, "\u00dcn\u00efc\u00f8d\u00e9 \u2603", null);
+        SUT.putQuestionDetails(questionDetails, TIMESTAMP);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_1);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(questionDetails));
+    }
+
+    @Test
+    public void getQuestionDetails_afterReopen_storedDataReturned() throws Exception {
+        // Arrange
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        SUT.putQuestionDetails(QUESTION_DETAILS_2, TIMESTAMP);
+        reopen();
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_2);
+        // Assert
+        assertThat(result.getQuestionDetails(), is(QUESTION_DETAILS_2));
+    }
+
+    @Test
+    public void getLastActiveQuestions_empty_nullReturned() throws Exception {
+        // Arrange
+        // Act
+        QuestionsStore.LastActiveQuestions result = SUT.getLastActiveQuestions();
+        // Assert
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getLastActiveQuestions_afterPutAndReopen_storedDataReturned() throws Exception {
+        // Arrange
+        SUT.putLastActiveQuestions(QUESTIONS, TIMESTAMP);
+        reopen();
+        // Act
+        QuestionsStore.LastActiveQuestions result = SUT.getLastActiveQuestions();
+        // Assert
+        assertThat(result.getQuestions(), is(QUESTIONS));
+        assertThat(result.getStoredTimestamp(), is(TIMESTAMP));
+    }
+
+    @Test
+    public void getQuestionDetails_tornWriteAtEndOfLog_previousRecordsReturnedAndLogTruncated() throws Exception {
+        // Arrange
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        long validLogSize = SUT.getLogSizeBytes();
+        SUT.putQuestionDetails(QUESTION_DETAILS_2, TIMESTAMP);
+        long fullLogSize = SUT.getLogSizeBytes();
+        SUT.close();
+        truncateLog(fullLogSize - 3);
+        // Act
+        QuestionDetailsCache.Entry result1 = SUT.getQuestionDetails(QUESTION_ID_1);
+        QuestionDetailsCache.Entry result2 = SUT.getQuestionDetails(QUESTION_ID_2);
+        // Assert
+        assertThat(result1.getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(result2, is(nullValue()));
+        assertThat(SUT.getLogSizeBytes(), is(validLogSize));
+    }
+
+    @Test
+    public void getQuestionDetails_corruptRecord_previousRecordsReturnedAndLogTruncated() throws Exception {
+        // Arrange
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        long validLogSize = SUT.getLogSizeBytes();
+        SUT.putQuestionDetails(QUESTION_DETAILS_2, TIMESTAMP);
+        SUT.close();
+        corruptLogAt(LAST_BYTE_OF_LOG);
+        // Act
+        QuestionDetailsCache.Entry result1 = SUT.getQuestionDetails(QUESTION_ID_1);
+        QuestionDetailsCache.Entry result2 = SUT.getQuestionDetails(QUESTION_ID_2);
+        // Assert
+        assertThat(result1.getQuestionDetails(), is(QUESTION_DETAILS_1));
+        assertThat(result2, is(nullValue()));
+        assertThat(SUT.getLogSizeBytes(), is(validLogSize));
+    }
+
+    @Test
+    public void getQuestionDetails_corruptStringLengthInFirstRecord_nullReturnedAndLogTruncated() throws Exception {
+        // Arrange
+        SUT.putQuestionDetails(QUESTION_DETAILS_1, TIMESTAMP);
+        SUT.close();
+        // length of the question id, right after the header, claims more bytes than the record has
+        corruptLogAt(17);
+        // Act
+        QuestionDetailsCache.Entry result = SUT.getQuestionDetails(QUESTION_ID_1);
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(SUT.getLogSizeBytes(), is(0L));
+    }
+
+    @Test
+    public void putQuestionDetails_manyOverwrites_logCompactedAndLatestDataReturned() throws Exception {
+        // Arrange
+        QuestionDetails latest = null;
+        // Act
+        for (int i = 0; i < 100; i++) {
+            latest = new QuestionDetails(QUESTION_ID_1, "title", "body " + i);
+            SUT.putQuestionDetails(latest, TIMESTAMP + i);
+        }
+        SUT.putLastActiveQuestions(QUESTIONS, TIMESTAMP);
+        // Assert
+        assertThat(SUT.getLogSizeBytes() < 2 * COMPACTION_MIN_LOG_SIZE, is(true));
+        reopen();
+        assertThat(SUT.getQuestionDetails(QUESTION_ID_1).getQuestionDetails(), is(latest));
+        assertThat(SUT.getLastActiveQuestions().getQuestions(), is(QUESTIONS));
+    }
+
+    @Test
+    public void putQuestionDetails_moreThanTwiceMaxQuestions_onlyMostRecentQuestionsKept() throws Exception {
+        // Arrange
+        int count = 2 * MAX_QUESTION_DETAILS + 1;
+        // Act
+        for (int i = 0; i < count; i++) {
+            // timestamps decrease so that the most recent questions aren't the latest written
+            SUT.putQuestionDetails(new QuestionDetails("id" + i, "title", "body"), TIMESTAMP - i);
+        }
+        // Assert
+        reopen();
+        for (int i = 0; i < count; i++) {
+            QuestionDetailsCache.Entry result = SUT.getQuestionDetails("id" + i);
+            assertThat(result != null, is(i < MAX_QUESTION_DETAILS));
+        }
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void reopen() throws Exception {
+        SUT.close();
+        SUT = new AppendOnlyQuestionsStore(mDirectory, COMPACTION_MIN_LOG_SIZE, MAX_QUESTION_DETAILS);
+    }
+
+    /**
+     * @param position position of the byte to flip, or {@link #LAST_BYTE_OF_LOG}
+     */
+    private void corruptLogAt(long position) throws Exception {
+        File[] files = mDirectory.listFiles();
+        RandomAccessFile log = new RandomAccessFile(files[0], "rw");
+        try {
+            if (position == LAST_BYTE_OF_LOG) {
+                position = log.length() - 1;
+            }
+            log.seek(position);
+            int value = log.read();
+            log.seek(position);
+            log.write(value ^ 0x7f);
+        } finally {
+            log.close();
+        }
+    }
+
+    private void truncateLog(long size) throws Exception {
+        File[] files = mDirectory.listFiles();
+        RandomAccessFile log = new RandomAccessFile(files[0], "rw");
+        try {
+            log.setLength(size);
+        } finally {
+            log.close();
+        }
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+}
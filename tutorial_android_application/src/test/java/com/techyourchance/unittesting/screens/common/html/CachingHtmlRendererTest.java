@@ -0,0 +1,198 @@
+package com.techyourchance.unittesting.screens.common.html;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingHtmlRendererTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final int MAX_ENTRIES = 2;
+    private static final String KEY_1 = "key1";
+    private static final String KEY_2 = "key2";
+    private static final String KEY_3 = "key3";
+    private static final String HTML = "<p>html</p>";
+    private static final String CHANGED_HTML = "<p>changed html</p>";
+    private static final CharSequence RENDERED = "rendered";
+    private static final CharSequence CHANGED_RENDERED = "changed rendered";
+    // these two have the same hash code
+    private static final String COLLIDING_HTML_1 = "Aa";
+    private static final String COLLIDING_HTML_2 = "BB";
+    // endregion constants -------------------------------------------------------------------------
+
+    // region helper fields ------------------------------------------------------------------------
+    @Mock HtmlRenderer mHtmlRendererMock;
+    @Mock CachingHtmlRenderer.Listener mListenerMock;
+    @Mock CachingHtmlRenderer.Listener mListenerMock2;
+
+    private ExecutorTd mRenderingExecutorTd;
+    private ExecutorTd mCallbackExecutorTd;
+    // endregion helper fields ---------------------------------------------------------------------
+
+    CachingHtmlRenderer SUT;
+
+    @Before
+    public void setup() throws Exception {
+        mRenderingExecutorTd = new ExecutorTd();
+        mCallbackExecutorTd = new ExecutorTd();
+        SUT = new CachingHtmlRenderer(mHtmlRendererMock, mRenderingExecutorTd, mCallbackExecutorTd, MAX_ENTRIES);
+    }
+
+    @Test
+    public void renderAndNotify_notCached_renderedOnRenderingExecutorAndNotifiedOnCallbackExecutor() throws Exception {
+        // Arrange
+        rendering();
+        // Act
+        SUT.renderAndNotify(KEY_1, HTML, mListenerMock);
+        // Assert
+        verify(mHtmlRendererMock, never()).render(anyString());
+        mRenderingExecutorTd.runAll();
+        verify(mHtmlRendererMock).render(HTML);
+        verify(mListenerMock, never()).onHtmlRendered(KEY_1, RENDERED);
+        mCallbackExecutorTd.runAll();
+        verify(mListenerMock).onHtmlRendered(KEY_1, RENDERED);
+    }
+
+    @Test
+    public void renderAndNotify_cachedWithSameHtml_notifiedImmediatelyWithoutRendering() throws Exception {
+        // Arrange
+        rendering();
+        renderAndRunAll(KEY_1, HTML);
+        // Act
+        SUT.renderAndNotify(KEY_1, HTML, mListenerMock);
+        // Assert
+        verify(mHtmlRendererMock, times(1)).render(HTML);
+        verify(mListenerMock, times(2)).onHtmlRendered(KEY_1, RENDERED);
+        assertThat(mRenderingExecutorTd.mExecutedCount, is(1));
+        assertThat(SUT.getHitCount(), is(1L));
+        assertThat(SUT.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void renderAndNotify_cachedWithDifferentHtml_renderedAgain() throws Exception {
+        // Arrange
+        rendering();
+        renderAndRunAll(KEY_1, HTML);
+        // Act
+        renderAndRunAll(KEY_1, CHANGED_HTML);
+        // Assert
+        verify(mHtmlRendererMock).render(CHANGED_HTML);
+        verify(mListenerMock).onHtmlRendered(KEY_1, CHANGED_RENDERED);
+        assertThat(SUT.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void renderAndNotify_cachedWithDifferentHtmlOfSameHash_renderedAgain() throws Exception {
+        // Arrange
+        when(mHtmlRendererMock.render(COLLIDING_HTML_1)).thenReturn(RENDERED);
+        when(mHtmlRendererMock.render(COLLIDING_HTML_2)).thenReturn(CHANGED_RENDERED);
+        renderAndRunAll(KEY_1, COLLIDING_HTML_1);
+        // Act
+        renderAndRunAll(KEY_1, COLLIDING_HTML_2);
+        // Assert
+        verify(mListenerMock).onHtmlRendered(KEY_1, CHANGED_RENDERED);
+        assertThat(SUT.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void renderAndNotify_sameHtmlBeingRendered_renderedOnceAndAllListenersNotified() throws Exception {
+        // Arrange
+        rendering();
+        SUT.renderAndNotify(KEY_1, HTML, mListenerMock);
+        // Act
+        SUT.renderAndNotify(KEY_1, HTML, mListenerMock2);
+        mRenderingExecutorTd.runAll();
+        mCallbackExecutorTd.runAll();
+        // Assert
+        verify(mHtmlRendererMock, times(1)).render(HTML);
+        verify(mListenerMock).onHtmlRendered(KEY_1, RENDERED);
+        verify(mListenerMock2).onHtmlRendered(KEY_1, RENDERED);
+    }
+
+    @Test
+    public void renderAndNotify_differentHtmlBeingRendered_bothRenderedAndLatestCached() throws Exception {
+        // Arrange
+        rendering();
+        SUT.renderAndNotify(KEY_1, HTML, mListenerMock);
+        SUT.renderAndNotify(KEY_1, CHANGED_HTML, mListenerMock2);
+        mRenderingExecutorTd.runAll();
+        mCallbackExecutorTd.runAll();
+        // Act
+        SUT.renderAndNotify(KEY_1, CHANGED_HTML, mListenerMock2);
+        // Assert
+        verify(mListenerMock).onHtmlRendered(KEY_1, RENDERED);
+        verify(mListenerMock2, times(2)).onHtmlRendered(KEY_1, CHANGED_RENDERED);
+        assertThat(SUT.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void renderAndNotify_maxEntriesExceeded_leastRecentlyUsedEvicted() throws Exception {
+        // Arrange
+        rendering();
+        renderAndRunAll(KEY_1, HTML);
+        renderAndRunAll(KEY_2, HTML);
+        renderAndRunAll(KEY_1, HTML);
+        renderAndRunAll(KEY_3, HTML);
+        // Act
+        renderAndRunAll(KEY_1, HTML);
+        renderAndRunAll(KEY_2, HTML);
+        // Assert
+        verify(mListenerMock, times(3)).onHtmlRendered(KEY_1, RENDERED);
+        assertThat(SUT.getHitCount(), is(2L));
+        assertThat(SUT.getMissCount(), is(4L));
+    }
+
+    // region helper methods -----------------------------------------------------------------------
+
+    private void rendering() {
+        when(mHtmlRendererMock.render(HTML)).thenReturn(RENDERED);
+        when(mHtmlRendererMock.render(CHANGED_HTML)).thenReturn(CHANGED_RENDERED);
+    }
+
+    private void renderAndRunAll(String key, String html) {
+        SUT.renderAndNotify(key, html, mListenerMock);
+        mRenderingExecutorTd.runAll();
+        mCallbackExecutorTd.runAll();
+    }
+
+    // endregion helper methods --------------------------------------------------------------------
+
+    // region helper classes -----------------------------------------------------------------------
+
+    private static class ExecutorTd implements Executor {
+
+        private final Queue<Runnable> mPending = new LinkedList<>();
+        private int mExecutedCount;
+
+        @Override
+        public void execute(Runnable command) {
+            mExecutedCount++;
+            mPending.add(command);
+        }
+
+        public void runAll() {
+            Runnable runnable;
+            while ((runnable = mPending.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
+
+    // endregion helper classes --------------------------------------------------------------------
+
+}
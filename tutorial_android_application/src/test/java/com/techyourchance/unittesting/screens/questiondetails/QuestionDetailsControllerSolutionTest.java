@@ -1,5 +1,6 @@
 package com.techyourchance.unittesting.screens.questiondetails;
 
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
 import com.techyourchance.unittesting.questions.FetchQuestionDetailsUseCase;
 import com.techyourchance.unittesting.questions.QuestionDetails;
 import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
@@ -65,6 +66,16 @@ public class QuestionDetailsControllerSolutionTest {
         mUseCaseTd.verifyListenerNotRegistered(SUT);
     }
 
+    @Test
+    public void onStop_fetchCancelled() throws Exception {
+        // Arrange
+        SUT.onStart();
+        // Act
+        SUT.onStop();
+        // Assert
+        assertThat(mUseCaseTd.mCancellationToken.isCancelled(), is(true));
+    }
+
     @Test
     public void onStart_success_questionDetailsBoundToView() throws Exception {
         // Arrange
@@ -140,13 +151,15 @@ public class QuestionDetailsControllerSolutionTest {
     private static class UseCaseTd extends FetchQuestionDetailsUseCase {
 
         private boolean mFailure;
+        private CancellationToken mCancellationToken;
 
         public UseCaseTd() {
             super(null, null);
         }
 
         @Override
-        public void fetchQuestionDetailsAndNotify(String questionId) {
+        public void fetchQuestionDetailsAndNotify(String questionId, CancellationToken cancellationToken) {
+            mCancellationToken = cancellationToken;
             if (!questionId.equals(QUESTION_ID)) {
                 throw new RuntimeException("invalid question ID: " + questionId);
             }
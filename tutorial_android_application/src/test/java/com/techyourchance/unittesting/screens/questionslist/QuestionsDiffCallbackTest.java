@@ -0,0 +1,103 @@
+package com.techyourchance.unittesting.screens.questionslist;
+
+import com.techyourchance.unittesting.questions.Question;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QuestionsDiffCallbackTest {
+
+    // region constants ----------------------------------------------------------------------------
+    private static final Question QUESTION_1 = new Question("id1", "title1");
+    private static final Question QUESTION_1_EDITED = new Question("id1", "title1 edited");
+    private static final Question QUESTION_2 = new Question("id2", "title2");
+    private static final List<Question> OLD_QUESTIONS = Arrays.asList(QUESTION_1, QUESTION_2, null);
+    private static final List<Question> NEW_QUESTIONS = Arrays.asList(QUESTION_1_EDITED, null, QUESTION_2, null);
+    // endregion constants -------------------------------------------------------------------------
+
+    QuestionsDiffCallback SUT;
+
+    @Before
+    public void setup() throws Exception {
+        SUT = new QuestionsDiffCallback(OLD_QUESTIONS, NEW_QUESTIONS);
+    }
+
+    @Test
+    public void listSizes_sizesOfBothListsReturned() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(SUT.getOldListSize(), is(3));
+        assertThat(SUT.getNewListSize(), is(4));
+    }
+
+    @Test
+    public void areItemsTheSame_sameIdDifferentTitle_trueReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areItemsTheSame(0, 0);
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void areItemsTheSame_differentIds_falseReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areItemsTheSame(0, 2);
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void areItemsTheSame_questionAndPlaceholder_falseReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areItemsTheSame(1, 1);
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void areItemsTheSame_twoPlaceholders_trueReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areItemsTheSame(2, 3);
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void areContentsTheSame_sameIdDifferentTitle_falseReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areContentsTheSame(0, 0);
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void areContentsTheSame_equalQuestions_trueReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areContentsTheSame(1, 2);
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void areContentsTheSame_twoPlaceholders_trueReturned() throws Exception {
+        // Arrange
+        // Act
+        boolean result = SUT.areContentsTheSame(2, 3);
+        // Assert
+        assertThat(result, is(true));
+    }
+
+}
@@ -1,8 +1,15 @@
 package com.techyourchance.unittesting.screens.questionslist;
 
+import com.techyourchance.unittesting.common.startup.StartupTracer;
+import com.techyourchance.unittesting.common.time.FreshnessPolicy;
 import com.techyourchance.unittesting.common.time.TimeProvider;
+import com.techyourchance.unittesting.common.usecases.CancellationToken;
+import com.techyourchance.unittesting.networking.questions.FetchLastActiveQuestionsEndpoint;
+import com.techyourchance.unittesting.networking.questions.QuestionSchema;
 import com.techyourchance.unittesting.questions.FetchLastActiveQuestionsUseCase;
 import com.techyourchance.unittesting.questions.Question;
+import com.techyourchance.unittesting.questions.QuestionDetailsPrefetcher;
+import com.techyourchance.unittesting.questions.QuestionsPager;
 import com.techyourchance.unittesting.screens.common.screensnavigator.ScreensNavigator;
 import com.techyourchance.unittesting.screens.common.toastshelper.ToastsHelper;
 import com.techyourchance.unittesting.testdata.QuestionsTestData;
@@ -10,15 +17,24 @@ import com.techyourchance.unittesting.testdata.QuestionsTestData;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,21 +46,30 @@ public class QuestionsListControllerTest {
     // region constants ----------------------------------------------------------------------------
     private static final List<Question> QUESTIONS = QuestionsTestData.getQuestions();
     private static final Question QUESTION = QuestionsTestData.getQuestion();
+    private static final long FRESH_PERIOD = 10000;
+    private static final long STALE_PERIOD = 10000;
+    private static final long FETCHED_TIMESTAMP = 5000;
+    private static final QuestionSchema NEXT_PAGE_QUESTION = new QuestionSchema("title3", "id3", "body3");
     // endregion constants -------------------------------------------------------------------------
 
     // region helper fields ------------------------------------------------------------------------
     private UseCaseTd mUseCaseTd;
+    private StartupTracer mStartupTracer;
     @Mock ScreensNavigator mScreensNavigator;
     @Mock ToastsHelper mToastsHelper;
     @Mock QuestionsListViewMvc mQuestionsListViewMvc;
     @Mock TimeProvider mTimeProviderMock;
+    @Mock QuestionDetailsPrefetcher mQuestionDetailsPrefetcherMock;
+    @Mock FetchLastActiveQuestionsEndpoint mFetchLastActiveQuestionsEndpointMock;
+
+    @Captor ArgumentCaptor<FetchLastActiveQuestionsEndpoint.PageListener> mPageListenerCaptor;
     // endregion helper fields ---------------------------------------------------------------------
 
     QuestionsListController SUT;
 
     @Before
     public void setup() throws Exception {
-        mUseCaseTd = new UseCaseTd();
+        mUseCaseTd = new UseCaseTd(mTimeProviderMock);
         SUT = new QuestionsListController(mUseCaseTd, mScreensNavigator, mToastsHelper, mTimeProviderMock);
         SUT.bindView(mQuestionsListViewMvc);
     }
@@ -141,6 +166,16 @@ public class QuestionsListControllerTest {
         mUseCaseTd.verifyListenerNotRegistered(SUT);
     }
 
+    @Test
+    public void onStop_fetchCancelled() throws Exception {
+        // Arrange
+        SUT.onStart();
+        // Act
+        SUT.onStop();
+        // Assert
+        assertThat(mUseCaseTd.mCancellationToken.isCancelled(), is(true));
+    }
+
     @Test
     public void onQuestionClicked_navigatedToQuestionDetailsScreen() throws Exception {
         // Arrange
@@ -178,6 +213,212 @@ public class QuestionsListControllerTest {
         assertThat(mUseCaseTd.getCallCount(), is(1));
     }
 
+    @Test
+    public void onStart_secondTimeAfterStoredQuestionsOlderThanCachingTimeoutDelivered_questionsFetchedAgain() throws Exception {
+        // Arrange
+        questionsFetchedAt(0l);
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(10000l);
+        SUT.onStart();
+        SUT.onStop();
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionsListViewMvc, times(2)).showProgressIndication();
+        assertThat(mUseCaseTd.getCallCount(), is(2));
+    }
+
+    @Test
+    public void onStart_staleWhileRevalidateSecondTimeAfterCachingTimeoutDataNotChanged_questionsBoundOnceFromCache() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.onStart();
+        SUT.onStop();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(FRESH_PERIOD);
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionsListViewMvc, times(2)).bindQuestions(QUESTIONS);
+        verify(mQuestionsListViewMvc, times(1)).showProgressIndication();
+        assertThat(mUseCaseTd.getCallCount(), is(2));
+    }
+
+    @Test
+    public void onStart_staleWhileRevalidateSecondTimeAfterCachingTimeoutDataChanged_questionsBoundFromCacheAndThenFromUseCase() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        emptyQuestionsListOnFirstCall();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.onStart();
+        SUT.onStop();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(FRESH_PERIOD);
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionsListViewMvc, times(2)).bindQuestions(new LinkedList<Question>());
+        verify(mQuestionsListViewMvc).bindQuestions(QUESTIONS);
+        verify(mQuestionsListViewMvc, times(1)).showProgressIndication();
+    }
+
+    @Test
+    public void onStart_staleWhileRevalidateSecondTimeAfterCachingTimeoutFailure_errorToastNotShown() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.onStart();
+        SUT.onStop();
+        failure();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(FRESH_PERIOD);
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mToastsHelper, never()).showUseCaseError();
+    }
+
+    @Test
+    public void onStart_staleWhileRevalidateSecondTimeAfterStalePeriod_progressIndicationShown() throws Exception {
+        // Arrange
+        staleWhileRevalidate();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(0l);
+        SUT.onStart();
+        SUT.onStop();
+        when(mTimeProviderMock.getCurrentTimestamp()).thenReturn(FRESH_PERIOD + STALE_PERIOD);
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionsListViewMvc, times(2)).showProgressIndication();
+        verify(mQuestionsListViewMvc, times(2)).bindQuestions(QUESTIONS);
+    }
+
+
+    @Test
+    public void onStart_prefetchingSuccessfulResponse_topQuestionsPrefetched() throws Exception {
+        // Arrange
+        prefetching();
+        success();
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionDetailsPrefetcherMock).prefetch(QUESTIONS);
+    }
+
+    @Test
+    public void onStart_prefetchingFailure_nothingPrefetched() throws Exception {
+        // Arrange
+        prefetching();
+        failure();
+        // Act
+        SUT.onStart();
+        // Assert
+        verify(mQuestionDetailsPrefetcherMock, never()).prefetch(any(List.class));
+    }
+
+    @Test
+    public void onVisibleQuestionsChanged_prefetching_visibleQuestionsPrefetched() throws Exception {
+        // Arrange
+        prefetching();
+        List<Question> visibleQuestions = QUESTIONS.subList(1, 2);
+        // Act
+        SUT.onVisibleQuestionsChanged(visibleQuestions);
+        // Assert
+        verify(mQuestionDetailsPrefetcherMock).prefetch(visibleQuestions);
+    }
+
+    @Test
+    public void onStop_prefetching_prefetchCancelled() throws Exception {
+        // Arrange
+        prefetching();
+        SUT.onStart();
+        // Act
+        SUT.onStop();
+        // Assert
+        verify(mQuestionDetailsPrefetcherMock).cancel();
+    }
+
+    @Test
+    public void onEndOfQuestionsApproaching_paging_nextPageRequestedAnchoredAtFetchTimeOfFirstPage() throws Exception {
+        // Arrange
+        paging();
+        questionsFetchedAt(FETCHED_TIMESTAMP);
+        SUT.onStart();
+        // Act
+        SUT.onEndOfQuestionsApproaching();
+        // Assert
+        verify(mFetchLastActiveQuestionsEndpointMock).fetchLastActiveQuestionsPage(
+                eq(2), eq(QUESTIONS.size()), eq(FETCHED_TIMESTAMP / 1000), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void onEndOfQuestionsApproaching_pagingNextPageFetched_allQuestionsBound() throws Exception {
+        // Arrange
+        paging();
+        SUT.onStart();
+        SUT.onEndOfQuestionsApproaching();
+        // Act
+        nextPageFetched();
+        // Assert
+        List<Question> allQuestions = new ArrayList<>(QUESTIONS);
+        allQuestions.add(new Question(NEXT_PAGE_QUESTION.getId(), NEXT_PAGE_QUESTION.getTitle()));
+        verify(mQuestionsListViewMvc).bindQuestions(allQuestions);
+    }
+
+    @Test
+    public void onEndOfQuestionsApproaching_pagingNextPageFailure_errorToastShown() throws Exception {
+        // Arrange
+        paging();
+        SUT.onStart();
+        SUT.onEndOfQuestionsApproaching();
+        // Act
+        nextPageFetchFailed();
+        // Assert
+        verify(mToastsHelper).showUseCaseError();
+    }
+
+    @Test
+    public void onEndOfQuestionsApproaching_pagingAfterStop_viewNotBound() throws Exception {
+        // Arrange
+        paging();
+        SUT.onStart();
+        SUT.onEndOfQuestionsApproaching();
+        SUT.onStop();
+        // Act
+        nextPageFetched();
+        // Assert
+        verify(mQuestionsListViewMvc, times(1)).bindQuestions(any(List.class));
+    }
+
+    @Test
+    public void onQuestionPlaceholderShown_pagingPageInMemory_nothingRequested() throws Exception {
+        // Arrange
+        paging();
+        SUT.onStart();
+        // Act
+        SUT.onQuestionPlaceholderShown(0);
+        // Assert
+        verify(mFetchLastActiveQuestionsEndpointMock, never()).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), any(FetchLastActiveQuestionsEndpoint.PageListener.class));
+    }
+
+    @Test
+    public void onStart_tracingSuccessfulResponse_firstBindPhaseTraced() throws Exception {
+        // Arrange
+        tracing();
+        // Act
+        SUT.onStart();
+        // Assert
+        assertThat(mStartupTracer.getPhaseTiming(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND), is(notNullValue()));
+    }
+
+    @Test
+    public void onStart_tracingFailure_firstBindPhaseNotTraced() throws Exception {
+        // Arrange
+        tracing();
+        failure();
+        // Act
+        SUT.onStart();
+        // Assert
+        assertThat(mStartupTracer.getPhaseTiming(StartupTracer.Phase.FIRST_QUESTIONS_LIST_BIND), is(nullValue()));
+    }
 
     // region helper methods -----------------------------------------------------------------------
 
@@ -189,10 +430,53 @@ public class QuestionsListControllerTest {
         mUseCaseTd.mFailure = true;
     }
 
+    private void questionsFetchedAt(long fetchedTimestamp) {
+        mUseCaseTd.mFetchedTimestamp = fetchedTimestamp;
+    }
+
     private void emptyQuestionsListOnFirstCall() {
         mUseCaseTd.mEmptyListOnFirstCall = true;
     }
 
+    private void staleWhileRevalidate() {
+        SUT = new QuestionsListController(mUseCaseTd, mScreensNavigator, mToastsHelper,
+                new FreshnessPolicy(mTimeProviderMock, FRESH_PERIOD, STALE_PERIOD), null, null, null);
+        SUT.bindView(mQuestionsListViewMvc);
+    }
+
+    private void prefetching() {
+        SUT = new QuestionsListController(mUseCaseTd, mScreensNavigator, mToastsHelper,
+                new FreshnessPolicy(mTimeProviderMock, FRESH_PERIOD, 0), mQuestionDetailsPrefetcherMock, null, null);
+        SUT.bindView(mQuestionsListViewMvc);
+    }
+
+    private void paging() {
+        QuestionsPager questionsPager = new QuestionsPager(
+                mFetchLastActiveQuestionsEndpointMock, mTimeProviderMock, QUESTIONS.size(), 2);
+        SUT = new QuestionsListController(mUseCaseTd, mScreensNavigator, mToastsHelper,
+                new FreshnessPolicy(mTimeProviderMock, FRESH_PERIOD, 0), null, questionsPager, null);
+        SUT.bindView(mQuestionsListViewMvc);
+    }
+
+    private void tracing() {
+        mStartupTracer = new StartupTracer(mTimeProviderMock);
+        SUT = new QuestionsListController(mUseCaseTd, mScreensNavigator, mToastsHelper,
+                new FreshnessPolicy(mTimeProviderMock, FRESH_PERIOD, 0), null, null, mStartupTracer);
+        SUT.bindView(mQuestionsListViewMvc);
+    }
+
+    private void nextPageFetched() {
+        verify(mFetchLastActiveQuestionsEndpointMock).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), mPageListenerCaptor.capture());
+        mPageListenerCaptor.getValue().onQuestionsPageFetched(Arrays.asList(NEXT_PAGE_QUESTION), false);
+    }
+
+    private void nextPageFetchFailed() {
+        verify(mFetchLastActiveQuestionsEndpointMock).fetchLastActiveQuestionsPage(
+                anyInt(), anyInt(), anyLong(), mPageListenerCaptor.capture());
+        mPageListenerCaptor.getValue().onQuestionsPageFetchFailed();
+    }
+
     // endregion helper methods --------------------------------------------------------------------
 
     // region helper classes -----------------------------------------------------------------------
@@ -201,22 +485,30 @@ public class QuestionsListControllerTest {
         public boolean mEmptyListOnFirstCall;
         private boolean mFailure;
         private int mCallCount;
+        private CancellationToken mCancellationToken;
+        private final TimeProvider mTimeProvider;
+        // if null, questions are delivered as fetched at the current time
+        private Long mFetchedTimestamp;
 
-        public UseCaseTd() {
+        public UseCaseTd(TimeProvider timeProvider) {
             super(null);
+            mTimeProvider = timeProvider;
         }
 
         @Override
-        public void fetchLastActiveQuestionsAndNotify() {
+        public void fetchLastActiveQuestionsAndNotify(CancellationToken cancellationToken) {
             mCallCount++;
+            mCancellationToken = cancellationToken;
+            long fetchedTimestamp = mFetchedTimestamp != null
+                    ? mFetchedTimestamp : mTimeProvider.getCurrentTimestamp();
             for (FetchLastActiveQuestionsUseCase.Listener listener : getListeners()) {
                 if (mFailure) {
                     listener.onLastActiveQuestionsFetchFailed();
                 } else {
                     if (mEmptyListOnFirstCall && mCallCount == 1) {
-                        listener.onLastActiveQuestionsFetched(new LinkedList<Question>());
+                        listener.onLastActiveQuestionsFetched(new LinkedList<Question>(), fetchedTimestamp);
                     } else {
-                        listener.onLastActiveQuestionsFetched(QUESTIONS);
+                        listener.onLastActiveQuestionsFetched(QUESTIONS, fetchedTimestamp);
                     }
                 }
             }
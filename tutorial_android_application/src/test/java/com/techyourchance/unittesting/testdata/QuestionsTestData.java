@@ -17,4 +17,10 @@ public class QuestionsTestData {
         questions.add(new Question("id2", "title2"));
         return questions;
     }
+
+    public static List<Question> getStoredQuestions() {
+        List<Question> questions = new LinkedList<>();
+        questions.add(new Question("id3", "title3"));
+        return questions;
+    }
 }